@@ -1,122 +1,280 @@
-package rrosa10Client;
-
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
-import java.net.Socket;
-import java.util.function.Consumer;
-
-import javafx.application.Platform;
-
-/**
- * Client - simple socket client thread for the 3 Card Poker client.
- *
- * Responsibilities:
- * - Connect to a server using a hostname and port.
- * - Maintain ObjectOutputStream/ObjectInputStream for object-based communication.
- * - Read incoming Serializable objects on a background thread and forward them
- *   to a UI-safe callback (wrapped with Platform.runLater).
- * - Provide a send() method to write objects to the server.
- *
- */
-public class Client extends Thread {
-
-    private Socket socketClient;
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
-
-    private final String host;
-    private final int port;
-    private final Consumer<Serializable> callback;
-
-    // track closed state to make close()
-    private volatile boolean closed = false;
-
-    public Client(String host, int port, Consumer<Serializable> callback) {
-        this.host = host;
-        this.port = port;
-        this.callback = callback;
-    }
-
-    @Override
-    public void run() {
-        try {
-            socketClient = new Socket(host, port);
-            out = new ObjectOutputStream(socketClient.getOutputStream());
-            out.flush();
-            in = new ObjectInputStream(socketClient.getInputStream());
-            socketClient.setTcpNoDelay(true);
-
-            while (!socketClient.isClosed() && !closed) {
-                try {
-                    Object obj = in.readObject();
-                    System.out.println("Client received from socket: " + obj);
-
-                    if (callback != null && obj instanceof Serializable) {
-                        Serializable msg = (Serializable) obj;
-                        Platform.runLater(() -> callback.accept(msg));
-                    }
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
-                } catch (IOException e) {
-                    // socket closed or stream error -> break loop and cleanup
-                    e.printStackTrace();
-                    break;
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            if (callback != null) {
-                Platform.runLater(() ->
-                    callback.accept("CONNECT_FAILED: " + e.getMessage())
-                );
-            }
-        } finally {
-            // Ensure resources are closed on exit
-            close();
-        }
-    }
-
-    /**
-     * Send an object to the server.
-     */
-    public void send(Object obj) {
-        try {
-            if (out == null) {
-                System.err.println("Send failed: output stream not initialized");
-                return;
-            }
-            synchronized (out) {
-                out.writeObject(obj);
-                out.flush();
-            }
-        } catch (IOException e) {
-            System.err.println("Send failed: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Close streams and socket. Safe to call multiple times.
-     * This will unblock readObject() and allow the thread to exit.
-     */
-    public void close() {
-        synchronized (this) {
-            if (closed) {
-                System.out.println("[CLIENT] close() called but already closed");
-                return;
-            }
-            closed = true;
-        }
-        System.out.println("[CLIENT] close() beginning - closing streams and socket");
-        try { if (in != null) { in.close(); } } catch (IOException ignored) {}
-        in = null;
-        try { if (out != null) { out.close(); } } catch (IOException ignored) {}
-        out = null;
-        try { if (socketClient != null && !socketClient.isClosed()) socketClient.close(); } catch (IOException ignored) {}
-        socketClient = null;
-        this.interrupt();
-        System.out.println("[CLIENT] close() finished");
-    }
+package rrosa10Client;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.Socket;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import log.Log;
+import log.Logger;
+import model.Message;
+
+/**
+ * Client - simple socket client thread for the 3 Card Poker client.
+ *
+ * Responsibilities:
+ * - Connect to a server using a hostname and port.
+ * - Maintain ObjectOutputStream/ObjectInputStream for object-based communication.
+ * - Read incoming Serializable objects on a background thread and forward them
+ *   to a UI-safe callback (wrapped with Platform.runLater).
+ * - Provide a send() method to write objects to the server.
+ * - Remember the session token from WELCOME and, if the connection drops, reconnect
+ *   and present it (RESUME) so the server re-attaches the same session and hand.
+ * - Send a PING heartbeat periodically so the server's idle timeout never closes a live
+ *   client, and treat a server that stays silent for too long as a dropped connection.
+ * - Wait at least the server's retry hint after a BUSY refusal before reconnecting, and give
+ *   up after MAX_RECONNECT_ATTEMPTS refusals in a row.
+ *
+ */
+public class Client extends Thread {
+
+    private static final Logger LOG = Log.get("net");
+
+    private Socket socketClient;
+    private ObjectOutputStream out;
+    private ObjectInputStream in;
+
+    private final String host;
+    private final int port;
+    private final Consumer<Serializable> callback;
+
+    // track closed state to make close()
+    private volatile boolean closed = false;
+
+    // session token issued by the server in WELCOME/RESUMED; used to resume after a drop
+    private volatile String sessionToken;
+    // WELCOMEs still expected before the RESUMED reply on a reconnected socket
+    private int welcomesToSkip = 0;
+
+    private static final int MAX_RECONNECT_ATTEMPTS = 5;
+    private static final long RECONNECT_BACKOFF_MS = 500;
+    // retry hint from the last BUSY, and BUSY refusals since the last WELCOME/RESUMED
+    private volatile int busyRetryMillis;
+    private int busyRefusals;
+
+    private static final long HEARTBEAT_INTERVAL_MS = 15_000;
+    private static final long SERVER_SILENCE_LIMIT_MS = 45_000;
+    private volatile long lastReceivedMillis = System.currentTimeMillis();
+    private Thread heartbeat;
+
+    // Messages between stream resets; a reset lets the server drop the messages it has read
+    private static final int STREAM_RESET_INTERVAL = 1024;
+    // messages written since the last reset (guarded by 'out')
+    private int sentSinceReset;
+
+    public Client(String host, int port, Consumer<Serializable> callback) {
+        this.host = host;
+        this.port = port;
+        this.callback = callback;
+    }
+
+    @Override
+    public void run() {
+        try {
+            connect();
+            startHeartbeat();
+            readLoop();
+            // connection dropped underneath us: resume the same session, or, if BUSY turned
+            // us away before we had one, try again for a first session
+            while (!closed && (sessionToken != null || busyRefusals > 0)
+                    && busyRefusals <= MAX_RECONNECT_ATTEMPTS && reconnect()) {
+                readLoop();
+            }
+        } catch (IOException e) {
+            LOG.error("could not connect", "host", host, "port", port, e);
+            if (callback != null) {
+                Platform.runLater(() ->
+                    callback.accept("CONNECT_FAILED: " + e.getMessage())
+                );
+            }
+        } finally {
+            // Ensure resources are closed on exit
+            close();
+        }
+    }
+
+    /** Open the socket and object streams. */
+    private void connect() throws IOException {
+        socketClient = new Socket(host, port);
+        out = new ObjectOutputStream(socketClient.getOutputStream());
+        out.flush();
+        in = new ObjectInputStream(socketClient.getInputStream());
+        socketClient.setTcpNoDelay(true);
+    }
+
+    /** Read and dispatch messages until the socket fails or close() is called. */
+    private void readLoop() {
+        while (!socketClient.isClosed() && !closed) {
+            try {
+                Object obj = in.readObject();
+                lastReceivedMillis = System.currentTimeMillis();
+                if (LOG.isDebugEnabled()) LOG.debug("received", "message", obj);
+
+                if (obj instanceof Message && !handleConnectionMessage((Message) obj)) {
+                    continue;
+                }
+                if (callback != null && obj instanceof Serializable) {
+                    Serializable msg = (Serializable) obj;
+                    Platform.runLater(() -> callback.accept(msg));
+                }
+            } catch (ClassNotFoundException e) {
+                LOG.warn("unknown message class from server", "error", e.getMessage());
+            } catch (IOException e) {
+                // socket closed or stream error -> break loop and cleanup
+                LOG.info("connection lost", "error", e.getMessage());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Start the heartbeat thread: PING the server every HEARTBEAT_INTERVAL_MS, and if nothing
+     * (not even a PONG) has arrived for SERVER_SILENCE_LIMIT_MS, close the socket so the read
+     * loop fails over to reconnect-and-resume.
+     */
+    private void startHeartbeat() {
+        heartbeat = new Thread(() -> {
+            while (!closed) {
+                try {
+                    Thread.sleep(HEARTBEAT_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (System.currentTimeMillis() - lastReceivedMillis > SERVER_SILENCE_LIMIT_MS) {
+                    LOG.warn("server silent for too long, dropping connection");
+                    lastReceivedMillis = System.currentTimeMillis();
+                    closeSocket();
+                } else {
+                    send(new Message.Ping());
+                }
+            }
+        }, "client-heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+    }
+
+    /**
+     * Handle connection-level messages: answer/absorb heartbeats, record the session
+     * token carried by WELCOME/RESUMED, and note a BUSY refusal's retry hint.
+     *
+     * return false if the message should not reach the UI (heartbeats, and the fresh WELCOME
+     * the server sends on a reconnected socket before it answers our RESUME)
+     */
+    private boolean handleConnectionMessage(Message info) {
+        if (info instanceof Message.Pong) {
+            return false;
+        }
+        if (info instanceof Message.Ping) {
+            send(new Message.Pong());
+            return false;
+        }
+        if (info instanceof Message.Welcome && welcomesToSkip > 0) {
+            welcomesToSkip--;
+            return false;
+        }
+        if (info instanceof Message.Welcome welcome) {
+            welcomesToSkip = 0;
+            busyRefusals = 0;
+            sessionToken = welcome.token();
+        } else if (info instanceof Message.Resumed resumed) {
+            welcomesToSkip = 0;
+            busyRefusals = 0;
+            sessionToken = resumed.token();
+        } else if (info instanceof Message.Busy busy) {
+            // the server closes the socket next; reconnect() waits out the hint
+            busyRetryMillis = busy.retryAfterMillis();
+            busyRefusals++;
+            LOG.info("server busy", "reason", busy.reason(), "retryMillis", busy.retryAfterMillis());
+        }
+        return true;
+    }
+
+    /**
+     * Reconnect with a growing backoff and ask the server to resume our session.
+     * The RESUME goes out right after connecting, so the re-attach costs one round trip.
+     * Without a session (BUSY refused the first connection) nothing is sent: the server's
+     * WELCOME on the new socket starts a fresh session and goes to the UI like the first one.
+     *
+     * return true once reconnected, false if every attempt failed or close() was called
+     */
+    private boolean reconnect() {
+        for (int attempt = 1; attempt <= MAX_RECONNECT_ATTEMPTS && !closed; attempt++) {
+            closeSocket();
+            try {
+                Thread.sleep(Math.max(RECONNECT_BACKOFF_MS * attempt, busyRetryMillis));
+                busyRetryMillis = 0;
+                connect();
+                if (sessionToken == null) {
+                    LOG.info("reconnected after busy", "attempt", attempt);
+                    return true;
+                }
+                welcomesToSkip = 1;
+                send(new Message.Resume(sessionToken));
+                LOG.info("reconnected, resuming session", "attempt", attempt);
+                return true;
+            } catch (InterruptedException e) {
+                return false;
+            } catch (IOException e) {
+                LOG.warn("reconnect failed", "attempt", attempt, "error", e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /** Close the current socket and streams without marking the client closed. */
+    private void closeSocket() {
+        try { if (in != null) { in.close(); } } catch (IOException ignored) {}
+        try { if (out != null) { out.close(); } } catch (IOException ignored) {}
+        try { if (socketClient != null && !socketClient.isClosed()) socketClient.close(); } catch (IOException ignored) {}
+    }
+
+    /**
+     * Send an object to the server. It is written unshared, so the stream keeps no
+     * reference to it, and the stream is reset every STREAM_RESET_INTERVAL messages.
+     */
+    public void send(Object obj) {
+        try {
+            if (out == null) {
+                LOG.warn("send failed, output stream not initialized", "message", obj);
+                return;
+            }
+            synchronized (out) {
+                out.writeUnshared(obj);
+                if (++sentSinceReset == STREAM_RESET_INTERVAL) {
+                    out.reset();
+                    sentSinceReset = 0;
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            LOG.warn("send failed", "message", obj, e);
+        }
+    }
+
+    /**
+     * Close streams and socket. Safe to call multiple times.
+     * This will unblock readObject() and allow the thread to exit.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                LOG.debug("close called but already closed");
+                return;
+            }
+            closed = true;
+        }
+        LOG.debug("closing streams and socket");
+        try { if (in != null) { in.close(); } } catch (IOException ignored) {}
+        in = null;
+        try { if (out != null) { out.close(); } } catch (IOException ignored) {}
+        out = null;
+        try { if (socketClient != null && !socketClient.isClosed()) socketClient.close(); } catch (IOException ignored) {}
+        socketClient = null;
+        if (heartbeat != null) heartbeat.interrupt();
+        this.interrupt();
+        LOG.debug("closed");
+    }
 }
\ No newline at end of file
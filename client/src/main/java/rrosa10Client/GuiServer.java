@@ -12,7 +12,10 @@ import javafx.scene.Scene;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import javafx.util.Duration;
-import model.PokerInfo;
+import log.Level;
+import log.Log;
+import log.Logger;
+import model.Message;
 
 /**
  * GuiServer (client-side) application launcher for the 3 Card Poker client UI.
@@ -28,6 +31,8 @@ import model.PokerInfo;
  */
 public class GuiServer extends Application {
 
+    private static final Logger LOG = Log.get("ui");
+
     private Stage primaryStage;
 
     private Scene startScene;
@@ -55,6 +60,7 @@ public class GuiServer extends Application {
     @Override
     public void start(Stage stage) throws Exception {
         this.primaryStage = stage;
+        Log.configure(System.getProperties(), "logs/client.log", Level.WARN);
 
         // Load custom fonts (optional). Fonts must exist under resources/fonts/.
         Font.loadFont(getClass().getResourceAsStream("/fonts/OUTRUNFUTURE.otf"), 12);
@@ -107,12 +113,12 @@ public class GuiServer extends Application {
     }
 
     /**
-     * Switch to the client poker scene and give it the client instance and initial PokerInfo payload.
+     * Switch to the client poker scene and give it the client instance and initial message.
      *
      * param client        the Client instance responsible for network communication
-     * param firstInfo     the initial PokerInfo object (welcome or initial state) to populate the UI
+     * param firstInfo     the initial message (welcome or initial state) to populate the UI
      */
-    public void switchToClient(Client client, PokerInfo firstInfo) {
+    public void switchToClient(Client client, Message firstInfo) {
         // store the active client so shutdown() can close it
         this.client = client;
 
@@ -150,7 +156,7 @@ public class GuiServer extends Application {
             }
             primaryStage.setScene(resultScene);
             primaryStage.show();
-            System.out.println("Delayed action performed!");
+            LOG.debug("result screen shown");
         });
         pause.play();
     }
@@ -178,17 +184,17 @@ public class GuiServer extends Application {
     }
     
     public void shutdown() {
-        System.out.println("[GUI] shutdown() called");
+        LOG.debug("shutdown called");
         if (client != null) {
-            System.out.println("[GUI] closing client...");
+            LOG.debug("closing client");
             client.close();
             try { client.join(500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            System.out.println("[GUI] client join completed");
+            LOG.debug("client closed");
             client = null;
         } else {
-            System.out.println("[GUI] no client to close");
+            LOG.debug("no client to close");
         }
-        System.out.println("[GUI] calling Platform.exit()");
+        LOG.debug("exiting");
         Platform.exit();
     }
     
@@ -1,12 +1,16 @@
 package rrosa10Client;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.fxml.FXML;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.TextArea;
@@ -17,8 +21,13 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import log.Log;
+import log.Logger;
+import model.AutoPlay;
+import model.AutoPlayResult;
 import model.Card;
-import model.PokerInfo;
+import model.Message;
+import model.Spot;
 
 /**
  * Controller for the Poker game screen.
@@ -26,10 +35,12 @@ import model.PokerInfo;
  * Responsibilities:
  * - Manage the poker UI (card images, betting buttons, wallet display).
  * - Maintain a Client reference for sending user actions to the server.
- * - Receive PokerInfo objects from the server (via handlePokerInfo) and update the UI accordingly.
+ * - Receive messages from the server (via handleMessage) and update the UI accordingly.
  */
 public class PokerScreenController {
 
+    private static final Logger LOG = Log.get("ui");
+
     // Root container for the scene
     @FXML private BorderPane root;
     @FXML private VBox titleBox;
@@ -70,6 +81,10 @@ public class PokerScreenController {
     @FXML private MenuItem exitItem;
     @FXML private MenuItem freshStart;
     @FXML private MenuItem newLook;
+    @FXML private MenuItem autoPlay10;
+    @FXML private MenuItem autoPlay100;
+    @FXML private MenuItem multiSpot3;
+    @FXML private MenuItem multiSpot5;
 
 
     // Network client and reference to main application (for scene switching)
@@ -87,7 +102,7 @@ public class PokerScreenController {
 
     // UI state helpers
     private int highlightedValue = 0;
-    private PokerInfo pokerInfo;
+    private Message message;
     
     private final List<String> boardImages = List.of(
             "/images/Board.png",
@@ -167,6 +182,10 @@ public class PokerScreenController {
         	}
         	
         	});
+        autoPlay10.setOnAction(e -> requestAutoPlay(10));
+        autoPlay100.setOnAction(e -> requestAutoPlay(100));
+        multiSpot3.setOnAction(e -> requestMultiSpot(3));
+        multiSpot5.setOnAction(e -> requestMultiSpot(5));
         freshStart.setOnAction(e -> {
         	startNewGame();
         	disableButtonsForNewGame();
@@ -185,14 +204,14 @@ public class PokerScreenController {
 
     /**
      * Called by GuiServer after FXML is loaded and before the scene is shown.
-     * Stores the client instance used to send messages and an initial PokerInfo.
+     * Stores the client instance used to send messages and an initial message.
      *
      * param client    network client for sending user actions
-     * param firstInfo initial PokerInfo payload (may be WELCOME)
+     * param firstInfo initial message (may be WELCOME)
      */
-    public void setClient(Client client, PokerInfo firstInfo) {
+    public void setClient(Client client, Message firstInfo) {
         this.client = client;
-        this.pokerInfo = firstInfo;
+        this.message = firstInfo;
         // WELCOME typically has no hand; nothing else needed here yet
     }
 
@@ -202,61 +221,61 @@ public class PokerScreenController {
 
     @FXML
     private void onPairPlusClicked(MouseEvent event) {
-        System.out.println("Pair Plus clicked");
+        LOG.debug("clicked", "button", "pairplus");
         addToPairPlus(highlightedValue);
     }
 
     @FXML
     private void onStartClicked(MouseEvent event) {
-        System.out.println("Play clicked");
+        LOG.debug("clicked", "button", "play");
         startButton.setDisable(true);
         enableButtonsForStartGame();
     }
 
     @FXML
     private void onAnteClicked(MouseEvent event) {
-        System.out.println("Ante clicked");
+        LOG.debug("clicked", "button", "ante");
         addToAnte(highlightedValue);
         dealImage.setDisable(false);
     }
 
     @FXML
     private void on5Clicked(MouseEvent event) {
-        System.out.println("$1 clicked");
+        LOG.debug("clicked", "button", "chip1");
         highlightedValue = 5;
     }
 
     @FXML
     private void on10Clicked(MouseEvent event) {
-        System.out.println("$5 clicked");
+        LOG.debug("clicked", "button", "chip5");
         highlightedValue = 10;
     }
 
     @FXML
     private void on20Clicked(MouseEvent event) {
-        System.out.println("$10 clicked");
+        LOG.debug("clicked", "button", "chip10");
         highlightedValue = 20;
     }
 
     @FXML
     private void on25Clicked(MouseEvent event) {
-        System.out.println("$20 clicked");
+        LOG.debug("clicked", "button", "chip20");
         highlightedValue = 25;
     }
     
     @FXML
     private void onMenuClicked() {
-    	System.out.println("Menu clicked");
+    	LOG.debug("clicked", "button", "menu");
     }
     
     /**
      * User clicked Deal:
      * - Disable betting controls and enable play/fold.
-     * - Construct a START PokerInfo package with current ante/pairPlus values and send it to server.
+     * - Send a START message with the current ante/pairPlus values to the server.
      */
     @FXML
     private void onDealClicked(MouseEvent event) {
-        System.out.println("Deal clicked");
+        LOG.debug("clicked", "button", "deal");
         pairPlusImage.setDisable(true);
         anteImage.setDisable(true);
         dealImage.setDisable(true);
@@ -266,108 +285,198 @@ public class PokerScreenController {
         if (twentyDollarImage != null) twentyDollarImage.setDisable(true);
         playImageLeft.setDisable(false);
         foldImage.setDisable(false);
-        pokerInfo = new PokerInfo(PokerInfo.Type.START, null, null, anteAmount.getValue(), pairPlusAmount.getValue());
-        client.send(pokerInfo);
+        message = new Message.Start(anteAmount.getValue(), pairPlusAmount.getValue());
+        client.send(message);
+    }
+
+    /**
+     * Ask the server to play a run of hands with the current bets and the Queen-6-4 rule,
+     * in one round trip. The bets stay on the table; the wallet moves by the run's net
+     * when the AUTO_RESULT summary arrives.
+     *
+     * @param hands number of hands to play
+     */
+    private void requestAutoPlay(int hands) {
+        if (anteAmount.get() <= 0) {
+            logBox.appendText("Place an ante to auto-play.\n");
+            return;
+        }
+        if (client != null) {
+            client.send(new AutoPlay(AutoPlay.Rule.Q64, anteAmount.get(), pairPlusAmount.get(), hands, false));
+        }
+    }
+
+    /**
+     * Bet the current ante and Pair Plus on several spots at once. Every spot is dealt from one
+     * deck against one dealer hand; the deal, the decisions and the results each travel in one
+     * message. As with auto-play, the bets stay on the table and the wallet moves by the net.
+     *
+     * @param spots number of spots to play
+     */
+    private void requestMultiSpot(int spots) {
+        if (anteAmount.get() <= 0) {
+            logBox.appendText("Place an ante to play several spots.\n");
+            return;
+        }
+        Spot[] bets = new Spot[spots];
+        Arrays.fill(bets, new Spot(anteAmount.get(), pairPlusAmount.get()));
+        if (client != null) {
+            client.send(new Message.MultiStart(bets));
+        }
+    }
+
+    /**
+     * Show the dealt spots with a Play box each (all ticked to start) and send the
+     * decisions back in one MULTI_DECIDE.
+     *
+     * @param spots the dealt spots
+     */
+    private void decideSpots(Spot[] spots) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Multi-Hand");
+        dialog.setHeaderText("Play or fold each spot");
+        VBox rows = new VBox(6);
+        CheckBox[] boxes = new CheckBox[spots.length];
+        for (int i = 0; i < spots.length; i++) {
+            boxes[i] = new CheckBox("Spot " + (i + 1) + ": " + spots[i].getHand());
+            boxes[i].setSelected(true);
+            rows.getChildren().add(boxes[i]);
+        }
+        dialog.getDialogPane().setContent(rows);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.OK);
+        dialog.showAndWait();
+
+        boolean[] plays = new boolean[spots.length];
+        for (int i = 0; i < spots.length; i++) {
+            plays[i] = boxes[i].isSelected();
+        }
+        if (client != null) {
+            client.send(new Message.MultiDecide(plays));
+        }
     }
 
     /**
      * User clicked Side Play (left play):
      * - Disable further input for betting and deal.
-     * - Flip dealer cards for display and send PLAY request to server with current hands and bets.
+     * - Send PLAY to the server; the dealer's cards are shown when the GAME_RESULT brings them.
      */
     @FXML
     private void onLeftPlayClicked(MouseEvent event) {
-        System.out.println("Side Play clicked");
+        LOG.debug("clicked", "button", "sideplay");
         dealImage.setDisable(true);
         foldImage.setDisable(true);
         if (twentyFiveDollarImage != null) twentyFiveDollarImage.setDisable(true);
         if (fiveDollarImage != null) fiveDollarImage.setDisable(true);
         if (tenDollarImage != null) tenDollarImage.setDisable(true);
         if (twentyDollarImage != null) twentyDollarImage.setDisable(true);
-        flipDealerHand();
-        PokerInfo packageToSend = new PokerInfo(
-                PokerInfo.Type.PLAY, 
-                playerHand, dealerHand, 
-                anteAmount.get(), 
-                pairPlusAmount.get());
         if(client != null) {
-            client.send(packageToSend);
+            client.send(new Message.Play());
         }
     }
 
     /**
      * User clicked Fold:
-     * - Reset bets and send FOLD message to server with current state.
+     * - Reset bets and send FOLD to the server.
      */
     @FXML
     private void onFoldClicked(MouseEvent event) {
-        System.out.println("Fold clicked");
+        LOG.debug("clicked", "button", "fold");
         resetAnteAmount();
         resetPairPlusAmount();
-        PokerInfo packageToSend = new PokerInfo(
-                PokerInfo.Type.FOLD,
-                playerHand,
-                dealerHand,
-                anteAmount.get(),
-                pairPlusAmount.get());
         if (client != null) {
-            client.send(packageToSend);
+            client.send(new Message.Fold());
         }
     }
 
     // --- Display updates from server ---
 
     /**
-     * Handle incoming PokerInfo objects from the server and update UI state.
+     * Handle incoming messages from the server and update UI state.
      * - GAME_DEAL: update card images and reveal player hand.
      * - GAME_RESULT: update cards, flip dealer hand, update wallet with results, reset bets, and show result screen.
+     * - RESUMED: the connection dropped and the server re-attached our session; if a hand was
+     *   in flight, show it again and re-enable play/fold.
+     * - AUTO_RESULT: apply an auto-play run's net to the wallet and log its summary.
+     * - MULTI_DEAL / MULTI_RESULT: decide the spots of a multi-spot hand, then apply its net
+     *   to the wallet and log each spot against the dealer hand.
+     * - BUSY: a reconnect was refused under load; log when the client will try again.
      *
-     * @param pokerInfo incoming server state payload
+     * @param message incoming server message
      */
-    public void handlePokerInfo(PokerInfo pokerInfo) {
-        System.out.println("handlePokerInfo in controller " + this + ", type=" + pokerInfo.getType());
-        PokerInfo.Type type = pokerInfo.getType();
-        switch (type) {
-            case GAME_DEAL:
-                System.out.println("GAME_DEAL: playerHand=" + pokerInfo.getPlayerHand());
-                updateCards(pokerInfo.getPlayerHand(), pokerInfo.getDealerHand());
+    public void handleMessage(Message message) {
+        LOG.debug("handle message", "type", message.type());
+        if (message instanceof Message.Deal) {
+            Message.Deal deal = (Message.Deal) message;
+            LOG.debug("dealt", "hand", deal.hand());
+            updateCards(deal.hand(), null);
+            flipPlayerHand();
+
+        } else if (message instanceof Message.LogLines) {
+            for (String entry : ((Message.LogLines) message).lines()) {
+                LOG.debug("server log line", "line", entry);
+                Platform.runLater(() -> logBox.appendText(entry + "\n"));
+            }
+
+        } else if (message instanceof Message.Result) {
+            Message.Result result = (Message.Result) message;
+            LOG.debug("result", "ante", result.antePayout(), "pairplus", result.pairPlusPayout());
+            updateCards(result.hand(), result.dealerHand());
+            flipDealerHand();
+
+            int anteResult = result.antePayout();
+            int pairPlusResult = result.pairPlusPayout();
+            int netThisGame = anteResult + pairPlusResult;
+
+            addToWallet(anteResult);
+            addToWallet(pairPlusResult);
+            resetPairPlusAmount();
+            resetAnteAmount();
+            if (result.note() != null) {
+                logBox.appendText(result.note() + "\n");
+            }
+
+            // Show result screen using the main application reference
+            if (mainApp != null) {
+                mainApp.showResultScreen(netThisGame);
+            }
+
+        } else if (message instanceof Message.MultiDeal) {
+            decideSpots(((Message.MultiDeal) message).spots());
+
+        } else if (message instanceof Message.MultiResult) {
+            Message.MultiResult result = (Message.MultiResult) message;
+            Spot[] settled = result.spots();
+            int multiNet = 0;
+            StringBuilder lines = new StringBuilder("Multi-hand, dealer " + result.dealerHand() + ":\n");
+            for (int i = 0; i < settled.length; i++) {
+                multiNet += settled[i].getNet();
+                lines.append("  Spot ").append(i + 1).append(": ").append(settled[i]).append("\n");
+            }
+            addToWallet(multiNet);
+            logBox.appendText(lines.toString());
+
+        } else if (message instanceof Message.Resumed) {
+            Message.Resumed resumed = (Message.Resumed) message;
+            if (resumed.spots() != null) {
+                decideSpots(resumed.spots());
+            } else if (resumed.hand() != null) {
+                updateCards(resumed.hand(), null);
                 flipPlayerHand();
-                break;
-            case LOG:
-                if (pokerInfo.getLog() != null) {
-                    for (String entry : pokerInfo.getLog()) {
-                        System.out.println("[CONTROLLER] got log line: " + entry); // PRINT HERE
-                        Platform.runLater(() -> logBox.appendText(entry + "\n"));
-                    }
-                }
-                break;
+                playImageLeft.setDisable(false);
+                foldImage.setDisable(false);
+            }
 
-            case GAME_RESULT:
-                System.out.println("GAME_RESULT: Ante = " + pokerInfo.getAnte());
-                System.out.println("GAME_RESULT: Pair Plus = " + pokerInfo.getPairPlus());
-                updateCards(pokerInfo.getPlayerHand(), pokerInfo.getDealerHand());
-                flipDealerHand();
-
-                int anteResult = pokerInfo.getAnte();
-                int pairPlusResult = pokerInfo.getPairPlus();
-                int netThisGame = anteResult + pairPlusResult;
-
-                addToWallet(anteResult);
-                addToWallet(pairPlusResult);
-                resetPairPlusAmount();
-                resetAnteAmount();
-
-                // Show result screen using the main application reference
-                if (mainApp != null) {
-                    mainApp.showResultScreen(netThisGame);
-                }
-                break;
+        } else if (message instanceof Message.Busy) {
+            Message.Busy busy = (Message.Busy) message;
+            logBox.appendText("Server busy (" + busy.reason() + "), reconnecting in "
+                    + Math.max(1, (busy.retryAfterMillis() + 999) / 1000) + "s\n");
 
-            case CHAT:
-            default:
-                // CHAT and unknown types are ignored here
-                break;
+        } else if (message instanceof AutoPlayResult) {
+            AutoPlayResult summary = (AutoPlayResult) message;
+            addToWallet((int) summary.getNet());
+            Platform.runLater(() -> logBox.appendText("Auto-play: " + summary + "\n"));
         }
+        // CHAT, AUTO_HAND and anything else are ignored here
     }
 
     /**
@@ -378,14 +487,14 @@ public class PokerScreenController {
      * @param dealerHand list of dealer cards from server
      */
     private void updateCards(List<Card> playerHand, List<Card> dealerHand) {
-        System.out.println("updateCards called. incoming playerHand=" + playerHand);
+        LOG.debug("update cards", "hand", playerHand);
         if (playerHand != null && playerHand.size() >= 3) {
             this.playerHand = new ArrayList<>(playerHand);
             setPlayerCard(1, playerHand.get(0).getImagePath());
             setPlayerCard(2, playerHand.get(1).getImagePath());
             setPlayerCard(3, playerHand.get(2).getImagePath());
         } else {
-            System.out.println("Not setting this.playerHand; list is null or size < 3");
+            LOG.debug("hand not set, fewer than three cards");
         }
 
         if (dealerHand != null && dealerHand.size() >= 3) {
@@ -399,7 +508,7 @@ public class PokerScreenController {
      */
     public void flipPlayerHand() {
         if (playerHand == null || playerHand.size() < 3) {
-            System.out.println("flipPlayerHand called but playerHand is not ready. playerHand=" + playerHand);
+            LOG.warn("player hand not ready to flip", "hand", playerHand);
             return;
         }
 
@@ -414,7 +523,7 @@ public class PokerScreenController {
      */
     public void flipDealerHand() {
         if (dealerHand == null || dealerHand.size() < 3) {
-            System.out.println("flipDealerHand called but dealerHand is not ready. dealerHand=" + dealerHand);
+            LOG.warn("dealer hand not ready to flip", "hand", dealerHand);
             return;
         }
         setDealerCard(1, dealerHand.get(0).getImagePath());
@@ -559,7 +668,7 @@ public class PokerScreenController {
     /**
      * Start a new game from the client side:
      * - reset UI controls and card backs
-     * - send a GAME_DEAL request (with zero bets) to the server to request a new deal
+     * The next hand starts when the player bets and clicks Deal (START).
      */
     public void startNewGame() {
         setPlayerCard(1, "/images/cards/back2-256.png");
@@ -568,14 +677,6 @@ public class PokerScreenController {
         setDealerCard(1, "/images/cards/back2-256.png");
         setDealerCard(2, "/images/cards/back2-256.png");
         setDealerCard(3, "/images/cards/back2-256.png");
-        PokerInfo packageToSend = new PokerInfo(PokerInfo.Type.GAME_DEAL, 
-                null, 
-                null, 
-                0, 
-                0);
-        if (client != null) {
-            client.send(packageToSend);
-        }
     }
     
     public void pushInitialLogs(List<String> logs) {
@@ -597,7 +698,7 @@ public class PokerScreenController {
             Image img = new Image(getClass().getResourceAsStream(resourcePath));
             boardImage.setImage(img);
         } catch (Exception ex) {
-            System.err.println("Failed to load board image: " + resourcePath + " -> " + ex.getMessage());
+            LOG.warn("board image could not be loaded", "resource", resourcePath, "error", ex.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package rrosa10Client;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import log.Log;
+import log.Logger;
 
 /**
  * Controller for the Result screen shown after a game round completes.
@@ -14,6 +16,8 @@ import javafx.scene.control.Label;
  */
 public class ResultScreenController {
 
+    private static final Logger LOG = Log.get("ui");
+
     @FXML private Label resultMessage;
     @FXML private Label amountLabel;
     @FXML private Button playAgainButton;
@@ -74,12 +78,11 @@ public class ResultScreenController {
      */
     @FXML
     private void onExitClicked() {
-        System.out.println("[UI] Exit clicked");
+        LOG.debug("clicked", "button", "exit");
         if (mainApp != null) {
-            System.out.println("[UI] calling mainApp.shutdown()");
             mainApp.shutdown();
         } else {
-            System.out.println("[UI] mainApp is null; calling Platform.exit()");
+            LOG.debug("no application to shut down, exiting");
             javafx.application.Platform.exit();
         }
     }
@@ -16,7 +16,9 @@ import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Stop;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
-import model.PokerInfo;
+import log.Log;
+import log.Logger;
+import model.Message;
 
 /**
  * Controller for the start/connection screen of the 3 Card Poker client.
@@ -25,11 +27,13 @@ import model.PokerInfo;
  * - Initialize title styling.
  * - Validate host/port entered by the user.
  * - Create and start a Client instance to connect to the server.
- * - Route incoming PokerInfo objects to the appropriate screen/controller.
+ * - Route incoming messages to the appropriate screen/controller.
  *s
  */
 public class StartScreenController {
 
+    private static final Logger LOG = Log.get("ui");
+
     @FXML private BorderPane root;
     @FXML private VBox titleBox;
     @FXML private Text gradientText;
@@ -70,7 +74,8 @@ public class StartScreenController {
      * - Validate the host and port fields.
      * - Disable inputs and show a connecting message.
      * - Create a Client and start it.
-     * - The client's callback routes PokerInfo messages: WELCOME -> switch to the game screen
+     * - The client's callback routes messages: WELCOME -> switch to the game screen, LOG -> the
+     *   game log (buffered until the game screen exists), anything else -> the game screen
      */
     @FXML
     private void onConnectClicked() {
@@ -104,48 +109,37 @@ public class StartScreenController {
         client = new Client(host, port, incoming -> {
             // Ensure all UI updates run on JavaFX thread
             Platform.runLater(() -> {
-                System.out.println("Client callback, incoming = " + incoming);
-
-                if (incoming instanceof PokerInfo) {
-                    PokerInfo pokerInfo = (PokerInfo) incoming;
-                    System.out.println("Received PokerInfo type = " + pokerInfo.getType());
-                    switch (pokerInfo.getType()) {
-                        case WELCOME:
-                            instruction.setText("Connected! Switching to game...");
-                            guiServer.switchToClient(client, pokerInfo);
-                            // after switching to the poker screen, flush any buffered logs
-                            guiServer.flushBufferedLogsToPokerScreen();
-                            break;
-
-                        case GAME_DEAL:
-                        case GAME_RESULT:
-                        case CHAT:
-                            PokerScreenController psc = guiServer.getPokerScreenController();
-                            if (psc != null) {
-                                psc.handlePokerInfo(pokerInfo);
-                            } else {
-                                System.out.println("PokerScreenController is null when handling " + pokerInfo.getType());
-                            }
-                            break;
-
-                        case LOG:
-                            // If poker screen is already present, deliver it immediately.
-                            PokerScreenController pscLog = guiServer.getPokerScreenController();
-                            if (pscLog != null) {
-                                pscLog.handlePokerInfo(pokerInfo); // PokerScreenController already handles LOG
-                            } else {
-                                // otherwise buffer it in the main app (to be flushed when poker screen appears)
-                                guiServer.bufferLogEntries(pokerInfo.getLog());
-                            }
-                            break;
-
-                        default:
-                            System.out.println("Unhandled PokerInfo type on start screen: " + pokerInfo.getType());
-                            break;
+                if (LOG.isDebugEnabled()) LOG.debug("message", "incoming", incoming);
+
+                if (incoming instanceof Message.Welcome) {
+                    instruction.setText("Connected! Switching to game...");
+                    guiServer.switchToClient(client, (Message) incoming);
+                    // after switching to the poker screen, flush any buffered logs
+                    guiServer.flushBufferedLogsToPokerScreen();
+
+                } else if (incoming instanceof Message.Busy && guiServer.getPokerScreenController() == null) {
+                    // refused before a session existed: let the player try again after the hint
+                    Message.Busy busy = (Message.Busy) incoming;
+                    instruction.setText("Server busy (" + busy.reason() + "), try again in "
+                            + Math.max(1, (busy.retryAfterMillis() + 999) / 1000) + "s");
+                    connectButton.setDisable(false);
+                    ipText.setDisable(false);
+                    portText.setDisable(false);
+
+                } else if (incoming instanceof Message.LogLines && guiServer.getPokerScreenController() == null) {
+                    // buffer it in the main app (to be flushed when poker screen appears)
+                    guiServer.bufferLogEntries(((Message.LogLines) incoming).lines());
+
+                } else if (incoming instanceof Message) {
+                    Message message = (Message) incoming;
+                    PokerScreenController psc = guiServer.getPokerScreenController();
+                    if (psc != null) {
+                        psc.handleMessage(message);
+                    } else {
+                        LOG.warn("no game screen to handle message", "type", message.type());
                     }
-
                 } else {
-                    instruction.setText("Received non-PokerInfo: " + incoming);
+                    instruction.setText("Received non-message: " + incoming);
                 }
             });
         });
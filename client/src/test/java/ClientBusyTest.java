@@ -0,0 +1,84 @@
+import model.Message;
+import org.junit.jupiter.api.Test;
+import rrosa10Client.Client;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load spikes turn away new connections first, so the client that matters most here is one
+ * BUSY refused before it ever had a session. A scripted server on a local socket stands in
+ * for the real one: it answers the way Server.refuse does and counts what the client does next.
+ * The client runs without a callback, so no JavaFX toolkit is needed.
+ */
+public class ClientBusyTest {
+
+    private static final int RETRY_MILLIS = 800;
+
+    /** Answer like a refusing server: stream header, one BUSY, then close. */
+    private static void refuse(Socket socket, int retryMillis) throws Exception {
+        try (socket) {
+            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+            out.writeObject(new Message.Busy(retryMillis, "server full"));
+            out.flush();
+            socket.shutdownOutput();
+            new ObjectInputStream(socket.getInputStream());
+        }
+    }
+
+    @Test
+    void testRefusedFirstConnectionWaitsOutTheHintAndGetsIn() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            server.setSoTimeout(10_000);
+            Client client = new Client("localhost", server.getLocalPort(), null);
+            client.setDaemon(true);
+            client.start();
+            try {
+                refuse(server.accept(), RETRY_MILLIS);
+                long refusedNanos = System.nanoTime();
+
+                try (Socket second = server.accept()) {
+                    long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - refusedNanos);
+                    assertTrue(waitedMillis >= RETRY_MILLIS - 50, "reconnected after " + waitedMillis + " ms");
+
+                    second.setSoTimeout(5000);
+                    ObjectOutputStream out = new ObjectOutputStream(second.getOutputStream());
+                    out.writeObject(new Message.Welcome("token-1"));
+                    out.writeObject(new Message.Ping());
+                    out.flush();
+                    ObjectInputStream in = new ObjectInputStream(second.getInputStream());
+                    // no RESUME(null) first: the client had no session to resume, and it is reading again
+                    assertTrue(in.readObject() instanceof Message.Pong);
+                }
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void testGivesUpAfterTooManyRefusals() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            server.setSoTimeout(10_000);
+            Client client = new Client("localhost", server.getLocalPort(), null);
+            client.setDaemon(true);
+            client.start();
+            try {
+                // the first connection and MAX_RECONNECT_ATTEMPTS (5) retries, all refused
+                for (int i = 0; i < 6; i++) refuse(server.accept(), 1);
+                client.join(10_000);
+                assertFalse(client.isAlive(), "the client kept retrying");
+
+                server.setSoTimeout(200);
+                assertThrows(java.net.SocketTimeoutException.class, server::accept);
+            } finally {
+                client.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package log;
+
+import java.util.Locale;
+
+/**
+ * Level - severity of a log record, lowest first. A logger set to a level keeps records at
+ * that level and above; OFF keeps nothing.
+ */
+public enum Level {
+    DEBUG, INFO, WARN, ERROR, OFF;
+
+    /** Parse a level name (any case); setting names the property, for the error message. */
+    static Level parse(String value, String setting) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Setting " + setting + " must be DEBUG, INFO, WARN, ERROR or OFF: " + value);
+        }
+    }
+}
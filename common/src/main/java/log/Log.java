@@ -0,0 +1,403 @@
+package log;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log - the process-wide asynchronous log behind every Logger.
+ *
+ * Responsibilities:
+ * - Take records from any thread without locks or I/O: a record is one claimed slot (CAS) in a
+ *   preallocated ring, filled with references to the message and its key/value arguments.
+ * - Format records as key=value lines on one daemon writer thread and write them to a rolling
+ *   file and/or the console, flushing once per batch rather than once per line.
+ * - Keep memory bounded when the disk is slow: a full ring drops new records and counts them,
+ *   and the writer logs how many were lost.
+ * - Hold per-category levels and sampling, set from the poker.log.* properties (configure).
+ *
+ * Until configure is called, INFO and above go to the console only. The ring size comes from
+ * -Dpoker.log.bufferSize (default 8192 records).
+ *
+ * Line format: ts=2024-05-01T12:00:00.000Z level=INFO cat=server thread=main msg="..." key=value ...
+ */
+public final class Log {
+
+    public static final int DEFAULT_BUFFER = 8192;
+    public static final long DEFAULT_MAX_FILE_BYTES = 10L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private static final ConcurrentHashMap<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final Ring RING = new Ring(Integer.getInteger("poker.log.bufferSize", DEFAULT_BUFFER));
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final Thread WRITER;
+
+    // Settings (replaced as a whole by configure)
+    private static volatile Level rootLevel = Level.INFO;
+    private static volatile Map<String, Level> categoryLevels = Map.of();
+    private static volatile Map<String, Integer> categorySamples = Map.of();
+
+    // Sinks, used by the writer under SINKS; configure swaps them under the same lock
+    private static final Object SINKS = new Object();
+    private static RollingFile file;
+    private static Level consoleLevel = Level.INFO;
+
+    // Writer progress, for flush(): everything before this ring position has been written
+    private static volatile long written;
+    private static volatile boolean writerWaiting;
+
+    static {
+        WRITER = new Thread(Log::drain, "log-writer");
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private Log() {
+    }
+
+    /** Return the logger for a category, creating it at the configured level on first use. */
+    public static Logger get(String category) {
+        return LOGGERS.computeIfAbsent(category,
+                c -> new Logger(c, categoryLevels.getOrDefault(c, rootLevel), categorySamples.getOrDefault(c, 1)));
+    }
+
+    /**
+     * Apply the poker.log.* settings:
+     * - poker.log.level (root level, default INFO), poker.log.level.<category>
+     * - poker.log.sample.<category>=N keeps every Nth DEBUG/INFO record of that category
+     * - poker.log.file (rolling file; empty = none), poker.log.maxFileBytes, poker.log.maxFiles
+     * - poker.log.console, the lowest level also echoed to the console (OFF = none)
+     *
+     * param props          source properties (e.g. System.getProperties())
+     * param defaultFile    log file when poker.log.file is not set ("" = none)
+     * param defaultConsole console level when poker.log.console is not set
+     * throws IllegalArgumentException on a malformed setting
+     */
+    public static void configure(Properties props, String defaultFile, Level defaultConsole) {
+        Level root = Level.parse(props.getProperty("poker.log.level", "INFO"), "poker.log.level");
+        Map<String, Level> levels = new HashMap<>();
+        Map<String, Integer> samples = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith("poker.log.level.")) {
+                levels.put(key.substring("poker.log.level.".length()), Level.parse(props.getProperty(key), key));
+            } else if (key.startsWith("poker.log.sample.")) {
+                samples.put(key.substring("poker.log.sample.".length()), positive(props, key, 1));
+            }
+        }
+        String path = props.getProperty("poker.log.file", defaultFile).trim();
+        long maxBytes = positive(props, "poker.log.maxFileBytes", DEFAULT_MAX_FILE_BYTES);
+        int maxFiles = positive(props, "poker.log.maxFiles", DEFAULT_MAX_FILES);
+        Level console = Level.parse(props.getProperty("poker.log.console", defaultConsole.name()), "poker.log.console");
+
+        rootLevel = root;
+        categoryLevels = Map.copyOf(levels);
+        categorySamples = Map.copyOf(samples);
+        for (Logger logger : LOGGERS.values()) {
+            logger.configure(levels.getOrDefault(logger.category(), root), samples.getOrDefault(logger.category(), 1));
+        }
+
+        RollingFile opened = null;
+        if (!path.isEmpty()) {
+            try {
+                opened = new RollingFile(Paths.get(path), maxBytes, maxFiles);
+            } catch (IOException e) {
+                System.err.println("Log file " + path + " could not be opened, logging to the console: " + e);
+                if (console == Level.OFF) console = Level.INFO;
+            }
+        }
+        synchronized (SINKS) {
+            closeFile();
+            file = opened;
+            consoleLevel = console;
+        }
+    }
+
+    /**
+     * Wait (up to two seconds) until every record logged before this call has been written
+     * and flushed. Also runs at JVM exit.
+     */
+    public static void flush() {
+        long target = RING.claimed();
+        LockSupport.unpark(WRITER);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (written < target && System.nanoTime() < deadline && WRITER.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /** Return how many records were dropped because the ring was full. */
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    static void append(Level level, String category, String msg, Object[] kv) {
+        if (!RING.offer(System.currentTimeMillis(), level, category, Thread.currentThread().getName(), msg, kv)) {
+            DROPPED.increment();
+            return;
+        }
+        if (writerWaiting) LockSupport.unpark(WRITER);
+    }
+
+    // -------------------------
+    // Writer thread
+    // -------------------------
+
+    private static void drain() {
+        StringBuilder line = new StringBuilder(256);
+        Record record = new Record();
+        long reportedDrops = 0;
+        while (true) {
+            if (!RING.poll(record)) {
+                writerWaiting = true;
+                if (!RING.poll(record)) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                    writerWaiting = false;
+                    continue;
+                }
+                writerWaiting = false;
+            }
+            synchronized (SINKS) {
+                do {
+                    write(record, line);
+                    record.clear();
+                } while (RING.poll(record));
+                long drops = DROPPED.sum();
+                if (drops > reportedDrops) {
+                    record.set(System.currentTimeMillis(), Level.WARN, "log", WRITER.getName(),
+                            "log records dropped, the writer fell behind", new Object[] {"count", drops - reportedDrops});
+                    reportedDrops = drops;
+                    write(record, line);
+                    record.clear();
+                }
+                flushSinks();
+            }
+            written = RING.consumed();
+        }
+    }
+
+    private static void write(Record r, StringBuilder line) {
+        boolean toFile = file != null;
+        boolean toConsole = r.level.ordinal() >= consoleLevel.ordinal() && consoleLevel != Level.OFF;
+        if (!toFile && !toConsole) return;
+        format(r, line);
+        if (toFile) {
+            try {
+                file.write(line);
+            } catch (IOException e) {
+                System.err.println("Log file " + file.path() + " failed, logging to the console: " + e);
+                closeFile();
+                if (consoleLevel == Level.OFF || consoleLevel.ordinal() > Level.INFO.ordinal()) consoleLevel = Level.INFO;
+                toConsole = r.level.ordinal() >= consoleLevel.ordinal();
+            }
+        }
+        if (toConsole) {
+            PrintStream out = r.level.ordinal() >= Level.WARN.ordinal() ? System.err : System.out;
+            out.println(line);
+        }
+    }
+
+    private static void flushSinks() {
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException ignored) {
+                // reported by the next write
+            }
+        }
+        System.out.flush();
+    }
+
+    private static void closeFile() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException ignored) {
+        }
+        file = null;
+    }
+
+    /** Format a record as one key=value line (plus the stack trace of a trailing Throwable). */
+    static void format(Record r, StringBuilder line) {
+        line.setLength(0);
+        line.append("ts=");
+        TIME.formatTo(Instant.ofEpochMilli(r.millis), line);
+        line.append(" level=").append(r.level.name());
+        line.append(" cat=");
+        value(line, r.category);
+        line.append(" thread=");
+        value(line, r.thread);
+        line.append(" msg=");
+        value(line, r.message);
+        Object[] kv = r.kv;
+        int pairs = kv.length / 2;
+        for (int i = 0; i < pairs; i++) {
+            line.append(' ').append(kv[2 * i]).append('=');
+            value(line, kv[2 * i + 1]);
+        }
+        if (kv.length % 2 == 1) {
+            Object last = kv[kv.length - 1];
+            if (last instanceof Throwable t) {
+                line.append(" error=");
+                value(line, t.toString());
+                StringWriter trace = new StringWriter();
+                t.printStackTrace(new PrintWriter(trace));
+                line.append('\n').append(trace.toString().stripTrailing());
+            } else {
+                line.append(" arg=");
+                value(line, last);
+            }
+        }
+    }
+
+    /** Append a value, quoting it if it is empty or has spaces, quotes, '=' or control characters. */
+    private static void value(StringBuilder line, Object v) {
+        String s = String.valueOf(v);
+        boolean quote = s.isEmpty();
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c <= ' ' || c == '"' || c == '=' || c == '\\';
+        }
+        if (!quote) {
+            line.append(s);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default: line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private static long positive(Properties props, String key, long def) {
+        String v = props.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            long n = Long.parseLong(v.trim());
+            if (n > 0) return n;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Setting " + key + " must be a number > 0: " + v);
+    }
+
+    private static int positive(Properties props, String key, int def) {
+        return (int) Math.min(Integer.MAX_VALUE, positive(props, key, (long) def));
+    }
+
+    // -------------------------
+    // Ring
+    // -------------------------
+
+    /** One log record; ring slots are reused, so every field is overwritten on each claim. */
+    static final class Record {
+        long millis;
+        Level level;
+        String category;
+        String thread;
+        String message;
+        Object[] kv;
+
+        void set(long millis, Level level, String category, String thread, String message, Object[] kv) {
+            this.millis = millis;
+            this.level = level;
+            this.category = category;
+            this.thread = thread;
+            this.message = message;
+            this.kv = kv;
+        }
+
+        void clear() {
+            category = thread = message = null;
+            kv = null;
+        }
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer ring of preallocated records. Slot i is free for
+     * the producer at position p when sequence[i] == p, and holds its record when it is p + 1.
+     */
+    private static final class Ring {
+        private final Record[] slots;
+        private final AtomicLongArray sequence;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private long head; // writer thread only
+
+        Ring(int capacity) {
+            int size = 1;
+            while (size < Math.max(2, capacity)) size <<= 1;
+            slots = new Record[size];
+            sequence = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                slots[i] = new Record();
+                sequence.set(i, i);
+            }
+            mask = size - 1;
+        }
+
+        boolean offer(long millis, Level level, String category, String thread, String msg, Object[] kv) {
+            long pos = tail.get();
+            while (true) {
+                int i = (int) pos & mask;
+                long diff = sequence.get(i) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots[i].set(millis, level, category, thread, msg, kv);
+                        sequence.set(i, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        /** Copy the next record into 'into' and free its slot; false if none is ready. */
+        boolean poll(Record into) {
+            int i = (int) head & mask;
+            if (sequence.get(i) != head + 1) return false;
+            Record r = slots[i];
+            into.set(r.millis, r.level, r.category, r.thread, r.message, r.kv);
+            r.clear();
+            sequence.set(i, head + slots.length);
+            head++;
+            return true;
+        }
+
+        long claimed() {
+            return tail.get();
+        }
+
+        long consumed() {
+            return head;
+        }
+    }
+}
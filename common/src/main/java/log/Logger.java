@@ -0,0 +1,66 @@
+package log;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logger - the handle code logs through, one per category (for example "server", "net", "ui").
+ *
+ * Responsibilities:
+ * - Drop records below the category's level with one field read, before anything is formatted.
+ * - Sample chatty categories: with poker.log.sample.<category>=N only every Nth DEBUG or INFO
+ *   record is kept (WARN and ERROR always are).
+ * - Hand kept records to Log's ring as references; the message and key/value arguments are
+ *   formatted later, on the writer thread.
+ *
+ * Arguments after the message are key/value pairs ("client", 3, "type", info.getType()). If one
+ * argument is left over and it is a Throwable, its stack trace is written with the record.
+ * Call sites on hot paths that build arguments should check isEnabled first.
+ */
+public final class Logger {
+
+    private static final Object[] NONE = {};
+
+    private final String category;
+    private volatile Level level;
+    private volatile int sampleEvery;
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    Logger(String category, Level level, int sampleEvery) {
+        this.category = category;
+        this.level = level;
+        this.sampleEvery = sampleEvery;
+    }
+
+    public String category() {
+        return category;
+    }
+
+    public boolean isEnabled(Level l) {
+        return l.ordinal() >= level.ordinal() && l != Level.OFF;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String msg) { log(Level.DEBUG, msg, NONE); }
+    public void debug(String msg, Object... kv) { log(Level.DEBUG, msg, kv); }
+    public void info(String msg) { log(Level.INFO, msg, NONE); }
+    public void info(String msg, Object... kv) { log(Level.INFO, msg, kv); }
+    public void warn(String msg) { log(Level.WARN, msg, NONE); }
+    public void warn(String msg, Object... kv) { log(Level.WARN, msg, kv); }
+    public void error(String msg) { log(Level.ERROR, msg, NONE); }
+    public void error(String msg, Object... kv) { log(Level.ERROR, msg, kv); }
+
+    public void log(Level l, String msg, Object... kv) {
+        if (!isEnabled(l)) return;
+        int every = sampleEvery;
+        if (every > 1 && l.ordinal() < Level.WARN.ordinal() && sampleCount.getAndIncrement() % every != 0) return;
+        Log.append(l, category, msg, kv);
+    }
+
+    void configure(Level level, int sampleEvery) {
+        this.level = level;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+}
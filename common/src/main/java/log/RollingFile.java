@@ -0,0 +1,83 @@
+package log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RollingFile - an append-only text file that rolls over at a size limit.
+ *
+ * Responsibilities:
+ * - Append lines and flush on request (the log writer flushes once per batch).
+ * - When the file would grow past maxBytes, rename it to file.1 (file.1 to file.2, and so on,
+ *   keeping maxFiles old files) and start a new one, so disk use stays bounded.
+ *
+ * Sizes count characters, which matches bytes for the ASCII the log is made of.
+ * Used by the single log writer thread only.
+ */
+final class RollingFile implements Closeable {
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer out;
+    private long size;
+
+    RollingFile(Path path, long maxBytes, int maxFiles) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        open();
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void write(CharSequence line) throws IOException {
+        if (size > 0 && size + line.length() + 1 > maxBytes) {
+            roll();
+        }
+        out.append(line).append('\n');
+        size += line.length() + 1;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        if (maxFiles > 0) {
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path older = rolled(i);
+                if (Files.exists(older)) Files.move(older, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+        open();
+    }
+
+    private Path rolled(int n) {
+        return path.resolveSibling(path.getFileName() + "." + n);
+    }
+}
@@ -0,0 +1,150 @@
+import log.Level;
+import log.Log;
+import log.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The async logger, read back through its file sink. Besides the key=value format, level and
+ * sampling filters and rolling at the size limit, it checks the two things a shared log must
+ * not get wrong: records from many threads at once arrive whole and exactly once, and a value
+ * from a player cannot break a record across lines.
+ */
+public class LogTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void restoreDefaults() {
+        Log.configure(new Properties(), "", Level.INFO);
+    }
+
+    private Path configure(String... settings) {
+        Path file = dir.resolve("test.log");
+        Properties props = new Properties();
+        props.setProperty("poker.log.file", file.toString());
+        props.setProperty("poker.log.console", "OFF");
+        for (int i = 0; i < settings.length; i += 2) props.setProperty(settings[i], settings[i + 1]);
+        Log.configure(props, "", Level.OFF);
+        return file;
+    }
+
+    private static List<String> lines(Path file) throws IOException {
+        Log.flush();
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testLineFormatAndQuoting() throws IOException {
+        Path file = configure();
+        Logger log = Log.get("format");
+        log.info("hand dealt", "client", 7, "note", "two words", "quote", "say \"hi\"");
+        log.error("send failed", "client", 8, new IllegalStateException("boom"));
+
+        List<String> lines = lines(file);
+        String first = lines.get(0);
+        assertTrue(first.matches("ts=\\S+Z level=INFO cat=format thread=\\S+ msg=\"hand dealt\" .*"), first);
+        assertTrue(first.endsWith(" client=7 note=\"two words\" quote=\"say \\\"hi\\\"\""), first);
+
+        String second = lines.get(1);
+        assertTrue(second.contains(" level=ERROR "), second);
+        assertTrue(second.endsWith(" client=8 error=\"java.lang.IllegalStateException: boom\""), second);
+        assertTrue(lines.subList(2, lines.size()).stream().anyMatch(l -> l.contains("at LogTest.")),
+                "stack trace follows the record");
+    }
+
+    @Test
+    void testValuesCannotForgeLines() throws IOException {
+        Path file = configure();
+        Logger log = Log.get("chat");
+        log.info("chat", "text", "hi\nts=2024-01-01T00:00:00.000Z level=ERROR cat=server msg=forged", "tab", "a\tb");
+        log.info("odd arguments", "client", 3, "dangling");
+
+        List<String> lines = lines(file);
+        assertEquals(2, lines.size(), String.join("\n", lines));
+        assertTrue(lines.get(0).contains(" text=\"hi\\nts=2024-01-01T00:00:00.000Z level=ERROR cat=server msg=forged\""),
+                lines.get(0));
+        assertTrue(lines.get(0).endsWith(" tab=\"a\\tb\""), lines.get(0));
+        assertTrue(lines.get(1).endsWith(" client=3 arg=dangling"), lines.get(1));
+    }
+
+    @Test
+    void testManyThreadsLoseNothing() throws Exception {
+        Path file = configure();
+        long droppedBefore = Log.dropped();
+        int threads = 8;
+        int perThread = 500; // well inside the ring, so nothing may be dropped
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread w = new Thread(() -> {
+                Logger log = Log.get("worker-" + id);
+                for (int i = 0; i < perThread; i++) log.info("step", "worker", id, "i", i);
+            });
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) w.join();
+
+        Set<String> seen = new HashSet<>();
+        for (String line : lines(file)) {
+            assertTrue(line.matches("ts=\\S+Z level=INFO cat=worker-\\d thread=\\S+ msg=step worker=\\d i=\\d+"), line);
+            assertTrue(seen.add(line.substring(line.indexOf(" worker="))), "written twice: " + line);
+        }
+        assertEquals(threads * perThread, seen.size());
+        assertEquals(droppedBefore, Log.dropped());
+    }
+
+    @Test
+    void testLevelsAndSampling() throws IOException {
+        Path file = configure("poker.log.level", "WARN",
+                "poker.log.level.chatty", "DEBUG",
+                "poker.log.sample.chatty", "10");
+        Logger quiet = Log.get("quiet");
+        Logger chatty = Log.get("chatty");
+
+        assertFalse(quiet.isEnabled(Level.INFO));
+        assertTrue(chatty.isDebugEnabled());
+        quiet.info("dropped by level");
+        quiet.warn("kept");
+        for (int i = 0; i < 100; i++) chatty.debug("tick", "i", i);
+        chatty.error("never sampled");
+
+        List<String> lines = lines(file);
+        assertEquals(0, lines.stream().filter(l -> l.contains("dropped by level")).count());
+        assertEquals(1, lines.stream().filter(l -> l.contains("cat=quiet") && l.contains("msg=kept")).count());
+        assertEquals(10, lines.stream().filter(l -> l.contains("msg=tick")).count());
+        assertEquals(1, lines.stream().filter(l -> l.contains("never sampled")).count());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> configure("poker.log.level", "LOUD"));
+    }
+
+    @Test
+    void testRollsAtSizeLimit() throws IOException {
+        Path file = configure("poker.log.maxFileBytes", "2000", "poker.log.maxFiles", "2");
+        Logger log = Log.get("roll");
+        for (int i = 0; i < 100; i++) log.info("filler line", "i", i);
+        lines(file);
+
+        assertTrue(Files.exists(dir.resolve("test.log.1")));
+        assertTrue(Files.exists(dir.resolve("test.log.2")));
+        assertFalse(Files.exists(dir.resolve("test.log.3")), "only maxFiles old files are kept");
+        assertTrue(Files.size(file) <= 2000);
+        assertTrue(Files.readString(file).contains("i=99"), "the newest record is in the live file");
+    }
+}
@@ -0,0 +1,52 @@
+package model;
+
+/**
+ * AutoPlay is an AUTO_PLAY request: play a run of hands on the server with one
+ * decision rule and fixed bets, without a round trip per hand.
+ *
+ * Responsibilities:
+ * - Carry the bets, the PLAY/FOLD rule, the number of hands and whether the
+ *   server should stream each hand back (AUTO_HAND) before the summary.
+ */
+public final class AutoPlay implements Message {
+	private static final long serialVersionUID = 3140548271066327194L;
+
+	/** How the server decides each hand once it is dealt. */
+	public enum Rule {
+		PLAY,   // always play
+		FOLD,   // always fold
+		Q64     // play a pair or better, or Queen-6-4 high or better
+	}
+
+	private final Rule rule;
+	private final int ante;
+	private final int pairPlus;
+	private final int hands;
+	private final boolean streamHands;
+
+	/**
+	 * param rule        PLAY/FOLD decision rule
+	 * param ante        ante bet per hand
+	 * param pairPlus    Pair Plus bet per hand
+	 * param hands       number of hands to play
+	 * param streamHands true to get an AUTO_HAND message for every hand
+	 */
+	public AutoPlay(Rule rule, int ante, int pairPlus, int hands, boolean streamHands) {
+		this.rule = rule;
+		this.ante = ante;
+		this.pairPlus = pairPlus;
+		this.hands = hands;
+		this.streamHands = streamHands;
+	}
+
+	public Rule getRule() { return rule; }
+	public int getAnte() { return ante; }
+	public int getPairPlus() { return pairPlus; }
+	public int getHands() { return hands; }
+	public boolean isStreamHands() { return streamHands; }
+
+	@Override
+	public Type type() { return Type.AUTO_PLAY; }
+
+	private Object writeReplace() { return new MessageWire(this); }
+}
@@ -0,0 +1,69 @@
+package model;
+
+/**
+ * AutoPlayResult is the summary the server sends (AUTO_RESULT) when an
+ * AUTO_PLAY run ends.
+ *
+ * Responsibilities:
+ * - Report how many hands were played, folded, won, lost and pushed, the
+ *   chips wagered and won back, and the player's chips afterwards.
+ * - Say why the run stopped early, if it did (e.g. out of chips).
+ */
+public final class AutoPlayResult implements Message {
+	private static final long serialVersionUID = -2208311964570834131L;
+
+	private final int handsRequested;
+	private final int handsDealt;
+	private final int played;
+	private final int folded;
+	private final int wins;
+	private final int losses;
+	private final int pushes;
+	private final long wagered;
+	private final long net;
+	private final int chips;
+	private final String stopReason;
+
+	public AutoPlayResult(int handsRequested, int handsDealt, int played, int folded, int wins, int losses,
+			int pushes, long wagered, long net, int chips, String stopReason) {
+		this.handsRequested = handsRequested;
+		this.handsDealt = handsDealt;
+		this.played = played;
+		this.folded = folded;
+		this.wins = wins;
+		this.losses = losses;
+		this.pushes = pushes;
+		this.wagered = wagered;
+		this.net = net;
+		this.chips = chips;
+		this.stopReason = stopReason;
+	}
+
+	public int getHandsRequested() { return handsRequested; }
+	public int getHandsDealt() { return handsDealt; }
+	public int getPlayed() { return played; }
+	public int getFolded() { return folded; }
+	public int getWins() { return wins; }
+	public int getLosses() { return losses; }
+	public int getPushes() { return pushes; }
+	/** Total ante and Pair Plus staked over the run. */
+	public long getWagered() { return wagered; }
+	/** Chips won (positive) or lost (negative) over the run. */
+	public long getNet() { return net; }
+	/** The player's chips after the run. */
+	public int getChips() { return chips; }
+	/** Why the run ended before handsRequested, or null if it ran to the end. */
+	public String getStopReason() { return stopReason; }
+
+	@Override
+	public String toString() {
+		return handsDealt + "/" + handsRequested + " hands: " + played + " played (" + wins + " won, " + losses
+				+ " lost, " + pushes + " pushed), " + folded + " folded, net " + (net >= 0 ? "+" : "") + net
+				+ ", chips " + chips + (stopReason == null ? "" : " (stopped: " + stopReason + ")");
+	}
+
+	@Override
+	public Type type() { return Type.AUTO_RESULT; }
+
+	private Object writeReplace() { return new MessageWire(this); }
+}
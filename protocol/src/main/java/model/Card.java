@@ -0,0 +1,164 @@
+package model;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+
+/**
+ * Card represents a single playing card with a Suit and Rank.
+ *
+ * Responsibilities:
+ * - Hold immutable suit and rank values.
+ * - Provide comparison by rank then suit (for sorting).
+ * - Provide a human-readable toString and a helper to return the resource
+ *   image path for this card.
+ * - Keep one instance per card: of() hands out entries of a 52-card table and a
+ *   deserialized card resolves to its entry, so dealing or receiving a hand allocates
+ *   no cards and equal cards are the same object.
+ *
+ * On the wire a card is one byte (its index), written by a small Externalizable proxy.
+ */
+public final class Card implements Serializable, Comparable<Card> {
+	private static final long serialVersionUID = 8475503589781242492L;
+
+	// Standard 4 suits
+	public enum Suit { HEART, DIAMOND, SPADE, CLUB }
+	// Ranks in natural order (ACE..KING)
+	public enum Rank { 
+		ACE, TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE, TEN, JACK, QUEEN, KING;
+	}
+
+	/** Number of distinct cards. */
+	public static final int COUNT = 52;
+
+	private static final int RANKS = Rank.values().length;
+	// The only Card instances; index = suit * 13 + rank
+	private static final Card[] CARDS = new Card[COUNT];
+	static {
+		for (Suit s : Suit.values()) {
+			for (Rank r : Rank.values()) {
+				CARDS[s.ordinal() * RANKS + r.ordinal()] = new Card(s, r);
+			}
+		}
+	}
+
+	private final Suit suit; 
+	private final Rank rank;
+	private final String imagePath;
+
+	private Card(Suit suit, Rank rank){
+		this.suit = suit;
+		this.rank = rank;
+		this.imagePath = "/images/cards/" + suit.name().toLowerCase() + '-' + (rank.ordinal() + 1) + "-256.png";
+	}
+
+	/**
+	 * Return the card with the given suit and rank.
+	 *
+	 * param suit the card suit (HEART/DIAMOND/SPADE/CLUB)
+	 * param rank the card rank (ACE..KING)
+	 */
+	public static Card of(Suit suit, Rank rank) {
+		return CARDS[suit.ordinal() * RANKS + rank.ordinal()];
+	}
+
+	/**
+	 * Return the card at an index (see index()).
+	 *
+	 * throws IllegalArgumentException if index is not 0..51
+	 */
+	public static Card of(int index) {
+		if (index < 0 || index >= COUNT) throw new IllegalArgumentException("card index must be 0..51: " + index);
+		return CARDS[index];
+	}
+
+	/** Return the card's index, 0..51 (suit * 13 + rank). */
+	public int index() {
+		return suit.ordinal() * RANKS + rank.ordinal();
+	}
+	
+	/** Return the suit. */
+	public Suit getSuit() {
+		return suit;
+	}
+	
+	/** Return the rank. */
+	public Rank getRank() {
+		return rank;
+	}
+	
+	/** Return the ordinal index of the rank (0-based). */
+	public int getRankIndex() {
+        return rank.ordinal();
+    }
+	
+	/**
+	 * Compare cards primarily by rank, secondarily by suit.
+	 * This allows sorting a collection of Card objects.
+	 */
+	@Override
+	public int compareTo(Card o) {
+	    int r = Integer.compare(this.rank.ordinal(), o.rank.ordinal()); // rank-first order
+	    return (r != 0) ? r : Integer.compare(this.suit.ordinal(), o.suit.ordinal());
+	}
+	
+	/** Human-readable representation, e.g. "KING of DIAMOND" */
+	@Override
+	public String toString() { return rank + " of " + suit; }
+	
+		/**
+	 * Return the image resource path for this card (built once, with the card).
+	 *
+	 * Stores card images under /images/cards/ with filenames of the form:
+	 *   /images/cards/{suit}-{N}-256.png
+	 * where {suit} is the lowercase suit name (heart, diamond, spade, club)
+	 * and {N} is the numeric rank (ACE=1 .. KING=13).
+	 *
+	 *
+	 * return resource path to the card image (e.g. "/images/cards/diamond-13-256.png")
+	 */
+	public String getImagePath() {
+		return imagePath;
+	}
+
+	// Serialize through the one-byte proxy; a stream carrying Card's own fields is refused
+	private Object writeReplace() {
+		return new Wire(this);
+	}
+
+	private void readObject(ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("Card is serialized through its proxy");
+	}
+
+	/** A card on the wire: its index as one byte, resolved back to the table entry. */
+	private static final class Wire implements Externalizable {
+		private static final long serialVersionUID = 1L;
+		private int index;
+
+		public Wire() {
+		}
+
+		Wire(Card card) {
+			this.index = card.index();
+		}
+
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			out.writeByte(index);
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException {
+			index = in.readByte();
+			if (index < 0 || index >= COUNT) throw new InvalidObjectException("bad card index " + index);
+		}
+
+		private Object readResolve() {
+			return CARDS[index];
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Message - one message between client and server; each type is its own small record.
+ *
+ * Responsibilities:
+ * - Carry exactly what one message type needs, so a deal is three cards and two bets rather
+ *   than an object with a slot for every field any message might use.
+ * - Name the message's Type, which rate limits, metrics and logs are keyed by.
+ * - Travel through MessageWire: every message replaces itself with a wire envelope that
+ *   MessageCodec writes as a type byte and the record's fields.
+ *
+ * The dealer hand is part of a Result (or MultiResult) only: a player sees it after playing
+ * or folding, never with the deal. Card lists and arrays handed to a record are not copied.
+ */
+public sealed interface Message extends Serializable permits Message.Chat, Message.Welcome, Message.Start,
+		Message.Deal, Message.Play, Message.Fold, Message.Result, Message.LogLines, Message.Resume,
+		Message.Resumed, Message.Ping, Message.Pong, AutoPlay, Message.AutoHand, AutoPlayResult,
+		SimulationRequest, SimulationProgress, Message.SimCancel, Message.MultiStart, Message.MultiDeal,
+		Message.MultiDecide, Message.MultiResult, Message.Busy {
+
+	/** Message types; poker.rateLimit.<TYPE> settings use these names. */
+	enum Type {
+		CHAT,          // simple chat/text/status (either direction)
+		GAME_DEAL,     // server -> client: the player's cards (Deal)
+		GAME_RESULT,   // server -> client: payouts, with the dealer hand (Result)
+		FOLD,
+		WELCOME,
+		START,
+		PLAY,
+		LOG,
+		RESUME,        // client -> server: session token from an earlier WELCOME
+		RESUMED,       // server -> client: session re-attached (+ hand in flight, if any)
+		PING,          // heartbeat request (either direction)
+		PONG,          // heartbeat reply
+		AUTO_PLAY,     // client -> server: play N hands by a rule (AutoPlay)
+		AUTO_HAND,     // server -> client: one auto-played hand (cards + ante/pairPlus results)
+		AUTO_RESULT,   // server -> client: summary of an auto-play run (AutoPlayResult)
+		SIMULATE,      // client -> server: run an offline simulation (SimulationRequest)
+		SIM_PROGRESS,  // server -> client: running aggregates of a simulation (SimulationProgress)
+		SIM_CANCEL,    // client -> server: stop this connection's simulation
+		MULTI_START,   // client -> server: bets for a multi-spot round (one Spot per hand)
+		MULTI_DEAL,    // server -> client: every spot's cards
+		MULTI_DECIDE,  // client -> server: play or fold for each spot, in order
+		MULTI_RESULT,  // server -> client: settled spots + the dealer hand
+		BUSY           // server -> client: connection refused under load; retry after the hint, then close
+	}
+
+	Type type();
+
+	/** A line of text: status and errors from the server, chat from a client. */
+	record Chat(String text) implements Message {
+		public Type type() { return Type.CHAT; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** First message on a connection: the session token to present in a later RESUME. */
+	record Welcome(String token) implements Message {
+		public Type type() { return Type.WELCOME; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Bet on a new hand. */
+	record Start(int ante, int pairPlus) implements Message {
+		public Type type() { return Type.START; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** The player's three cards and the bets they were dealt for. */
+	record Deal(List<Card> hand, int ante, int pairPlus) implements Message {
+		public Type type() { return Type.GAME_DEAL; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Play the hand in flight (the server knows its bets). */
+	record Play() implements Message {
+		public Type type() { return Type.PLAY; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Fold the hand in flight; its stake is lost. */
+	record Fold() implements Message {
+		public Type type() { return Type.FOLD; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/**
+	 * A settled hand: what the ante and Pair Plus returned to the wallet (0 when folded), the
+	 * dealer hand, and a note (null, or why the hand ended, e.g. "Hand timed out").
+	 */
+	record Result(List<Card> hand, List<Card> dealerHand, int antePayout, int pairPlusPayout, String note)
+			implements Message {
+		public Type type() { return Type.GAME_RESULT; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Lines for the player's game log (broadcast). */
+	record LogLines(List<String> lines) implements Message {
+		public Type type() { return Type.LOG; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Ask to re-attach to the session named by an earlier WELCOME's token. */
+	record Resume(String token) implements Message {
+		public Type type() { return Type.RESUME; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/**
+	 * The session was re-attached. If a hand is waiting for a decision, hand and bets are set
+	 * (or spots, for a multi-spot round); otherwise both are null.
+	 */
+	record Resumed(String token, List<Card> hand, int ante, int pairPlus, Spot[] spots) implements Message {
+		public Type type() { return Type.RESUMED; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	record Ping() implements Message {
+		public Type type() { return Type.PING; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	record Pong() implements Message {
+		public Type type() { return Type.PONG; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/**
+	 * One auto-played hand: what the ante and Pair Plus returned when played, or minus the
+	 * bets when folded.
+	 */
+	record AutoHand(List<Card> hand, List<Card> dealerHand, int ante, int pairPlus) implements Message {
+		public Type type() { return Type.AUTO_HAND; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Stop this connection's simulation. */
+	record SimCancel() implements Message {
+		public Type type() { return Type.SIM_CANCEL; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Bets for a multi-spot round, one Spot (ante and Pair Plus) per hand. */
+	record MultiStart(Spot[] bets) implements Message {
+		public Type type() { return Type.MULTI_START; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Every spot's cards; the dealer hand comes with the MultiResult. */
+	record MultiDeal(Spot[] spots) implements Message {
+		public Type type() { return Type.MULTI_DEAL; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** Play (true) or fold each spot, in deal order. */
+	record MultiDecide(boolean[] plays) implements Message {
+		public Type type() { return Type.MULTI_DECIDE; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/** The settled spots, the dealer hand they played against, and a note (or null). */
+	record MultiResult(Spot[] spots, List<Card> dealerHand, String note) implements Message {
+		public Type type() { return Type.MULTI_RESULT; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+
+	/**
+	 * The only message on a connection the server would not admit: try again after
+	 * retryAfterMillis. The reason is for people (logs, status lines), not for parsing.
+	 */
+	record Busy(int retryAfterMillis, String reason) implements Message {
+		public Type type() { return Type.BUSY; }
+		private Object writeReplace() { return new MessageWire(this); }
+	}
+}
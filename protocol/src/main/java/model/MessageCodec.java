@@ -0,0 +1,319 @@
+package model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MessageCodec - the binary form of every Message.
+ *
+ * Responsibilities:
+ * - Write a message as a version byte, its type byte and then only that type's fields,
+ *   in declaration order, with no field names or class descriptors.
+ * - Read it back, refusing unknown versions, types, card indexes and negative or oversized
+ *   lengths with InvalidObjectException, so no input can make it allocate more than a
+ *   message's worth of memory.
+ *
+ * Encodings: text is UTF-8 with an int length (-1 for null); a card list is a count byte
+ * and one byte (Card.index) per card, 255 for null; arrays of spots and decisions have a
+ * count byte. MessageWire embeds this form in object streams.
+ */
+public final class MessageCodec {
+	// First byte of every message; bump it when a layout changes
+	static final int VERSION = 1;
+	private static final Message.Type[] TYPES = Message.Type.values();
+	private static final AutoPlay.Rule[] RULES = AutoPlay.Rule.values();
+	private static final SimulationProgress.State[] STATES = SimulationProgress.State.values();
+	private static final int NULL_CARDS = 255;
+	/** Longest text (UTF-8 bytes) a message may carry. */
+	public static final int MAX_TEXT_BYTES = 64 * 1024;
+	/** Most lines one LOG message may carry. */
+	public static final int MAX_LOG_LINES = 1024;
+	/** Most text (UTF-8 bytes, all lines together) one LOG message may carry. */
+	public static final int MAX_LOG_BYTES = 4 * MAX_TEXT_BYTES;
+	// Bits of a spot's flags byte
+	private static final int SPOT_HAND = 1, SPOT_SETTLED = 1 << 1, SPOT_PLAYED = 1 << 2;
+
+	private MessageCodec() {
+	}
+
+	/** Write a message's version, type and fields. */
+	public static void write(DataOutput out, Message m) throws IOException {
+		out.writeByte(VERSION);
+		out.writeByte(m.type().ordinal());
+		switch (m.type()) {
+			case CHAT -> writeText(out, ((Message.Chat) m).text());
+			case WELCOME -> writeText(out, ((Message.Welcome) m).token());
+			case RESUME -> writeText(out, ((Message.Resume) m).token());
+			case BUSY -> {
+				Message.Busy b = (Message.Busy) m;
+				out.writeInt(b.retryAfterMillis());
+				writeText(out, b.reason());
+			}
+			case START -> {
+				Message.Start s = (Message.Start) m;
+				out.writeInt(s.ante());
+				out.writeInt(s.pairPlus());
+			}
+			case GAME_DEAL -> {
+				Message.Deal d = (Message.Deal) m;
+				writeCards(out, d.hand());
+				out.writeInt(d.ante());
+				out.writeInt(d.pairPlus());
+			}
+			case PLAY, FOLD, PING, PONG, SIM_CANCEL -> { }
+			case GAME_RESULT -> {
+				Message.Result r = (Message.Result) m;
+				writeCards(out, r.hand());
+				writeCards(out, r.dealerHand());
+				out.writeInt(r.antePayout());
+				out.writeInt(r.pairPlusPayout());
+				writeText(out, r.note());
+			}
+			case LOG -> {
+				List<String> lines = ((Message.LogLines) m).lines();
+				if (lines.size() > MAX_LOG_LINES) throw new InvalidObjectException("too many log lines: " + lines.size());
+				out.writeInt(lines.size());
+				long total = 0;
+				for (String line : lines) {
+					total += writeText(out, line);
+					if (total > MAX_LOG_BYTES) throw new InvalidObjectException("log text too long: " + total + " bytes");
+				}
+			}
+			case RESUMED -> {
+				Message.Resumed r = (Message.Resumed) m;
+				writeText(out, r.token());
+				writeCards(out, r.hand());
+				out.writeInt(r.ante());
+				out.writeInt(r.pairPlus());
+				writeSpots(out, r.spots());
+			}
+			case AUTO_HAND -> {
+				Message.AutoHand a = (Message.AutoHand) m;
+				writeCards(out, a.hand());
+				writeCards(out, a.dealerHand());
+				out.writeInt(a.ante());
+				out.writeInt(a.pairPlus());
+			}
+			case MULTI_START -> writeSpots(out, ((Message.MultiStart) m).bets());
+			case MULTI_DEAL -> writeSpots(out, ((Message.MultiDeal) m).spots());
+			case MULTI_DECIDE -> {
+				boolean[] plays = ((Message.MultiDecide) m).plays();
+				out.writeByte(plays.length);
+				for (boolean play : plays) out.writeBoolean(play);
+			}
+			case MULTI_RESULT -> {
+				Message.MultiResult r = (Message.MultiResult) m;
+				writeSpots(out, r.spots());
+				writeCards(out, r.dealerHand());
+				writeText(out, r.note());
+			}
+			case AUTO_PLAY -> {
+				AutoPlay a = (AutoPlay) m;
+				out.writeByte(a.getRule().ordinal());
+				out.writeInt(a.getAnte());
+				out.writeInt(a.getPairPlus());
+				out.writeInt(a.getHands());
+				out.writeBoolean(a.isStreamHands());
+			}
+			case AUTO_RESULT -> {
+				AutoPlayResult r = (AutoPlayResult) m;
+				out.writeInt(r.getHandsRequested());
+				out.writeInt(r.getHandsDealt());
+				out.writeInt(r.getPlayed());
+				out.writeInt(r.getFolded());
+				out.writeInt(r.getWins());
+				out.writeInt(r.getLosses());
+				out.writeInt(r.getPushes());
+				out.writeLong(r.getWagered());
+				out.writeLong(r.getNet());
+				out.writeInt(r.getChips());
+				writeText(out, r.getStopReason());
+			}
+			case SIMULATE -> {
+				SimulationRequest s = (SimulationRequest) m;
+				out.writeByte(s.getRule().ordinal());
+				out.writeInt(s.getAnte());
+				out.writeInt(s.getPairPlus());
+				out.writeLong(s.getHands());
+				int[] paytable = s.getPairPlusPaytable();
+				out.writeByte(paytable == null ? -1 : paytable.length);
+				if (paytable != null) for (int x : paytable) out.writeInt(x);
+				out.writeLong(s.getSeed());
+			}
+			case SIM_PROGRESS -> {
+				SimulationProgress p = (SimulationProgress) m;
+				out.writeLong(p.getId());
+				out.writeByte(p.getState().ordinal());
+				out.writeLong(p.getHandsDone());
+				out.writeLong(p.getHandsTotal());
+				out.writeDouble(p.getMeanNet());
+				out.writeDouble(p.getStdDev());
+				out.writeDouble(p.getCi95());
+				out.writeInt(p.getStake());
+				out.writeLong(p.getElapsedMillis());
+				writeText(out, p.getMessage());
+			}
+		}
+	}
+
+	/** Read one message written by write(). */
+	public static Message read(DataInput in) throws IOException {
+		int version = in.readUnsignedByte();
+		if (version != VERSION) throw new InvalidObjectException("unsupported message version " + version);
+		int t = in.readUnsignedByte();
+		if (t >= TYPES.length) throw new InvalidObjectException("bad message type " + t);
+		return switch (TYPES[t]) {
+			case CHAT -> new Message.Chat(readText(in));
+			case WELCOME -> new Message.Welcome(readText(in));
+			case RESUME -> new Message.Resume(readText(in));
+			case BUSY -> new Message.Busy(in.readInt(), readText(in));
+			case START -> new Message.Start(in.readInt(), in.readInt());
+			case GAME_DEAL -> new Message.Deal(readCards(in), in.readInt(), in.readInt());
+			case PLAY -> new Message.Play();
+			case FOLD -> new Message.Fold();
+			case PING -> new Message.Ping();
+			case PONG -> new Message.Pong();
+			case SIM_CANCEL -> new Message.SimCancel();
+			case GAME_RESULT -> new Message.Result(readCards(in), readCards(in), in.readInt(), in.readInt(), readText(in));
+			case LOG -> {
+				int n = in.readInt();
+				if (n < 0 || n > MAX_LOG_LINES) throw new InvalidObjectException("bad log size " + n);
+				List<String> lines = new ArrayList<>(n);
+				long total = 0;
+				for (int i = 0; i < n; i++) {
+					int length = in.readInt();
+					total += Math.max(length, 0);
+					if (total > MAX_LOG_BYTES) throw new InvalidObjectException("log text too long: " + total + " bytes");
+					lines.add(readText(in, length));
+				}
+				yield new Message.LogLines(lines);
+			}
+			case RESUMED -> new Message.Resumed(readText(in), readCards(in), in.readInt(), in.readInt(), readSpots(in));
+			case AUTO_HAND -> new Message.AutoHand(readCards(in), readCards(in), in.readInt(), in.readInt());
+			case MULTI_START -> new Message.MultiStart(readSpots(in));
+			case MULTI_DEAL -> new Message.MultiDeal(readSpots(in));
+			case MULTI_DECIDE -> {
+				boolean[] plays = new boolean[in.readUnsignedByte()];
+				for (int i = 0; i < plays.length; i++) plays[i] = in.readBoolean();
+				yield new Message.MultiDecide(plays);
+			}
+			case MULTI_RESULT -> new Message.MultiResult(readSpots(in), readCards(in), readText(in));
+			case AUTO_PLAY -> new AutoPlay(readEnum(in, RULES), in.readInt(), in.readInt(), in.readInt(), in.readBoolean());
+			case AUTO_RESULT -> new AutoPlayResult(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+					in.readInt(), in.readInt(), in.readLong(), in.readLong(), in.readInt(), readText(in));
+			case SIMULATE -> {
+				AutoPlay.Rule rule = readEnum(in, RULES);
+				int ante = in.readInt();
+				int pairPlus = in.readInt();
+				long hands = in.readLong();
+				int n = in.readByte();
+				int[] paytable = n < 0 ? null : new int[n];
+				for (int i = 0; i < n; i++) paytable[i] = in.readInt();
+				yield new SimulationRequest(rule, ante, pairPlus, hands, paytable, in.readLong());
+			}
+			case SIM_PROGRESS -> new SimulationProgress(in.readLong(), readEnum(in, STATES), in.readLong(), in.readLong(),
+					in.readDouble(), in.readDouble(), in.readDouble(), in.readInt(), in.readLong(), readText(in));
+		};
+	}
+
+	private static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+		int i = in.readUnsignedByte();
+		if (i >= values.length) throw new InvalidObjectException("bad " + values[0].getDeclaringClass().getSimpleName() + " " + i);
+		return values[i];
+	}
+
+	/** Write text as its length and UTF-8 bytes; return the number of text bytes written. */
+	private static int writeText(DataOutput out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return 0;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > MAX_TEXT_BYTES) throw new InvalidObjectException("text too long: " + bytes.length + " bytes");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+		return bytes.length;
+	}
+
+	private static String readText(DataInput in) throws IOException {
+		return readText(in, in.readInt());
+	}
+
+	/** Read the UTF-8 bytes of text whose length prefix n was already read. */
+	private static String readText(DataInput in, int n) throws IOException {
+		if (n == -1) return null;
+		if (n < 0 || n > MAX_TEXT_BYTES) throw new InvalidObjectException("bad text length " + n);
+		byte[] bytes = new byte[n];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeCards(DataOutput out, List<Card> cards) throws IOException {
+		if (cards == null) {
+			out.writeByte(NULL_CARDS);
+			return;
+		}
+		if (cards.size() >= NULL_CARDS) throw new InvalidObjectException("too many cards: " + cards.size());
+		out.writeByte(cards.size());
+		for (Card c : cards) out.writeByte(c.index());
+	}
+
+	private static List<Card> readCards(DataInput in) throws IOException {
+		int n = in.readUnsignedByte();
+		if (n == NULL_CARDS) return null;
+		List<Card> cards = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			int index = in.readUnsignedByte();
+			if (index >= Card.COUNT) throw new InvalidObjectException("bad card index " + index);
+			cards.add(Card.of(index));
+		}
+		return cards;
+	}
+
+	/** A count byte (255 for null), then each spot's flags, bets, hand and settlement. */
+	private static void writeSpots(DataOutput out, Spot[] spots) throws IOException {
+		if (spots == null) {
+			out.writeByte(NULL_CARDS);
+			return;
+		}
+		if (spots.length >= NULL_CARDS) throw new InvalidObjectException("too many spots: " + spots.length);
+		out.writeByte(spots.length);
+		for (Spot spot : spots) {
+			List<Card> hand = spot.getHand();
+			out.writeByte((hand != null ? SPOT_HAND : 0) | (spot.isSettled() ? SPOT_SETTLED : 0)
+					| (spot.isPlayed() ? SPOT_PLAYED : 0));
+			out.writeInt(spot.getAnte());
+			out.writeInt(spot.getPairPlus());
+			if (hand != null) writeCards(out, hand);
+			if (spot.isSettled()) {
+				out.writeByte(spot.getResult());
+				out.writeInt(spot.getAntePayout());
+				out.writeInt(spot.getPairPlusPayout());
+			}
+		}
+	}
+
+	private static Spot[] readSpots(DataInput in) throws IOException {
+		int n = in.readUnsignedByte();
+		if (n == NULL_CARDS) return null;
+		Spot[] spots = new Spot[n];
+		for (int i = 0; i < n; i++) {
+			int flags = in.readByte();
+			int ante = in.readInt();
+			int pairPlus = in.readInt();
+			List<Card> hand = (flags & SPOT_HAND) != 0 ? readCards(in) : null;
+			if ((flags & SPOT_SETTLED) == 0) {
+				spots[i] = new Spot(ante, pairPlus, hand);
+			} else {
+				int result = in.readByte();
+				spots[i] = new Spot(ante, pairPlus, hand, (flags & SPOT_PLAYED) != 0, result, in.readInt(), in.readInt());
+			}
+		}
+		return spots;
+	}
+}
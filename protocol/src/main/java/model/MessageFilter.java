@@ -0,0 +1,95 @@
+package model;
+
+import java.io.ObjectInputFilter;
+
+/**
+ * MessageFilter - an ObjectInputFilter for one connection's incoming object stream.
+ *
+ * Responsibilities:
+ * - Admit only the protocol's classes: the MessageWire envelope and the Message it resolves to.
+ *   Everything else (collections, arrays, arbitrary Serializable classes) is rejected before
+ *   an instance is created.
+ * - Cap each message's graph depth, object references, array length and stream bytes, so a
+ *   crafted stream cannot build deep graphs or keep the reader busy on one message.
+ * - Remember which limit was hit, so the reader can count it and close the connection.
+ *
+ * The stream's own reference and byte counts grow for the life of the connection, so the
+ * reader calls nextMessage() before each readObject() and the limits apply to what was read
+ * since then. A message's payload is read by MessageCodec, which bounds every length it
+ * allocates for; its byte count is checked when the envelope resolves to the message.
+ * One filter serves one stream and is used only by that stream's reading thread.
+ */
+public final class MessageFilter implements ObjectInputFilter {
+
+	/** The limit a rejected stream broke. */
+	public enum Limit { CLASS, DEPTH, REFERENCES, ARRAY, BYTES }
+
+	/** Default nesting depth; a message is an envelope at depth 1. */
+	public static final int DEFAULT_MAX_DEPTH = 4;
+	/** Default references per message (the envelope, its class descriptor and the message). */
+	public static final int DEFAULT_MAX_REFERENCES = 16;
+	/** Default array length; messages carry no serialized arrays. */
+	public static final int DEFAULT_MAX_ARRAY_LENGTH = 0;
+	/** Default stream bytes per message: the longest text plus room for the other fields. */
+	public static final int DEFAULT_MAX_MESSAGE_BYTES = MessageCodec.MAX_TEXT_BYTES + 16 * 1024;
+
+	private final int maxDepth;
+	private final int maxReferences;
+	private final int maxArrayLength;
+	private final long maxMessageBytes;
+
+	// Stream counts at the start of the current message, and at the latest check
+	private long startReferences, startBytes;
+	private long lastReferences, lastBytes;
+	private Limit violation;
+
+	/** A filter with the default limits. */
+	public MessageFilter() {
+		this(DEFAULT_MAX_DEPTH, DEFAULT_MAX_REFERENCES, DEFAULT_MAX_ARRAY_LENGTH, DEFAULT_MAX_MESSAGE_BYTES);
+	}
+
+	/**
+	 * param maxDepth        deepest nesting allowed
+	 * param maxReferences   object references one message may read
+	 * param maxArrayLength  longest array allowed
+	 * param maxMessageBytes stream bytes one message may take
+	 */
+	public MessageFilter(int maxDepth, int maxReferences, int maxArrayLength, long maxMessageBytes) {
+		this.maxDepth = maxDepth;
+		this.maxReferences = maxReferences;
+		this.maxArrayLength = maxArrayLength;
+		this.maxMessageBytes = maxMessageBytes;
+	}
+
+	/** Start the per-message limits over; call before each readObject(). */
+	public void nextMessage() {
+		startReferences = lastReferences;
+		startBytes = lastBytes;
+	}
+
+	/** Return the limit that caused a rejection, or null if nothing was rejected. */
+	public Limit violation() {
+		return violation;
+	}
+
+	@Override
+	public Status checkInput(FilterInfo info) {
+		lastReferences = info.references();
+		lastBytes = info.streamBytes();
+		Limit limit = check(info);
+		if (limit == null) return Status.ALLOWED;
+		if (violation == null) violation = limit;
+		return Status.REJECTED;
+	}
+
+	private Limit check(FilterInfo info) {
+		if (info.depth() > maxDepth) return Limit.DEPTH;
+		if (lastReferences - startReferences > maxReferences) return Limit.REFERENCES;
+		if (lastBytes - startBytes > maxMessageBytes) return Limit.BYTES;
+		if (info.arrayLength() > maxArrayLength) return Limit.ARRAY;
+		Class<?> clazz = info.serialClass();
+		// null: a back-reference or a bare limits check, covered above
+		if (clazz == null || clazz == MessageWire.class || Message.class.isAssignableFrom(clazz)) return null;
+		return Limit.CLASS;
+	}
+}
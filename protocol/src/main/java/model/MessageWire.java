@@ -0,0 +1,45 @@
+package model;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * MessageWire - the envelope every Message is serialized as.
+ *
+ * Responsibilities:
+ * - Let messages travel over the existing object streams while writing only
+ *   MessageCodec's bytes: one class descriptor (this one) per stream, then a type byte
+ *   and the message's fields for each message.
+ * - Resolve back to the message on read.
+ *
+ * The public no-argument constructor is for deserialization only.
+ */
+final class MessageWire implements Externalizable {
+	private static final long serialVersionUID = 1L;
+	private Message message;
+
+	public MessageWire() {
+	}
+
+	MessageWire(Message message) {
+		this.message = message;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		MessageCodec.write(out, message);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		message = MessageCodec.read(in);
+	}
+
+	private Object readResolve() throws InvalidObjectException {
+		if (message == null) throw new InvalidObjectException("empty message envelope");
+		return message;
+	}
+}
@@ -0,0 +1,73 @@
+package model;
+
+/**
+ * SimulationProgress is a SIM_PROGRESS update the server streams while a
+ * simulation runs, and once more when it ends.
+ *
+ * Responsibilities:
+ * - Report hands done so far and the running mean, standard deviation and
+ *   95% confidence interval of the net result per hand.
+ * - Say whether the run is still going, finished, was cancelled or failed.
+ */
+public final class SimulationProgress implements Message {
+	private static final long serialVersionUID = -7796213585418316548L;
+
+	public enum State { RUNNING, DONE, CANCELLED, FAILED }
+
+	private final long id;
+	private final State state;
+	private final long handsDone;
+	private final long handsTotal;
+	private final double meanNet;
+	private final double stdDev;
+	private final double ci95;
+	private final int stake;
+	private final long elapsedMillis;
+	private final String message;
+
+	public SimulationProgress(long id, State state, long handsDone, long handsTotal, double meanNet,
+			double stdDev, double ci95, int stake, long elapsedMillis, String message) {
+		this.id = id;
+		this.state = state;
+		this.handsDone = handsDone;
+		this.handsTotal = handsTotal;
+		this.meanNet = meanNet;
+		this.stdDev = stdDev;
+		this.ci95 = ci95;
+		this.stake = stake;
+		this.elapsedMillis = elapsedMillis;
+		this.message = message;
+	}
+
+	public long getId() { return id; }
+	public State getState() { return state; }
+	public long getHandsDone() { return handsDone; }
+	public long getHandsTotal() { return handsTotal; }
+	/** Mean chips won (positive) or lost (negative) per hand. */
+	public double getMeanNet() { return meanNet; }
+	public double getStdDev() { return stdDev; }
+	/** Half-width of the 95% confidence interval around getMeanNet(). */
+	public double getCi95() { return ci95; }
+	/** Ante plus Pair Plus staked on each hand. */
+	public int getStake() { return stake; }
+	public long getElapsedMillis() { return elapsedMillis; }
+	/** Error text for FAILED, otherwise null. */
+	public String getMessage() { return message; }
+
+	/** Mean return per chip staked (e.g. -0.034 is a 3.4% house edge). */
+	public double getReturnPerChip() {
+		return stake == 0 ? 0 : meanNet / stake;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(java.util.Locale.ROOT, "#%d %s %,d/%,d hands, net/hand %.5f +/- %.5f (sd %.3f), return %.4f%%, %.1fs%s",
+				id, state, handsDone, handsTotal, meanNet, ci95, stdDev, getReturnPerChip() * 100,
+				elapsedMillis / 1000.0, message == null ? "" : " (" + message + ")");
+	}
+
+	@Override
+	public Type type() { return Type.SIM_PROGRESS; }
+
+	private Object writeReplace() { return new MessageWire(this); }
+}
@@ -0,0 +1,52 @@
+package model;
+
+/**
+ * SimulationRequest is a SIMULATE request: play a large number of hands offline
+ * with the real game rules and report what a strategy returns.
+ *
+ * Responsibilities:
+ * - Carry the decision rule, the bets, the number of hands, an optional Pair
+ *   Plus paytable and an optional seed for repeatable runs.
+ */
+public final class SimulationRequest implements Message {
+	private static final long serialVersionUID = 6427311987425103315L;
+
+	/** Hand ranks a paytable lists multipliers for, in this order. */
+	public static final String[] PAYTABLE_RANKS = { "PAIR", "FLUSH", "STRAIGHT", "THREE_OF_A_KIND", "STRAIGHT_FLUSH" };
+
+	private final AutoPlay.Rule rule;
+	private final int ante;
+	private final int pairPlus;
+	private final long hands;
+	private final int[] pairPlusPaytable;
+	private final long seed;
+
+	/**
+	 * param rule             PLAY/FOLD decision rule
+	 * param ante             ante bet per hand
+	 * param pairPlus         Pair Plus bet per hand
+	 * param hands            number of hands to simulate
+	 * param pairPlusPaytable multipliers for PAYTABLE_RANKS, or null for the house table
+	 * param seed             random seed (0 = pick one)
+	 */
+	public SimulationRequest(AutoPlay.Rule rule, int ante, int pairPlus, long hands, int[] pairPlusPaytable, long seed) {
+		this.rule = rule;
+		this.ante = ante;
+		this.pairPlus = pairPlus;
+		this.hands = hands;
+		this.pairPlusPaytable = pairPlusPaytable == null ? null : pairPlusPaytable.clone();
+		this.seed = seed;
+	}
+
+	public AutoPlay.Rule getRule() { return rule; }
+	public int getAnte() { return ante; }
+	public int getPairPlus() { return pairPlus; }
+	public long getHands() { return hands; }
+	public int[] getPairPlusPaytable() { return pairPlusPaytable == null ? null : pairPlusPaytable.clone(); }
+	public long getSeed() { return seed; }
+
+	@Override
+	public Type type() { return Type.SIMULATE; }
+
+	private Object writeReplace() { return new MessageWire(this); }
+}
@@ -0,0 +1,108 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spot is one hand of a multi-spot round: the player bets on several spots at once,
+ * every spot is dealt from the same deck and all of them face one dealer hand.
+ *
+ * Responsibilities:
+ * - Carry a spot's ante and Pair Plus bets (MULTI_START), its three cards (MULTI_DEAL)
+ *   and, once settled, whether it was played and what it returned (MULTI_RESULT).
+ *
+ * Spots are immutable; the server sends a fresh one for every stage of the round.
+ */
+public class Spot implements Serializable {
+	private static final long serialVersionUID = 6204815963361705184L;
+
+	/** Most spots one round may have (10 spots and the dealer use 33 of the 52 cards). */
+	public static final int MAX_SPOTS = 10;
+
+	/**
+	 * Largest ante or Pair Plus bet on one spot. A full round at this bet returns at most
+	 * MAX_SPOTS * (2 + 40) * MAX_BET chips (a won ante plus a straight flush), well inside an int.
+	 */
+	public static final int MAX_BET = 1_000_000;
+
+	private final int ante;
+	private final int pairPlus;
+	private final List<Card> hand;
+	private final boolean settled;
+	private final boolean played;
+	private final int result;
+	private final int antePayout;
+	private final int pairPlusPayout;
+
+	/**
+	 * A bet on one spot, before the deal.
+	 *
+	 * param ante     ante bet
+	 * param pairPlus Pair Plus bet
+	 */
+	public Spot(int ante, int pairPlus) {
+		this(ante, pairPlus, null, false, false, 0, 0, 0);
+	}
+
+	/**
+	 * A dealt spot waiting for the player's decision.
+	 *
+	 * param ante     ante bet
+	 * param pairPlus Pair Plus bet
+	 * param hand     the spot's three cards
+	 */
+	public Spot(int ante, int pairPlus, List<Card> hand) {
+		this(ante, pairPlus, hand, false, false, 0, 0, 0);
+	}
+
+	/**
+	 * A settled spot.
+	 *
+	 * param ante           ante bet
+	 * param pairPlus       Pair Plus bet
+	 * param hand           the spot's three cards
+	 * param played         true if played, false if folded
+	 * param result         compareHands outcome when played (-1 dealer wins, 0 push, +1 spot wins)
+	 * param antePayout     ante returned (0 when folded)
+	 * param pairPlusPayout Pair Plus returned (0 when folded)
+	 */
+	public Spot(int ante, int pairPlus, List<Card> hand, boolean played, int result, int antePayout, int pairPlusPayout) {
+		this(ante, pairPlus, hand, true, played, result, antePayout, pairPlusPayout);
+	}
+
+	private Spot(int ante, int pairPlus, List<Card> hand, boolean settled, boolean played, int result,
+			int antePayout, int pairPlusPayout) {
+		this.ante = ante;
+		this.pairPlus = pairPlus;
+		this.hand = hand == null ? null : new ArrayList<>(hand);
+		this.settled = settled;
+		this.played = played;
+		this.result = result;
+		this.antePayout = antePayout;
+		this.pairPlusPayout = pairPlusPayout;
+	}
+
+	public int getAnte() { return ante; }
+	public int getPairPlus() { return pairPlus; }
+	public List<Card> getHand() { return hand; }
+	public boolean isSettled() { return settled; }
+	public boolean isPlayed() { return played; }
+	public int getResult() { return result; }
+	public int getAntePayout() { return antePayout; }
+	public int getPairPlusPayout() { return pairPlusPayout; }
+
+	/** Return what the spot returned minus what was staked on it (0 until settled). */
+	public int getNet() {
+		return settled ? antePayout + pairPlusPayout - ante - pairPlus : 0;
+	}
+
+	@Override
+	public String toString() {
+		String cards = String.valueOf(hand);
+		if (!settled) return cards + " ante $" + ante + ", pair plus $" + pairPlus;
+		String outcome = !played ? "folded" : result > 0 ? "won" : result < 0 ? "lost" : "push";
+		int net = getNet();
+		return cards + " " + outcome + " (" + (net >= 0 ? "+" : "") + net + ")";
+	}
+}
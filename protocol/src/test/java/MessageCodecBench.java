@@ -0,0 +1,97 @@
+import model.Card;
+import model.Message;
+import model.MessageCodec;
+import model.Spot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MessageCodecBench - micro-benchmarks for the message codec.
+ *
+ * Responsibilities:
+ * - Time encode and decode of a few representative messages through MessageCodec alone, and a
+ *   write + read through object streams the way a connection carries them.
+ * - Report ns/op and encoded size for each, after a warmup, so a layout change can be compared
+ *   before and after.
+ *
+ * Run with: mvn -Pbench test-compile exec:java [-Dexec.args="<iterations>"]
+ */
+public class MessageCodecBench {
+
+    private static final int DEFAULT_ITERATIONS = 200_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    // Results are folded into this so the JIT cannot drop the work being timed
+    private static long sink;
+
+    private interface Op {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+
+        List<Card> hand = List.of(Card.of(0), Card.of(17), Card.of(51));
+        List<Card> dealer = List.of(Card.of(9), Card.of(22), Card.of(35));
+        Spot[] spots = new Spot[Spot.MAX_SPOTS];
+        for (int i = 0; i < spots.length; i++) spots[i] = new Spot(10, 5, hand, i % 2 == 0, -1, 20, 0);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20; i++) lines.add("Player 3 played hand " + i + " and won 25 chips");
+
+        Message[] messages = {
+                new Message.Deal(hand, 25, 10),
+                new Message.Result(hand, dealer, 50, 0, "Dealer does not qualify"),
+                new Message.MultiResult(spots, dealer, null),
+                new Message.LogLines(lines)
+        };
+
+        System.out.printf("%-12s %6s %12s %12s %12s%n", "message", "bytes", "encode ns", "decode ns", "stream ns");
+        for (Message m : messages) {
+            byte[] encoded = encode(m);
+            double encodeNs = time(iterations, () -> sink += encode(m).length);
+            double decodeNs = time(iterations, () -> sink += decode(encoded).type().ordinal());
+            double streamNs = time(iterations / 10, () -> sink += streamRoundTrip(m));
+            System.out.printf("%-12s %6d %12.1f %12.1f %12.1f%n", m.type(), encoded.length, encodeNs, decodeNs, streamNs);
+        }
+        System.out.println("(sink " + (sink & 1) + ")");
+    }
+
+    /** Average ns per run of op over iterations, after WARMUP_ROUNDS untimed passes. */
+    private static double time(int iterations, Op op) throws Exception {
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            for (int i = 0; i < iterations; i++) op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) op.run();
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+    private static byte[] encode(Message m) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        MessageCodec.write(new DataOutputStream(bytes), m);
+        return bytes.toByteArray();
+    }
+
+    private static Message decode(byte[] data) throws IOException {
+        return MessageCodec.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    /** One message through fresh object streams, as the first message on a connection costs. */
+    private static int streamRoundTrip(Message m) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeUnshared(m);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return ((Message) in.readObject()).type().ordinal();
+        }
+    }
+}
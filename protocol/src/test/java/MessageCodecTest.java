@@ -0,0 +1,247 @@
+import model.AutoPlay;
+import model.AutoPlayResult;
+import model.Card;
+import model.Message;
+import model.MessageCodec;
+import model.SimulationProgress;
+import model.SimulationRequest;
+import model.Spot;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conformance tests for MessageCodec: every message type survives both the raw codec and an
+ * object stream, the byte layout of a few messages is pinned, damaged input only ever fails
+ * with an IOException, and each size limit sits at the same point for the writer and the reader,
+ * so one side never sends what the other closes the connection over.
+ */
+public class MessageCodecTest {
+
+    private static final long SEED = 342L;
+
+    private static byte[] encode(Message m) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageCodec.write(new DataOutputStream(bytes), m);
+        return bytes.toByteArray();
+    }
+
+    private static Message decode(byte[] data) throws IOException {
+        return MessageCodec.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    private static List<Card> randomCards(Random rnd) {
+        if (rnd.nextInt(8) == 0) return null;
+        List<Card> cards = new ArrayList<>();
+        for (int i = rnd.nextInt(4); i > 0; i--) cards.add(Card.of(rnd.nextInt(Card.COUNT)));
+        return cards;
+    }
+
+    private static String randomText(Random rnd) {
+        if (rnd.nextInt(8) == 0) return null;
+        StringBuilder sb = new StringBuilder();
+        for (int i = rnd.nextInt(20); i > 0; i--) sb.append(i % 7 == 0 ? '♠' : (char) ('a' + rnd.nextInt(26)));
+        return sb.toString();
+    }
+
+    private static Spot[] randomSpots(Random rnd) {
+        if (rnd.nextInt(8) == 0) return null;
+        Spot[] spots = new Spot[rnd.nextInt(Spot.MAX_SPOTS + 1)];
+        for (int i = 0; i < spots.length; i++) {
+            int ante = rnd.nextInt(30), pairPlus = rnd.nextInt(30);
+            switch (rnd.nextInt(3)) {
+                case 0 -> spots[i] = new Spot(ante, pairPlus);
+                case 1 -> spots[i] = new Spot(ante, pairPlus, randomCards(rnd));
+                default -> spots[i] = new Spot(ante, pairPlus, randomCards(rnd), rnd.nextBoolean(),
+                        rnd.nextInt(3) - 1, rnd.nextInt(100), rnd.nextInt(1000));
+            }
+        }
+        return spots;
+    }
+
+    /** A message of the given type with random fields, including nulls where a field allows them. */
+    private static Message randomMessage(Random rnd, Message.Type type) {
+        switch (type) {
+            case CHAT: return new Message.Chat(randomText(rnd));
+            case WELCOME: return new Message.Welcome(randomText(rnd));
+            case RESUME: return new Message.Resume(randomText(rnd));
+            case BUSY: return new Message.Busy(rnd.nextInt(60_000), randomText(rnd));
+            case START: return new Message.Start(rnd.nextInt(), rnd.nextInt());
+            case GAME_DEAL: return new Message.Deal(randomCards(rnd), rnd.nextInt(), rnd.nextInt());
+            case PLAY: return new Message.Play();
+            case FOLD: return new Message.Fold();
+            case PING: return new Message.Ping();
+            case PONG: return new Message.Pong();
+            case SIM_CANCEL: return new Message.SimCancel();
+            case GAME_RESULT: return new Message.Result(randomCards(rnd), randomCards(rnd), rnd.nextInt(),
+                    rnd.nextInt(), randomText(rnd));
+            case LOG: {
+                List<String> lines = new ArrayList<>();
+                for (int i = rnd.nextInt(5); i > 0; i--) lines.add(randomText(rnd));
+                return new Message.LogLines(lines);
+            }
+            case RESUMED: return new Message.Resumed(randomText(rnd), randomCards(rnd), rnd.nextInt(),
+                    rnd.nextInt(), randomSpots(rnd));
+            case AUTO_HAND: return new Message.AutoHand(randomCards(rnd), randomCards(rnd), rnd.nextInt(),
+                    rnd.nextInt());
+            case MULTI_START: return new Message.MultiStart(randomSpots(rnd));
+            case MULTI_DEAL: return new Message.MultiDeal(randomSpots(rnd));
+            case MULTI_DECIDE: {
+                boolean[] plays = new boolean[rnd.nextInt(Spot.MAX_SPOTS + 1)];
+                for (int i = 0; i < plays.length; i++) plays[i] = rnd.nextBoolean();
+                return new Message.MultiDecide(plays);
+            }
+            case MULTI_RESULT: return new Message.MultiResult(randomSpots(rnd), randomCards(rnd), randomText(rnd));
+            case AUTO_PLAY: return new AutoPlay(AutoPlay.Rule.values()[rnd.nextInt(AutoPlay.Rule.values().length)],
+                    rnd.nextInt(), rnd.nextInt(), rnd.nextInt(), rnd.nextBoolean());
+            case AUTO_RESULT: return new AutoPlayResult(rnd.nextInt(), rnd.nextInt(), rnd.nextInt(), rnd.nextInt(),
+                    rnd.nextInt(), rnd.nextInt(), rnd.nextInt(), rnd.nextLong(), rnd.nextLong(), rnd.nextInt(),
+                    randomText(rnd));
+            case SIMULATE: {
+                int[] paytable = rnd.nextBoolean() ? null : new int[rnd.nextInt(6)];
+                if (paytable != null) for (int i = 0; i < paytable.length; i++) paytable[i] = rnd.nextInt(50);
+                return new SimulationRequest(AutoPlay.Rule.values()[rnd.nextInt(AutoPlay.Rule.values().length)],
+                        rnd.nextInt(), rnd.nextInt(), rnd.nextLong(), paytable, rnd.nextLong());
+            }
+            case SIM_PROGRESS: return new SimulationProgress(rnd.nextLong(),
+                    SimulationProgress.State.values()[rnd.nextInt(SimulationProgress.State.values().length)],
+                    rnd.nextLong(), rnd.nextLong(), rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble(),
+                    rnd.nextInt(), rnd.nextLong(), randomText(rnd));
+            default: throw new AssertionError("no generator for " + type);
+        }
+    }
+
+    @Test
+    void testEveryTypeRoundTrips() throws Exception {
+        Random rnd = new Random(SEED);
+        for (int round = 0; round < 50; round++) {
+            for (Message.Type type : Message.Type.values()) {
+                Message m = randomMessage(rnd, type);
+                byte[] bytes = encode(m);
+
+                // records with arrays compare by reference, so compare what they encode to instead
+                Message back = decode(bytes);
+                assertEquals(type, back.type());
+                assertArrayEquals(bytes, encode(back), type + " changed on a codec round trip");
+
+                ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(stream)) {
+                    out.writeObject(m);
+                }
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(stream.toByteArray()))) {
+                    assertArrayEquals(bytes, encode((Message) in.readObject()),
+                            type + " changed on an object stream round trip");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGoldenBytes() throws Exception {
+        // version 1, type ordinal, then the fields; these pin the layout that both sides depend on
+        HexFormat hex = HexFormat.of();
+        List<Card> hand = List.of(Card.of(0), Card.of(17), Card.of(51));
+        assertEquals("0101" + "03001133" + "00000019" + "0000000a",
+                hex.formatHex(encode(new Message.Deal(hand, 25, 10))));
+        assertEquals("0100" + "00000002" + "6869", hex.formatHex(encode(new Message.Chat("hi"))));
+        assertEquals("0106", hex.formatHex(encode(new Message.Play())));
+        assertEquals("0116" + "000005dc" + "00000004" + "66756c6c", hex.formatHex(encode(new Message.Busy(1500, "full"))));
+        assertEquals("0102" + "03001133" + "ff" + "00000019" + "fffffffb" + "ffffffff",
+                hex.formatHex(encode(new Message.Result(hand, null, 25, -5, null))));
+        assertEquals("0112" + "02" + "07" + "0000000a" + "00000005" + "03001133" + "ff" + "00000014" + "00000000"
+                        + "00" + "00000000" + "00000000",
+                hex.formatHex(encode(new Message.MultiStart(new Spot[] {
+                        new Spot(10, 5, hand, true, -1, 20, 0),
+                        new Spot(0, 0)
+                }))));
+
+        assertEquals(new Message.Deal(hand, 25, 10), decode(hex.parseHex("0101" + "03001133" + "00000019" + "0000000a")));
+    }
+
+    @Test
+    void testLimitsMatchOnBothSides() throws Exception {
+        String atLimit = "x".repeat(MessageCodec.MAX_TEXT_BYTES);
+        assertEquals(atLimit, ((Message.Chat) decode(encode(new Message.Chat(atLimit)))).text());
+        assertThrows(IOException.class, () -> encode(new Message.Chat(atLimit + "x")));
+        byte[] overLimit = HexFormat.of().parseHex("0100" + String.format("%08x", MessageCodec.MAX_TEXT_BYTES + 1));
+        assertThrows(IOException.class, () -> decode(overLimit));
+
+        // the limit counts UTF-8 bytes, not characters: each spade is three
+        String spades = "♠".repeat(MessageCodec.MAX_TEXT_BYTES / 3 + 1);
+        assertThrows(IOException.class, () -> encode(new Message.Chat(spades)));
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < MessageCodec.MAX_LOG_LINES; i++) lines.add("line " + i);
+        assertEquals(lines, ((Message.LogLines) decode(encode(new Message.LogLines(lines)))).lines());
+        lines.add("one too many");
+        assertThrows(IOException.class, () -> encode(new Message.LogLines(lines)));
+
+        // five full-size lines pass the per-line limit but not the per-message one
+        List<String> heavy = new ArrayList<>();
+        for (int i = 0; i < 5; i++) heavy.add(atLimit);
+        assertThrows(IOException.class, () -> encode(new Message.LogLines(heavy)));
+        ByteArrayOutputStream forged = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(forged);
+        out.writeByte(1);
+        out.writeByte(Message.Type.LOG.ordinal());
+        out.writeInt(heavy.size());
+        for (String line : heavy) {
+            out.writeInt(line.length());
+            out.writeBytes(line);
+        }
+        assertThrows(IOException.class, () -> decode(forged.toByteArray()));
+
+        List<Card> tooMany = new ArrayList<>();
+        for (int i = 0; i < 255; i++) tooMany.add(Card.of(i % Card.COUNT));
+        assertThrows(IOException.class, () -> encode(new Message.Deal(tooMany, 1, 1)));
+        assertThrows(IOException.class, () -> decode(HexFormat.of().parseHex("0206")), "an unknown version is refused");
+    }
+
+    @Test
+    void testDamagedInputOnlyThrowsIOException() throws Exception {
+        Random rnd = new Random(SEED);
+        Message.Type[] types = Message.Type.values();
+        for (int i = 0; i < 20_000; i++) {
+            byte[] data;
+            if (i % 4 == 0) {
+                data = new byte[rnd.nextInt(40)];
+                rnd.nextBytes(data);
+                if (data.length > 0) data[0] = 1; // get past the version check most of the time
+            } else {
+                data = encode(randomMessage(rnd, types[rnd.nextInt(types.length)]));
+                if (i % 4 == 1) {
+                    data = Arrays.copyOf(data, rnd.nextInt(data.length));
+                } else {
+                    for (int flips = 1 + rnd.nextInt(3); flips > 0; flips--) {
+                        data[rnd.nextInt(data.length)] = (byte) rnd.nextInt(256);
+                    }
+                }
+            }
+            try {
+                Message m = decode(data);
+                // whatever decodes must encode again
+                assertEquals(m.type(), decode(encode(m)).type());
+            } catch (IOException expected) {
+                // EOFException or InvalidObjectException; anything else fails the test
+            }
+        }
+
+        byte[] huge = HexFormat.of().parseHex("0107" + "7fffffff");
+        assertThrows(IOException.class, () -> decode(huge), "a log size is bounded before allocating");
+        byte[] longText = HexFormat.of().parseHex("0100" + "7fffffff");
+        assertThrows(IOException.class, () -> decode(longText), "a text length is bounded before allocating");
+    }
+}
@@ -0,0 +1,154 @@
+import model.Card;
+import model.Message;
+import model.MessageFilter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageFilter on streams written the way the server and client write them: unshared, with a
+ * reset every 1024 messages. The stream's own reference and byte counts only ever grow, so the
+ * tests pin that nextMessage() keeps each message's count flat across thousands of messages and
+ * several resets, and that a reader which skips it is soon cut off. Foreign classes and oversized
+ * messages are rejected with the first limit broken named.
+ */
+public class MessageFilterTest {
+
+    private static byte[] write(Object... objects) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Object o : objects) out.writeObject(o);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Read every object from data through the filter; return how many were read before a rejection. */
+    private static int readAll(byte[] data, MessageFilter filter, int count) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.setObjectInputFilter(filter);
+            for (int i = 0; i < count; i++) {
+                filter.nextMessage();
+                try {
+                    assertTrue(in.readObject() instanceof Message);
+                } catch (InvalidClassException rejected) {
+                    return i;
+                }
+            }
+            return count;
+        }
+    }
+
+    /** Write count messages the way Server.send and Client.send do. */
+    private static byte[] conversation(int count, IntFunction<Message> message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (int i = 0; i < count; i++) {
+                out.writeUnshared(message.apply(i));
+                if (i % 1024 == 1023) out.reset();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Message mixed(int i) {
+        switch (i % 3) {
+            case 0: return new Message.Start(10, 5);
+            case 1: return new Message.Chat("hand " + i);
+            default: return new Message.Deal(List.of(Card.of(i % Card.COUNT)), 10, 5);
+        }
+    }
+
+    @Test
+    void testLongConversationPasses() throws Exception {
+        int count = 5000;
+        byte[] data = conversation(count, MessageFilterTest::mixed);
+        MessageFilter filter = new MessageFilter();
+        assertEquals(count, readAll(data, filter, count));
+        assertNull(filter.violation());
+    }
+
+    @Test
+    void testCountsStayFlatAcrossResets() throws Exception {
+        // the first message, and the first after each reset, also reads the envelope's class
+        // descriptor: two references. Every other message is one. Four resets happen below.
+        int count = 5000;
+        byte[] data = conversation(count, MessageFilterTest::mixed);
+        MessageFilter tight = new MessageFilter(1, 2, 0, 256);
+        assertEquals(count, readAll(data, tight, count), "a per-message count crept up: " + tight.violation());
+        assertNull(tight.violation());
+
+        // a reader that never calls nextMessage() measures the whole stream instead
+        MessageFilter forgetful = new MessageFilter();
+        int read = 0;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.setObjectInputFilter(forgetful);
+            while (read < count) {
+                in.readObject();
+                read++;
+            }
+        } catch (InvalidClassException rejected) {
+            // expected
+        }
+        assertEquals(MessageFilter.Limit.REFERENCES, forgetful.violation());
+        assertTrue(read <= MessageFilter.DEFAULT_MAX_REFERENCES, "read " + read + " messages");
+    }
+
+    @Test
+    void testForeignClassesAreRejected() throws Exception {
+        MessageFilter filter = new MessageFilter();
+        assertEquals(1, readAll(write(new Message.Play(), new ArrayList<>(List.of("x"))), filter, 2));
+        assertEquals(MessageFilter.Limit.CLASS, filter.violation());
+
+        // an array's class is refused before its length is even read
+        filter = new MessageFilter();
+        assertEquals(0, readAll(write((Object) new int[1_000_000]), filter, 1));
+        assertEquals(MessageFilter.Limit.CLASS, filter.violation());
+
+        // cards only travel inside messages
+        filter = new MessageFilter();
+        assertEquals(0, readAll(write(Card.of(3)), filter, 1));
+        assertEquals(MessageFilter.Limit.CLASS, filter.violation());
+    }
+
+    @Test
+    void testLimitsAreEnforcedPerMessage() throws Exception {
+        Message small = new Message.Chat("hi");
+        Message big = new Message.Chat("x".repeat(4000));
+
+        MessageFilter filter = new MessageFilter(4, 16, 0, 1024);
+        assertEquals(3, readAll(write(small, small, small, big, small), filter, 5));
+        assertEquals(MessageFilter.Limit.BYTES, filter.violation());
+
+        filter = new MessageFilter(0, 16, 0, 1024);
+        assertEquals(0, readAll(write(small), filter, 1));
+        assertEquals(MessageFilter.Limit.DEPTH, filter.violation());
+
+        filter = new MessageFilter(4, 1, 0, 1024);
+        assertEquals(0, readAll(write(small), filter, 1));
+        assertEquals(MessageFilter.Limit.REFERENCES, filter.violation());
+
+        // the first limit broken is the one reported, whatever the reader tries next
+        filter = new MessageFilter(4, 16, 0, 1024);
+        assertEquals(0, readAll(write(big, new ArrayList<>()), filter, 2));
+        assertEquals(MessageFilter.Limit.BYTES, filter.violation());
+        filter.checkInput(new ObjectInputFilter.FilterInfo() {
+            @Override public Class<?> serialClass() { return ArrayList.class; }
+            @Override public long arrayLength() { return -1; }
+            @Override public long depth() { return 1; }
+            @Override public long references() { return 0; }
+            @Override public long streamBytes() { return 0; }
+        });
+        assertEquals(MessageFilter.Limit.BYTES, filter.violation());
+    }
+}
@@ -0,0 +1,148 @@
+import model.AutoPlay;
+import model.Card;
+import model.Message;
+import model.SimulationProgress;
+import model.Spot;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The message records on a real object stream: every field survives a round trip, cards come
+ * back as the shared instances, a deal is a few bytes, and a message sent again on the same
+ * stream carries its current contents rather than a back-reference to what was sent before.
+ */
+public class MessageTest {
+
+    private static byte[] write(Object... objects) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Object o : objects) out.writeObject(o);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object[] read(byte[] data, int count) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            Object[] objects = new Object[count];
+            for (int i = 0; i < count; i++) objects[i] = in.readObject();
+            return objects;
+        }
+    }
+
+    private static Card card(Card.Suit s, Card.Rank r) {
+        return Card.of(s, r);
+    }
+
+    @Test
+    void testRoundTripKeepsEveryField() throws Exception {
+        List<Card> player = List.of(card(Card.Suit.HEART, Card.Rank.ACE), card(Card.Suit.CLUB, Card.Rank.KING),
+                card(Card.Suit.SPADE, Card.Rank.TWO));
+        List<Card> dealer = List.of(card(Card.Suit.DIAMOND, Card.Rank.TEN), card(Card.Suit.DIAMOND, Card.Rank.JACK),
+                card(Card.Suit.DIAMOND, Card.Rank.QUEEN));
+        Message.Result result = new Message.Result(player, dealer, 25, 10, "Dealer wins ♠");
+        Message.LogLines log = new Message.LogLines(List.of("first", "", "third line"));
+        Spot[] spots = {
+                new Spot(10, 5),
+                new Spot(10, 0, player),
+                new Spot(20, 5, dealer, true, -1, 0, 30),
+                new Spot(5, 5, player, false, 0, 0, 0)
+        };
+        Message.MultiResult multi = new Message.MultiResult(spots, dealer, null);
+        Message.MultiDecide decide = new Message.MultiDecide(new boolean[] {true, false, true});
+        AutoPlay auto = new AutoPlay(AutoPlay.Rule.Q64, 10, 5, 100, false);
+        SimulationProgress progress = new SimulationProgress(7, SimulationProgress.State.DONE, 1000, 1000,
+                -0.25, 1.5, 0.01, 20, 1234, null);
+        Message.Resumed resumed = new Message.Resumed("token", null, 0, 0, null);
+
+        Object[] back = read(write(result, log, multi, decide, auto, progress, resumed), 7);
+
+        assertEquals(result, back[0]);
+        assertEquals(log, back[1]);
+
+        Message.MultiResult m = (Message.MultiResult) back[2];
+        assertEquals(spots.length, m.spots().length);
+        for (int i = 0; i < spots.length; i++) {
+            assertEquals(spots[i].toString(), m.spots()[i].toString());
+            assertEquals(spots[i].getNet(), m.spots()[i].getNet());
+            assertEquals(spots[i].isSettled(), m.spots()[i].isSettled());
+        }
+        assertEquals(dealer, m.dealerHand());
+        assertNull(m.note());
+
+        assertArrayEquals(new boolean[] {true, false, true}, ((Message.MultiDecide) back[3]).plays());
+
+        AutoPlay a = (AutoPlay) back[4];
+        assertEquals(Message.Type.AUTO_PLAY, a.type());
+        assertEquals(100, a.getHands());
+        assertEquals(AutoPlay.Rule.Q64, a.getRule());
+
+        assertEquals(progress.toString(), back[5].toString());
+        assertEquals(resumed, back[6]);
+    }
+
+    @Test
+    void testCardsAreShared() throws Exception {
+        assertSame(card(Card.Suit.SPADE, Card.Rank.QUEEN), card(Card.Suit.SPADE, Card.Rank.QUEEN));
+        List<Card> all = new ArrayList<>();
+        for (Card.Suit s : Card.Suit.values())
+            for (Card.Rank r : Card.Rank.values()) all.add(card(s, r));
+        assertEquals(Card.COUNT, all.size());
+        for (Card c : all) {
+            assertSame(c, Card.of(c.index()));
+            assertSame(c, Card.of(c.getSuit(), c.getRank()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Card.of(Card.COUNT));
+
+        // a card on its own goes through the one-byte proxy and resolves to the same instance
+        Card king = card(Card.Suit.HEART, Card.Rank.KING);
+        Message.Deal deal = new Message.Deal(List.of(king), 5, 0);
+        Object[] back = read(write(king, deal), 2);
+        assertSame(king, back[0]);
+        assertSame(king, ((Message.Deal) back[1]).hand().get(0));
+        assertEquals("/images/cards/heart-13-256.png", king.getImagePath());
+    }
+
+    @Test
+    void testDealIsCompact() throws Exception {
+        Message.Deal deal = new Message.Deal(List.of(Card.of(0), Card.of(17), Card.of(51)), 25, 25);
+        Message.Deal again = new Message.Deal(List.of(Card.of(3), Card.of(4), Card.of(40)), 25, 25);
+        int first = write(deal).length;
+        int both = write(deal, again).length;
+        // after the class descriptor: object and block headers, version and type, three card
+        // bytes with their count, and two ints
+        assertTrue(both - first <= 24, "second deal took " + (both - first) + " bytes");
+        assertTrue(first < 80, "first deal took " + first + " bytes");
+    }
+
+    @Test
+    void testResendOnTheSameStreamIsFresh() throws Exception {
+        // records do not copy their lists, and the senders reset their streams only every few
+        // hundred messages, so they write each message unshared
+        List<Card> hand = new ArrayList<>(List.of(Card.of(1), Card.of(2), Card.of(3)));
+        Message.Deal deal = new Message.Deal(hand, 10, 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeUnshared(deal);
+            hand.set(0, Card.of(50));
+            out.writeUnshared(deal);
+            // a shared write of the same instance is only a back-reference to the first
+            out.writeObject(deal);
+            out.writeObject(deal);
+        }
+        Object[] back = read(bytes.toByteArray(), 4);
+        assertEquals(Card.of(1), ((Message.Deal) back[0]).hand().get(0));
+        assertEquals(Card.of(50), ((Message.Deal) back[1]).hand().get(0), "the resend carried stale cards");
+        assertNotSame(back[0], back[1]);
+        assertEquals(back[1], back[2]);
+        assertSame(back[2], back[3]);
+    }
+}
@@ -0,0 +1,133 @@
+package analysis;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import model.AutoPlay;
+import model.Message;
+import model.SimulationProgress;
+import model.SimulationRequest;
+
+/**
+ * SimulateClient - asks a running server what a strategy returns over many hands.
+ *
+ * Responsibilities:
+ * - Send one SIMULATE request and print each SIM_PROGRESS update as it streams in.
+ * - Cancel the simulation (SIM_CANCEL) on Ctrl-C and print the final figures.
+ * - Ping the server while waiting, so a long run is not closed as idle.
+ *
+ * Usage: java -cp ... analysis.SimulateClient --port 5555 --rule q64 --ante 10 --pairplus 10 --hands 1000000000
+ */
+public class SimulateClient {
+
+    public static void main(String[] args) throws Exception {
+        String host = "localhost";
+        int port = 5555;
+        AutoPlay.Rule rule = AutoPlay.Rule.Q64;
+        int ante = 10;
+        int pairPlus = 0;
+        long hands = 10_000_000;
+        int[] paytable = null;
+        long seed = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (flag.equals("--help") || flag.equals("-h")) {
+                    printUsage();
+                    return;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException(flag + " needs a value");
+                String v = args[++i];
+                switch (flag) {
+                    case "--host": host = v; break;
+                    case "--port": port = Integer.parseInt(v); break;
+                    case "--rule": rule = AutoPlay.Rule.valueOf(v.trim().toUpperCase()); break;
+                    case "--ante": ante = Integer.parseInt(v); break;
+                    case "--pairplus": pairPlus = Integer.parseInt(v); break;
+                    case "--hands": hands = (long) Double.parseDouble(v); break;
+                    case "--paytable": {
+                        String[] parts = v.split(",");
+                        paytable = new int[parts.length];
+                        for (int k = 0; k < parts.length; k++) paytable[k] = Integer.parseInt(parts[k].trim());
+                        break;
+                    }
+                    case "--seed": seed = Long.parseLong(v); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + flag);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try (Socket socket = new Socket(host, port)) {
+            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+            ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+            CountDownLatch finished = new CountDownLatch(1);
+
+            send(out, new SimulationRequest(rule, ante, pairPlus, hands, paytable, seed));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (finished.getCount() == 0) return;
+                try {
+                    send(out, new Message.SimCancel());
+                    finished.await(5, TimeUnit.SECONDS);
+                } catch (IOException | InterruptedException ignored) {
+                }
+            }, "simulate-cancel"));
+            Thread pinger = new Thread(() -> {
+                try {
+                    while (finished.getCount() > 0) {
+                        if (finished.await(15, TimeUnit.SECONDS)) return;
+                        send(out, new Message.Ping());
+                    }
+                } catch (IOException | InterruptedException ignored) {
+                }
+            }, "simulate-ping");
+            pinger.setDaemon(true);
+            pinger.start();
+
+            boolean started = false;
+            while (true) {
+                Message info = (Message) in.readObject();
+                if (info instanceof Message.Chat chat) {
+                    System.out.println("Server: " + chat.text());
+                    // before the first update, a CHAT means the request was refused
+                    if (!started) break;
+                } else if (info instanceof SimulationProgress p) {
+                    started = true;
+                    System.out.println(p);
+                    if (p.getState() != SimulationProgress.State.RUNNING) break;
+                }
+            }
+            finished.countDown();
+        }
+    }
+
+    private static void send(ObjectOutputStream out, Message info) throws IOException {
+        synchronized (out) {
+            out.writeObject(info);
+            out.flush();
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println(String.join("\n",
+                "Usage: SimulateClient [options]",
+                "  --host H          server host (localhost)",
+                "  --port N          server port (5555)",
+                "  --rule R          play, fold or q64 (q64)",
+                "  --ante N          ante per hand (10)",
+                "  --pairplus N      Pair Plus per hand (0)",
+                "  --hands N         hands to simulate, e.g. 1e9 (1e7)",
+                "  --paytable L      Pair Plus multipliers for pair,flush,straight,trips,straight flush",
+                "                    (default: the server's table, 1,4,6,30,40)",
+                "  --seed N          random seed for a repeatable run"));
+    }
+}
@@ -0,0 +1,293 @@
+package loadgen;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import model.Message;
+
+/**
+ * Bot - one simulated player speaking the real Message protocol over its own connection.
+ *
+ * Responsibilities:
+ * - Connect, wait for WELCOME, then play hands on request: START, wait for GAME_DEAL, think,
+ *   PLAY or FOLD by strategy, wait for GAME_RESULT.
+ * - Read continuously on its own thread, so LOG broadcasts and heartbeats are drained even
+ *   while the bot is idle and a slow bot never backs up the server's writes.
+ * - Time every step and report errors (I/O, throttling, missing replies) to LoadStats.
+ *
+ * A hand is started by the LoadGenerator with the time it was meant to start. START latency is
+ * measured from that time, not from when the bot got to send it, so a backed-up server shows
+ * up as latency instead of silently lowering the offered load (coordinated omission).
+ */
+class Bot {
+
+    private enum State { CONNECTING, IDLE, AWAIT_DEAL, THINKING, AWAIT_RESULT, CLOSED }
+
+    private final int index;
+    private final LoadGenerator.Options options;
+    private final LoadStats stats;
+    private final LoadGenerator generator;
+    private final ScheduledExecutorService scheduler;
+    private final Random random;
+
+    private Socket socket;
+    private ObjectOutputStream out;
+    private ObjectInputStream in;
+
+    // Guarded by 'this'
+    private State state = State.CONNECTING;
+    private long handSeq;
+    private long intendedNanos;
+    private long startSentNanos;
+    private long dealLatencyNanos;
+    private long decisionSentNanos;
+    private Message.Type decision;
+    private long connectStartNanos;
+
+    Bot(int index, LoadGenerator.Options options, LoadStats stats, LoadGenerator generator,
+        ScheduledExecutorService scheduler, long seed) {
+        this.index = index;
+        this.options = options;
+        this.stats = stats;
+        this.generator = generator;
+        this.scheduler = scheduler;
+        this.random = new Random(seed);
+    }
+
+    /** Open the connection and start the reader thread. Returns false if the connect failed. */
+    boolean connect() {
+        synchronized (this) {
+            connectStartNanos = System.nanoTime();
+        }
+        try {
+            socket = new Socket();
+            socket.connect(new InetSocketAddress(options.host, options.port), (int) options.timeoutMillis);
+            socket.setTcpNoDelay(true);
+            out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+        } catch (IOException e) {
+            stats.connectFailures.increment();
+            close();
+            return false;
+        }
+        // small stacks: a run may hold thousands of these threads
+        Thread reader = new Thread(null, this::readLoop, "bot-" + index, 256 * 1024);
+        reader.setDaemon(true);
+        reader.start();
+        return true;
+    }
+
+    private void readLoop() {
+        try {
+            in = new ObjectInputStream(socket.getInputStream());
+            while (true) {
+                Object obj = in.readObject();
+                stats.messagesReceived.increment();
+                if (obj instanceof Message) {
+                    onMessage((Message) obj);
+                } else {
+                    stats.unexpected.increment();
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            fail();
+        }
+    }
+
+    private void onMessage(Message msg) {
+        long now = System.nanoTime();
+        switch (msg.type()) {
+            case LOG:
+                stats.logsReceived.increment();
+                return;
+            case PING:
+                send(new Message.Pong());
+                return;
+            case PONG:
+                return;
+            case WELCOME:
+                onWelcome(now);
+                return;
+            case GAME_DEAL:
+                onDeal((Message.Deal) msg, now);
+                return;
+            case GAME_RESULT:
+                onResult(now);
+                return;
+            case CHAT:
+                onChat((Message.Chat) msg);
+                return;
+            case BUSY:
+                onBusy();
+                return;
+            default:
+                stats.unexpected.increment();
+        }
+    }
+
+    private void onWelcome(long now) {
+        synchronized (this) {
+            if (state != State.CONNECTING) return;
+            state = State.IDLE;
+            stats.record(LoadStats.Metric.CONNECT, now - connectStartNanos);
+        }
+        generator.botReady(this);
+    }
+
+    private void onDeal(Message.Deal msg, long now) {
+        long seq;
+        synchronized (this) {
+            if (state != State.AWAIT_DEAL) {
+                stats.unexpected.increment();
+                return;
+            }
+            state = State.THINKING;
+            dealLatencyNanos = now - intendedNanos;
+            stats.record(LoadStats.Metric.START, dealLatencyNanos);
+            stats.record(LoadStats.Metric.START_SERVICE, now - startSentNanos);
+            decision = options.strategy.shouldPlay(msg.hand(), random)
+                    ? Message.Type.PLAY : Message.Type.FOLD;
+            seq = handSeq;
+        }
+        long think = options.thinkMillis(random);
+        if (think <= 0) {
+            sendDecision(seq);
+        } else {
+            scheduler.schedule(() -> sendDecision(seq), think, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendDecision(long seq) {
+        Message msg;
+        synchronized (this) {
+            if (state != State.THINKING || handSeq != seq) return;
+            state = State.AWAIT_RESULT;
+            decisionSentNanos = System.nanoTime();
+            msg = decision == Message.Type.PLAY ? new Message.Play() : new Message.Fold();
+        }
+        send(msg);
+    }
+
+    private void onResult(long now) {
+        synchronized (this) {
+            if (state != State.AWAIT_RESULT) {
+                stats.unexpected.increment();
+                return;
+            }
+            long service = now - decisionSentNanos;
+            stats.record(decision == Message.Type.PLAY ? LoadStats.Metric.PLAY : LoadStats.Metric.FOLD, service);
+            stats.record(LoadStats.Metric.HAND, dealLatencyNanos + service);
+            stats.handsCompleted.increment();
+            state = State.IDLE;
+        }
+        generator.handFinished(this);
+    }
+
+    private void onChat(Message.Chat msg) {
+        String text = msg.text();
+        if (text != null && text.startsWith("Too many")) {
+            // the throttled request was dropped; the hand's timeout releases the bot
+            stats.throttled.increment();
+        } else if (text != null && text.startsWith("Round in progress")) {
+            // shared table: the bet is held and the deal comes with the next round
+        } else {
+            stats.unexpected.increment();
+        }
+    }
+
+    /**
+     * Start a hand that was meant to begin at intendedNanos (a System.nanoTime() reading).
+     * Called only for an idle bot.
+     */
+    void startHand(long intendedNanos) {
+        long seq;
+        synchronized (this) {
+            if (state != State.IDLE) return;
+            state = State.AWAIT_DEAL;
+            seq = ++handSeq;
+            this.intendedNanos = intendedNanos;
+            this.startSentNanos = System.nanoTime();
+        }
+        scheduler.schedule(() -> checkTimeout(seq), options.timeoutMillis, TimeUnit.MILLISECONDS);
+        send(new Message.Start(options.ante, options.pairPlus));
+    }
+
+    /** Give up on a hand that got no reply in time, so the bot can take the next one. */
+    private void checkTimeout(long seq) {
+        synchronized (this) {
+            if (handSeq != seq || state == State.IDLE || state == State.CLOSED) return;
+            stats.timeouts.increment();
+            // a late GAME_DEAL/GAME_RESULT for this hand will be counted as unexpected
+            state = State.IDLE;
+        }
+        generator.handFinished(this);
+    }
+
+    /** Send a heartbeat so the server's idle timeout does not close a bot waiting for work. */
+    void ping() {
+        synchronized (this) {
+            if (state == State.CLOSED || state == State.CONNECTING) return;
+        }
+        send(new Message.Ping());
+    }
+
+    private void send(Message msg) {
+        try {
+            synchronized (out) {
+                out.writeObject(msg);
+                out.flush();
+                // drop back-references so the stream does not retain every message sent
+                out.reset();
+            }
+            stats.messagesSent.increment();
+        } catch (IOException e) {
+            fail();
+        }
+    }
+
+    /** The server refused this connection under load: count it and drop the bot (not an I/O error). */
+    private void onBusy() {
+        synchronized (this) {
+            if (state == State.CLOSED) return;
+            state = State.CLOSED;
+        }
+        stats.refused.increment();
+        closeSocket();
+        generator.botLost(this);
+    }
+
+    /** Count an I/O error and drop the bot, unless it was closed on purpose. */
+    private void fail() {
+        synchronized (this) {
+            if (state == State.CLOSED) return;
+            state = State.CLOSED;
+        }
+        stats.ioErrors.increment();
+        closeSocket();
+        generator.botLost(this);
+    }
+
+    synchronized boolean isBusy() {
+        return state == State.AWAIT_DEAL || state == State.THINKING || state == State.AWAIT_RESULT;
+    }
+
+    void close() {
+        synchronized (this) {
+            state = State.CLOSED;
+        }
+        closeSocket();
+    }
+
+    private void closeSocket() {
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package loadgen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator - drives many concurrent bots against a running Server and reports latency,
+ * throughput and error rates.
+ *
+ * Responsibilities:
+ * - Parse options, then open the requested number of connections at a bounded connect rate.
+ * - Offer hands either open-loop (a fixed or Poisson arrival rate across all bots) or
+ *   closed-loop (every bot plays back to back with its think time in between).
+ * - Keep bots alive with heartbeats, print a progress line periodically and a summary at the end.
+ *
+ * Open-loop arrivals are scheduled ahead of time. When no bot is free, the arrival waits in a
+ * backlog and keeps its original start time, so a slow server cannot lower the offered load
+ * without that delay showing in the START latency.
+ *
+ * Usage: java -cp ... loadgen.LoadGenerator --port 5555 --connections 2000 --rate 500 --duration 60
+ */
+public class LoadGenerator {
+
+    /** Run settings, filled from the command line. */
+    static final class Options {
+        String host = "localhost";
+        int port = 5555;
+        int connections = 100;
+        int connectRate = 500;        // new connections per second
+        double rate = 0;              // hands per second across all bots; 0 = closed loop
+        boolean poisson = true;       // open-loop arrival process
+        int durationSeconds = 60;
+        long thinkMinMillis = 0;
+        long thinkMaxMillis = 0;
+        Strategy strategy = Strategy.Q64;
+        int ante = 10;
+        int pairPlus = 5;
+        long timeoutMillis = 5000;    // per reply; also the connect timeout
+        int reportSeconds = 5;
+        long heartbeatSeconds = 15;
+        int maxBacklog = 1_000_000;
+        long seed = System.nanoTime();
+
+        /** Draw a think time between thinkMinMillis and thinkMaxMillis. */
+        long thinkMillis(Random random) {
+            if (thinkMaxMillis <= thinkMinMillis) return thinkMinMillis;
+            return thinkMinMillis + (long) (random.nextDouble() * (thinkMaxMillis - thinkMinMillis));
+        }
+    }
+
+    private final Options options;
+    private final LoadStats stats = new LoadStats();
+    private final ScheduledExecutorService scheduler;
+    private final List<Bot> bots = new ArrayList<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private volatile boolean running = true;
+
+    // Guarded by 'this': idle bots and open-loop arrivals waiting for one
+    private final ArrayDeque<Bot> idle = new ArrayDeque<>();
+    private final ArrayDeque<Long> backlog = new ArrayDeque<>();
+
+    LoadGenerator(Options options) {
+        this.options = options;
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "loadgen-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        if (options == null) {
+            printUsage();
+            return;
+        }
+        new LoadGenerator(options).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Load run: %d connections to %s:%d, %s, %ds, strategy %s%n",
+                options.connections, options.host, options.port,
+                options.rate > 0 ? (options.poisson ? "Poisson" : "fixed") + " arrivals at " + options.rate + " hands/s"
+                        : "closed loop", options.durationSeconds, options.strategy);
+        long start = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> stats.progress(System.out, System.nanoTime() - start,
+                connected.get(), backlogSize()), options.reportSeconds, options.reportSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::heartbeat, options.heartbeatSeconds, options.heartbeatSeconds, TimeUnit.SECONDS);
+
+        long end = start + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        connectAll(end);
+        if (options.rate > 0) {
+            dispatchArrivals(end);
+        } else {
+            LockSupport.parkNanos(end - System.nanoTime());
+        }
+        running = false;
+
+        // let hands in flight finish (or time out) before reporting
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMillis);
+        while (System.nanoTime() < drainDeadline && anyBusy()) {
+            Thread.sleep(20);
+        }
+        long elapsed = System.nanoTime() - start;
+        scheduler.shutdownNow();
+        synchronized (bots) {
+            for (Bot bot : bots) bot.close();
+        }
+        stats.summary(System.out, elapsed);
+    }
+
+    /** Open every connection, pacing them at the connect rate. */
+    private void connectAll(long end) {
+        Random seeds = new Random(options.seed);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, options.connectRate);
+        long next = System.nanoTime();
+        for (int i = 0; i < options.connections && System.nanoTime() < end; i++) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += intervalNanos;
+            Bot bot = new Bot(i, options, stats, this, scheduler, seeds.nextLong());
+            synchronized (bots) {
+                bots.add(bot);
+            }
+            if (bot.connect()) {
+                connected.incrementAndGet();
+            }
+        }
+    }
+
+    /** Generate open-loop arrivals until the end of the run. */
+    private void dispatchArrivals(long end) {
+        Random random = new Random(options.seed ^ 0x5DEECE66DL);
+        double meanNanos = 1e9 / options.rate;
+        long intended = System.nanoTime();
+        while (true) {
+            double gap = options.poisson ? -Math.log(1 - random.nextDouble()) * meanNanos : meanNanos;
+            intended += (long) gap;
+            if (intended >= end) break;
+            LockSupport.parkNanos(intended - System.nanoTime());
+            arrival(intended);
+        }
+    }
+
+    private void arrival(long intendedNanos) {
+        Bot bot;
+        synchronized (this) {
+            bot = idle.poll();
+            if (bot == null) {
+                if (backlog.size() >= options.maxBacklog) {
+                    stats.droppedArrivals.increment();
+                } else {
+                    backlog.add(intendedNanos);
+                }
+                return;
+            }
+        }
+        bot.startHand(intendedNanos);
+    }
+
+    /** Called by a bot once its WELCOME arrives. */
+    void botReady(Bot bot) {
+        handFinished(bot);
+    }
+
+    /** Called by a bot when a hand completes or times out: give it the next hand or park it. */
+    void handFinished(Bot bot) {
+        if (!running) return;
+        if (options.rate <= 0) {
+            long think = options.thinkMillis(ThreadLocalRandom.current());
+            if (think <= 0) {
+                bot.startHand(System.nanoTime());
+            } else {
+                scheduler.schedule(() -> bot.startHand(System.nanoTime()), think, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        Long next;
+        synchronized (this) {
+            next = backlog.poll();
+            if (next == null) {
+                idle.add(bot);
+                return;
+            }
+        }
+        bot.startHand(next);
+    }
+
+    /** Called by a bot whose connection failed. */
+    void botLost(Bot bot) {
+        connected.decrementAndGet();
+        synchronized (this) {
+            idle.remove(bot);
+        }
+    }
+
+    private synchronized int backlogSize() {
+        return backlog.size();
+    }
+
+    private void heartbeat() {
+        List<Bot> snapshot;
+        synchronized (bots) {
+            snapshot = new ArrayList<>(bots);
+        }
+        for (Bot bot : snapshot) bot.ping();
+    }
+
+    private boolean anyBusy() {
+        synchronized (bots) {
+            for (Bot bot : bots) {
+                if (bot.isBusy()) return true;
+            }
+        }
+        return false;
+    }
+
+    // -------------------------
+    // Command line
+    // -------------------------
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (flag.equals("--help") || flag.equals("-h")) return null;
+            if (i + 1 >= args.length) throw new IllegalArgumentException(flag + " needs a value");
+            String v = args[++i];
+            try {
+                switch (flag) {
+                    case "--host": o.host = v; break;
+                    case "--port": o.port = Integer.parseInt(v); break;
+                    case "--connections": o.connections = Integer.parseInt(v); break;
+                    case "--connect-rate": o.connectRate = Integer.parseInt(v); break;
+                    case "--rate": o.rate = Double.parseDouble(v); break;
+                    case "--arrivals":
+                        if (!v.equals("poisson") && !v.equals("fixed")) {
+                            throw new IllegalArgumentException("--arrivals must be poisson or fixed");
+                        }
+                        o.poisson = v.equals("poisson");
+                        break;
+                    case "--duration": o.durationSeconds = Integer.parseInt(v); break;
+                    case "--think-ms": {
+                        // "200" for a fixed think time, "100-400" for a uniform range
+                        int dash = v.indexOf('-');
+                        o.thinkMinMillis = Long.parseLong(dash < 0 ? v : v.substring(0, dash));
+                        o.thinkMaxMillis = dash < 0 ? o.thinkMinMillis : Long.parseLong(v.substring(dash + 1));
+                        break;
+                    }
+                    case "--strategy": o.strategy = Strategy.parse(v); break;
+                    case "--ante": o.ante = Integer.parseInt(v); break;
+                    case "--pairplus": o.pairPlus = Integer.parseInt(v); break;
+                    case "--timeout-ms": o.timeoutMillis = Long.parseLong(v); break;
+                    case "--report-seconds": o.reportSeconds = Integer.parseInt(v); break;
+                    case "--seed": o.seed = Long.parseLong(v); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + flag);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(flag + " must be a number: " + v);
+            }
+        }
+        if (o.connections <= 0) throw new IllegalArgumentException("--connections must be > 0");
+        if (o.reportSeconds <= 0) throw new IllegalArgumentException("--report-seconds must be > 0");
+        return o;
+    }
+
+    private static void printUsage() {
+        System.err.println(String.join("\n",
+                "Usage: LoadGenerator [options]",
+                "  --host H               server host (localhost)",
+                "  --port N               server port (5555)",
+                "  --connections N        concurrent bots (100)",
+                "  --connect-rate N       new connections per second (500)",
+                "  --rate R               open-loop hands per second across all bots; 0 = closed loop (0)",
+                "  --arrivals A           open-loop arrival process: poisson or fixed (poisson)",
+                "  --duration S           run length in seconds (60)",
+                "  --think-ms T[-U]       think time before PLAY/FOLD, fixed or uniform range (0)",
+                "  --strategy S           play, fold, random or q64 (q64)",
+                "  --ante N --pairplus N  bets per hand (10, 5)",
+                "  --timeout-ms N         give up on a reply after this long (5000)",
+                "  --report-seconds N     progress line interval (5)",
+                "  --seed N               random seed for repeatable runs"));
+    }
+}
@@ -0,0 +1,99 @@
+package loadgen;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import rrosa10Server.LatencyHistogram;
+
+/**
+ * LoadStats - latency histograms and counters shared by every bot in a load run.
+ *
+ * Responsibilities:
+ * - Record per-step latency: connect (socket open to WELCOME), START (from the hand's intended
+ *   start time, so queueing behind a slow server is counted), START service time (from the
+ *   actual send), PLAY and FOLD (from the send), and whole hands.
+ * - Count hands, messages and each kind of error.
+ * - Print periodic progress lines and a final summary.
+ */
+class LoadStats {
+
+    enum Metric { CONNECT, START, START_SERVICE, PLAY, FOLD, HAND }
+
+    private final LatencyHistogram[] latency = new LatencyHistogram[Metric.values().length];
+
+    final LongAdder handsCompleted = new LongAdder();
+    final LongAdder messagesSent = new LongAdder();
+    final LongAdder messagesReceived = new LongAdder();
+    final LongAdder logsReceived = new LongAdder();
+    final LongAdder connectFailures = new LongAdder();
+    // connections the server answered with BUSY
+    final LongAdder refused = new LongAdder();
+    final LongAdder ioErrors = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+    final LongAdder throttled = new LongAdder();
+    final LongAdder unexpected = new LongAdder();
+    final LongAdder droppedArrivals = new LongAdder();
+
+    // last progress line, for per-interval rates (reporter thread only)
+    private long lastHands;
+    private long lastSent;
+    private long lastErrors;
+    private long lastReportNanos;
+
+    LoadStats() {
+        for (int i = 0; i < latency.length; i++) latency[i] = new LatencyHistogram();
+        lastReportNanos = System.nanoTime();
+    }
+
+    void record(Metric metric, long nanos) {
+        latency[metric.ordinal()].record(nanos);
+    }
+
+    long errors() {
+        return connectFailures.sum() + refused.sum() + ioErrors.sum() + timeouts.sum() + throttled.sum()
+                + unexpected.sum() + droppedArrivals.sum();
+    }
+
+    /** Print one progress line with rates since the previous line. */
+    void progress(PrintStream out, long elapsedNanos, int connected, int backlog) {
+        long now = System.nanoTime();
+        double secs = Math.max(1e-9, (now - lastReportNanos) / 1e9);
+        long hands = handsCompleted.sum();
+        long sent = messagesSent.sum();
+        long errors = errors();
+        out.printf(Locale.ROOT, "[%6.1fs] conns=%d hands/s=%.1f msgs/s=%.1f errors/s=%.1f backlog=%d START p99=%.2fms%n",
+                elapsedNanos / 1e9, connected,
+                (hands - lastHands) / secs, (sent - lastSent) / secs, (errors - lastErrors) / secs,
+                backlog, millis(latency[Metric.START.ordinal()].percentile(99)));
+        lastHands = hands;
+        lastSent = sent;
+        lastErrors = errors;
+        lastReportNanos = now;
+    }
+
+    /** Print the end-of-run summary. */
+    void summary(PrintStream out, long elapsedNanos) {
+        double secs = Math.max(1e-9, elapsedNanos / 1e9);
+        out.println();
+        out.printf(Locale.ROOT, "Run time %.1fs, %d hands (%.1f hands/s), %d sent (%.1f/s), %d received, %d LOG lines%n",
+                secs, handsCompleted.sum(), handsCompleted.sum() / secs,
+                messagesSent.sum(), messagesSent.sum() / secs, messagesReceived.sum(), logsReceived.sum());
+        out.printf(Locale.ROOT, "%-14s %10s %10s %10s %10s %10s%n", "latency (ms)", "count", "p50", "p99", "p99.9", "max");
+        for (Metric m : Metric.values()) {
+            LatencyHistogram h = latency[m.ordinal()];
+            out.printf(Locale.ROOT, "%-14s %10d %10.2f %10.2f %10.2f %10.2f%n",
+                    m.name().toLowerCase(Locale.ROOT), h.count(),
+                    millis(h.percentile(50)), millis(h.percentile(99)), millis(h.percentile(99.9)), millis(h.percentile(100)));
+        }
+        long sent = Math.max(1, messagesSent.sum());
+        out.printf(Locale.ROOT, "errors: %d (%.3f%% of sends) - connect %d, refused %d, io %d, timeout %d, throttled %d, unexpected %d, dropped arrivals %d%n",
+                errors(), 100.0 * errors() / sent, connectFailures.sum(), refused.sum(), ioErrors.sum(), timeouts.sum(),
+                throttled.sum(), unexpected.sum(), droppedArrivals.sum());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,47 @@
+package loadgen;
+
+import java.util.List;
+import java.util.Random;
+
+import model.Card;
+import model.ThreeCardLogic;
+
+/**
+ * Strategy - how a bot decides between PLAY and FOLD once its hand is dealt.
+ */
+public enum Strategy {
+    /** Always play. */
+    PLAY,
+    /** Always fold. */
+    FOLD,
+    /** Play or fold with equal odds. */
+    RANDOM,
+    /** Play any pair or better, or a high hand of Queen-6-4 or better (the usual optimal rule). */
+    Q64;
+
+    /**
+     * param hand   the three dealt cards
+     * param random source of randomness for RANDOM
+     * return true to play, false to fold
+     */
+    boolean shouldPlay(List<Card> hand, Random random) {
+        switch (this) {
+            case PLAY:
+                return true;
+            case FOLD:
+                return false;
+            case RANDOM:
+                return random.nextBoolean();
+            default:
+                return hand == null || hand.size() != 3 || ThreeCardLogic.playsQ64(hand);
+        }
+    }
+
+    static Strategy parse(String s) {
+        try {
+            return valueOf(s.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown strategy '" + s + "' (play, fold, random, q64)");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package lobby;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Backend - one poker server node the LobbyRouter can send players to.
+ *
+ * Responsibilities:
+ * - Hold the node's id (the prefix of the session tokens it issues) and its address.
+ * - Track whether it takes new players, and how many proxied connections it carries.
+ */
+final class Backend {
+
+    /**
+     * UP: on the ring, gets new players and resumes.
+     * DRAINING: removed from membership; keeps its live connections and resumes, gets no new players.
+     * DOWN: a connect failed; off the ring until a probe reaches it again.
+     */
+    enum State { UP, DRAINING, DOWN }
+
+    final String id;
+    final String host;
+    final int port;
+    private volatile State state = State.UP;
+    final AtomicInteger connections = new AtomicInteger();
+    final LongAdder routed = new LongAdder();
+
+    Backend(String id, String host, int port) {
+        this.id = id;
+        this.host = host;
+        this.port = port;
+    }
+
+    State getState() { return state; }
+    void setState(State state) { this.state = state; }
+
+    boolean sameAddress(Backend other) {
+        return host.equals(other.host) && port == other.port;
+    }
+
+    @Override
+    public String toString() {
+        return id + "@" + host + ":" + port;
+    }
+}
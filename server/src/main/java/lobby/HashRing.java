@@ -0,0 +1,94 @@
+package lobby;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * HashRing - consistent hashing of keys onto node ids.
+ *
+ * Responsibilities:
+ * - Place every node at many points ("virtual nodes") on a 64-bit ring, so load spreads
+ *   evenly even with few nodes.
+ * - Map a key to the first node point at or after the key's hash, wrapping around.
+ *
+ * Adding or removing a node only moves the keys between that node's points and their
+ * predecessors, about 1/N of all keys, instead of reshuffling everything.
+ *
+ * A ring is immutable: withNode() and withoutNode() return a new ring, so readers can use
+ * the current one without locks while membership changes.
+ */
+public final class HashRing {
+
+    private final int pointsPerNode;
+    private final TreeMap<Long, String> points;
+    private final Set<String> nodes;
+
+    /** param pointsPerNode virtual nodes per node (more = smoother spread, bigger ring) */
+    public HashRing(int pointsPerNode) {
+        this(Math.max(1, pointsPerNode), new TreeMap<>(), Collections.emptySet());
+    }
+
+    private HashRing(int pointsPerNode, TreeMap<Long, String> points, Set<String> nodes) {
+        this.pointsPerNode = pointsPerNode;
+        this.points = points;
+        this.nodes = nodes;
+    }
+
+    /** Return a ring that also holds this node (this ring if it already does). */
+    public HashRing withNode(String node) {
+        if (nodes.contains(node)) return this;
+        TreeMap<Long, String> copy = new TreeMap<>(points);
+        for (int i = 0; i < pointsPerNode; i++) {
+            // on a (very unlikely) collision the smaller id keeps the point, whatever the insert order
+            copy.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+        Set<String> ids = new TreeSet<>(nodes);
+        ids.add(node);
+        return new HashRing(pointsPerNode, copy, Collections.unmodifiableSet(ids));
+    }
+
+    /** Return a ring without this node (this ring if it does not hold it). */
+    public HashRing withoutNode(String node) {
+        if (!nodes.contains(node)) return this;
+        HashRing ring = new HashRing(pointsPerNode);
+        for (String n : nodes) {
+            if (!n.equals(node)) ring = ring.withNode(n);
+        }
+        return ring;
+    }
+
+    /** Return the node owning this key, or null if the ring is empty. */
+    public String nodeFor(String key) {
+        if (points.isEmpty()) return null;
+        Map.Entry<Long, String> e = points.ceilingEntry(hash(key));
+        return (e != null ? e : points.firstEntry()).getValue();
+    }
+
+    /** Return the node ids on the ring, sorted. */
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /** 64-bit FNV-1a over the UTF-8 bytes, finished with a MurmurHash3 mix to spread close keys. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,376 @@
+package lobby;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import log.Level;
+import log.Log;
+import log.Logger;
+
+/**
+ * LobbyRouter - the front door for several poker server processes.
+ *
+ * Responsibilities:
+ * - Accept player connections on one port and proxy each to a backend server node chosen by
+ *   consistent hashing (HashRing) on the player's IP address, so addresses spread evenly, a player
+ *   who reconnects without a usable token lands on the same node again, and a membership change
+ *   moves only a node's share of addresses.
+ * - Send a reconnecting player back to the node named in their session token, where their
+ *   parked session lives (backends run with -Dpoker.node.id so their tokens carry it).
+ * - Rebalance as nodes come and go:
+ *   - A node added to the nodes file joins the ring and starts taking new players.
+ *   - A node removed from the file drains. It keeps its live players and resumes but gets no
+ *     new players.
+ *   - A node that refuses a connection leaves the ring until a probe reaches it again. Its
+ *     players are dropped with it, reconnect through the lobby and land on a surviving node.
+ *
+ * Live connections are never moved between nodes: a player's hand and table are state on the
+ * node, so only new connections follow the ring.
+ *
+ * Usage: java -cp ... lobby.LobbyRouter --port 5555 --backend n1=localhost:5601 --backend n2=localhost:5602
+ *        (or --nodes nodes.txt, one "id host:port" per line, re-read while running)
+ */
+public class LobbyRouter implements AutoCloseable {
+
+    /** Router settings, filled from the command line. */
+    static final class Options {
+        int port = 5555;
+        final Map<String, String> backends = new LinkedHashMap<>();
+        String nodesFile;
+        int reloadSeconds = 5;
+        int probeSeconds = 5;
+        int statusSeconds = 30;
+        int pointsPerNode = 160;
+        int connectTimeoutMillis = 2000;
+    }
+
+    private static final Logger LOG = Log.get("lobby");
+
+    private final Options options;
+    private final ScheduledExecutorService maintenance;
+    private final AtomicLong connectionSeq = new AtomicLong();
+    private final Set<ProxyConnection> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocket listener;
+    private volatile boolean running = true;
+
+    // Written under 'this', read without locks
+    private final Map<String, Backend> backends = new ConcurrentHashMap<>();
+    private volatile HashRing ring;
+
+    LobbyRouter(Options options) {
+        this.options = options;
+        this.ring = new HashRing(options.pointsPerNode);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lobby-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        if (options == null) {
+            printUsage();
+            return;
+        }
+        Log.configure(System.getProperties(), "logs/lobby.log", Level.INFO);
+        LobbyRouter router = new LobbyRouter(options);
+        Runtime.getRuntime().addShutdownHook(new Thread(router::close, "lobby-shutdown"));
+        try {
+            router.run();
+        } catch (IOException e) {
+            System.err.println("Lobby could not start: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /** Load membership, start maintenance and accept players until closed. */
+    void run() throws IOException {
+        reloadMembership();
+        listener = new ServerSocket(options.port);
+        log("Lobby listening on port " + listener.getLocalPort() + ", nodes " + ring.nodes());
+        if (options.nodesFile != null) {
+            maintenance.scheduleWithFixedDelay(this::reloadMembership, options.reloadSeconds, options.reloadSeconds, TimeUnit.SECONDS);
+        }
+        maintenance.scheduleWithFixedDelay(this::probeDownNodes, options.probeSeconds, options.probeSeconds, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(this::logStatus, options.statusSeconds, options.statusSeconds, TimeUnit.SECONDS);
+
+        while (running) {
+            Socket socket;
+            try {
+                socket = listener.accept();
+            } catch (IOException e) {
+                if (running) log("Accept failed: " + e.getMessage());
+                continue;
+            }
+            long id = connectionSeq.incrementAndGet();
+            ProxyConnection connection = new ProxyConnection(this, socket, id);
+            connections.add(connection);
+            Thread t = new Thread(connection, "lobby-client-" + id);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    // -------------------------
+    // Routing (any thread)
+    // -------------------------
+
+    /** Return the node the ring assigns this key to, or null if no node is up. */
+    Backend pick(String key) {
+        String id = ring.nodeFor(key);
+        return id == null ? null : backends.get(id);
+    }
+
+    /** Return the node for a player connecting from this address, or null if no node is up. */
+    Backend pickFor(InetAddress address) {
+        return pick(routingKey(address));
+    }
+
+    /**
+     * The ring key for a player: their IP address alone. The source port and the lobby's
+     * connection counter change on every reconnect, so hashing them would scatter one player.
+     */
+    static String routingKey(InetAddress address) {
+        return address == null ? "" : address.getHostAddress();
+    }
+
+    /**
+     * Return the node that issued a session token ("nodeId.random"), if it can still take
+     * the resume, or null to leave the player where they are.
+     */
+    Backend ownerOf(String token) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0) return null;
+        Backend b = backends.get(token.substring(0, dot));
+        return b != null && b.getState() != Backend.State.DOWN ? b : null;
+    }
+
+    /** Take a node out of rotation after a failed connect. */
+    synchronized void connectFailed(Backend backend, IOException cause) {
+        if (backends.get(backend.id) != backend) return;
+        switch (backend.getState()) {
+            case UP:
+                backend.setState(Backend.State.DOWN);
+                ring = ring.withoutNode(backend.id);
+                log("Node " + backend + " is down (" + cause.getMessage() + "), ring now " + ring.nodes());
+                break;
+            case DRAINING:
+                // nothing left to drain to
+                backends.remove(backend.id);
+                log("Draining node " + backend + " is gone, forgotten");
+                break;
+            default:
+                break;
+        }
+    }
+
+    int connectTimeoutMillis() {
+        return options.connectTimeoutMillis;
+    }
+
+    void closed(ProxyConnection connection) {
+        connections.remove(connection);
+    }
+
+    void log(String line) {
+        LOG.info(line);
+    }
+
+    // -------------------------
+    // Membership (maintenance thread)
+    // -------------------------
+
+    /** Apply the configured node list: join new nodes, drain removed ones, re-point moved ones. */
+    synchronized void reloadMembership() {
+        Map<String, String> addresses = new LinkedHashMap<>(options.backends);
+        Map<String, Backend> wanted = new LinkedHashMap<>();
+        try {
+            if (options.nodesFile != null) {
+                addresses.putAll(readNodes(Paths.get(options.nodesFile)));
+            }
+            for (Map.Entry<String, String> e : addresses.entrySet()) {
+                wanted.put(e.getKey(), parseBackend(e.getKey(), e.getValue()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log("Could not read " + options.nodesFile + ", keeping current nodes: " + e.getMessage());
+            return;
+        }
+        for (Backend fresh : wanted.values()) {
+            Backend known = backends.get(fresh.id);
+            if (known != null && known.sameAddress(fresh)) {
+                if (known.getState() == Backend.State.DRAINING) {
+                    known.setState(Backend.State.UP);
+                    ring = ring.withNode(known.id);
+                    log("Node " + known + " rejoined, ring now " + ring.nodes());
+                }
+                continue;
+            }
+            backends.put(fresh.id, fresh);
+            ring = ring.withNode(fresh.id);
+            log("Node " + fresh + (known == null ? " joined" : " moved from " + known.host + ":" + known.port)
+                    + ", ring now " + ring.nodes());
+        }
+        for (Backend b : backends.values()) {
+            if (wanted.containsKey(b.id) || b.getState() == Backend.State.DRAINING) continue;
+            if (b.getState() == Backend.State.DOWN) {
+                backends.remove(b.id);
+                log("Node " + b + " removed");
+            } else {
+                b.setState(Backend.State.DRAINING);
+                ring = ring.withoutNode(b.id);
+                log("Node " + b + " draining (" + b.connections.get() + " connections), ring now " + ring.nodes());
+            }
+        }
+    }
+
+    /**
+     * Try each DOWN node with a plain connect and put it back on the ring if it answers.
+     * The server opens (and then parks) a session for the probe; it expires with the TTL.
+     */
+    private void probeDownNodes() {
+        for (Backend b : backends.values()) {
+            if (b.getState() != Backend.State.DOWN) continue;
+            try (Socket probe = new Socket()) {
+                probe.connect(new InetSocketAddress(b.host, b.port), options.connectTimeoutMillis);
+            } catch (IOException e) {
+                continue;
+            }
+            synchronized (this) {
+                if (backends.get(b.id) != b || b.getState() != Backend.State.DOWN) continue;
+                b.setState(Backend.State.UP);
+                ring = ring.withNode(b.id);
+                log("Node " + b + " is back up, ring now " + ring.nodes());
+            }
+        }
+    }
+
+    private void logStatus() {
+        StringBuilder sb = new StringBuilder("Lobby: ").append(connections.size()).append(" connections;");
+        for (Backend b : backends.values()) {
+            sb.append(' ').append(b.id).append('=').append(b.getState())
+              .append('/').append(b.connections.get()).append(" live/").append(b.routed.sum()).append(" routed");
+        }
+        log(sb.toString());
+    }
+
+    /** Stop accepting, drop every proxied connection and flush the log. */
+    @Override
+    public void close() {
+        running = false;
+        maintenance.shutdownNow();
+        try {
+            if (listener != null) listener.close();
+        } catch (IOException ignored) {
+        }
+        for (ProxyConnection c : connections) {
+            c.close();
+        }
+        Log.flush();
+    }
+
+    // -------------------------
+    // Command line and nodes file
+    // -------------------------
+
+    /** Read "id host:port" lines; blank lines and '#' comments are skipped. */
+    static Map<String, String> readNodes(Path file) throws IOException {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (String raw : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected \"id host:port\": " + line);
+            nodes.put(parts[0], parts[1]);
+        }
+        return nodes;
+    }
+
+    private static Backend parseBackend(String id, String address) {
+        if (!id.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Node id may only use letters, digits, '_' and '-': " + id);
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("Expected host:port for node " + id + ": " + address);
+        try {
+            return new Backend(id, address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad port for node " + id + ": " + address);
+        }
+    }
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (flag.equals("--help") || flag.equals("-h")) return null;
+            if (i + 1 >= args.length) throw new IllegalArgumentException(flag + " needs a value");
+            String v = args[++i];
+            try {
+                switch (flag) {
+                    case "--port": o.port = Integer.parseInt(v); break;
+                    case "--backend": {
+                        int eq = v.indexOf('=');
+                        if (eq <= 0) throw new IllegalArgumentException("--backend expects id=host:port: " + v);
+                        parseBackend(v.substring(0, eq), v.substring(eq + 1));
+                        o.backends.put(v.substring(0, eq), v.substring(eq + 1));
+                        break;
+                    }
+                    case "--nodes": o.nodesFile = v; break;
+                    case "--reload-seconds": o.reloadSeconds = Integer.parseInt(v); break;
+                    case "--probe-seconds": o.probeSeconds = Integer.parseInt(v); break;
+                    case "--status-seconds": o.statusSeconds = Integer.parseInt(v); break;
+                    case "--vnodes": o.pointsPerNode = Integer.parseInt(v); break;
+                    case "--connect-timeout-ms": o.connectTimeoutMillis = Integer.parseInt(v); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + flag);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(flag + " must be a number: " + v);
+            }
+        }
+        if (o.backends.isEmpty() && o.nodesFile == null) {
+            throw new IllegalArgumentException("Give at least one --backend or a --nodes file");
+        }
+        if (o.reloadSeconds <= 0 || o.probeSeconds <= 0 || o.statusSeconds <= 0) {
+            throw new IllegalArgumentException("Intervals must be > 0");
+        }
+        return o;
+    }
+
+    private static void printUsage() {
+        System.err.println(String.join("\n",
+                "Usage: LobbyRouter [options]",
+                "  --port N                 port players connect to (5555)",
+                "  --backend id=host:port   a server node; repeat for each (its -Dpoker.node.id must match)",
+                "  --nodes FILE             nodes file, one \"id host:port\" per line, re-read while running",
+                "  --reload-seconds N       how often to re-read the nodes file (5)",
+                "  --probe-seconds N        how often to retry nodes that are down (5)",
+                "  --status-seconds N       interval between status lines (30)",
+                "  --vnodes N               ring points per node (160)",
+                "  --connect-timeout-ms N   backend connect timeout (2000)"));
+    }
+}
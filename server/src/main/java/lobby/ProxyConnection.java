@@ -0,0 +1,245 @@
+package lobby;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import model.Message;
+import model.MessageFilter;
+
+/**
+ * ProxyConnection - one player's connection through the LobbyRouter to a backend server.
+ *
+ * Responsibilities:
+ * - On accept, open a link to the backend the ring picks for the player's address and relay
+ *   messages both ways.
+ * - When the player sends RESUME with a token issued by another node, move the link to that
+ *   node so the player gets their parked session (and hand) back.
+ * - Close the player's socket when the backend drops it, so the client reconnects, resumes,
+ *   and is routed again (to a surviving node if its own is gone).
+ *
+ * Messages are relayed as objects rather than bytes: each backend link has its own object
+ * stream, and only re-encoding lets the player's single stream outlive a change of backend.
+ * The backend the player leaves sends a fresh WELCOME that the player has already skipped
+ * once, so the one the new backend sends before answering the RESUME is dropped here.
+ */
+final class ProxyConnection implements Runnable {
+
+    private final LobbyRouter router;
+    private final Socket client;
+    private final long id;
+    private ObjectOutputStream toClient;
+
+    // Guarded by 'this'
+    private Link link;
+    private boolean welcomed;
+    private boolean closed;
+
+    /** A connection to one backend, with the thread relaying its messages to the player. */
+    private final class Link implements Runnable {
+        final Backend backend;
+        final Socket socket;
+        final ObjectOutputStream out;
+        // Guarded by the enclosing ProxyConnection
+        boolean skipWelcome;
+
+        Link(Backend backend) throws IOException {
+            this.backend = backend;
+            this.socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(backend.host, backend.port), router.connectTimeoutMillis());
+                socket.setTcpNoDelay(true);
+                this.out = new ObjectOutputStream(socket.getOutputStream());
+                out.flush();
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        void start() {
+            backend.connections.incrementAndGet();
+            backend.routed.increment();
+            Thread t = new Thread(this, "lobby-" + id + "-" + backend.id);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        @Override
+        public void run() {
+            try (ObjectInputStream in = new ObjectInputStream(socket.getInputStream())) {
+                while (true) {
+                    Object obj = in.readObject();
+                    if (!(obj instanceof Message)) continue;
+                    Message info = (Message) obj;
+                    synchronized (ProxyConnection.this) {
+                        if (link != this) return;
+                        if (info instanceof Message.Welcome) {
+                            if (skipWelcome) {
+                                skipWelcome = false;
+                                continue;
+                            }
+                            welcomed = true;
+                        }
+                    }
+                    sendToClient(info);
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                // the backend closed or failed; handled below
+            } finally {
+                backend.connections.decrementAndGet();
+                boolean current;
+                synchronized (ProxyConnection.this) {
+                    current = link == this;
+                }
+                if (current) close();
+            }
+        }
+
+        void send(Message info) throws IOException {
+            synchronized (out) {
+                out.writeObject(info);
+                out.flush();
+                out.reset();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    ProxyConnection(LobbyRouter router, Socket client, long id) {
+        this.router = router;
+        this.client = client;
+        this.id = id;
+    }
+
+    /** Relay the player's messages until either side closes. Runs on the connection's own thread. */
+    @Override
+    public void run() {
+        try {
+            client.setTcpNoDelay(true);
+            toClient = new ObjectOutputStream(client.getOutputStream());
+            toClient.flush();
+
+            Link first = openLink(router.pickFor(client.getInetAddress()));
+            if (first == null) {
+                sendToClient(new Message.Chat("No poker servers are available, try again later."));
+                return;
+            }
+            synchronized (this) {
+                if (closed) {
+                    first.close();
+                    return;
+                }
+                link = first;
+            }
+            first.start();
+
+            try (ObjectInputStream in = new ObjectInputStream(client.getInputStream())) {
+                // players are untrusted: admit only protocol messages, within the default size limits
+                MessageFilter filter = new MessageFilter();
+                in.setObjectInputFilter(filter);
+                while (true) {
+                    filter.nextMessage();
+                    Object obj;
+                    try {
+                        obj = in.readObject();
+                    } catch (IOException e) {
+                        if (filter.violation() != null) {
+                            router.log("Connection " + id + " closed, input rejected: " + filter.violation());
+                        }
+                        throw e;
+                    }
+                    if (!(obj instanceof Message)) continue;
+                    Message info = (Message) obj;
+                    if (info instanceof Message.Resume resume) {
+                        follow(resume.token());
+                    }
+                    Link current;
+                    synchronized (this) {
+                        current = link;
+                    }
+                    current.send(info);
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            // player or backend went away
+        } finally {
+            close();
+        }
+    }
+
+    /** Move to the node that issued this session token, if it is not the one we are on. */
+    private void follow(String token) {
+        Backend owner = router.ownerOf(token);
+        Link current;
+        synchronized (this) {
+            current = link;
+        }
+        if (owner == null || owner == current.backend) return;
+        Link next;
+        try {
+            next = new Link(owner);
+        } catch (IOException e) {
+            // stay put: the current node rejects the token and starts the player fresh
+            router.connectFailed(owner, e);
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                next.close();
+                return;
+            }
+            next.skipWelcome = welcomed;
+            link = next;
+        }
+        next.start();
+        current.close();
+        router.log("Connection " + id + " resumed on " + owner.id + " (was " + current.backend.id + ")");
+    }
+
+    /** Connect to the picked backend, falling back along the ring while nodes fail. */
+    private Link openLink(Backend backend) {
+        while (backend != null) {
+            try {
+                return new Link(backend);
+            } catch (IOException e) {
+                router.connectFailed(backend, e);
+                backend = router.pickFor(client.getInetAddress());
+            }
+        }
+        return null;
+    }
+
+    private void sendToClient(Message info) throws IOException {
+        synchronized (toClient) {
+            toClient.writeObject(info);
+            toClient.flush();
+            // drop back-references so the stream does not retain every message relayed
+            toClient.reset();
+        }
+    }
+
+    /** Close both sides. Safe to call more than once. */
+    void close() {
+        Link current;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            current = link;
+        }
+        if (current != null) current.close();
+        try {
+            client.close();
+        } catch (IOException ignored) {
+        }
+        router.closed(this);
+    }
+}
@@ -3,6 +3,7 @@ package model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 public class Deck {
 	private final List<Card> cards = new ArrayList<>();
@@ -15,8 +16,7 @@ public class Deck {
 		cards.clear();
 		for(Card.Suit s : Card.Suit.values()) {
 			for(Card.Rank r : Card.Rank.values()) {
-				Card card = new Card(s, r);
-				cards.add(card);
+				cards.add(Card.of(s, r));
 			}
 		}
 	}
@@ -25,6 +25,11 @@ public class Deck {
 		Collections.shuffle(cards);
 	}
 	
+	/** Shuffle with the caller's generator (for repeatable or per-thread simulations). */
+	public void shuffle(Random random) {
+		Collections.shuffle(cards, random);
+	}
+	
 	public final List<Card> deal(int handSize){
 		List<Card> hand = new ArrayList<>();
 		for(int i = 0; i < handSize && !cards.isEmpty(); i++){
@@ -0,0 +1,19 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * HandDealEvent - JFR event covering one shuffle and deal in PokerEngine.startSewHand() or dealSpots().
+ */
+@Name("poker.HandDeal")
+@Label("Hand Deal")
+@Category({"Poker", "Game"})
+@Description("Shuffle and deal of a new hand")
+class HandDealEvent extends Event {
+	@Label("Client Id")
+	int clientId;
+}
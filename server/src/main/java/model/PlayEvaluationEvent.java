@@ -0,0 +1,31 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PlayEvaluationEvent - JFR event covering hand comparison and payout in PokerEngine.evaluateHands().
+ */
+@Name("poker.PlayEvaluation")
+@Label("Play Evaluation")
+@Category({"Poker", "Game"})
+@Description("Comparison of the player and dealer hands and payout calculation")
+class PlayEvaluationEvent extends Event {
+	@Label("Client Id")
+	int clientId;
+
+	@Label("Ante Wager")
+	int anteWager;
+
+	@Label("Pair Plus Wager")
+	int pairPlusWager;
+
+	@Label("Ante Payout")
+	int antePayout;
+
+	@Label("Pair Plus Payout")
+	int pairPlusPayout;
+}
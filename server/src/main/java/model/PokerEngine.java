@@ -1,5 +1,6 @@
 package model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class PokerEngine {
@@ -8,6 +9,8 @@ public class PokerEngine {
 	private int ante;
 	private int pairPlus;
     private final Deck deck;
+	// Spots of the multi-spot round in flight, as dealt (null when none)
+	private Spot[] spots;
 	
 	public PokerEngine(Player client, int startingChips) {
 		this.client = client;
@@ -18,40 +21,139 @@ public class PokerEngine {
 	}
 	
 	public void startSewHand() {
+		HandDealEvent event = new HandDealEvent();
+		event.begin();
 		ante = 0;
 		pairPlus = 0;
+		spots = null;
 		client.resetHand();
 		dealer.resetHand();
+		// return all 52 cards before shuffling, or the deck runs dry after eight hands
+		deck.reset();
 		deck.shuffle();
 		dealInitialCards();
 //		listener.onHandStarted(getStateSnasho());
+		event.end();
+		if (event.shouldCommit()) {
+			event.clientId = client.getID();
+			event.commit();
+		}
 	}
 	
+	/** Deal the player's three cards; the dealer's wait for revealDealer(). */
 	public void dealInitialCards() {
 		List<Card> newClientHand = deck.deal(3);
 		client.setNewHand(newClientHand);
-		List<Card> newDealerHand = deck.deal(3);
-		dealer.setNewHand(newDealerHand);
+	}
+
+	/**
+	 * Deal the dealer's three cards from the rest of the deck, once per hand, when the player
+	 * plays or folds. Until then the dealer hand does not exist, so nothing can leak it.
+	 *
+	 * return the dealer hand
+	 */
+	public List<Card> revealDealer() {
+		if (dealer.getHand().isEmpty()) dealer.setNewHand(deck.deal(3));
+		return dealer.getHand();
 	}
 	
-	public void evaluateHands(int pairPlus, int anteWager) {
-		int result = ThreeCardLogic.compareHands(dealer.getHand(), client.getHand());
-		if(result == +1) {
-			setAnte(anteWager * 2);
-		} else if (result == -1 ) {
-			setAnte(0);
-		} else {
-			setAnte(anteWager);
-		}
-		
-		if(pairPlus > 0 && result == +1 ) {
-			int pairPlusResult = ThreeCardLogic.evalPPWinnings(client.getHand(), pairPlus);
-			setPairPlus(pairPlusResult);
-		} else {
-			setPairPlus(0);
+	/** Settle a played hand. Return the compareHands result (-1 dealer wins, 0 push, +1 player wins). */
+	public int evaluateHands(int pairPlus, int anteWager) {
+		PlayEvaluationEvent event = new PlayEvaluationEvent();
+		event.begin();
+		int result = ThreeCardLogic.compareHands(revealDealer(), client.getHand());
+		setAnte(ThreeCardLogic.antePayout(result, anteWager));
+		setPairPlus(ThreeCardLogic.pairPlusPayout(result, client.getHand(), pairPlus));
+		event.end();
+		if (event.shouldCommit()) {
+			event.clientId = client.getID();
+			event.anteWager = anteWager;
+			event.pairPlusWager = pairPlus;
+			event.antePayout = this.ante;
+			event.pairPlusPayout = this.pairPlus;
+			event.commit();
 		}
+		return result;
 	}
 	
+	/**
+	 * Deal and finish one hand without a client round trip, playing or folding by rule.
+	 * Afterwards getAnte()/getPairPlus() hold what the hand returned (0 when folded).
+	 *
+	 * param rule           PLAY/FOLD decision rule
+	 * param anteWager      the ante bet
+	 * param pairPlusWager  the Pair Plus bet
+	 * return the compareHands result if the hand was played, or null if it was folded
+	 */
+	public Integer autoHand(AutoPlay.Rule rule, int anteWager, int pairPlusWager) {
+		startSewHand();
+		boolean play = rule == AutoPlay.Rule.PLAY
+				|| (rule == AutoPlay.Rule.Q64 && ThreeCardLogic.playsQ64(client.getHand()));
+		if (!play) {
+			client.folded();
+			revealDealer();
+			return null;
+		}
+		return evaluateHands(pairPlusWager, anteWager);
+	}
+
+	/**
+	 * Deal a multi-spot round: three cards to every spot from one shuffled deck. The dealer
+	 * hand every spot plays against is dealt by settleSpots.
+	 *
+	 * param bets one Spot per hand carrying its ante and Pair Plus (1..Spot.MAX_SPOTS)
+	 * return the dealt spots
+	 */
+	public Spot[] dealSpots(Spot[] bets) {
+		HandDealEvent event = new HandDealEvent();
+		event.begin();
+		client.resetHand();
+		dealer.resetHand();
+		deck.reset();
+		deck.shuffle();
+		Spot[] dealt = new Spot[bets.length];
+		for (int i = 0; i < bets.length; i++) {
+			dealt[i] = new Spot(bets[i].getAnte(), bets[i].getPairPlus(), deck.deal(3));
+		}
+		spots = dealt;
+		event.end();
+		if (event.shouldCommit()) {
+			event.clientId = client.getID();
+			event.commit();
+		}
+		return dealt;
+	}
+
+	/**
+	 * Settle the multi-spot round in flight: deal the dealer hand, play the spots marked in
+	 * plays against it and fold the rest.
+	 *
+	 * param plays one entry per dealt spot, true to play it
+	 * return the settled spots
+	 */
+	public Spot[] settleSpots(boolean[] plays) {
+		List<Card> dealerHand = revealDealer();
+		Spot[] settled = new Spot[spots.length];
+		for (int i = 0; i < spots.length; i++) {
+			Spot s = spots[i];
+			if (!plays[i]) {
+				settled[i] = new Spot(s.getAnte(), s.getPairPlus(), s.getHand(), false, 0, 0, 0);
+				continue;
+			}
+			// evalHand sorts the hand it is given, so evaluate a copy
+			List<Card> hand = new ArrayList<>(s.getHand());
+			int result = ThreeCardLogic.compareHands(dealerHand, hand);
+			settled[i] = new Spot(s.getAnte(), s.getPairPlus(), s.getHand(), true, result,
+					ThreeCardLogic.antePayout(result, s.getAnte()),
+					ThreeCardLogic.pairPlusPayout(result, hand, s.getPairPlus()));
+		}
+		spots = null;
+		return settled;
+	}
+
+	/** Return the spots of the multi-spot round in flight, or null if there is none. */
+	public Spot[] getSpots() { return spots; }
+
 	public void setAnte(int anteWager) { this.ante = anteWager; }
 	public void setPairPlus(int pairPlusWager)  {this.pairPlus = pairPlusWager; }
 	public int getPairPlus() { return this.pairPlus; }
@@ -1,5 +1,6 @@
 package model;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
@@ -72,9 +73,20 @@ public class ThreeCardLogic {
     }
 
     public static int compareHands(List<Card> dealer, List<Card> player) {
-        // return -1 if dealer wins, 0 push/tie, +1 if player wins
+        return compareHands(evalHand(dealer), dealer, player);
+    }
+
+    /**
+     * Compare a player hand against a dealer hand whose rank is already known, so a shared
+     * table evaluates its dealer hand once per round rather than once per player.
+     *
+     * param dealerHand rank of the dealer hand (from evalHand)
+     * param dealer     the dealer's three cards
+     * param player     the player's three cards
+     * return -1 if dealer wins, 0 push/tie, +1 if player wins
+     */
+    public static int compareHands(HandRank dealerHand, List<Card> dealer, List<Card> player) {
         HandRank playerHand = evalHand(player);
-        HandRank dealerHand = evalHand(dealer);
         int cmp = Integer.compare(playerHand.strength(), dealerHand.strength());
 
         if(cmp < 0) {
@@ -103,6 +115,64 @@ public class ThreeCardLogic {
         return 0;
     }
 
+    /**
+     * Ante returned to a player who played: double on a win, the ante back on a push, nothing on a loss.
+     *
+     * param result    outcome from compareHands (-1, 0, +1)
+     * param anteWager the ante bet
+     */
+    public static int antePayout(int result, int anteWager) {
+        if (result > 0) return anteWager * 2;
+        if (result < 0) return 0;
+        return anteWager;
+    }
+
+    /**
+     * Pair Plus returned to a player who played; paid only when the player also beat the dealer.
+     *
+     * param result   outcome from compareHands (-1, 0, +1)
+     * param hand     the player's three cards
+     * param pairPlus the Pair Plus bet
+     */
+    public static int pairPlusPayout(int result, List<Card> hand, int pairPlus) {
+        if (pairPlus > 0 && result > 0) return evalPPWinnings(hand, pairPlus);
+        return 0;
+    }
+
+    /**
+     * The usual optimal playing rule: play any pair or better, or a high hand of Queen-6-4
+     * or better; fold anything lower.
+     *
+     * param hand the player's three cards
+     */
+    public static boolean playsQ64(List<Card> hand) {
+        if (evalHand(hand) != HandRank.HIGH_CARD) return true;
+        int[] v = new int[3];
+        for (int i = 0; i < 3; i++) {
+            v[i] = RANK_VALUES.get(hand.get(i).getRank());
+        }
+        Arrays.sort(v);
+        int[] min = {12, 6, 4};
+        for (int i = 0; i < 3; i++) {
+            int card = v[2 - i];
+            if (card != min[i]) return card > min[i];
+        }
+        return true;
+    }
+
+    /**
+     * Pair Plus returned under a custom paytable, for simulations of alternative tables.
+     *
+     * param result   outcome from compareHands (-1, 0, +1)
+     * param hand     the player's three cards
+     * param pairPlus the Pair Plus bet
+     * param paytable multiplier per hand rank (missing ranks pay 0)
+     */
+    public static int pairPlusPayout(int result, List<Card> hand, int pairPlus, Map<HandRank, Integer> paytable) {
+        if (pairPlus > 0 && result > 0) return paytable.getOrDefault(evalHand(hand), 0) * pairPlus;
+        return 0;
+    }
+
     public static int evalPPWinnings(List<Card> hand, int pairPlus) {
         HandRank playerHand = evalHand(hand);
         // defensive lookup: use default 0 if mapping missing
@@ -0,0 +1,27 @@
+package rrosa10Server;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * AcceptEvent - JFR event covering a new connection from accept() until WELCOME is sent.
+ */
+@Name("poker.Accept")
+@Label("Accept")
+@Category({"Poker", "Network"})
+@Description("Time from accepting a connection until its WELCOME has been sent")
+class AcceptEvent extends Event {
+    @Label("Client Id")
+    int clientId;
+
+    @Label("Remote Address")
+    String remoteAddress;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
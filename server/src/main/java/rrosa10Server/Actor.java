@@ -0,0 +1,100 @@
+package rrosa10Server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import log.Log;
+import log.Logger;
+
+/**
+ * Actor - state owned by exactly one logical thread, driven by messages in a mailbox.
+ *
+ * Responsibilities:
+ * - Accept messages from any thread into a multi-producer, single-consumer mailbox.
+ * - Run the messages one at a time, in arrival order, on a worker of the ActorSystem. At most one
+ *   worker runs a given actor at any moment, so a subclass's fields need no locks or volatiles.
+ * - Bound the mailbox: offer() refuses new work once it holds 'capacity' messages, which pushes
+ *   back on a flood of client requests instead of queueing them without limit.
+ *
+ * An actor is scheduled on the pool only when its mailbox goes from empty to non-empty, and it
+ * yields after a batch of messages so one busy actor cannot starve the others on its worker.
+ * Messages must not block for long; each one holds a pool thread while it runs.
+ */
+public abstract class Actor {
+
+    /** Messages run per turn on a worker before the actor yields to others. */
+    private static final int BATCH = 64;
+
+    private static final Logger LOG = Log.get("actor");
+
+    private final ActorSystem system;
+    private final int capacity;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable turn = this::runTurn;
+
+    /**
+     * param system   pool the actor runs on
+     * param capacity most queued messages accepted by offer()
+     */
+    protected Actor(ActorSystem system, int capacity) {
+        this.system = system;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Queue a message unless the mailbox is full. Use for requests from clients.
+     *
+     * return false if the mailbox was full and the message was dropped
+     */
+    public final boolean offer(Runnable message) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        enqueue(message);
+        return true;
+    }
+
+    /**
+     * Queue a message regardless of the bound. Use for messages the actor must not miss,
+     * such as its own timers and seating changes.
+     */
+    public final void tell(Runnable message) {
+        size.incrementAndGet();
+        enqueue(message);
+    }
+
+    /** Return the number of messages waiting in the mailbox. */
+    public final int mailboxSize() {
+        return size.get();
+    }
+
+    private void enqueue(Runnable message) {
+        mailbox.add(message);
+        if (scheduled.compareAndSet(false, true)) {
+            system.execute(turn);
+        }
+    }
+
+    private void runTurn() {
+        for (int i = 0; i < BATCH; i++) {
+            Runnable message = mailbox.poll();
+            if (message == null) break;
+            size.decrementAndGet();
+            try {
+                message.run();
+            } catch (Throwable t) {
+                LOG.error("actor message failed", "actor", getClass().getSimpleName(), t);
+            }
+        }
+        scheduled.set(false);
+        // a message may have arrived after the last poll but before the flag was cleared
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+            system.execute(turn);
+        }
+    }
+}
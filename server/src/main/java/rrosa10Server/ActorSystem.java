@@ -0,0 +1,69 @@
+package rrosa10Server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ActorSystem - the shared work-stealing pool that runs every Actor.
+ *
+ * Responsibilities:
+ * - Own a ForkJoinPool in FIFO (async) mode sized to the cores, so thousands of actors share
+ *   a handful of threads and an idle core steals queued actors from a busy one.
+ * - Run actors in the order they became ready, across every worker.
+ * - Report how much work is queued, for metrics.
+ *
+ * A ForkJoinPool worker runs the tasks it submitted itself before anything submitted from
+ * outside, so an actor that yields from a worker would simply run again on it and starve the
+ * actors that client threads woke up. Ready actors therefore wait in one shared FIFO queue, and
+ * each pool task only runs whichever actor is at its head.
+ */
+public class ActorSystem implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final Queue<Runnable> ready = new ConcurrentLinkedQueue<>();
+    private final Runnable runNext = this::runNext;
+
+    /**
+     * param name        prefix for worker thread names
+     * param parallelism worker threads (0 or less = one per available core)
+     */
+    public ActorSystem(String name, int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName(name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, true);
+    }
+
+    void execute(Runnable task) {
+        ready.add(task);
+        pool.execute(runNext);
+    }
+
+    private void runNext() {
+        Runnable task = ready.poll();
+        if (task != null) task.run();
+    }
+
+    /** Return the number of worker threads. */
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Return actors waiting for a worker (scheduled but not yet running). */
+    public long queuedActors() {
+        return ready.size();
+    }
+
+    /** Stop the workers. Messages still in mailboxes are dropped. */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
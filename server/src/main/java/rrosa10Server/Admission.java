@@ -0,0 +1,97 @@
+package rrosa10Server;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Admission - decides at accept time whether a new connection gets a session.
+ *
+ * Responsibilities:
+ * - Refuse a connection when the server already holds maxSessions connections, when
+ *   maxHandshakes admitted connections have not finished their stream handshake, or when
+ *   connections arrive faster than the accept rate.
+ * - Tell a refused client how long to wait, spread out so refused clients do not all
+ *   come back at the same moment.
+ * - Count handshakes in flight: admit() takes one, handshakeDone() gives it back.
+ *
+ * A decision is two counter reads and at most one token-bucket CAS, so the accept thread can
+ * turn away a burst without building a session, an engine or a thread for any of it.
+ * Only the accept thread calls admit(); handshakeDone() may come from any thread.
+ */
+public class Admission {
+
+    /** Why a connection was refused. */
+    public enum Reason {
+        SESSIONS("server full"),
+        HANDSHAKES("too many connections opening"),
+        RATE("too many new connections");
+
+        private final String text;
+
+        Reason(String text) {
+            this.text = text;
+        }
+
+        /** Short explanation sent to the refused client. */
+        public String text() { return text; }
+    }
+
+    private final int maxSessions;
+    private final int maxHandshakes;
+    private final TokenBucket acceptRate;
+    private final int retryMillis;
+    private final IntSupplier sessions;
+    private final AtomicInteger handshakes = new AtomicInteger();
+
+    /**
+     * param maxSessions   most connections held at once (0 = no limit)
+     * param maxHandshakes most admitted connections still in their handshake (0 = no limit)
+     * param acceptRate    limit on new connections (null = no limit)
+     * param retryMillis   base retry hint for refused clients (> 0)
+     * param sessions      current connection count
+     */
+    public Admission(int maxSessions, int maxHandshakes, RateLimit acceptRate, int retryMillis, IntSupplier sessions) {
+        if (retryMillis <= 0) throw new IllegalArgumentException("Retry hint must be > 0: " + retryMillis);
+        this.maxSessions = maxSessions;
+        this.maxHandshakes = maxHandshakes;
+        this.acceptRate = acceptRate == null ? null : acceptRate.newBucket();
+        this.retryMillis = retryMillis;
+        this.sessions = sessions;
+    }
+
+    /**
+     * Decide on a new connection. An admitted connection counts as a handshake in flight
+     * until handshakeDone().
+     *
+     * return null if admitted, otherwise why it is refused
+     */
+    public Reason admit() {
+        if (maxSessions > 0 && sessions.getAsInt() >= maxSessions) return Reason.SESSIONS;
+        if (maxHandshakes > 0 && handshakes.get() >= maxHandshakes) return Reason.HANDSHAKES;
+        if (acceptRate != null && !acceptRate.tryAcquire()) return Reason.RATE;
+        handshakes.incrementAndGet();
+        return null;
+    }
+
+    /** An admitted connection finished (or abandoned) its handshake. */
+    public void handshakeDone() {
+        handshakes.decrementAndGet();
+    }
+
+    /** Return the number of admitted connections still in their handshake. */
+    public int pendingHandshakes() {
+        return handshakes.get();
+    }
+
+    /**
+     * Return how long a client refused for this reason should wait: the base hint (or the
+     * time until the accept rate allows another connection, if longer) plus up to half again
+     * at random.
+     */
+    public int retryAfterMillis(Reason reason) {
+        long base = retryMillis;
+        if (reason == Reason.RATE) base = Math.max(base, acceptRate.millisUntilAvailable());
+        return (int) Math.min(Integer.MAX_VALUE, base + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+    }
+}
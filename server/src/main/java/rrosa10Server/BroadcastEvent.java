@@ -0,0 +1,24 @@
+package rrosa10Server;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * BroadcastEvent - JFR event covering the fan-out of one LOG line to every client.
+ */
+@Name("poker.Broadcast")
+@Label("Broadcast")
+@Category({"Poker", "Network"})
+@Description("Fan-out of one LOG line to every connected client")
+class BroadcastEvent extends Event {
+    @Label("Recipients")
+    int recipients;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,288 @@
+package rrosa10Server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ChipLedger - durable record of every player's chip balance.
+ *
+ * Responsibilities:
+ * - Append each balance change to a write-ahead log (WAL) before applying it in memory.
+ * - Periodically write a consistent snapshot of all balances to a compact binary file
+ *   while adjustments keep flowing, then delete the WAL segments the snapshot covers.
+ * - On startup, load the latest snapshot and replay only the WAL tail written after it.
+ *
+ * On-disk layout (inside the ledger directory):
+ *   snapshot.bin            header (magic, version, covered LSN, account slots) + one long per slot
+ *   wal-{startLsn}.log      fixed 20-byte records: lsn (long), player id (int), delta (long)
+ *
+ * Player ids are small sequential integers, so balances live in a dense long[] indexed by id
+ * (Long.MIN_VALUE marks an unused slot). That keeps the snapshot a straight array dump and
+ * makes cold start a single bulk read.
+ *
+ * Durability: adjust() hands each record to the operating system before it returns, but only
+ * forces it to disk when the segment rolls, at snapshot() and at close(). A crash of the server
+ * process loses nothing; a crash of the machine can lose the records written since the last of
+ * those (at most one segment, and normally no more than one snapshot interval).
+ */
+public class ChipLedger implements AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x504B4C53; // "PKLS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int RECORD_BYTES = 8 + 4 + 8;
+    private static final long NO_ACCOUNT = Long.MIN_VALUE;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final Object snapshotLock = new Object();
+
+    // Guarded by 'this'
+    private long[] balances = new long[1024];
+    private int maxId = 0;
+    private int accounts = 0;
+    private long nextLsn = 1;
+    private FileChannel segment;
+    private long segmentStartLsn;
+    private long segmentSize;
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_BYTES);
+    private boolean closed = false;
+
+    /**
+     * Open (or create) a ledger in the given directory and recover its state.
+     *
+     * param dir          directory holding the snapshot and WAL segments
+     * param segmentBytes size after which the active WAL segment is rolled
+     */
+    public ChipLedger(Path dir, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = Math.max(RECORD_BYTES, segmentBytes);
+        Arrays.fill(balances, NO_ACCOUNT);
+        Files.createDirectories(dir);
+        long coveredLsn = loadSnapshot();
+        replaySegments(coveredLsn);
+        openSegment(nextLsn);
+    }
+
+    /** Return true if the ledger holds an account for this player id. */
+    public synchronized boolean hasAccount(int playerId) {
+        return playerId >= 0 && playerId <= maxId && balances[playerId] != NO_ACCOUNT;
+    }
+
+    /** Return the balance for a player id, or 0 if the account does not exist. */
+    public synchronized long balance(int playerId) {
+        return hasAccount(playerId) ? balances[playerId] : 0;
+    }
+
+    /** Return the highest player id the ledger has ever seen (0 when empty). */
+    public synchronized int maxPlayerId() { return maxId; }
+
+    /** Return the number of accounts held. */
+    public synchronized int accountCount() { return accounts; }
+
+    /**
+     * Log and apply a balance change. Creates the account on first use. The record is written
+     * but not forced to disk (see the class comment for the durability window).
+     *
+     * param playerId player whose balance changes
+     * param delta    amount to add (negative to subtract)
+     * return the new balance
+     */
+    public synchronized long adjust(int playerId, long delta) throws IOException {
+        if (closed) throw new IOException("Ledger is closed");
+        if (playerId < 0) throw new IllegalArgumentException("Player id must be >= 0: " + playerId);
+        if (segmentSize + RECORD_BYTES > segmentBytes) {
+            rollSegment();
+        }
+        long lsn = nextLsn++;
+        record.clear();
+        record.putLong(lsn).putInt(playerId).putLong(delta).flip();
+        while (record.hasRemaining()) {
+            segment.write(record);
+        }
+        segmentSize += RECORD_BYTES;
+        return apply(playerId, delta);
+    }
+
+    /**
+     * Write a consistent snapshot of every balance and delete the WAL segments it covers.
+     *
+     * Only the array copy and a segment roll happen while holding the ledger lock, so
+     * adjustments continue while the snapshot file is written.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long[] copy;
+            long coveredLsn;
+            long firstLiveSegment;
+            synchronized (this) {
+                if (closed) return;
+                copy = Arrays.copyOf(balances, maxId + 1);
+                coveredLsn = nextLsn - 1;
+                rollSegment();
+                firstLiveSegment = segmentStartLsn;
+            }
+
+            Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+                buf.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(coveredLsn).putInt(copy.length);
+                for (long balance : copy) {
+                    if (buf.remaining() < Long.BYTES) {
+                        drain(ch, buf);
+                    }
+                    buf.putLong(balance);
+                }
+                drain(ch, buf);
+                ch.force(true);
+            }
+            Files.move(tmp, dir.resolve(SNAPSHOT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            for (Path p : listSegments()) {
+                if (segmentStart(p) < firstLiveSegment) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    /** Flush the active segment to disk and release it. Safe to call multiple times. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (segment != null) {
+            segment.force(true);
+            segment.close();
+            segment = null;
+        }
+    }
+
+    // -------------------------
+    // Internals
+    // -------------------------
+
+    private long apply(int playerId, long delta) {
+        if (playerId >= balances.length) {
+            int newLen = Math.max(balances.length * 2, playerId + 1);
+            int oldLen = balances.length;
+            balances = Arrays.copyOf(balances, newLen);
+            Arrays.fill(balances, oldLen, newLen, NO_ACCOUNT);
+        }
+        if (balances[playerId] == NO_ACCOUNT) {
+            balances[playerId] = 0;
+            accounts++;
+        }
+        if (playerId > maxId) maxId = playerId;
+        balances[playerId] += delta;
+        return balances[playerId];
+    }
+
+    private void rollSegment() throws IOException {
+        if (segment != null) {
+            segment.force(true);
+            segment.close();
+        }
+        openSegment(nextLsn);
+    }
+
+    private void openSegment(long startLsn) throws IOException {
+        Path p = dir.resolve(SEGMENT_PREFIX + String.format("%020d", startLsn) + SEGMENT_SUFFIX);
+        segment = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segmentSize = segment.size();
+        segment.position(segmentSize);
+        segmentStartLsn = startLsn;
+    }
+
+    /** Load snapshot.bin if present and return the LSN it covers (0 if none). */
+    private long loadSnapshot() throws IOException {
+        Path p = dir.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(p)) return 0;
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (map.remaining() < SNAPSHOT_HEADER_BYTES
+                    || map.getInt() != SNAPSHOT_MAGIC
+                    || map.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognized ledger snapshot: " + p);
+            }
+            long coveredLsn = map.getLong();
+            int slots = map.getInt();
+            if (map.remaining() < (long) slots * Long.BYTES) {
+                throw new IOException("Truncated ledger snapshot: " + p);
+            }
+            balances = new long[Math.max(1024, slots)];
+            Arrays.fill(balances, slots, balances.length, NO_ACCOUNT);
+            LongBuffer longs = map.asLongBuffer();
+            longs.get(balances, 0, slots);
+            for (int id = 0; id < slots; id++) {
+                if (balances[id] != NO_ACCOUNT) {
+                    accounts++;
+                    maxId = id;
+                }
+            }
+            nextLsn = coveredLsn + 1;
+            return coveredLsn;
+        }
+    }
+
+    /** Replay every WAL record newer than coveredLsn, truncating a torn final record. */
+    private void replaySegments(long coveredLsn) throws IOException {
+        for (Path p : listSegments()) {
+            try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = ch.size();
+                long whole = size - (size % RECORD_BYTES);
+                if (whole != size) {
+                    ch.truncate(whole);
+                }
+                if (whole == 0) continue;
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, whole);
+                while (map.remaining() >= RECORD_BYTES) {
+                    long lsn = map.getLong();
+                    int playerId = map.getInt();
+                    long delta = map.getLong();
+                    if (lsn <= coveredLsn) continue;
+                    apply(playerId, delta);
+                    nextLsn = Math.max(nextLsn, lsn + 1);
+                }
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path p : ds) segments.add(p);
+        }
+        segments.sort((a, b) -> Long.compare(segmentStart(a), segmentStart(b)));
+        return segments;
+    }
+
+    private static long segmentStart(Path p) {
+        String name = p.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+        buf.clear();
+    }
+}
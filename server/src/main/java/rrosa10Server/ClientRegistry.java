@@ -0,0 +1,137 @@
+package rrosa10Server;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * ClientRegistry - the server's connected clients, indexed by client id.
+ *
+ * Responsibilities:
+ * - Register and remove clients in constant time without a registry-wide lock, so connect and
+ *   disconnect churn never waits on a broadcast in progress (or the other way round).
+ * - Look up one client by id for a targeted send, and iterate every client for a broadcast.
+ * - Keep named groups of client ids (for example everyone at one table) for group sends.
+ *   Membership belongs to the id, not the connection, so it survives a disconnect and resume.
+ *
+ * Iteration is weakly consistent: a broadcast sees every client registered before it started
+ * and never fails because one connects or disconnects meanwhile.
+ *
+ * param C the client handle type
+ */
+public final class ClientRegistry<C> {
+
+    private final ConcurrentHashMap<Integer, C> clients = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Integer>> groups = new ConcurrentHashMap<>();
+    // Groups each client id belongs to, so leaveAll need not scan every group. Every group change
+    // for an id runs inside a compute on its entry here, so the two maps never disagree about it.
+    private final ConcurrentHashMap<Integer, Set<String>> memberships = new ConcurrentHashMap<>();
+
+    /**
+     * Register a client under an id, replacing any client registered under it before
+     * (a player who resumed their session on a new connection).
+     *
+     * return the client previously registered under the id, or null
+     */
+    public C register(int id, C client) {
+        return clients.put(id, client);
+    }
+
+    /**
+     * Remove a client, but only if it is still the one registered under the id; a stale
+     * connection closing after its player resumed elsewhere leaves the new one in place.
+     * Group memberships are kept for the player's next connection; see leaveAll.
+     *
+     * return true if the client was removed
+     */
+    public boolean unregister(int id, C client) {
+        return clients.remove(id, client);
+    }
+
+    /** Return the client registered under the id, or null. */
+    public C get(int id) {
+        return clients.get(id);
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    /** Return a live, weakly consistent view of every registered client. */
+    public Collection<C> clients() {
+        return Collections.unmodifiableCollection(clients.values());
+    }
+
+    /** Remove every client and group. */
+    public void clear() {
+        clients.clear();
+        groups.clear();
+        memberships.clear();
+    }
+
+    /** Add a client id to a group, creating the group on first use. */
+    public void join(String group, int id) {
+        memberships.compute(id, (i, joined) -> {
+            // add inside compute, so a concurrent leave cannot drop the set between lookup and add
+            groups.compute(group, (g, members) -> {
+                if (members == null) members = ConcurrentHashMap.newKeySet();
+                members.add(id);
+                return members;
+            });
+            if (joined == null) joined = ConcurrentHashMap.newKeySet();
+            joined.add(group);
+            return joined;
+        });
+    }
+
+    /** Remove a client id from a group; the group is dropped once empty. */
+    public void leave(String group, int id) {
+        memberships.computeIfPresent(id, (i, joined) -> {
+            if (joined.remove(group)) removeMember(group, id);
+            return joined.isEmpty() ? null : joined;
+        });
+    }
+
+    /** Remove a client id from every group it joined (its session ended for good). */
+    public void leaveAll(int id) {
+        memberships.computeIfPresent(id, (i, joined) -> {
+            for (String group : joined) removeMember(group, id);
+            return null;
+        });
+    }
+
+    private void removeMember(String group, int id) {
+        groups.computeIfPresent(group, (g, members) -> {
+            members.remove(id);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    /** Return how many client ids are in a group. */
+    public int groupSize(String group) {
+        Set<Integer> members = groups.get(group);
+        return members == null ? 0 : members.size();
+    }
+
+    /**
+     * Run an action for every registered client in a group. Members that have no client
+     * registered right now (disconnected, waiting to resume) are skipped.
+     *
+     * return the number of clients the action ran for
+     */
+    public int forEachInGroup(String group, Consumer<? super C> action) {
+        Set<Integer> members = groups.get(group);
+        if (members == null) return 0;
+        int n = 0;
+        for (Integer id : members) {
+            C client = clients.get(id);
+            if (client != null) {
+                action.accept(client);
+                n++;
+            }
+        }
+        return n;
+    }
+}
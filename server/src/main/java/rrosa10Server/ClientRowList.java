@@ -0,0 +1,180 @@
+package rrosa10Server;
+
+import java.util.Arrays;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * ClientRowList - the dashboard's client rows ("Client #id: status"), sorted by client id.
+ *
+ * Responsibilities:
+ * - Add, update or remove one client's row in O(log n) and report it as a single-row change,
+ *   instead of re-sorting and diffing every row on each event.
+ * - Keep the ordering in a Fenwick tree over client ids, so a row's position (rank) and the
+ *   client at a position (select) are both O(log n).
+ * - Format a row only when it is read: a ListView's cells read just the rows on screen, so
+ *   10k clients cost no more to draw than a screenful.
+ * - Hold a temporary display text per row for the per-character reveal (set), which falls
+ *   back to the formatted row once the reveal writes the full text.
+ *
+ * Client ids are the small positive ints the acceptor hands out in order, so the tree is
+ * indexed by id directly and grows by doubling. Use on the FX thread once it backs a control.
+ */
+public class ClientRowList extends ObservableListBase<String> {
+
+    // Fenwick tree over ids (1-based internally: id i lives at i + 1); capacity is a power of two
+    private int[] tree = new int[1024 + 1];
+    private String[] payload = new String[1024];
+    // Text shown instead of the formatted row while it is being revealed (null = formatted row)
+    private String[] display = new String[1024];
+    private int size;
+
+    /** Format a client's row as shown on the dashboard. */
+    public static String format(int clientId, String payload) {
+        return "Client #" + clientId + ": " + payload;
+    }
+
+    /**
+     * Set a client's status, adding its row if new, and clear any reveal text on the row.
+     *
+     * return the row's index
+     */
+    public int put(int clientId, String status) {
+        if (clientId < 0) throw new IllegalArgumentException("client id must be >= 0: " + clientId);
+        String text = status == null ? "" : status;
+        ensureCapacity(clientId);
+        String old = payload[clientId];
+        if (old == null) {
+            payload[clientId] = text;
+            add(clientId, 1);
+            size++;
+            int row = rank(clientId);
+            beginChange();
+            nextAdd(row, row + 1);
+            endChange();
+            return row;
+        }
+        String shown = shownText(clientId);
+        payload[clientId] = text;
+        display[clientId] = null;
+        int row = rank(clientId);
+        beginChange();
+        nextSet(row, shown);
+        endChange();
+        return row;
+    }
+
+    /**
+     * Remove a client's row.
+     *
+     * return the index the row had, or -1 if the client had no row
+     */
+    public int removeClient(int clientId) {
+        if (!contains(clientId)) return -1;
+        int row = rank(clientId);
+        String shown = shownText(clientId);
+        payload[clientId] = null;
+        display[clientId] = null;
+        add(clientId, -1);
+        size--;
+        beginChange();
+        nextRemove(row, shown);
+        endChange();
+        return row;
+    }
+
+    public boolean contains(int clientId) {
+        return clientId >= 0 && clientId < payload.length && payload[clientId] != null;
+    }
+
+    /** Return the index of a client's row, or -1 if it has none. */
+    public int rowOf(int clientId) {
+        return contains(clientId) ? rank(clientId) : -1;
+    }
+
+    /** Return the client id shown at a row index. */
+    public int idAt(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return select(index);
+    }
+
+    /** Return the largest client id with a row, or -1 when empty. */
+    public int maxId() {
+        return size == 0 ? -1 : select(size - 1);
+    }
+
+    @Override
+    public String get(int index) {
+        return shownText(idAt(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Show text on a row in place of its formatted status (used by the reveal). Setting the
+     * formatted status itself ends the override.
+     */
+    @Override
+    public String set(int index, String text) {
+        int id = idAt(index);
+        String old = shownText(id);
+        display[id] = text.equals(format(id, payload[id])) ? null : text;
+        beginChange();
+        nextSet(index, old);
+        endChange();
+        return old;
+    }
+
+    private String shownText(int id) {
+        return display[id] != null ? display[id] : format(id, payload[id]);
+    }
+
+    // --- Fenwick tree ---
+
+    private void add(int id, int delta) {
+        for (int i = id + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /** Number of rows with an id below this one. */
+    private int rank(int id) {
+        int count = 0;
+        for (int i = id; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /** Id of the row at a 0-based index (binary lifting down the tree). */
+    private int select(int index) {
+        int pos = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos; // 1-based position pos + 1 holds id pos
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < payload.length) return;
+        int capacity = payload.length;
+        while (capacity <= id) capacity <<= 1;
+        payload = Arrays.copyOf(payload, capacity);
+        display = Arrays.copyOf(display, capacity);
+        // rebuild the tree in O(capacity): each node passes its count to its parent
+        tree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            if (payload[i - 1] != null) tree[i]++;
+            int parent = i + (i & -i);
+            if (parent <= capacity) tree[parent] += tree[i];
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package rrosa10Server;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * CountingOutputStream - pass-through stream that counts the bytes written to it.
+ *
+ * Sits between a connection's ObjectOutputStream and the socket so sends can report how
+ * many bytes each message cost. The count is only read by the thread holding the writer lock.
+ */
+class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    /** Return the total number of bytes written so far. */
+    long getCount() {
+        return count;
+    }
+}
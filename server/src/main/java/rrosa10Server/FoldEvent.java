@@ -0,0 +1,25 @@
+package rrosa10Server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * FoldEvent - JFR event covering a FOLD request in Server.ClientThread.
+ */
+@Name("poker.Fold")
+@Label("Fold")
+@Category({"Poker", "Game"})
+@Description("Player folding a dealt hand")
+class FoldEvent extends Event {
+    @Label("Client Id")
+    int clientId;
+
+    @Label("Ante Lost")
+    int anteLost;
+
+    @Label("Pair Plus Lost")
+    int pairPlusLost;
+}
@@ -7,9 +7,11 @@ import javafx.scene.Scene;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 
-import java.io.Serializable;
 import java.net.URL;
-import java.util.function.Consumer;
+
+import log.Level;
+import log.Log;
+import log.Logger;
 
 /**
  * GuiServer - JavaFX application that manages the intro and status scenes
@@ -18,11 +20,13 @@ import java.util.function.Consumer;
  * Responsibilities:
  * - Bootstraps the JavaFX UI (loads fonts, FXML scenes, and stylesheets).
  * - Keeps references to the scene controllers so UI updates can be performed from server callbacks.
- * - Starts and stops the Server instance and routes simple textual/Serializable messages
- *   into the UI via the ServerScreenController.logEvent() method.
+ * - Starts and stops the Server instance and subscribes the ServerScreenController to its
+ *   event bus (ServerScreenController.onServerEvent()).
  */
 public class GuiServer extends Application {
 
+    private static final Logger LOG = Log.get("ui");
+
     private Stage primaryStage;
 
     private Scene introScene;
@@ -31,6 +35,7 @@ public class GuiServer extends Application {
     private ServerScreenController serverScreenController;
     private ServerIntroController serverIntroController;
     private Server server;
+    private ServerEventBus events;
 
     public static void main(String[] args) {
         launch(args);
@@ -46,6 +51,7 @@ public class GuiServer extends Application {
     @Override
     public void start(Stage stage) throws Exception {
         this.primaryStage = stage;
+        Log.configure(System.getProperties(), "logs/server.log", Level.WARN);
 
         try {
             // Attempt to load a custom font (optional). Failure is ignored.
@@ -93,19 +99,19 @@ public class GuiServer extends Application {
      * Start the server on the provided port and switch to the status scene.
      *
      * Behavior:
-     * - Creates a Server instance with a simple callback that forwards messages to the UI controller.
+     * - Creates a Server instance on a new event bus whose dashboard subscriber is the UI controller.
      * - Notifies the ServerScreenController of the running state so it can update labels/logs.
      * - Switches the primary stage to the status scene.
      */
     public boolean startServerOnPort(int port) {
         try {
-            Consumer<Serializable> callback = msg -> {
-                if (serverScreenController != null && msg != null) {
-                    serverScreenController.logEvent(msg.toString());
-                }
-            };
+            ServerConfig config = ServerConfig.fromProperties(System.getProperties());
+            events = new ServerEventBus(config.getEventQueueCapacity());
+            if (serverScreenController != null) {
+                events.subscribe("dashboard", serverScreenController::onServerEvent);
+            }
 
-            server = new Server(port, callback);
+            server = new Server(port, events, config);
 
             if (serverScreenController != null) {
                 serverScreenController.setServerRunning(port);
@@ -118,7 +124,7 @@ public class GuiServer extends Application {
             primaryStage.show();
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("server did not start", "port", port, e);
             return false;
         }
     }
@@ -136,6 +142,10 @@ public class GuiServer extends Application {
                 server.shutdown();
                 server = null;
             }
+            if (events != null) {
+                events.close();
+                events = null;
+            }
             if (serverScreenController != null) {
                 serverScreenController.setServerStopped();
                 serverScreenController.logEvent("Server stopped.");
@@ -144,7 +154,7 @@ public class GuiServer extends Application {
             // Return the UI to the intro scene so the user can start it again.
             primaryStage.setScene(introScene);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("server did not stop cleanly", e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package rrosa10Server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import log.Log;
+import log.Logger;
+
+/**
+ * HashedTimerWheel - one thread that drives every timeout on the server.
+ *
+ * Responsibilities:
+ * - Schedule a task to run after a delay and hand back a Timeout that can cancel it.
+ * - Keep scheduling, cancelling and per-tick work O(1) per timer, so 100k idle, heartbeat
+ *   and action deadlines cost a few list operations instead of a thread or ScheduledFuture each.
+ *
+ * How it works:
+ * - Time is cut into ticks of tickMillis. The wheel is an array of buckets (a power of two);
+ *   a timer lands in bucket (deadlineTick % wheelSize) and carries how many full turns of the
+ *   wheel remain before it is due.
+ * - schedule() and cancel() only push onto lock-free queues. The wheel thread drains them at the
+ *   start of each tick, so bucket lists are touched by that one thread only and need no locks.
+ * - Each tick the wheel thread walks one bucket, runs due timers, and counts down the rest.
+ *
+ * Tasks run on the wheel thread and must be short and non-blocking; anything that may block
+ * (socket writes, file I/O) should be handed to another executor.
+ */
+public class HashedTimerWheel implements AutoCloseable {
+
+    /** Handle for a scheduled task. */
+    public interface Timeout {
+        /** Cancel the task if it has not run yet. Return true if this call cancelled it. */
+        boolean cancel();
+        boolean isCancelled();
+        boolean isExpired();
+    }
+
+    private static final int ST_PENDING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private static final Logger LOG = Log.get("timer");
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Node> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Node> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick = 0; // wheel thread only
+
+    /**
+     * param name          name for the wheel thread
+     * param tickMillis    timer resolution; timers fire within one tick of their deadline
+     * param ticksPerWheel number of buckets (rounded up to a power of two)
+     */
+    public HashedTimerWheel(String name, long tickMillis, int ticksPerWheel) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::runWheel, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule a task to run once after the given delay.
+     *
+     * param task  work to run on the wheel thread
+     * param delay delay before running (values <= 0 run on the next tick)
+     * param unit  unit of delay
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) throw new IllegalStateException("Timer wheel is stopped");
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Node node = new Node(task, deadline);
+        pending.incrementAndGet();
+        additions.add(node);
+        return node;
+    }
+
+    /** Return the number of timers scheduled but not yet run or cancelled. */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /** Stop the wheel thread. Timers that have not fired are dropped. */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    // -------------------------
+    // Wheel thread
+    // -------------------------
+
+    private void runWheel() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) break;
+                    continue;
+                }
+            }
+            processCancellations();
+            transferAdditions();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private void transferAdditions() {
+        // bound the work per tick so a burst of schedules cannot stall expiry
+        for (int i = 0; i < 100_000; i++) {
+            Node node = additions.poll();
+            if (node == null) return;
+            if (node.state != ST_PENDING) continue;
+            long dueTick = node.deadline / tickNanos;
+            node.remainingRounds = (dueTick - tick) / wheel.length;
+            long ticks = Math.max(dueTick, tick); // never schedule into the past
+            wheel[(int) (ticks & mask)].add(node);
+        }
+    }
+
+    private void processCancellations() {
+        Node node;
+        while ((node = cancellations.poll()) != null) {
+            if (node.bucket != null) node.bucket.remove(node);
+        }
+    }
+
+    /** Doubly linked list of timers sharing one slot of the wheel. Wheel thread only. */
+    private final class Bucket {
+        private Node head;
+        private Node tail;
+
+        void add(Node node) {
+            node.bucket = this;
+            if (head == null) {
+                head = tail = node;
+            } else {
+                tail.next = node;
+                node.prev = tail;
+                tail = node;
+            }
+        }
+
+        void expire(long deadline) {
+            Node node = head;
+            while (node != null) {
+                Node next = node.next;
+                if (node.remainingRounds <= 0 && node.deadline <= deadline) {
+                    remove(node);
+                    node.expire();
+                } else if (node.state == ST_CANCELLED) {
+                    remove(node);
+                } else {
+                    node.remainingRounds--;
+                }
+                node = next;
+            }
+        }
+
+        void remove(Node node) {
+            if (node.prev != null) node.prev.next = node.next;
+            else head = node.next;
+            if (node.next != null) node.next.prev = node.prev;
+            else tail = node.prev;
+            node.prev = node.next = null;
+            node.bucket = null;
+        }
+    }
+
+    private final class Node implements Timeout {
+        private final Runnable task;
+        private final long deadline; // nanos since startNanos
+        private volatile int state = ST_PENDING;
+        private long remainingRounds;
+        private Node prev;
+        private Node next;
+        private Bucket bucket;
+
+        Node(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_PENDING, ST_CANCELLED)) return false;
+            pending.decrementAndGet();
+            cancellations.add(this);
+            return true;
+        }
+
+        void expire() {
+            if (!STATE.compareAndSet(this, ST_PENDING, ST_EXPIRED)) return;
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOG.error("timer task failed", t);
+            }
+        }
+
+        @Override public boolean isCancelled() { return state == ST_CANCELLED; }
+        @Override public boolean isExpired() { return state == ST_EXPIRED; }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Node> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "state");
+}
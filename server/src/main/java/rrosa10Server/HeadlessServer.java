@@ -0,0 +1,101 @@
+package rrosa10Server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import log.Level;
+import log.Log;
+import log.Logger;
+
+/**
+ * HeadlessServer - command-line entry point that runs the Server without JavaFX.
+ *
+ * Responsibilities:
+ * - Build a ServerConfig from a properties file, JVM system properties and flags.
+ * - Start the Server with its events going to the log (console and logs/server.log by
+ *   default; see the poker.log.* settings) instead of the GUI.
+ * - Shut the server down cleanly (ledger snapshot included) when the JVM exits.
+ *
+ * Nothing here touches the JavaFX toolkit, so it runs on hosts without a display.
+ *
+ * Usage: java -cp ... rrosa10Server.HeadlessServer [--port N] [--config server.properties]
+ *
+ * Settings are layered: built-in defaults, then the --config file, then -Dpoker.* system
+ * properties, then --port.
+ */
+public class HeadlessServer {
+
+    static final int DEFAULT_PORT = 5555;
+
+    public static void main(String[] args) {
+        Properties props = new Properties();
+        Integer portFlag = null;
+        String configFile = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port":
+                        portFlag = Integer.parseInt(requireValue(args, ++i, "--port"));
+                        break;
+                    case "--config":
+                        configFile = requireValue(args, ++i, "--config");
+                        break;
+                    case "--help":
+                    case "-h":
+                        printUsage();
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (configFile != null) {
+                loadProperties(Paths.get(configFile), props);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        props.putAll(System.getProperties());
+
+        int port = portFlag != null ? portFlag : ServerConfig.intProp(props, "poker.port", DEFAULT_PORT);
+        ServerConfig config = ServerConfig.fromProperties(props);
+        Log.configure(props, "logs/server.log", Level.INFO);
+        Logger log = Log.get("events");
+
+        ServerEventBus events = new ServerEventBus(config.getEventQueueCapacity());
+        events.subscribe("console", event -> log.info(event.text()));
+        Server server = new Server(port, events, config);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            log.info("Shutting down");
+            server.shutdown();
+            events.close();
+            Log.flush();
+        }, "server-shutdown"));
+    }
+
+    private static String requireValue(String[] args, int i, String flag) {
+        if (i >= args.length) throw new IllegalArgumentException(flag + " needs a value");
+        return args[i];
+    }
+
+    private static void loadProperties(Path file, Properties into) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("Config file not found: " + file);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            into.load(in);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: HeadlessServer [--port N] [--config server.properties]");
+        System.err.println("  Settings use the poker.* keys (see ServerConfig); -Dpoker.key=value overrides the file.");
+    }
+}
@@ -0,0 +1,94 @@
+package rrosa10Server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram - fixed-memory, lock-free latency recorder in the style of HdrHistogram.
+ *
+ * Responsibilities:
+ * - Record durations in nanoseconds from any thread without locks or allocation.
+ * - Answer percentile queries (p50/p99/p999) and cumulative bucket counts for export.
+ *
+ * Buckets are log-linear: every power of two is split into 32 equal sub-buckets, so any
+ * recorded value is reported within ~3% of its true value. Values from 1 ns up to about
+ * 73 minutes fit in 1,280 counters (10 KB); larger values are clamped into the top bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+    private static final int MAX_SHIFT = 37;                     // values up to 2^42 ns
+    private static final int BUCKETS = (MAX_SHIFT + 2) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BUCKET_BITS + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /** Record one duration in nanoseconds. Negative values count as zero. */
+    public void record(long nanos) {
+        long v = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(v));
+        totalCount.increment();
+        totalNanos.add(v);
+    }
+
+    /** Record the time elapsed since startNanos (a System.nanoTime() reading). */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long count() { return totalCount.sum(); }
+    public long sumNanos() { return totalNanos.sum(); }
+
+    /**
+     * Return the value at the given percentile (0..100), reported as the upper bound of the
+     * bucket it falls in. Returns 0 if nothing has been recorded.
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = snapshot();
+        long total = 0;
+        for (long c : snapshot) total += c;
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * total);
+        rank = Math.max(1, rank);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    /** Return how many recorded values are <= limitNanos (within bucket precision). */
+    public long countAtOrBelow(long limitNanos) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (upperBound(i) > limitNanos) break;
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    private long[] snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) copy[i] = counts.get(i);
+        return copy;
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - SUB_BUCKET_BITS;
+        int sub = (int) (v >>> shift); // always in [32, 63]
+        return (shift + 1) * SUB_BUCKETS + (sub - SUB_BUCKETS);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
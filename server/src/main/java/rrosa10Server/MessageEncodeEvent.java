@@ -0,0 +1,27 @@
+package rrosa10Server;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * MessageEncodeEvent - JFR event covering the serialization of one outbound Message.
+ */
+@Name("poker.MessageEncode")
+@Label("Message Encode")
+@Category({"Poker", "Network"})
+@Description("Serialization of one message into the connection stream")
+class MessageEncodeEvent extends Event {
+    @Label("Client Id")
+    int clientId;
+
+    @Label("Message Type")
+    String messageType;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,70 @@
+package rrosa10Server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * MetricsHttpServer - serves ServerMetrics at GET /metrics in the Prometheus text format.
+ *
+ * Responsibilities:
+ * - Bind a small HTTP endpoint (loopback by default) using the JDK's built-in HTTP server.
+ * - Render the metrics on each request, on one daemon thread so scrapes never compete
+ *   with game traffic for more than a single core.
+ */
+public class MetricsHttpServer implements AutoCloseable {
+
+    private final HttpServer http;
+    private final ExecutorService executor;
+
+    /**
+     * Start serving metrics.
+     *
+     * param host    address to bind (e.g. 127.0.0.1)
+     * param port    TCP port (0 picks a free port)
+     * param metrics metrics to expose
+     */
+    public MetricsHttpServer(String host, int port, ServerMetrics metrics) throws IOException {
+        this.http = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "metrics-http");
+            t.setDaemon(true);
+            return t;
+        });
+        http.createContext("/metrics", exchange -> handle(exchange, metrics));
+        http.setExecutor(executor);
+        http.start();
+    }
+
+    private static void handle(HttpExchange exchange, ServerMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = metrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    /** Return the port actually bound. */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        executor.shutdownNow();
+    }
+}
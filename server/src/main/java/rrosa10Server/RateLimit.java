@@ -0,0 +1,41 @@
+package rrosa10Server;
+
+import java.util.function.LongSupplier;
+
+/**
+ * RateLimit - a sustained rate and burst size, written in config as "perSecond/burst"
+ * (e.g. "5/10" allows 10 back to back, then 5 per second).
+ */
+public record RateLimit(double perSecond, int burst) {
+
+    /**
+     * Parse "perSecond/burst". A bare number means a burst of the same size.
+     *
+     * param text config value, e.g. "5/10" or "20"
+     */
+    public static RateLimit parse(String text) {
+        String[] parts = text.trim().split("/");
+        try {
+            double rate = Double.parseDouble(parts[0].trim());
+            int burst = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : (int) Math.max(1, Math.ceil(rate));
+            return new RateLimit(rate, burst);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Rate limit must look like perSecond/burst: " + text);
+        }
+    }
+
+    /** Create a fresh, full bucket with this limit. */
+    public TokenBucket newBucket() {
+        return new TokenBucket(perSecond, burst);
+    }
+
+    /** Create a fresh, full bucket with this limit that reads time from the given clock. */
+    public TokenBucket newBucket(LongSupplier nanoTime) {
+        return new TokenBucket(perSecond, burst, nanoTime);
+    }
+
+    @Override
+    public String toString() {
+        return perSecond + "/" + burst;
+    }
+}
@@ -0,0 +1,66 @@
+package rrosa10Server;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import model.Message;
+
+/**
+ * RateLimiter - per-connection limits on inbound messages, one TokenBucket per message type.
+ *
+ * Responsibilities:
+ * - Decide whether a message of a given type may be processed now.
+ * - Count throttled messages per type so they can be reported.
+ *
+ * Types without a configured limit are never throttled. Checking is a single CAS on the
+ * type's bucket; no locks are taken.
+ */
+public class RateLimiter {
+
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    private final TokenBucket[] buckets = new TokenBucket[TYPES.length];
+    private final AtomicLongArray throttled = new AtomicLongArray(TYPES.length);
+
+    /**
+     * param limits rate limit per message type (types not in the map are unlimited)
+     */
+    public RateLimiter(Map<Message.Type, RateLimit> limits) {
+        this(limits, System::nanoTime);
+    }
+
+    /**
+     * param limits   rate limit per message type (types not in the map are unlimited)
+     * param nanoTime clock the buckets read, in nanoseconds (System::nanoTime outside tests)
+     */
+    public RateLimiter(Map<Message.Type, RateLimit> limits, LongSupplier nanoTime) {
+        for (Map.Entry<Message.Type, RateLimit> e : limits.entrySet()) {
+            buckets[e.getKey().ordinal()] = e.getValue().newBucket(nanoTime);
+        }
+    }
+
+    /**
+     * Take a token for a message of this type.
+     *
+     * return true if the message may be processed, false if it should be dropped
+     */
+    public boolean tryAcquire(Message.Type type) {
+        TokenBucket bucket = buckets[type.ordinal()];
+        if (bucket == null || bucket.tryAcquire()) return true;
+        throttled.incrementAndGet(type.ordinal());
+        return false;
+    }
+
+    /** Return how many messages of this type have been throttled. */
+    public long throttledCount(Message.Type type) {
+        return throttled.get(type.ordinal());
+    }
+
+    /** Return how many messages of any type have been throttled. */
+    public long totalThrottled() {
+        long total = 0;
+        for (int i = 0; i < TYPES.length; i++) total += throttled.get(i);
+        return total;
+    }
+}
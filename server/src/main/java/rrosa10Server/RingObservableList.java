@@ -0,0 +1,114 @@
+package rrosa10Server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * RingObservableList - an ObservableList with a fixed capacity, backed by a ring buffer.
+ *
+ * Responsibilities:
+ * - Keep the newest capacity elements; appending past capacity drops the oldest ones.
+ * - Append a whole batch as one change, so a ListView relayouts once per batch rather than
+ *   once per element, and trimming the head costs nothing but an index move.
+ *
+ * Only append (add, addAll), set and clear are supported; everything else is read-only.
+ * Like any JavaFX list it must be used on the FX thread once it backs a control.
+ */
+public class RingObservableList<E> extends ObservableListBase<E> {
+
+    private final Object[] ring;
+    private int head;
+    private int size;
+
+    public RingObservableList(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.ring = new Object[capacity];
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return (E) ring[(head + index) % ring.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(E e) {
+        return addAll(List.of(e));
+    }
+
+    /** Append a batch; if it overflows the capacity, the oldest elements go first. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addAll(Collection<? extends E> batch) {
+        if (batch.isEmpty()) return false;
+        List<? extends E> items = batch instanceof List ? (List<? extends E>) batch : new ArrayList<>(batch);
+        // only the newest capacity elements of an oversized batch could ever be seen
+        if (items.size() > ring.length) items = items.subList(items.size() - ring.length, items.size());
+
+        int overflow = Math.max(0, size + items.size() - ring.length);
+        beginChange();
+        try {
+            if (overflow > 0) {
+                List<E> removed = new ArrayList<>(overflow);
+                for (int i = 0; i < overflow; i++) {
+                    removed.add((E) ring[head]);
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                }
+                size -= overflow;
+                nextRemove(0, removed);
+            }
+            int from = size;
+            for (E e : items) {
+                ring[(head + size) % ring.length] = e;
+                size++;
+            }
+            nextAdd(from, size);
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E old = get(index);
+        ring[(head + index) % ring.length] = element;
+        beginChange();
+        try {
+            nextSet(index, old);
+        } finally {
+            endChange();
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) return;
+        List<E> removed = new ArrayList<>(this);
+        Arrays.fill(ring, null);
+        head = 0;
+        size = 0;
+        beginChange();
+        try {
+            nextRemove(0, removed);
+        } finally {
+            endChange();
+        }
+    }
+}
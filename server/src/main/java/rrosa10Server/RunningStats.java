@@ -0,0 +1,68 @@
+package rrosa10Server;
+
+/**
+ * RunningStats - count, mean and variance of a stream of values in constant space.
+ *
+ * Responsibilities:
+ * - Add values one at a time with Welford's update, which stays accurate over billions of
+ *   values where a plain sum of squares would lose precision.
+ * - Merge two partial results (Chan et al.), so workers can each keep their own and combine.
+ *
+ * Not thread-safe: each worker keeps its own and merges under the owner's lock.
+ */
+public final class RunningStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    /** Fold another partial result into this one. */
+    public void merge(RunningStats other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+    }
+
+    /** Return a copy, for reporting while this one keeps changing. */
+    public RunningStats copy() {
+        RunningStats c = new RunningStats();
+        c.count = count;
+        c.mean = mean;
+        c.m2 = m2;
+        return c;
+    }
+
+    public long count() { return count; }
+
+    public double mean() { return mean; }
+
+    /** Sample variance (n - 1), or 0 with fewer than two values. */
+    public double variance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+
+    /** Half-width of the normal-approximation 95% confidence interval for the mean. */
+    public double ci95() {
+        return count < 2 ? 0 : 1.96 * stdDev() / Math.sqrt(count);
+    }
+}
@@ -1,53 +1,362 @@
 package rrosa10Server;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.io.Serializable;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import log.Log;
+import log.Logger;
+import model.AutoPlay;
+import model.AutoPlayResult;
 import model.Card;
+import model.Message;
+import model.MessageFilter;
 import model.Player;
 import model.PokerEngine;
-import model.PokerInfo;
+import model.SimulationRequest;
+import model.Spot;
 
 /**
  * Simplified Server - lightweight single-threaded-accept server that spawns a ClientThread
  * for each incoming connection and uses a PokerEngine to handle a single-player game instance.
  *
  * Key responsibilities:
- * - Listen for incoming TCP connections on a configured port.
+ * - Listen for incoming TCP connections on a configured port, and answer the ones Admission
+ *   refuses (too many sessions, handshakes or new connections) with BUSY and a retry hint.
  * - For each accepted connection, create a ClientThread that:
- *     * exchanges PokerInfo messages with the client (object streams),
+ *     * exchanges Message records with the client (object streams),
  *     * uses a dedicated PokerEngine for game evaluation,
- *     * sends client-specific PokerInfo responses (GAME_DEAL, GAME_RESULT, etc).
+ *     * sends client-specific responses (GAME_DEAL, GAME_RESULT, etc).
+ * - In table mode (poker.table.seats > 0), seat each player at a shared Table instead, where
+ *   one deck and one dealer hand serve every seat in a round.
+ * - Report what happens as typed ServerEvents on a ServerEventBus; the LOG broadcast to
+ *   players and the event counters are subscribers like the dashboard and console.
  */
 public class Server {
 
+    private static final Logger LOG = Log.get("server");
+    // Messages between stream resets: a reset clears the peer's back-reference table, which
+    // otherwise keeps every message it has read, at the cost of re-sending one class descriptor
+    private static final int STREAM_RESET_INTERVAL = 1024;
+    // How long a refused socket stays half-closed, so the client reads BUSY before the close
+    private static final long REFUSED_CLOSE_MILLIS = 250;
+
     private final int port;
-    private final ArrayList<ClientThread> clients = new ArrayList<>();
+    // Connected clients by id; lock-free, so accepts and disconnects never wait on a broadcast
+    private final ClientRegistry<ClientThread> clients = new ClientRegistry<>();
     private int count = 1;
     private TheServer testPokerServer;
-    private final Consumer<Serializable> callback;
+    // Everything the server reports (dashboard, console, metrics, LOG broadcast) goes out here
+    private final ServerEventBus events;
+    private final ServerEventBus.Subscription broadcaster;
+    private final ServerEventBus.Subscription eventCounter;
     private volatile boolean running = true;
     private final List<String> gameLog = new ArrayList<>();
+    private final ServerConfig config;
+    private ChipLedger ledger;
+    private ScheduledExecutorService snapshotter;
+    private final SessionCache sessions;
+    private final HashedTimerWheel timers;
+    // Runs timeout follow-ups that write to sockets, keeping the timer wheel thread non-blocking
+    private final ThreadPoolExecutor timeoutWorker;
+    private final ServerMetrics metrics = new ServerMetrics();
+    // Shared tables (null unless poker.table.seats > 0)
+    private final TableManager tables;
+    private final SimulationService simulations;
+    private final ActorSystem tableActors;
+    // Runs the tables' socket writes and ledger entries in order, so table actors never block on I/O
+    private final ThreadPoolExecutor tableIo;
+    private MetricsHttpServer metricsHttp;
+    private final Admission admission;
+
+    /**
+     * Construct a Server bound to the given port that reports what happens on an event bus.
+     * Settings are read from the JVM system properties (see ServerConfig).
+     *
+     * param port   TCP port to listen on
+     * param events bus the server publishes its ServerEvents on (subscribe the UI before this)
+     */
+    public Server(int port, ServerEventBus events) {
+        this(port, events, ServerConfig.fromProperties(System.getProperties()));
+    }
 
     /**
-     * Construct a Server bound to the given port and a callback to receive status/log messages.
+     * Construct a Server with explicit settings.
      *
-     * param port TCP port to listen on
-     * param call callback invoked with Serializable messages for UI logging
+     * param port   TCP port to listen on
+     * param events bus the server publishes its ServerEvents on (subscribe the UI before this)
+     * param config server settings
      */
-    public Server(int port, Consumer<Serializable> call) {
+    public Server(int port, ServerEventBus events, ServerConfig config) {
         this.port = port;
-        this.callback = call;
+        this.events = events;
+        this.config = config;
+        this.broadcaster = events.subscribe("broadcast", this::broadcastEvent);
+        this.eventCounter = events.subscribe("metrics", metrics::eventPublished);
+        this.admission = new Admission(config.getAdmissionMaxSessions(), config.getAdmissionMaxHandshakes(),
+                config.getAdmissionAcceptRate(), config.getAdmissionRetryMillis(), clients::size);
+        this.sessions = new SessionCache(config.getSessionTtlSeconds() * 1000L, config.getMaxParkedSessions(), config.getNodeId(), this::sessionEnded);
+        this.timers = new HashedTimerWheel("timer-wheel", config.getTimerTickMillis(), config.getTimerWheelSize());
+        this.timeoutWorker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "timeout-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.tableActors = config.isTableMode() ? new ActorSystem("table-actor", config.getActorThreads()) : null;
+        this.tableIo = config.isTableMode()
+                ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "table-io");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.DiscardPolicy())
+                : null;
+        this.tables = config.isTableMode()
+                ? new TableManager(tableActors, config.getTableMailboxCapacity(), config.getTableSeats(),
+                        config.getTableBetSeconds(), config.getTableRoundSeconds(), new TableHost())
+                : null;
+        this.simulations = new SimulationService(config.getSimThreads(), config.getSimMaxJobs(),
+                config.getSimChunkHands(), config.getSimProgressMillis());
+        scheduleSessionReaper();
+        openLedger();
+        startMetrics();
         testPokerServer = new TheServer();
         testPokerServer.start();
     }
 
+    /**
+     * Open the chip ledger (if enabled) and schedule periodic snapshots.
+     * The ledger is a record of every chip movement for audit and reconciliation; live balances
+     * are held by each session's Player and are never read back from it, so after a restart
+     * every player starts a fresh session. Client ids continue after the highest id the ledger
+     * has seen so accounts from earlier runs are never credited to a new player.
+     */
+    private void openLedger() {
+        if (!config.isLedgerEnabled()) return;
+        try {
+            long startNanos = System.nanoTime();
+            ledger = new ChipLedger(Paths.get(config.getLedgerDir()), config.getLedgerSegmentBytes());
+            count = ledger.maxPlayerId() + 1;
+            long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            events.publish(new ServerEvent.Notice("Ledger loaded " + ledger.accountCount() + " accounts in " + ms + " ms"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open chip ledger in " + config.getLedgerDir(), e);
+        }
+
+        int interval = config.getSnapshotIntervalSeconds();
+        if (interval > 0) {
+            snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ledger-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            snapshotter.scheduleWithFixedDelay(this::snapshotLedger, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private void snapshotLedger() {
+        try {
+            ledger.snapshot();
+        } catch (IOException e) {
+            events.publish(new ServerEvent.Notice("Ledger snapshot failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Register the server's gauges, start the rate ticker on the timer wheel and, if enabled,
+     * the HTTP endpoint. A port that cannot be bound is reported but does not stop the server.
+     */
+    private void startMetrics() {
+        metrics.gauge("poker_connections", "Open client connections", clients::size);
+        metrics.gauge("poker_sessions", "Sessions held, attached or parked", sessions::size);
+        metrics.gauge("poker_sessions_parked", "Sessions waiting for their player to resume", sessions::parkedCount);
+        metrics.gauge("poker_handshakes_pending", "Admitted connections still in their stream handshake",
+                admission::pendingHandshakes);
+        metrics.gauge("poker_timers_pending", "Timeouts scheduled on the timer wheel", timers::pendingTimeouts);
+        metrics.gauge("poker_timeout_queue_depth", "Timeout follow-ups waiting for the timeout worker",
+                () -> timeoutWorker.getQueue().size());
+        if (ledger != null) {
+            metrics.gauge("poker_ledger_accounts", "Accounts in the chip ledger", ledger::accountCount);
+        }
+        metrics.gauge("poker_events_pending", "Server events waiting for a subscriber", events::pending);
+        metrics.gauge("poker_events_dropped", "Server events dropped because a subscriber fell behind", events::dropped);
+        metrics.gauge("poker_simulations_active", "Simulations running", simulations::activeJobs);
+        metrics.gauge("poker_simulation_chunks_queued", "Simulation chunks waiting for a worker", simulations::queuedChunks);
+        if (tables != null) {
+            metrics.gauge("poker_tables", "Open shared tables", tables::tableCount);
+            metrics.gauge("poker_table_mailbox_depth", "Messages waiting in table mailboxes", tables::mailboxDepth);
+            metrics.gauge("poker_table_actors_queued", "Tables with mail waiting for an actor thread", tableActors::queuedActors);
+            metrics.gauge("poker_table_io_queue_depth", "Table sends and ledger entries waiting for the table I/O thread",
+                    () -> tableIo.getQueue().size());
+        }
+        scheduleMetricsTick();
+
+        if (!config.isMetricsEnabled()) return;
+        try {
+            metricsHttp = new MetricsHttpServer(config.getMetricsHost(), config.getMetricsPort(), metrics);
+            events.publish(new ServerEvent.Notice("Metrics at http://" + config.getMetricsHost() + ":" + metricsHttp.getPort() + "/metrics"));
+        } catch (IOException e) {
+            events.publish(new ServerEvent.Notice("Metrics endpoint did not start: " + e.getMessage()));
+        }
+    }
+
+    private void scheduleMetricsTick() {
+        if (!running) return;
+        metrics.tick();
+        timers.schedule(this::scheduleMetricsTick, ServerMetrics.TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** Return this server's metrics. */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Return how many inbound messages of this type were dropped by rate limiting. */
+    public long throttledMessages(Message.Type type) {
+        return metrics.throttled(type);
+    }
+
+    /** Return how many inbound messages of any type were dropped by rate limiting. */
+    public long throttledMessages() {
+        return metrics.throttledTotal();
+    }
+
+    /**
+     * Reap parked sessions past their time-to-live once a second, on the timer wheel.
+     * The cache keeps parked sessions in expiry order, so each pass only looks at expired ones.
+     */
+    private void scheduleSessionReaper() {
+        if (!running) return;
+        int evicted = sessions.evictExpired();
+        if (evicted > 0) {
+            events.publish(new ServerEvent.Notice("Reaped " + evicted + " expired session(s)"));
+        }
+        timers.schedule(this::scheduleSessionReaper, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Forfeit a hand whose player never played or folded before the action deadline.
+     * The stake was taken at deal time, so nothing moves in the ledger; the hand is cleared so an
+     * abandoned session stops holding cards, and an attached client is told the hand is over.
+     *
+     * param session session that owns the hand
+     * param handSeq sequence number of the hand the deadline was armed for
+     */
+    private void forfeitHand(Session session, long handSeq) {
+        Message result;
+        Session.Owner owner;
+        synchronized (session) {
+            if (!session.isHandInProgress() || session.getHandSeq() != handSeq) return;
+            PokerEngine engine = session.getEngine();
+            if (session.getSpots() > 0) {
+                // every spot is folded; the stakes were taken at deal time
+                result = new Message.MultiResult(
+                        engine.settleSpots(new boolean[session.getSpots()]),
+                        new ArrayList<>(engine.getDealer().getHand()), "Hand timed out");
+            } else {
+                result = new Message.Result(
+                        new ArrayList<>(engine.getClient().getHand()),
+                        new ArrayList<>(engine.revealDealer()),
+                        0, 0, "Hand timed out");
+            }
+            session.handSettled();
+            engine.getClient().resetHand();
+            engine.getDealer().resetHand();
+            owner = session.getOwner();
+        }
+        int playerId = session.getPlayer().getID();
+        events.publish(new ServerEvent.HandForfeited(playerId));
+        if (owner != null) {
+            owner.send(result);
+        }
+    }
+
+    /**
+     * A session ended for good (evicted after its TTL, or replaced by a resumed one).
+     * Called under the session cache lock; leaving only queues a message for the table.
+     */
+    private void sessionEnded(Session session) {
+        clients.leaveAll(session.getPlayer().getID());
+        events.publish(new ServerEvent.ClientGone(session.getPlayer().getID()));
+        if (tables != null) {
+            tables.leave(session);
+        }
+    }
+
+    /**
+     * Server side of the shared tables: delivery, chips, logging and timers.
+     * Called on table actor threads, so socket writes and ledger entries are queued for the
+     * table I/O thread (in call order) rather than run on the shared actor pool.
+     */
+    private class TableHost implements Table.Host {
+        @Override
+        public void send(Session session, Message message) {
+            tableIo.execute(() -> {
+                Session.Owner owner = session.getOwner();
+                if (owner != null) owner.send(message);
+            });
+        }
+
+        @Override
+        public void chips(Session session, int delta) {
+            // the wallet moves now, so the table's next stake check sees it; the ledger follows
+            session.getPlayer().adjustChips(delta);
+            if (ledger == null) return;
+            int playerId = session.getPlayer().getID();
+            tableIo.execute(() -> {
+                if (delta < 0) openAccount(playerId);
+                settle(playerId, delta);
+            });
+        }
+
+        @Override
+        public void publish(ServerEvent event) {
+            events.publish(event);
+        }
+
+        @Override
+        public HashedTimerWheel.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            return timers.schedule(task, delay, unit);
+        }
+    }
+
+    /**
+     * Open a ledger account holding the starting chips the first time a player bets.
+     * Deferred until then so a connection that only resumes an older session leaves no trace.
+     */
+    private void openAccount(int playerId) {
+        if (ledger != null && !ledger.hasAccount(playerId)) {
+            settle(playerId, config.getStartingChips());
+        }
+    }
+
+    /**
+     * Record a chip movement for a player in the ledger (no-op when the ledger is disabled).
+     *
+     * param playerId player whose balance changes
+     * param delta    chips won (positive) or lost (negative)
+     */
+    private void settle(int playerId, long delta) {
+        if (ledger == null) return;
+        try {
+            ledger.adjust(playerId, delta);
+        } catch (IOException e) {
+            events.publish(new ServerEvent.Notice("Ledger write failed for player #" + playerId + ": " + e.getMessage()));
+        }
+    }
+
     /**
      * Shutdown the server:
      * - mark running = false to stop the accept loop,
@@ -60,14 +369,29 @@ public class Server {
             if (testPokerServer != null && !testPokerServer.isInterrupted()) {
                 testPokerServer.interrupt();
             }
-            synchronized (clients) {
-                for (ClientThread ct : clients) {
-                    ct.closeConnection();
-                }
-                clients.clear();
+            for (ClientThread ct : clients.clients()) {
+                ct.closeConnection();
+            }
+            clients.clear();
+            broadcaster.close();
+            eventCounter.close();
+            timers.close();
+            timeoutWorker.shutdownNow();
+            if (tableActors != null) tableActors.close();
+            if (tableIo != null) {
+                // let queued ledger entries land before the final snapshot
+                tableIo.shutdown();
+                tableIo.awaitTermination(2, TimeUnit.SECONDS);
+            }
+            simulations.close();
+            if (metricsHttp != null) metricsHttp.close();
+            if (ledger != null) {
+                if (snapshotter != null) snapshotter.shutdownNow();
+                snapshotLedger();
+                ledger.close();
             }
         } catch (Exception e) {
-            callback.accept("Server shutdown error: " + e.getMessage());
+            events.publish(new ServerEvent.Notice("Server shutdown error: " + e.getMessage()));
         }
     }
 
@@ -84,50 +408,154 @@ public class Server {
         @Override
         public void run() {
             try (ServerSocket serverSocket = new ServerSocket(port)) {
-                callback.accept("Server listening on port " + port);
+                events.publish(new ServerEvent.Notice("Server listening on port " + port));
                 while (running) {
                     try {
                         Socket clientSocket = serverSocket.accept();
                         if (!running) break;
+                        Admission.Reason refused = admission.admit();
+                        if (refused != null) {
+                            refuse(clientSocket, refused);
+                            continue;
+                        }
+                        metrics.connectionAccepted();
                         int clientId = count++;
                         ClientThread clientThread = new ClientThread(clientSocket, clientId);
-                        synchronized (clients) {
-                            clients.add(clientThread);
-                        }
+                        clients.register(clientId, clientThread);
                         clientThread.start();
 
-                        // Send a client-specific status update for GUI to show on single row
-                        callback.accept("CLIENT:" + clientId + "|connected");
-                        Server.this.logAction("CLIENT:" + clientId + "|connected");
-                        // Also emit a general log entry
-                        callback.accept("Client connected: #" + clientId + " (total: " + clients.size() + ")");
-                        Server.this.logAction("Client connected: #" + clientId + " (total: " + clients.size() + ")");
+                        events.publish(new ServerEvent.ClientConnected(clientId, clients.size()));
 
                     } catch (java.io.IOException e) {
                         if (!running) break;
-                        callback.accept("Accept failed: " + e.getMessage());
+                        events.publish(new ServerEvent.Notice("Accept failed: " + e.getMessage()));
                     }
                 }
             } catch (Exception e) {
-                callback.accept("Server socket did not launch: " + e.getMessage());
-                e.printStackTrace();
+                events.publish(new ServerEvent.Notice("Server socket did not launch: " + e.getMessage()));
+                LOG.error("server socket did not launch", "port", port, e);
             }
         }
     }
     
+    /**
+     * Turn away a connection Admission refused: write a stream header and one BUSY message
+     * straight to the socket (a few dozen bytes, which fit in a fresh socket's send buffer, so
+     * the accept thread never blocks), half-close it, and close it for good shortly after on
+     * the timer wheel. Closing at once, with the client's stream header still unread, would
+     * reset the connection and could discard the BUSY before the client reads it.
+     */
+    private void refuse(Socket socket, Admission.Reason reason) {
+        metrics.connectionRefused(reason);
+        int retryMillis = admission.retryAfterMillis(reason);
+        if (LOG.isDebugEnabled()) LOG.debug("connection refused", "reason", reason, "retryMillis", retryMillis);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            try (ObjectOutputStream busy = new ObjectOutputStream(bytes)) {
+                busy.writeObject(new Message.Busy(retryMillis, reason.text()));
+            }
+            socket.getOutputStream().write(bytes.toByteArray());
+            socket.shutdownOutput();
+            timers.schedule(() -> closeRefused(socket), REFUSED_CLOSE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            closeRefused(socket);
+        }
+    }
+
+    /** Drop whatever a refused client sent (its stream header) and close the socket. */
+    private static void closeRefused(Socket socket) {
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            in.skip(in.available());
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    /**
+     * Broadcast subscriber: send players a LOG line for the events everyone sees (connections,
+     * bets, results, resumes, table rounds). Runs on the bus's broadcast thread, so the socket
+     * writes of a fan-out never hold up the thread that published the event.
+     */
+    private void broadcastEvent(ServerEvent event) {
+        if (event instanceof ServerEvent.ClientConnected || event instanceof ServerEvent.ClientDisconnected) {
+            ServerEvent.ClientEvent e = (ServerEvent.ClientEvent) event;
+            logAction("CLIENT:" + e.clientId() + "|" + e.status());
+            logAction(event.text());
+        } else if (event instanceof ServerEvent.BetPlaced bet) {
+            // table bets only go to the dashboard; the table broadcasts its round summary
+            if (bet.tableId() == 0) logAction("CLIENT:" + bet.clientId() + "|" + bet.status());
+        } else if (event instanceof ServerEvent.HandSettled || event instanceof ServerEvent.HandForfeited) {
+            ServerEvent.ClientEvent e = (ServerEvent.ClientEvent) event;
+            logAction("CLIENT:" + e.clientId() + "|" + e.status());
+        } else if (event instanceof ServerEvent.SessionResumed resumed) {
+            logAction("CLIENT:" + resumed.clientId() + "|" + resumed.status());
+        } else if (event instanceof ServerEvent.AutoPlayed auto) {
+            long net = auto.summary().getNet();
+            logAction("CLIENT:" + auto.clientId() + "|auto-played " + auto.summary().getHandsDealt() + " hands, net "
+                    + (net >= 0 ? "+" : "") + net);
+        } else if (event instanceof ServerEvent.TableRound round) {
+            logAction("TABLE:" + round.tableId() + "|round " + round.round() + ": " + round.summary());
+        }
+    }
+
     public void logAction(String action) {
+        long startNanos = System.nanoTime();
+        BroadcastEvent event = new BroadcastEvent();
+        event.begin();
+        int recipients = 0;
+        long bytes = 0;
         gameLog.add(action);
-        System.out.println("[SERVER] logAction fired: " + action);
-        synchronized (clients) {
-            for (ClientThread client : clients) {
-                if (client.out != null) {
-                    System.out.println("[SERVER] Sending to client #" + client.clientId + " LOG: " + action); // ADDED
-                    PokerInfo info = new PokerInfo(
-                        PokerInfo.Type.LOG, null, null, 0, 0, List.of(action));
-                    client.sendPokerInfo(info);
-                }
+        Message line = new Message.LogLines(List.of(action));
+        for (ClientThread client : clients.clients()) {
+            if (client.out != null) {
+                bytes += client.send(line);
+                recipients++;
             }
         }
+        metrics.record(ServerMetrics.Op.BROADCAST, startNanos);
+        if (LOG.isDebugEnabled()) LOG.debug("broadcast", "line", action, "recipients", recipients, "bytes", bytes);
+        event.end();
+        if (event.shouldCommit()) {
+            event.recipients = recipients;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Send a message to one connected client.
+     *
+     * param clientId id of the client (its player id)
+     * param message  message to send
+     * return true if the client is connected and the message was written
+     */
+    public boolean sendTo(int clientId, Message message) {
+        ClientThread client = clients.get(clientId);
+        return client != null && client.out != null && client.send(message) > 0;
+    }
+
+    /**
+     * Send a message to every connected member of a group. Members that are disconnected
+     * (waiting to resume) miss it.
+     *
+     * param group group name (see joinGroup)
+     * param message message to send
+     * return the number of clients it was sent to
+     */
+    public int sendToGroup(String group, Message message) {
+        return clients.forEachInGroup(group, client -> {
+            if (client.out != null) client.send(message);
+        });
+    }
+
+    /** Add a client to a named group; membership lasts until leaveGroup or the session ends. */
+    public void joinGroup(String group, int clientId) {
+        clients.join(group, clientId);
+    }
+
+    public void leaveGroup(String group, int clientId) {
+        clients.leave(group, clientId);
     }
 
     /**
@@ -135,103 +563,269 @@ public class Server {
      *
      * Responsibilities:
      * - Setup ObjectOutputStream/ObjectInputStream for object-based communication.
-     * - Send an initial WELCOME PokerInfo to the client.
-     * - Read PokerInfo messages from the client and dispatch to handler methods:
+     * - Send an initial WELCOME to the client.
+     * - Read messages from the client and dispatch to handler methods:
      *     START -> handleDealRequest
      *     PLAY  -> handlePlay
      *     FOLD  -> handleFold
      * - On disconnect, close streams/socket and notify UI via callback with:
      *   plus a general log line.
      *
-     * Note: each ClientThread contains a dedicated PokerEngine and Player instance.
+     * Note: each ClientThread is attached to a Session holding a dedicated PokerEngine and
+     * Player instance, from its first message on (see openSession). On disconnect the session is parked rather than discarded, and a client
+     * that reconnects with the session token from WELCOME (RESUME) gets it back, hand and all.
      */
-    class ClientThread extends Thread {
+    class ClientThread extends Thread implements Session.Owner {
         private final Socket connection;
-        private final int clientId;
+        private volatile int clientId;
         private ObjectInputStream in = null;
+        // Admits only protocol messages on 'in' and caps each one's size (only used by this thread)
+        private final MessageFilter inputFilter = config.newInputFilter();
         private ObjectOutputStream out = null;
-        private final Player player;
-        private final PokerEngine pokerEngine;
+        // Sits under 'out' so each send can report its size in JFR events
+        private CountingOutputStream bytesOut;
+        // Token sent in WELCOME; this connection's own session is opened under it (see openSession)
+        private final String welcomeToken = sessions.newToken();
+        // null until the first message: a RESUME attaches an older session instead of opening one
+        private Session session;
+        // When the acceptor handed over the socket; WELCOME going out ends the accept latency
+        private final long acceptedNanos = System.nanoTime();
+        private final AcceptEvent acceptEvent = new AcceptEvent();
+        // Refreshed by every inbound message (including PING); checked by the idle timer
+        private volatile long lastActivityNanos = System.nanoTime();
+        private HashedTimerWheel.Timeout idleTimeout;
+        private final RateLimiter rateLimiter = new RateLimiter(config.getRateLimits());
+        // true while this client is being throttled, so the notice is sent once per burst
+        private boolean throttling = false;
+        // this connection's simulation, if it started one (only touched by this thread)
+        private SimulationService.Job simulation;
+        // messages written since the last stream reset (guarded by 'out')
+        private int sentSinceReset;
+        // true until WELCOME goes out; the connection holds one of Admission's handshake slots till then
+        private boolean handshaking = true;
 
         ClientThread(Socket s, int clientId) {
             this.connection = s;
             this.clientId = clientId;
-            this.player = new Player(clientId, "Player-" + clientId);
-            this.pokerEngine = new PokerEngine(player, 500);
-            
+            acceptEvent.begin();
+        }
+
+        /**
+         * Open this connection's own session, under the token sent in WELCOME, and take a seat
+         * in table mode. Deferred to the first message that is not a RESUME (or a RESUME that
+         * fails), so a reconnecting player never builds a session, or holds a second seat,
+         * that the resume then throws away.
+         */
+        private void openSession() {
+            Player player = new Player(clientId, "Player-" + clientId);
+            session = sessions.open(welcomeToken, player, new PokerEngine(player, config.getStartingChips()), this);
+            if (tables != null) {
+                tables.seat(session);
+            }
         }
 
         /**
          * Close socket and streams for this client. Safe to call multiple times.
+         * The socket goes first: that never blocks, and it unblocks a reader or a writer stuck
+         * on a dead peer, so closing the streams afterwards cannot hang.
          */
+        @Override
         public void closeConnection() {
             try {
+                if (connection != null && !connection.isClosed()) connection.close();
                 if (in != null) in.close();
                 if (out != null) out.close();
-                if (connection != null && !connection.isClosed()) connection.close();
             } catch (Exception ignored) {}
         }
 
         /**
-         * Send a PokerInfo object to the connected client.
+         * Check the per-connection rate limit before dispatching a message. A throttled message is
+         * dropped before any game work (shuffle, evaluation) happens; the client is told once per
+         * throttled burst rather than once per dropped message.
+         *
+         * return true if the message should be handled
+         */
+        private boolean admit(Message.Type type) {
+            if (rateLimiter.tryAcquire(type)) {
+                throttling = false;
+                return true;
+            }
+            metrics.messageThrottled(type);
+            if (!throttling) {
+                throttling = true;
+                events.publish(new ServerEvent.ClientNote(clientId, "throttled " + type));
+                send(new Message.Chat("Too many " + type + " requests, slow down."));
+            }
+            return false;
+        }
+
+        /** Return this connection's rate limiter (for throttle counts). */
+        RateLimiter getRateLimiter() { return rateLimiter; }
+
+        /**
+         * Idle timer callback (runs on the timer wheel): close the connection if nothing has
+         * arrived for the idle timeout, otherwise re-arm for the time remaining. Activity only
+         * writes a timestamp, so busy connections never touch the wheel between checks.
+         */
+        private void checkIdle() {
+            if (connection.isClosed()) return;
+            long idleLimit = TimeUnit.SECONDS.toNanos(config.getIdleTimeoutSeconds());
+            long idle = System.nanoTime() - lastActivityNanos;
+            if (idle >= idleLimit) {
+                events.publish(new ServerEvent.ClientNote(clientId, "idle timeout"));
+                closeConnection();
+            } else {
+                idleTimeout = timers.schedule(this::checkIdle, idleLimit - idle, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Send a message to the connected client.
          * Writes are synchronized on the 'out' stream to avoid concurrent write corruption.
+         * Messages are written unshared, so this stream keeps no reference to them, and the
+         * stream is reset every STREAM_RESET_INTERVAL messages so the reader drops its own.
          *
-         * param pkg PokerInfo message to send
+         * param message message to send
+         * return the number of bytes written to the socket (0 if the send failed)
          */
-        public void sendPokerInfo(PokerInfo pkg) {
+        @Override
+        public long send(Message message) {
+            long startNanos = System.nanoTime();
+            MessageEncodeEvent encode = new MessageEncodeEvent();
+            SocketWriteEvent write = new SocketWriteEvent();
+            long bytes;
             try {
                 synchronized (out) {
-                    out.writeObject(pkg);
+                    long before = bytesOut.getCount();
+                    encode.begin();
+                    out.writeUnshared(message);
+                    if (++sentSinceReset == STREAM_RESET_INTERVAL) {
+                        out.reset();
+                        sentSinceReset = 0;
+                    }
+                    encode.end();
+                    write.begin();
                     out.flush();
+                    write.end();
+                    bytes = bytesOut.getCount() - before;
                 }
+                metrics.messageSent();
+                metrics.record(ServerMetrics.Op.SEND, startNanos);
             } catch (Exception e) {
-                System.out.println("Could not send PokerInfo to client #" + clientId + ": " + e.getMessage());
-                e.printStackTrace();
+                metrics.sendFailed();
+                LOG.warn("send failed", "client", clientId, "type", message.type(), "error", e.getMessage());
+                return 0;
+            }
+            if (encode.shouldCommit()) {
+                encode.clientId = clientId;
+                encode.messageType = String.valueOf(message.type());
+                encode.bytes = bytes;
+                encode.commit();
             }
+            if (write.shouldCommit()) {
+                write.clientId = clientId;
+                write.messageType = String.valueOf(message.type());
+                write.bytes = bytes;
+                write.commit();
+            }
+            return bytes;
         }
 
         /**
-         * Main loop for the client: setup streams, send WELCOME, then read incoming PokerInfo messages
-         * and dispatch them. On exit, remove this client from the server list and notify the UI.
+         * Main loop for the client: setup streams, send WELCOME, then read incoming messages
+         * and dispatch them. If the streams cannot be set up the connection goes straight to cleanup.
+         * On exit, remove this client from the server list and notify the UI.
          */
         @Override
         public void run() {
+            // armed before the stream handshake, which blocks until the peer sends its header
+            if (config.getIdleTimeoutSeconds() > 0) {
+                idleTimeout = timers.schedule(this::checkIdle, config.getIdleTimeoutSeconds(), TimeUnit.SECONDS);
+            }
             try {
             	try {
-                    out = new ObjectOutputStream(connection.getOutputStream());
+                    bytesOut = new CountingOutputStream(connection.getOutputStream());
+                    out = new ObjectOutputStream(bytesOut);
                     out.flush();
                     in = new ObjectInputStream(connection.getInputStream());
+                    in.setObjectInputFilter(inputFilter);
                     connection.setTcpNoDelay(true);
                 } catch (Exception e) {
-                    e.printStackTrace();
+                    // no WELCOME and no ACCEPT sample; the finally block still frees the handshake slot
+                    LOG.warn("stream setup failed", "client", clientId, e);
+                    return;
                 }
 
-                PokerInfo welcome = new PokerInfo(PokerInfo.Type.WELCOME, null, null, 0, 0);
-                sendPokerInfo(welcome);
+                send(new Message.Welcome(welcomeToken));
+                endHandshake();
+                metrics.record(ServerMetrics.Op.ACCEPT, acceptedNanos);
+                acceptEvent.end();
+                if (acceptEvent.shouldCommit()) {
+                    acceptEvent.clientId = clientId;
+                    acceptEvent.remoteAddress = String.valueOf(connection.getRemoteSocketAddress());
+                    // includes the object stream header written during the handshake
+                    acceptEvent.bytes = bytesOut.getCount();
+                    acceptEvent.commit();
+                }
 
                 // Inform GUI that streams are open (client-specific)
-                callback.accept("CLIENT:" + clientId + "streams opened");
+                events.publish(new ServerEvent.ClientNote(clientId, "streams opened"));
 
                 while (!connection.isClosed() && running) {
                     try {
+                        inputFilter.nextMessage();
                         Object obj = in.readObject();
                         if (obj == null) break;
-                        if (!(obj instanceof PokerInfo)) continue;
+                        lastActivityNanos = System.nanoTime();
+                        if (!(obj instanceof Message)) continue;
 
-                        PokerInfo received = (PokerInfo) obj;
+                        Message received = (Message) obj;
+                        metrics.messageReceived(received.type());
+                        if (!admit(received.type())) continue;
+                        if (session == null && received.type() != Message.Type.RESUME) openSession();
 
-                        switch (received.getType()) {
+                        long startNanos = System.nanoTime();
+                        switch (received.type()) {
                             case START:
-                                handleDealRequest(received);
+                                handleDealRequest((Message.Start) received);
+                                metrics.record(ServerMetrics.Op.START, startNanos);
                                 break;
                             case PLAY:
-                                handlePlay(received);
+                                handlePlay();
+                                metrics.record(ServerMetrics.Op.PLAY, startNanos);
                                 break;
                             case FOLD:
-                                handleFold(received);
+                                handleFold();
+                                metrics.record(ServerMetrics.Op.FOLD, startNanos);
+                                break;
+                            case MULTI_START:
+                                handleMultiDeal((Message.MultiStart) received);
+                                metrics.record(ServerMetrics.Op.MULTI_START, startNanos);
+                                break;
+                            case MULTI_DECIDE:
+                                handleMultiDecide((Message.MultiDecide) received);
+                                metrics.record(ServerMetrics.Op.MULTI_DECIDE, startNanos);
+                                break;
+                            case AUTO_PLAY:
+                                handleAutoPlay((AutoPlay) received);
+                                metrics.record(ServerMetrics.Op.AUTO_PLAY, startNanos);
+                                break;
+                            case SIMULATE:
+                                handleSimulate((SimulationRequest) received);
+                                break;
+                            case SIM_CANCEL:
+                                if (simulation != null) simulation.cancel();
+                                break;
+                            case RESUME:
+                                handleResume((Message.Resume) received);
+                                break;
+                            case PING:
+                                send(new Message.Pong());
+                                break;
+                            case PONG:
                                 break;
                             case CHAT:
-                                callback.accept("Client #" + clientId + " chat.");
+                                events.publish(new ServerEvent.Notice("Client #" + clientId + " chat."));
                                 break;
                             default:
                                 break;
@@ -240,123 +834,443 @@ public class Server {
                     } catch (java.io.EOFException eof) {
                         break;
                     } catch (Exception e) {
-                        e.printStackTrace();
+                        MessageFilter.Limit limit = inputFilter.violation();
+                        if (limit != null) {
+                            // the filter refused the stream: nothing more is read from it and no reply is sent
+                            metrics.inputRejected(limit);
+                            LOG.warn("input rejected, closing connection", "client", clientId, "limit", limit);
+                        } else {
+                            LOG.warn("read failed, closing connection", "client", clientId, "error", e.toString());
+                        }
                         break;
                     }
                 }
 
             } catch (Exception e) {
-                e.printStackTrace();
+                LOG.error("connection failed", "client", clientId, e);
             } finally {
                 try {
-                    synchronized (clients) {
-                        clients.remove(this);
-                    }
+                    endHandshake();
+                    clients.unregister(clientId, this);
                     closeConnection();
-                    callback.accept("CLIENT:" + clientId + "|disconnected");
-                    Server.this.logAction("CLIENT:" + clientId + "|disconnected");
-                    callback.accept("Client #" + clientId + " disconnected. (total: " + clients.size() + ")");
-                    Server.this.logAction("Client #" + clientId + " disconnected. (total: " + clients.size() + ")");
+                    metrics.connectionClosed();
+                    if (simulation != null) simulation.cancel();
+                    if (idleTimeout != null) idleTimeout.cancel();
+                    if (session != null) sessions.park(session, this);
+                    events.publish(new ServerEvent.ClientDisconnected(clientId, clients.size()));
                 } catch (Exception e) {
-                    e.printStackTrace();
+                    LOG.error("disconnect cleanup failed", "client", clientId, e);
                 }
             }
         }
 
+        /** Give back this connection's handshake slot, once. */
+        private void endHandshake() {
+            if (handshaking) {
+                handshaking = false;
+                admission.handshakeDone();
+            }
+        }
+
+        /** Tell the player their table refused a request because its mailbox is full. */
+        private void tableBusy() {
+            metrics.tableRejected();
+            send(new Message.Chat("Table busy, try again."));
+        }
+
         /**
-         * Handle a START request from client: perform a deal via PokerEngine and
-         * respond with a GAME_DEAL PokerInfo containing player and dealer hands.
+         * Handle a START request from client: deal the player's hand via PokerEngine and
+         * respond with a GAME_DEAL carrying it. The dealer hand is not dealt until the player
+         * plays or folds, so it cannot reach the client early.
          * Also emits a client-specific status update showing the bet amounts.
+         * In table mode the bet goes to the player's shared Table, which deals the next round.
+         * Negative bets, a stake the player cannot cover, or a START while a hand (single or
+         * multi-spot) is still in play are answered with a CHAT and nothing is dealt.
          *
-         * param received PokerInfo containing ante and pairPlus from client
+         * param received START carrying ante and pairPlus from client
+         */
+        private void handleDealRequest(Message.Start received) {
+            int ante = received.ante();
+            int pairPlus = received.pairPlus();
+            if (ante < 0 || pairPlus < 0) {
+                send(new Message.Chat("A hand needs bets of 0 or more."));
+                return;
+            }
+
+            Table table = session.getTable();
+            if (table != null) {
+                if (!table.onStart(session, ante, pairPlus)) tableBusy();
+                return;
+            }
+
+            synchronized (session) {
+                if (session.isHandInProgress()) {
+                    send(new Message.Chat("Finish the current hand before starting another."));
+                    return;
+                }
+                if (session.getPlayer().getChips() < (long) ante + pairPlus) {
+                    send(new Message.Chat("Not enough chips for that bet."));
+                    return;
+                }
+                PokerEngine pokerEngine = session.getEngine();
+
+                pokerEngine.startSewHand();
+                long handSeq = session.handDealt(ante, pairPlus);
+                if (config.getActionTimeoutSeconds() > 0) {
+                    Session dealt = session;
+                    session.setActionDeadline(timers.schedule(
+                            () -> timeoutWorker.execute(() -> forfeitHand(dealt, handSeq)),
+                            config.getActionTimeoutSeconds(), TimeUnit.SECONDS));
+                }
+                // take the stake up front, matching the client's wallet (folding forfeits it)
+                openAccount(clientId);
+                session.getPlayer().adjustChips(-(ante + pairPlus));
+                settle(clientId, -(ante + pairPlus));
+
+                List<Card> newPlayerHand = pokerEngine.getClient().getHand();
+
+                events.publish(new ServerEvent.BetPlaced(clientId, 1, ante, pairPlus, 0));
+                send(new Message.Deal(newPlayerHand, ante, pairPlus));
+            }
+        }
+
+        /**
+         * Handle a PLAY request: deal the dealer hand and evaluate it against the player's in
+         * PokerEngine with the bets recorded at deal time, emit a client-specific result status,
+         * and send a GAME_RESULT back.
+         */
+        private void handlePlay() {
+            Table table = session.getTable();
+            if (table != null) {
+                if (!table.onDecision(session, true)) tableBusy();
+                return;
+            }
+
+            synchronized (session) {
+                if (!session.isHandInProgress()) {
+                    send(new Message.Chat("No hand in progress."));
+                    return;
+                }
+                if (session.getSpots() > 0) {
+                    send(new Message.Chat("Decide every spot of the multi-spot hand."));
+                    return;
+                }
+                PokerEngine pokerEngine = session.getEngine();
+
+                pokerEngine.evaluateHands(session.getPairPlus(), session.getAnte());
+                session.handSettled();
+
+                int resultPairPlus = pokerEngine.getPairPlus();
+                int resultAnte = pokerEngine.getAnte();
+
+                int net = resultAnte + resultPairPlus;
+                // the stake was taken at deal time; credit back whatever the hand returned
+                session.getPlayer().adjustChips(net);
+                settle(clientId, net);
+
+                events.publish(new ServerEvent.HandSettled(clientId, 1, net, false));
+
+                List<Card> finalPlayerHand = pokerEngine.getClient().getHand();
+                List<Card> finalDealerHand = pokerEngine.getDealer().getHand();
+
+                send(new Message.Result(finalPlayerHand, finalDealerHand, resultAnte, resultPairPlus, null));
+            }
+        }
+
+        /**
+         * Handle a FOLD request: the stake taken at deal time is lost, so nothing is paid back.
+         * Deal the dealer hand for the record, notify UI, and send a GAME_RESULT returning 0.
          */
-        private void handleDealRequest(PokerInfo received) {
-            int ante = received.getAnte();
-            int pairPlus = received.getPairPlus();
+        private void handleFold() {
+            Table table = session.getTable();
+            if (table != null) {
+                if (!table.onDecision(session, false)) tableBusy();
+                return;
+            }
 
-            pokerEngine.startSewHand();
+            int ante;
+            int pairPlus;
+            FoldEvent event = new FoldEvent();
+            event.begin();
+            synchronized (session) {
+                if (!session.isHandInProgress()) {
+                    send(new Message.Chat("No hand in progress."));
+                    return;
+                }
+                if (session.getSpots() > 0) {
+                    send(new Message.Chat("Decide every spot of the multi-spot hand."));
+                    return;
+                }
+                ante = session.getAnte();
+                pairPlus = session.getPairPlus();
+                PokerEngine pokerEngine = session.getEngine();
+                pokerEngine.getClient().folded();
+                List<Card> currentDealerHand = pokerEngine.revealDealer();
+                session.handSettled();
+
+                events.publish(new ServerEvent.HandSettled(clientId, 1, -(ante + pairPlus), true));
+                List<Card> currentPlayerHand = pokerEngine.getClient().getHand();
+
+                send(new Message.Result(currentPlayerHand, currentDealerHand, 0, 0, null));
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.clientId = clientId;
+                event.anteLost = ante;
+                event.pairPlusLost = pairPlus;
+                event.commit();
+            }
+        }
 
-            List<Card> newPlayerHand = pokerEngine.getClient().getHand();
-            List<Card> newDealerHand = pokerEngine.getDealer().getHand();
+        /**
+         * Handle a MULTI_START request: deal one hand per spot from the same deck and answer with
+         * a single MULTI_DEAL carrying every spot. The whole stake is taken up front, as for
+         * START; the dealer hand is dealt at MULTI_DECIDE and first sent with MULTI_RESULT.
+         * Not available at shared tables.
+         *
+         * param received MULTI_START carrying one Spot (ante and Pair Plus) per hand
+         */
+        private void handleMultiDeal(Message.MultiStart received) {
+            Spot[] bets = received.bets();
+            if (bets == null || bets.length == 0 || bets.length > Spot.MAX_SPOTS
+                    || Arrays.stream(bets).anyMatch(b -> b == null || b.getAnte() < 0 || b.getPairPlus() < 0
+                            || b.getAnte() > Spot.MAX_BET || b.getPairPlus() > Spot.MAX_BET)) {
+                send(new Message.Chat("A multi-spot hand needs 1.." + Spot.MAX_SPOTS
+                        + " spots with bets of 0.." + Spot.MAX_BET + "."));
+                return;
+            }
+            if (session.getTable() != null) {
+                send(new Message.Chat("Multi-spot hands are not available at a shared table."));
+                return;
+            }
+            // with each bet at most MAX_BET both totals fit an int; summed as long so no check depends on it
+            long anteTotal = 0, pairPlusTotal = 0;
+            for (Spot b : bets) {
+                anteTotal += b.getAnte();
+                pairPlusTotal += b.getPairPlus();
+            }
+            int ante = (int) anteTotal, pairPlus = (int) pairPlusTotal;
 
-            PokerInfo response = new PokerInfo(
-                    PokerInfo.Type.GAME_DEAL,
-                    newPlayerHand,
-                    newDealerHand,
-                    ante,
-                    pairPlus
-            );
+            synchronized (session) {
+                if (session.isHandInProgress()) {
+                    send(new Message.Chat("Finish the current hand before starting another."));
+                    return;
+                }
+                if (session.getPlayer().getChips() < anteTotal + pairPlusTotal) {
+                    send(new Message.Chat("Not enough chips for " + bets.length + " spots."));
+                    return;
+                }
+                Spot[] dealt = session.getEngine().dealSpots(bets);
+                long handSeq = session.handDealt(ante, pairPlus, dealt.length);
+                if (config.getActionTimeoutSeconds() > 0) {
+                    Session dealtSession = session;
+                    session.setActionDeadline(timers.schedule(
+                            () -> timeoutWorker.execute(() -> forfeitHand(dealtSession, handSeq)),
+                            config.getActionTimeoutSeconds(), TimeUnit.SECONDS));
+                }
+                openAccount(clientId);
+                session.getPlayer().adjustChips(-(ante + pairPlus));
+                settle(clientId, -(ante + pairPlus));
 
-            // client-specific status: show latest bet
-            callback.accept("CLIENT:" + clientId + "|bet ante $" + ante + ", pairplus $" + pairPlus);
-            Server.this.logAction("CLIENT:" + clientId + "|bet ante $" + ante + ", pairplus $" + pairPlus);
-            sendPokerInfo(response);
+                events.publish(new ServerEvent.BetPlaced(clientId, dealt.length, ante, pairPlus, 0));
+                send(new Message.MultiDeal(dealt));
+            }
         }
 
         /**
-         * Handle a PLAY request: evaluate hands in PokerEngine, compute result amounts,
-         * emit a client-specific result status, and send a GAME_RESULT PokerInfo back.
+         * Handle a MULTI_DECIDE request: play or fold every spot of the round in flight and
+         * answer with one MULTI_RESULT carrying the settled spots and the dealer hand.
          *
-         * param received PokerInfo carrying ante/pairPlus
+         * param received MULTI_DECIDE carrying one play/fold decision per spot, in deal order
          */
-        private void handlePlay(PokerInfo received) {
-            int ante = received.getAnte();
-            int pairPlus = received.getPairPlus();
+        private void handleMultiDecide(Message.MultiDecide received) {
+            boolean[] plays = received.plays();
+            synchronized (session) {
+                if (!session.isHandInProgress() || session.getSpots() == 0) {
+                    send(new Message.Chat("No multi-spot hand in progress."));
+                    return;
+                }
+                if (plays == null || plays.length != session.getSpots()) {
+                    send(new Message.Chat("Decide each of the " + session.getSpots() + " spots."));
+                    return;
+                }
+                PokerEngine pokerEngine = session.getEngine();
+                Spot[] settled = pokerEngine.settleSpots(plays);
+                session.handSettled();
 
-            pokerEngine.evaluateHands(pairPlus, ante);
+                // the stakes were taken at deal time; credit back whatever the spots returned
+                long returned = 0, net = 0;
+                for (Spot s : settled) {
+                    returned += (long) s.getAntePayout() + s.getPairPlusPayout();
+                    net += s.getNet();
+                }
+                session.getPlayer().adjustChips((int) returned);
+                settle(clientId, returned);
 
-            int resultPairPlus = pokerEngine.getPairPlus();
-            int resultAnte = pokerEngine.getAnte();
+                events.publish(new ServerEvent.HandSettled(clientId, settled.length, net, false));
+                send(new Message.MultiResult(settled, new ArrayList<>(pokerEngine.getDealer().getHand()), null));
+            }
+        }
 
-            int net = resultAnte + resultPairPlus;
+        /**
+         * Handle an AUTO_PLAY request: deal and finish up to the requested number of hands
+         * back-to-back in the player's PokerEngine, playing or folding by the given rule.
+         * Stops early when the player cannot cover the next stake. The whole run is settled
+         * against the ledger as one entry, then one AUTO_RESULT summary is sent, preceded by
+         * an AUTO_HAND per hand if the client asked for the stream.
+         * Not available at shared tables, where every hand is paced by the round.
+         *
+         * param request the AutoPlay request
+         */
+        private void handleAutoPlay(AutoPlay request) {
+            if (request.getRule() == null || request.getAnte() < 0 || request.getPairPlus() < 0
+                    || request.getHands() <= 0 || request.getHands() > config.getAutoPlayMaxHands()) {
+                send(new Message.Chat(
+                        "Auto-play needs a rule, bets of 0 or more and 1.." + config.getAutoPlayMaxHands() + " hands."));
+                return;
+            }
+            if (session.getTable() != null) {
+                send(new Message.Chat("Auto-play is not available at a shared table."));
+                return;
+            }
 
-            callback.accept("CLIENT:" + clientId + "|result: " + (net >= 0 ? "+" : "") + net);
-            Server.this.logAction("CLIENT:" + clientId + "|result: " + (net >= 0 ? "+" : "") + net);
+            int ante = request.getAnte();
+            int pairPlus = request.getPairPlus();
+            // long: two large bets would wrap an int sum negative and pass every chip check below
+            long stake = (long) ante + pairPlus;
+            synchronized (session) {
+                if (session.isHandInProgress()) {
+                    send(new Message.Chat("Finish the current hand before auto-play."));
+                    return;
+                }
+                PokerEngine pokerEngine = session.getEngine();
+                Player player = session.getPlayer();
+                if (player.getChips() < stake) {
+                    send(new Message.Chat("Not enough chips for that bet."));
+                    return;
+                }
+                openAccount(clientId);
 
-            List<Card> finalPlayerHand = pokerEngine.getClient().getHand();
-            List<Card> finalDealerHand = pokerEngine.getDealer().getHand();
+                int dealt = 0, played = 0, folded = 0, wins = 0, losses = 0, pushes = 0;
+                long wagered = 0, net = 0;
+                String stopReason = null;
+                while (dealt < request.getHands()) {
+                    if (!running) {
+                        stopReason = "Server shutting down";
+                        break;
+                    }
+                    if (player.getChips() < stake) {
+                        stopReason = "Out of chips";
+                        break;
+                    }
+                    Integer result = pokerEngine.autoHand(request.getRule(), ante, pairPlus);
+                    long returned = result == null ? 0 : (long) pokerEngine.getAnte() + pokerEngine.getPairPlus();
+                    player.adjustChips((int) (returned - stake));
+                    dealt++;
+                    wagered += stake;
+                    net += returned - stake;
+                    if (result == null) {
+                        folded++;
+                    } else {
+                        played++;
+                        if (result > 0) wins++;
+                        else if (result < 0) losses++;
+                        else pushes++;
+                    }
+                    if (request.isStreamHands()) {
+                        send(new Message.AutoHand(
+                                pokerEngine.getClient().getHand(), pokerEngine.getDealer().getHand(),
+                                result == null ? -ante : pokerEngine.getAnte(),
+                                result == null ? -pairPlus : pokerEngine.getPairPlus()));
+                    }
+                }
+                settle(clientId, net);
 
-            PokerInfo response = new PokerInfo(
-                    PokerInfo.Type.GAME_RESULT,
-                    finalPlayerHand,
-                    finalDealerHand,
-                    resultAnte,
-                    resultPairPlus
-            );
+                AutoPlayResult summary = new AutoPlayResult(request.getHands(), dealt, played, folded,
+                        wins, losses, pushes, wagered, net, player.getChips(), stopReason);
+                events.publish(new ServerEvent.AutoPlayed(clientId, summary));
+                send(summary);
+            }
+        }
 
-            sendPokerInfo(response);
+        /**
+         * Handle a SIMULATE request: start an offline simulation on the SimulationService and
+         * stream its SIM_PROGRESS updates to this connection. One simulation per connection;
+         * SIM_CANCEL (or disconnecting) stops it.
+         *
+         * param request the SimulationRequest
+         */
+        private void handleSimulate(SimulationRequest request) {
+            int[] paytable = request.getPairPlusPaytable();
+            if (request.getRule() == null || request.getAnte() < 0 || request.getPairPlus() < 0
+                    || request.getAnte() + request.getPairPlus() <= 0
+                    || request.getHands() <= 0 || request.getHands() > config.getSimMaxHands()
+                    || (paytable != null && (paytable.length != SimulationRequest.PAYTABLE_RANKS.length
+                            || Arrays.stream(paytable).anyMatch(m -> m < 0)))) {
+                send(new Message.Chat("Simulation needs a rule, a stake above 0, 1.."
+                        + config.getSimMaxHands() + " hands and, if given, " + SimulationRequest.PAYTABLE_RANKS.length
+                        + " paytable multipliers of 0 or more."));
+                return;
+            }
+            if (simulation != null && !simulation.isFinished()) {
+                send(new Message.Chat("A simulation is already running; cancel it first."));
+                return;
+            }
+            try {
+                simulation = simulations.start(request, this::send);
+            } catch (IllegalStateException e) {
+                send(new Message.Chat(e.getMessage() + ", try again later."));
+                return;
+            }
+            events.publish(new ServerEvent.SimulationStarted(clientId, request.getHands(), simulation.getId()));
         }
 
         /**
-         * Handle a FOLD request: compute negative payouts (loss of bets), notify UI,
-         * and send a GAME_RESULT containing the negative ante/pairPlus as the result.
+         * Handle a RESUME request: re-attach this connection to the session named by the token
+         * in the message. As the first message this costs nothing else; later, the session this
+         * connection had opened is dropped. The reply (RESUMED) carries the current hand and bets
+         * if a hand was dealt but not yet settled. An unknown or expired token is answered with
+         * a WELCOME for this connection's own session instead, opened then if need be.
          *
-         * param received PokerInfo carrying ante/pairPlus
+         * param received RESUME carrying the session token from an earlier WELCOME
          */
-        private void handleFold(PokerInfo received) {
-            int ante = received.getAnte();
-            int pairPlus = received.getPairPlus();
-
-            int resultAnte = -ante;
-            int resultPairPlus = -pairPlus;
-            int net = resultAnte + resultPairPlus;
-
-            callback.accept("CLIENT:" + clientId + "|folded and lost " + (-net) + " total.");
-            Server.this.logAction("CLIENT:" + clientId + "|folded and lost " + (-net) + " total.");
-            List<Card> currentPlayerHand = pokerEngine.getClient().getHand();
-            List<Card> currentDealerHand = pokerEngine.getDealer().getHand();
-
-            PokerInfo response = new PokerInfo(
-                    PokerInfo.Type.GAME_RESULT,
-                    currentPlayerHand,
-                    currentDealerHand,
-                    resultAnte,
-                    resultPairPlus
-            );
-
-            sendPokerInfo(response);
-        }
-        
-        
+        private void handleResume(Message.Resume received) {
+            Session resumed = sessions.resume(received.token(), this);
+            if (resumed == null) {
+                events.publish(new ServerEvent.ClientNote(clientId, "resume rejected, starting fresh"));
+                if (session == null) openSession();
+                send(new Message.Welcome(session.getToken()));
+                return;
+            }
+            int freshId = clientId;
+            if (resumed != session) {
+                if (session != null) sessions.discard(session);
+                session = resumed;
+                clientId = resumed.getPlayer().getID();
+                // re-key: this connection now answers for the resumed player's id
+                clients.unregister(freshId, this);
+                clients.register(clientId, this);
+            }
+            events.publish(new ServerEvent.SessionResumed(clientId, freshId));
+
+            Table table = resumed.getTable();
+            if (table != null) {
+                table.resume(resumed);
+                return;
+            }
+            synchronized (resumed) {
+                Message response;
+                if (resumed.isHandInProgress() && resumed.getSpots() > 0) {
+                    response = new Message.Resumed(resumed.getToken(), null,
+                            resumed.getAnte(), resumed.getPairPlus(), resumed.getEngine().getSpots());
+                } else if (resumed.isHandInProgress()) {
+                    response = new Message.Resumed(resumed.getToken(), resumed.getEngine().getClient().getHand(),
+                            resumed.getAnte(), resumed.getPairPlus(), null);
+                } else {
+                    response = new Message.Resumed(resumed.getToken(), null, 0, 0, null);
+                }
+                send(response);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+package rrosa10Server;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+import model.Message;
+import model.MessageFilter;
+
+/**
+ * ServerConfig - tunable settings for a Server instance.
+ *
+ * Responsibilities:
+ * - Hold the knobs the Server reads at startup, each with a sensible default.
+ * - Build a config from a Properties object (keys are prefixed with "poker.").
+ *
+ * The GUI server builds its config from the JVM system properties, so any
+ * setting can be changed with -Dpoker.key=value on the command line.
+ */
+public class ServerConfig {
+
+    private int startingChips = 500;
+
+    // Chip ledger (write-ahead log + snapshots). An empty directory disables the ledger.
+    private String ledgerDir = "";
+    private long ledgerSegmentBytes = 64L * 1024 * 1024;
+    private int snapshotIntervalSeconds = 60;
+
+    // Session resume: how long a dropped player's session is kept, and how many at most
+    private int sessionTtlSeconds = 300;
+    private int maxParkedSessions = 10_000;
+
+    // Timeouts, all driven by one HashedTimerWheel
+    private int idleTimeoutSeconds = 60;
+    private int actionTimeoutSeconds = 120;
+    private int timerTickMillis = 100;
+    private int timerWheelSize = 512;
+
+    // Shared tables: seats per table (0 = every player gets a private dealer), betting window, action deadline
+    private int tableSeats = 0;
+    private int tableBetSeconds = 3;
+    private int tableRoundSeconds = 30;
+
+    // Table actors: pool threads (0 = one per core) and queued player requests per table
+    private int actorThreads = 0;
+    private int tableMailboxCapacity = 1024;
+
+    // Node id when several servers run behind a LobbyRouter ("" = standalone); prefixes session tokens
+    private String nodeId = "";
+
+    // Most hands one AUTO_PLAY request may ask for
+    private int autoPlayMaxHands = 1000;
+
+    // Offline simulations (SIMULATE): workers (0 = half the cores), concurrent runs, size limits, progress interval
+    private int simThreads = 0;
+    private int simMaxJobs = 4;
+    private long simMaxHands = 10_000_000_000L;
+    private long simChunkHands = 1_000_000;
+    private long simProgressMillis = 1000;
+
+    // Server events each bus subscriber (dashboard, console, broadcast, metrics) may have waiting
+    private int eventQueueCapacity = ServerEventBus.DEFAULT_CAPACITY;
+
+    // Prometheus metrics endpoint (GET /metrics). A negative port disables it; 0 picks a free port.
+    private String metricsHost = "127.0.0.1";
+    private int metricsPort = 9464;
+
+    // Admission at accept time: connections held, handshakes in flight, new connections per
+    // second (null = unlimited), and the base retry hint sent with BUSY. 0 = no limit.
+    private int admissionMaxSessions = 10_000;
+    private int admissionMaxHandshakes = 1024;
+    private RateLimit admissionAcceptRate = new RateLimit(1000, 2000);
+    private int admissionRetryMillis = 2000;
+
+    // Limits on each message read from a client's object stream (see model.MessageFilter)
+    private int inputMaxDepth = MessageFilter.DEFAULT_MAX_DEPTH;
+    private int inputMaxReferences = MessageFilter.DEFAULT_MAX_REFERENCES;
+    private int inputMaxArrayLength = MessageFilter.DEFAULT_MAX_ARRAY_LENGTH;
+    private int inputMaxMessageBytes = MessageFilter.DEFAULT_MAX_MESSAGE_BYTES;
+
+    // Inbound rate limits per message type ("perSecond/burst"); types missing here are unlimited
+    private final Map<Message.Type, RateLimit> rateLimits = new EnumMap<>(Message.Type.class);
+
+    private ServerConfig() {
+        RateLimit fallback = new RateLimit(20, 40);
+        for (Message.Type type : Message.Type.values()) {
+            rateLimits.put(type, fallback);
+        }
+        rateLimits.put(Message.Type.START, new RateLimit(5, 10));
+        rateLimits.put(Message.Type.PLAY, new RateLimit(5, 10));
+        rateLimits.put(Message.Type.FOLD, new RateLimit(5, 10));
+        rateLimits.put(Message.Type.MULTI_START, new RateLimit(5, 10));
+        rateLimits.put(Message.Type.MULTI_DECIDE, new RateLimit(5, 10));
+        rateLimits.put(Message.Type.CHAT, new RateLimit(2, 5));
+        rateLimits.put(Message.Type.RESUME, new RateLimit(1, 3));
+        rateLimits.put(Message.Type.PING, new RateLimit(2, 4));
+        rateLimits.put(Message.Type.AUTO_PLAY, new RateLimit(1, 2));
+        rateLimits.put(Message.Type.SIMULATE, new RateLimit(1, 2));
+    }
+
+    /** Return a config with every setting at its default value. */
+    public static ServerConfig defaults() {
+        return new ServerConfig();
+    }
+
+    /**
+     * Build a config from the given properties. Missing keys keep their defaults.
+     *
+     * param props source properties (e.g. System.getProperties() or a loaded file)
+     */
+    public static ServerConfig fromProperties(Properties props) {
+        ServerConfig cfg = new ServerConfig();
+        cfg.startingChips = intProp(props, "poker.startingChips", cfg.startingChips);
+        cfg.ledgerDir = props.getProperty("poker.ledger.dir", cfg.ledgerDir).trim();
+        cfg.ledgerSegmentBytes = longProp(props, "poker.ledger.segmentBytes", cfg.ledgerSegmentBytes);
+        cfg.snapshotIntervalSeconds = intProp(props, "poker.ledger.snapshotSeconds", cfg.snapshotIntervalSeconds);
+        cfg.sessionTtlSeconds = intProp(props, "poker.session.ttlSeconds", cfg.sessionTtlSeconds);
+        cfg.maxParkedSessions = intProp(props, "poker.session.maxParked", cfg.maxParkedSessions);
+        cfg.idleTimeoutSeconds = intProp(props, "poker.idleTimeoutSeconds", cfg.idleTimeoutSeconds);
+        cfg.actionTimeoutSeconds = intProp(props, "poker.actionTimeoutSeconds", cfg.actionTimeoutSeconds);
+        cfg.timerTickMillis = intProp(props, "poker.timer.tickMillis", cfg.timerTickMillis);
+        cfg.timerWheelSize = intProp(props, "poker.timer.wheelSize", cfg.timerWheelSize);
+        cfg.tableSeats = intProp(props, "poker.table.seats", cfg.tableSeats);
+        if (cfg.tableSeats < 0 || cfg.tableSeats > Table.MAX_SEATS) {
+            throw new IllegalArgumentException("Setting poker.table.seats must be 0.." + Table.MAX_SEATS + ": " + cfg.tableSeats);
+        }
+        cfg.tableBetSeconds = intProp(props, "poker.table.betSeconds", cfg.tableBetSeconds);
+        cfg.tableRoundSeconds = intProp(props, "poker.table.roundSeconds", cfg.tableRoundSeconds);
+        cfg.actorThreads = intProp(props, "poker.actors.threads", cfg.actorThreads);
+        cfg.tableMailboxCapacity = intProp(props, "poker.table.mailboxCapacity", cfg.tableMailboxCapacity);
+        if (cfg.tableMailboxCapacity <= 0) {
+            throw new IllegalArgumentException("Setting poker.table.mailboxCapacity must be > 0: " + cfg.tableMailboxCapacity);
+        }
+        cfg.autoPlayMaxHands = intProp(props, "poker.autoPlay.maxHands", cfg.autoPlayMaxHands);
+        cfg.simThreads = intProp(props, "poker.sim.threads", cfg.simThreads);
+        cfg.simMaxJobs = intProp(props, "poker.sim.maxJobs", cfg.simMaxJobs);
+        if (cfg.simMaxJobs < 0) {
+            throw new IllegalArgumentException("Setting poker.sim.maxJobs must be >= 0: " + cfg.simMaxJobs);
+        }
+        cfg.simMaxHands = longProp(props, "poker.sim.maxHands", cfg.simMaxHands);
+        cfg.simChunkHands = longProp(props, "poker.sim.chunkHands", cfg.simChunkHands);
+        cfg.simProgressMillis = longProp(props, "poker.sim.progressMillis", cfg.simProgressMillis);
+        cfg.nodeId = props.getProperty("poker.node.id", cfg.nodeId).trim();
+        if (!cfg.nodeId.matches("[A-Za-z0-9_-]*")) {
+            throw new IllegalArgumentException("Setting poker.node.id may only use letters, digits, '_' and '-': " + cfg.nodeId);
+        }
+        cfg.eventQueueCapacity = intProp(props, "poker.events.queueCapacity", cfg.eventQueueCapacity);
+        if (cfg.eventQueueCapacity <= 0) {
+            throw new IllegalArgumentException("Setting poker.events.queueCapacity must be > 0: " + cfg.eventQueueCapacity);
+        }
+        cfg.metricsHost = props.getProperty("poker.metrics.host", cfg.metricsHost).trim();
+        cfg.metricsPort = intProp(props, "poker.metrics.port", cfg.metricsPort);
+        cfg.admissionMaxSessions = intProp(props, "poker.admission.maxSessions", cfg.admissionMaxSessions);
+        cfg.admissionMaxHandshakes = intProp(props, "poker.admission.maxHandshakes", cfg.admissionMaxHandshakes);
+        String acceptRate = props.getProperty("poker.admission.acceptRate");
+        if (acceptRate != null && !acceptRate.isBlank()) {
+            cfg.admissionAcceptRate = acceptRate.trim().equalsIgnoreCase("off") ? null : RateLimit.parse(acceptRate);
+        }
+        cfg.admissionRetryMillis = intProp(props, "poker.admission.retryMillis", cfg.admissionRetryMillis);
+        if (cfg.admissionMaxSessions < 0 || cfg.admissionMaxHandshakes < 0 || cfg.admissionRetryMillis <= 0) {
+            throw new IllegalArgumentException("Settings poker.admission.maxSessions and maxHandshakes must be >= 0, retryMillis > 0");
+        }
+        cfg.inputMaxDepth = intProp(props, "poker.input.maxDepth", cfg.inputMaxDepth);
+        cfg.inputMaxReferences = intProp(props, "poker.input.maxReferences", cfg.inputMaxReferences);
+        cfg.inputMaxArrayLength = intProp(props, "poker.input.maxArrayLength", cfg.inputMaxArrayLength);
+        cfg.inputMaxMessageBytes = intProp(props, "poker.input.maxMessageBytes", cfg.inputMaxMessageBytes);
+        if (cfg.inputMaxDepth <= 0 || cfg.inputMaxReferences <= 0 || cfg.inputMaxMessageBytes <= 0) {
+            throw new IllegalArgumentException("Settings poker.input.maxDepth, maxReferences and maxMessageBytes must be > 0");
+        }
+        // poker.rateLimit.<TYPE>=perSecond/burst, or "off" to leave that type unlimited
+        for (Message.Type type : Message.Type.values()) {
+            String v = props.getProperty("poker.rateLimit." + type.name());
+            if (v == null || v.isBlank()) continue;
+            if (v.trim().equalsIgnoreCase("off")) {
+                cfg.rateLimits.remove(type);
+            } else {
+                cfg.rateLimits.put(type, RateLimit.parse(v));
+            }
+        }
+        return cfg;
+    }
+
+    static int intProp(Properties props, String key, int def) {
+        String v = props.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be a number: " + v);
+        }
+    }
+
+    static long longProp(Properties props, String key, long def) {
+        String v = props.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be a number: " + v);
+        }
+    }
+
+    public int getStartingChips() { return startingChips; }
+    public String getLedgerDir() { return ledgerDir; }
+    public boolean isLedgerEnabled() { return !ledgerDir.isEmpty(); }
+    public long getLedgerSegmentBytes() { return ledgerSegmentBytes; }
+    public int getSnapshotIntervalSeconds() { return snapshotIntervalSeconds; }
+    public int getSessionTtlSeconds() { return sessionTtlSeconds; }
+    public int getMaxParkedSessions() { return maxParkedSessions; }
+    public int getIdleTimeoutSeconds() { return idleTimeoutSeconds; }
+    public int getActionTimeoutSeconds() { return actionTimeoutSeconds; }
+    public int getTimerTickMillis() { return timerTickMillis; }
+    public int getTimerWheelSize() { return timerWheelSize; }
+    public int getTableSeats() { return tableSeats; }
+    public boolean isTableMode() { return tableSeats > 0; }
+    public int getTableBetSeconds() { return tableBetSeconds; }
+    public int getTableRoundSeconds() { return tableRoundSeconds; }
+    public int getActorThreads() { return actorThreads; }
+    public int getTableMailboxCapacity() { return tableMailboxCapacity; }
+    public int getAutoPlayMaxHands() { return autoPlayMaxHands; }
+    public int getSimThreads() { return simThreads; }
+    public int getSimMaxJobs() { return simMaxJobs; }
+    public long getSimMaxHands() { return simMaxHands; }
+    public long getSimChunkHands() { return simChunkHands; }
+    public long getSimProgressMillis() { return simProgressMillis; }
+    public String getNodeId() { return nodeId; }
+    public int getEventQueueCapacity() { return eventQueueCapacity; }
+    public String getMetricsHost() { return metricsHost; }
+    public int getMetricsPort() { return metricsPort; }
+    public boolean isMetricsEnabled() { return metricsPort >= 0; }
+    public int getAdmissionMaxSessions() { return admissionMaxSessions; }
+    public int getAdmissionMaxHandshakes() { return admissionMaxHandshakes; }
+    public RateLimit getAdmissionAcceptRate() { return admissionAcceptRate; }
+    public int getAdmissionRetryMillis() { return admissionRetryMillis; }
+    public int getInputMaxDepth() { return inputMaxDepth; }
+    public int getInputMaxReferences() { return inputMaxReferences; }
+    public int getInputMaxArrayLength() { return inputMaxArrayLength; }
+    public int getInputMaxMessageBytes() { return inputMaxMessageBytes; }
+
+    /** Return a new filter with these input limits, for one connection's stream. */
+    public MessageFilter newInputFilter() {
+        return new MessageFilter(inputMaxDepth, inputMaxReferences, inputMaxArrayLength, inputMaxMessageBytes);
+    }
+
+    public Map<Message.Type, RateLimit> getRateLimits() { return Collections.unmodifiableMap(rateLimits); }
+}
@@ -0,0 +1,105 @@
+package rrosa10Server;
+
+import model.AutoPlayResult;
+import model.ThreeCardLogic;
+
+/**
+ * ServerEvent - something that happened on the server, published on the ServerEventBus.
+ *
+ * Responsibilities:
+ * - Carry what happened as typed fields, so consumers (dashboard, console log, metrics,
+ *   broadcast to players) pick what they need instead of parsing a formatted string.
+ * - Format a human-readable line (text) only when a consumer asks for one.
+ *
+ * Events about one client implement ClientEvent and also give that client's new status,
+ * the text shown on its row of the dashboard.
+ */
+public sealed interface ServerEvent {
+
+    /** Return a one-line description for logs. */
+    String text();
+
+    /** An event about one client; status() is its new dashboard row, or null if the row goes away. */
+    sealed interface ClientEvent extends ServerEvent {
+        int clientId();
+
+        String status();
+
+        @Override
+        default String text() {
+            // same text as the client's dashboard row (kept free of JavaFX for the headless server)
+            return "Client #" + clientId() + ": " + status();
+        }
+    }
+
+    /** A server-wide message (startup, ledger, errors). */
+    record Notice(String text) implements ServerEvent {}
+
+    record ClientConnected(int clientId, int total) implements ClientEvent {
+        public String status() { return "connected"; }
+        public String text() { return "Client connected: #" + clientId + " (total: " + total + ")"; }
+    }
+
+    record ClientDisconnected(int clientId, int total) implements ClientEvent {
+        public String status() { return "disconnected"; }
+        public String text() { return "Client #" + clientId + " disconnected. (total: " + total + ")"; }
+    }
+
+    /** The client's session ended for good (expired, or replaced by a resumed one). */
+    record ClientGone(int clientId) implements ClientEvent {
+        public String status() { return null; }
+        public String text() { return "Client #" + clientId + " session ended"; }
+    }
+
+    /** A bet on a private dealer (tableId 0) or at a shared table; spots > 1 for a multi-spot round. */
+    record BetPlaced(int clientId, int spots, int ante, int pairPlus, int tableId) implements ClientEvent {
+        public String status() {
+            String bet = (spots > 1 ? "bet " + spots + " spots, ante $" : "bet ante $") + ante + ", pairplus $" + pairPlus;
+            return tableId > 0 ? bet + " at table " + tableId : bet;
+        }
+    }
+
+    /** A hand (or every spot of a multi-spot round) was settled; net is the player's win or loss. */
+    record HandSettled(int clientId, int spots, long net, boolean folded) implements ClientEvent {
+        public String status() {
+            if (folded) return "folded and lost " + (-net) + " total.";
+            return (spots > 1 ? spots + " spots result: " : "result: ") + (net >= 0 ? "+" : "") + net;
+        }
+    }
+
+    record HandForfeited(int clientId) implements ClientEvent {
+        public String status() { return "hand timed out, stake forfeited"; }
+    }
+
+    record AutoPlayed(int clientId, AutoPlayResult summary) implements ClientEvent {
+        public String status() { return "auto-played " + summary; }
+    }
+
+    record SimulationStarted(int clientId, long hands, long simulationId) implements ClientEvent {
+        public String status() { return "simulating " + hands + " hands (#" + simulationId + ")"; }
+    }
+
+    /** A connection took over a parked session; previousId is the id it connected with. */
+    record SessionResumed(int clientId, int previousId) implements ClientEvent {
+        public String status() { return "resumed"; }
+        public String text() {
+            return previousId == clientId ? ClientEvent.super.text() : "Client #" + previousId + " resumed as #" + clientId;
+        }
+    }
+
+    /** Any other change to a client's row (throttled, idle timeout, resume rejected, ...). */
+    record ClientNote(int clientId, String status) implements ClientEvent {}
+
+    record TableRound(int tableId, long round, int players, int played, ThreeCardLogic.HandRank dealerRank,
+                      long net) implements ServerEvent {
+        public String text() {
+            return "Table " + tableId + " round " + round + ": " + summary();
+        }
+
+        /** Return the round's results ("3 dealt, 2 played, dealer ..., players net ..."). */
+        public String summary() {
+            return players + " dealt, " + played + " played, dealer " + dealerRank
+                    + ", players net " + (net >= 0 ? "+" : "") + net;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package rrosa10Server;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import log.Log;
+import log.Logger;
+
+/**
+ * ServerEventBus - delivers ServerEvents from the server's threads to independent consumers.
+ *
+ * Responsibilities:
+ * - Publish from any thread without locks: an event is one slot claim (CAS) in each
+ *   subscriber's fixed-size ring.
+ * - Run each subscriber on its own daemon thread, so a slow consumer (a broadcast writing to
+ *   sockets, a console) never delays the game threads or the other consumers.
+ * - Drop events (and count them) for a subscriber whose ring is full, rather than block.
+ *
+ * Each subscriber sees events in the order any one thread published them.
+ */
+public final class ServerEventBus implements AutoCloseable {
+
+    private static final Logger LOG = Log.get("events");
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final int capacity;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * param capacity events each subscriber may have waiting (rounded up to a power of two)
+     */
+    public ServerEventBus(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.capacity = size;
+    }
+
+    /**
+     * Start delivering events to a consumer on a new thread.
+     *
+     * param name    subscriber name, used for its thread ("events-" + name)
+     * param handler called with each event; exceptions are reported and the next event delivered
+     */
+    public Subscription subscribe(String name, Consumer<? super ServerEvent> handler) {
+        Subscription s = new Subscription(name, handler);
+        subscriptions.add(s);
+        s.thread.start();
+        return s;
+    }
+
+    /** Queue an event for every subscriber. Never blocks. */
+    public void publish(ServerEvent event) {
+        for (Subscription s : subscriptions) {
+            s.offer(event);
+        }
+    }
+
+    /** Return how many events were dropped across all subscribers. */
+    public long dropped() {
+        long total = 0;
+        for (Subscription s : subscriptions) total += s.dropped();
+        return total;
+    }
+
+    /** Return how many events are waiting across all subscribers. */
+    public long pending() {
+        long total = 0;
+        for (Subscription s : subscriptions) total += s.pending();
+        return total;
+    }
+
+    /** Stop every subscriber after it delivers what it already has queued. */
+    @Override
+    public void close() {
+        for (Subscription s : subscriptions) s.close();
+    }
+
+    /**
+     * One consumer: a bounded multi-producer ring (each slot has a sequence number telling
+     * producers and the consumer whose turn it is) drained by a single thread.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final Consumer<? super ServerEvent> handler;
+        private final ServerEvent[] ring;
+        // slot i is free for the producer at position p when sequence[i] == p, and holds
+        // that producer's event when sequence[i] == p + 1
+        private final AtomicLongArray sequence;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+        private final LongAdder dropped = new LongAdder();
+        private final Thread thread;
+        private volatile boolean waiting;
+        private volatile boolean running = true;
+
+        private Subscription(String name, Consumer<? super ServerEvent> handler) {
+            this.handler = handler;
+            this.ring = new ServerEvent[capacity];
+            this.sequence = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) sequence.set(i, i);
+            this.mask = capacity - 1;
+            this.thread = new Thread(this::drain, "events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void offer(ServerEvent event) {
+            if (!running) {
+                dropped.increment();
+                return;
+            }
+            long pos = tail.get();
+            while (true) {
+                int slot = (int) pos & mask;
+                long diff = sequence.get(slot) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        ring[slot] = event;
+                        sequence.set(slot, pos + 1);
+                        break;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    // the consumer has not freed this slot yet: the ring is full
+                    dropped.increment();
+                    return;
+                } else {
+                    pos = tail.get();
+                }
+            }
+            if (waiting) LockSupport.unpark(thread);
+        }
+
+        private ServerEvent poll() {
+            long pos = head;
+            int slot = (int) pos & mask;
+            if (sequence.get(slot) != pos + 1) return null;
+            ServerEvent event = ring[slot];
+            ring[slot] = null;
+            sequence.set(slot, pos + ring.length);
+            head = pos + 1;
+            return event;
+        }
+
+        private void drain() {
+            while (true) {
+                ServerEvent event = poll();
+                if (event == null) {
+                    if (!running) return;
+                    waiting = true;
+                    // check again after announcing, so a publish in between is not missed
+                    event = poll();
+                    if (event == null) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                        waiting = false;
+                        continue;
+                    }
+                    waiting = false;
+                }
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    LOG.error("event subscriber failed", "subscriber", thread.getName(), e);
+                }
+            }
+        }
+
+        /** Return how many events this subscriber lost because its ring was full. */
+        public long dropped() {
+            return dropped.sum();
+        }
+
+        /** Return how many events are waiting for this subscriber. */
+        public long pending() {
+            return Math.max(0, tail.get() - head);
+        }
+
+        /** Stop after delivering what is already queued (waits up to two seconds). */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+            running = false;
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() == thread) return;
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
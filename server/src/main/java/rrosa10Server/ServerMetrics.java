@@ -0,0 +1,256 @@
+package rrosa10Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import model.Message;
+import model.MessageFilter;
+
+/**
+ * ServerMetrics - counters, latency histograms and gauges for one Server.
+ *
+ * Responsibilities:
+ * - Record per-operation latency (START, PLAY, FOLD, send, broadcast, accept) and message,
+ *   connection and throttle counts from the connection threads without locks or allocation.
+ * - Count server events by kind (fed by a ServerEventBus subscriber).
+ * - Hold gauges (connections, sessions, queue depths) as suppliers read only at scrape time.
+ * - Keep one-minute moving rates for the main counters, refreshed by tick().
+ * - Render everything in the Prometheus text exposition format.
+ *
+ * Latency quantiles cover the whole life of the server; for windowed views, scrape the
+ * _sum and _count series and let Prometheus compute rates over them.
+ */
+public class ServerMetrics {
+
+    /** Timed operations. */
+    public enum Op { START, PLAY, FOLD, MULTI_START, MULTI_DECIDE, AUTO_PLAY, SEND, BROADCAST, ACCEPT }
+
+    /** Interval between rate updates; tick() should be called at this period. */
+    public static final long TICK_SECONDS = 5;
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    private final LatencyHistogram[] latency = new LatencyHistogram[Op.values().length];
+    private final LongAdder[] received = new LongAdder[TYPES.length];
+    private final LongAdder[] throttled = new LongAdder[TYPES.length];
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder connectionsAccepted = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder[] connectionsRefused = new LongAdder[Admission.Reason.values().length];
+    private final LongAdder tableRejected = new LongAdder();
+    private final LongAdder[] inputRejected = new LongAdder[MessageFilter.Limit.values().length];
+    private final ConcurrentHashMap<String, LongAdder> events = new ConcurrentHashMap<>();
+
+    private final Rate receivedRate = new Rate("poker_messages_received_rate1m",
+            "Messages received per second, one-minute moving average", this::receivedTotal);
+    private final Rate sentRate = new Rate("poker_messages_sent_rate1m",
+            "Messages sent per second, one-minute moving average", sent::sum);
+    private final Rate acceptRate = new Rate("poker_connections_accepted_rate1m",
+            "Connections accepted per second, one-minute moving average", connectionsAccepted::sum);
+
+    private final List<Gauge> gauges = new ArrayList<>();
+
+    public ServerMetrics() {
+        for (int i = 0; i < latency.length; i++) latency[i] = new LatencyHistogram();
+        for (int i = 0; i < TYPES.length; i++) {
+            received[i] = new LongAdder();
+            throttled[i] = new LongAdder();
+        }
+        for (int i = 0; i < inputRejected.length; i++) {
+            inputRejected[i] = new LongAdder();
+        }
+        for (int i = 0; i < connectionsRefused.length; i++) {
+            connectionsRefused[i] = new LongAdder();
+        }
+    }
+
+    // -------------------------
+    // Recording (hot path)
+    // -------------------------
+
+    /** Record the time since startNanos (a System.nanoTime() reading) against an operation. */
+    public void record(Op op, long startNanos) {
+        latency[op.ordinal()].recordSince(startNanos);
+    }
+
+    public void messageReceived(Message.Type type) { received[type.ordinal()].increment(); }
+    public void messageThrottled(Message.Type type) { throttled[type.ordinal()].increment(); }
+    public void messageSent() { sent.increment(); }
+    public void sendFailed() { sendFailures.increment(); }
+    public void connectionAccepted() { connectionsAccepted.increment(); }
+    public void connectionClosed() { connectionsClosed.increment(); }
+    public void connectionRefused(Admission.Reason reason) { connectionsRefused[reason.ordinal()].increment(); }
+    public void tableRejected() { tableRejected.increment(); }
+    public void inputRejected(MessageFilter.Limit limit) { inputRejected[limit.ordinal()].increment(); }
+
+    /** Count one server event under its kind (the event type's simple name). */
+    public void eventPublished(ServerEvent event) {
+        events.computeIfAbsent(event.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    // -------------------------
+    // Reading
+    // -------------------------
+
+    public LatencyHistogram latency(Op op) { return latency[op.ordinal()]; }
+    public long received(Message.Type type) { return received[type.ordinal()].sum(); }
+    public long throttled(Message.Type type) { return throttled[type.ordinal()].sum(); }
+    public long refused(Admission.Reason reason) { return connectionsRefused[reason.ordinal()].sum(); }
+    public long inputRejections(MessageFilter.Limit limit) { return inputRejected[limit.ordinal()].sum(); }
+
+    public long events(String kind) {
+        LongAdder a = events.get(kind);
+        return a == null ? 0 : a.sum();
+    }
+
+    public long throttledTotal() {
+        long total = 0;
+        for (LongAdder a : throttled) total += a.sum();
+        return total;
+    }
+
+    private long receivedTotal() {
+        long total = 0;
+        for (LongAdder a : received) total += a.sum();
+        return total;
+    }
+
+    /**
+     * Register a gauge read at scrape time. Register gauges while setting up the server,
+     * before the metrics endpoint starts.
+     *
+     * param name  metric name (poker_...)
+     * param help  one-line description
+     * param value supplier of the current value; must be cheap and thread-safe
+     */
+    public void gauge(String name, String help, LongSupplier value) {
+        gauges.add(new Gauge(name, help, value));
+    }
+
+    /** Update the moving rates. Call every TICK_SECONDS from a single thread. */
+    public void tick() {
+        receivedRate.tick();
+        sentRate.tick();
+        acceptRate.tick();
+    }
+
+    // -------------------------
+    // Prometheus exposition
+    // -------------------------
+
+    /** Render all metrics in the Prometheus text format (version 0.0.4). */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder(4096);
+
+        header(sb, "poker_latency_seconds", "Latency of server operations", "summary");
+        for (Op op : Op.values()) {
+            LatencyHistogram h = latency[op.ordinal()];
+            String label = op.name().toLowerCase(Locale.ROOT);
+            for (double q : QUANTILES) {
+                sb.append("poker_latency_seconds{op=\"").append(label).append("\",quantile=\"").append(q).append("\"} ")
+                  .append(seconds(h.percentile(q * 100))).append('\n');
+            }
+            sb.append("poker_latency_seconds_sum{op=\"").append(label).append("\"} ")
+              .append(seconds(h.sumNanos())).append('\n');
+            sb.append("poker_latency_seconds_count{op=\"").append(label).append("\"} ")
+              .append(h.count()).append('\n');
+        }
+
+        header(sb, "poker_messages_received_total", "Messages received, by type", "counter");
+        for (Message.Type type : TYPES) {
+            sb.append("poker_messages_received_total{type=\"").append(type.name()).append("\"} ")
+              .append(received[type.ordinal()].sum()).append('\n');
+        }
+        header(sb, "poker_messages_throttled_total", "Messages dropped by rate limiting, by type", "counter");
+        for (Message.Type type : TYPES) {
+            sb.append("poker_messages_throttled_total{type=\"").append(type.name()).append("\"} ")
+              .append(throttled[type.ordinal()].sum()).append('\n');
+        }
+        counter(sb, "poker_messages_sent_total", "Messages sent to clients", sent.sum());
+        counter(sb, "poker_send_failures_total", "Messages that could not be written to a client", sendFailures.sum());
+        counter(sb, "poker_connections_accepted_total", "Connections accepted", connectionsAccepted.sum());
+        counter(sb, "poker_connections_closed_total", "Connections closed", connectionsClosed.sum());
+        header(sb, "poker_connections_refused_total", "Connections answered with BUSY at accept time, by reason", "counter");
+        for (Admission.Reason reason : Admission.Reason.values()) {
+            sb.append("poker_connections_refused_total{reason=\"").append(reason.name().toLowerCase(Locale.ROOT)).append("\"} ")
+              .append(connectionsRefused[reason.ordinal()].sum()).append('\n');
+        }
+        counter(sb, "poker_table_rejected_total", "Player requests refused because a table's mailbox was full", tableRejected.sum());
+        header(sb, "poker_input_rejected_total", "Connections closed for breaking an input limit, by limit", "counter");
+        for (MessageFilter.Limit limit : MessageFilter.Limit.values()) {
+            sb.append("poker_input_rejected_total{limit=\"").append(limit.name().toLowerCase(Locale.ROOT)).append("\"} ")
+              .append(inputRejected[limit.ordinal()].sum()).append('\n');
+        }
+        header(sb, "poker_events_total", "Server events, by kind", "counter");
+        Map<String, LongAdder> sorted = new TreeMap<>(events);
+        for (Map.Entry<String, LongAdder> e : sorted.entrySet()) {
+            sb.append("poker_events_total{event=\"").append(e.getKey()).append("\"} ")
+              .append(e.getValue().sum()).append('\n');
+        }
+
+        for (Rate rate : new Rate[] {receivedRate, sentRate, acceptRate}) {
+            header(sb, rate.name, rate.help, "gauge");
+            sb.append(rate.name).append(' ').append(String.format(Locale.ROOT, "%.3f", rate.perSecond)).append('\n');
+        }
+        for (Gauge g : gauges) {
+            header(sb, g.name, g.help, "gauge");
+            sb.append(g.name).append(' ').append(g.value.getAsLong()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, help, "counter");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private record Gauge(String name, String help, LongSupplier value) {}
+
+    /** Exponentially weighted one-minute rate over a monotonically increasing counter. */
+    private static final class Rate {
+        private static final double ALPHA = 1 - Math.exp(-(double) TICK_SECONDS / TimeUnit.MINUTES.toSeconds(1));
+
+        private final String name;
+        private final String help;
+        private final LongSupplier counter;
+        private long last;
+        private boolean primed;
+        private volatile double perSecond;
+
+        Rate(String name, String help, LongSupplier counter) {
+            this.name = name;
+            this.help = help;
+            this.counter = counter;
+        }
+
+        void tick() {
+            long now = counter.getAsLong();
+            double instant = (double) (now - last) / TICK_SECONDS;
+            last = now;
+            if (primed) {
+                perSecond += ALPHA * (instant - perSecond);
+            } else {
+                perSecond = instant;
+                primed = true;
+            }
+        }
+    }
+}
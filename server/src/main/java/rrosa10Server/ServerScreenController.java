@@ -1,16 +1,12 @@
 package rrosa10Server;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.Region;
-import javafx.util.Duration;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
@@ -18,22 +14,34 @@ import javax.sound.sampled.Clip;
 import javax.sound.sampled.FloatControl;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import log.Log;
+import log.Logger;
 
 /**
  * Controller for the server status screen.
  *
  * Responsibilities:
  * - Manage the "status" UI that shows server state, connected client rows, and a chronological log.
- * - Animate client-row and log-list text with per-character reveals.
+ * - Buffer log events from any thread and apply them to the UI in one batch per FX pulse,
+ *   so a busy server costs the FX thread one update per frame rather than one per event.
+ * - Keep the log list capped (a ring of the newest LOG_CAPACITY lines).
+ * - Animate client-row and log-list text with per-character reveals while events are rare;
+ *   above ANIMATE_MAX_EVENTS_PER_SEC text appears at once. Every reveal is advanced by the
+ *   same pulse timer (TextRevealer), not by a Timeline of its own.
  * - Play short audio feedback (separate clips for logs and client updates) when animations start.
  */
 public class ServerScreenController {
 
+    private static final Logger LOG = Log.get("ui");
+
     @FXML private Region greenScreen;
     @FXML private Label serverStatusLabel;
     @FXML private Label portLabel;
@@ -42,13 +50,33 @@ public class ServerScreenController {
     @FXML private ListView<String> logListView;
 
     @FXML private ListView<String> clientListView;
-    private final ObservableList<String> clientItems = FXCollections.observableArrayList();
-    private final Map<Integer, String> clientStatusMap = new HashMap<>();
-
-    // Track per-client reveal animations so they can be cancelled/replaced
-    private final Map<Integer, Timeline> clientAnimations = new HashMap<>();
-    // Track active log animations (so we can stop them on shutdown)
-    private final List<Timeline> activeLogAnimations = new ArrayList<>();
+    // One row per client, sorted by id; rows are formatted only when a visible cell reads them
+    private final ClientRowList clientRows = new ClientRowList();
+
+    // Per-character reveals of client rows, advanced by the pulse timer
+    private final TextRevealer clientReveals = new TextRevealer(clientRows, 30);
+
+    /** Log lines kept in the view; older ones drop off the top. */
+    private static final int LOG_CAPACITY = 1000;
+    /** Events waiting for the FX thread beyond this many are dropped (and counted in the log). */
+    private static final int MAX_PENDING = 10_000;
+    /** Above this event rate, rows and log lines appear without the per-character reveal. */
+    private static final double ANIMATE_MAX_EVENTS_PER_SEC = 8;
+
+    // Filled by any thread (onServerEvent, logEvent), drained once per pulse on the FX thread
+    private final ConcurrentLinkedQueue<ServerEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final RingObservableList<String> logItems = new RingObservableList<>(LOG_CAPACITY);
+    // Log line reveals; finished before anything else is appended, so their indices stay
+    // valid even as the ring trims its head
+    private final TextRevealer logReveals = new TextRevealer(logItems, 18);
+    private AnimationTimer pulse;
+
+    // Event rate over the last second (FX thread only)
+    private long rateWindowStart;
+    private int rateWindowEvents;
+    private double eventRate;
 
     // Two clips: one for logs, one for client updates
     private Clip logClip;
@@ -69,17 +97,24 @@ public class ServerScreenController {
     /**
      * FXML initialize:
      * - Initialize labels and lists to a safe default state.
-     * - Ensure the client list view uses the observable clientItems.
+     * - Ensure the client list view uses the sorted client rows.
      * - Attempt to load optional audio clips from resources.
      */
     @FXML
     private void initialize() {
         serverStatusLabel.setText("Server stopped");
         clientCountLabel.setText("Connected clients: 0");
-        clientListView.setItems(clientItems);
-        if (logListView.getItems() == null) {
-            logListView.setItems(FXCollections.observableArrayList());
-        }
+        clientListView.setItems(clientRows);
+        logListView.setItems(logItems);
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                drainPending(now);
+                clientReveals.tick(now);
+                logReveals.tick(now);
+            }
+        };
+        pulse.start();
 
         // Load both clips from resources. Place your files at:
         // src/main/resources/sounds/tick.wav
@@ -116,175 +151,147 @@ public class ServerScreenController {
     }
 
     /**
-     * Top-level log entry router.
+     * Dashboard subscriber of the server's event bus. Safe to call from any thread: the event is
+     * only queued, and the next FX pulse applies everything queued since the last one (drainPending).
      *
-     * Contract:
-     * - Messages that start with "CLIENT:" follow the convention "CLIENT:<id>|<payload>"
-     *   and are treated as per-client status updates that occupy a single row in the client ListView.
-     * - All other messages are appended to the chronological log ListView and animated.
+     * - A ClientEvent sets that client's row to its status (a null status removes the row);
+     *   connects and disconnects also get a line in the log.
+     * - Every other event is appended to the chronological log ListView.
      */
-    public void logEvent(String message) {
-        if (message == null) return;
+    public void onServerEvent(ServerEvent event) {
+        if (event == null) return;
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        pending.add(event);
+    }
 
-        Platform.runLater(() -> {
-            if (message.startsWith("CLIENT:")) {
-                int pipe = message.indexOf('|');
-                String idPart = (pipe > 0) ? message.substring(7, pipe) : message.substring(7);
-                String payload = (pipe > 0) ? message.substring(pipe + 1) : "";
-                try {
-                    int clientId = Integer.parseInt(idPart.trim());
-                    updateClientStatus(clientId, payload);
-                } catch (NumberFormatException e) {
-                    animateLogMessage("Malformed CLIENT message: " + message);
-                }
-            } else {
-                animateLogMessage(message);
-            }
-        });
+    /** Append a line to the log (thread-safe); used for the GUI's own messages. */
+    public void logEvent(String message) {
+        if (message != null) onServerEvent(new ServerEvent.Notice(message));
     }
 
     /**
-     * Update the in-memory map of client id -> status payload and reconcile the clientItems list.
-     *
-     * Behavior:
-     * - Builds a sorted list (by client id) of formatted rows.
-     * - Reuses existing list entries when possible, and animates only rows that change.
-     * - Adds or removes list entries if clients connect/disconnect.
-     * - Performs UI updates and should be called on the JavaFX thread.
+     * Apply every queued event in one batch (FX thread, once per pulse). Client updates are
+     * coalesced to the newest status per client; log lines are appended as one change to the ring.
      */
-    private void updateClientStatus(int clientId, String payload) {
-        final String safePayload = payload == null ? "" : payload.trim();
-        clientStatusMap.put(clientId, safePayload);
-
-        List<String> newSorted = clientStatusMap.entrySet()
-                .stream()
-                .sorted(Comparator.comparingInt(Map.Entry::getKey))
-                .map(e -> formatClientRow(e.getKey(), e.getValue()))
-                .collect(Collectors.toList());
-
-        int existingSize = clientItems.size();
-        int newSize = newSorted.size();
-        int min = Math.min(existingSize, newSize);
-
-        // update changed rows
-        for (int i = 0; i < min; i++) {
-            String newVal = newSorted.get(i);
-            String curVal = clientItems.get(i);
-            if (!newVal.equals(curVal)) {
-                animateClientTextAtIndex(i, newVal, 30);
+    private void drainPending(long now) {
+        int events = 0;
+        List<String> lines = new ArrayList<>();
+        Map<Integer, String> statuses = new LinkedHashMap<>();
+        ServerEvent event;
+        while ((event = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            events++;
+            if (event instanceof ServerEvent.ClientEvent client) {
+                statuses.put(client.clientId(), client.status());
+                if (event instanceof ServerEvent.ClientConnected || event instanceof ServerEvent.ClientDisconnected) {
+                    lines.add(event.text());
+                }
+            } else {
+                lines.add(event.text());
             }
         }
+        long dropped = droppedEvents.getAndSet(0);
+        if (dropped > 0) {
+            lines.add("(" + dropped + " log events dropped while the screen caught up)");
+        }
 
-        // add new rows
-        if (newSize > existingSize) {
-            for (int i = existingSize; i < newSize; i++) {
-                clientItems.add(""); // placeholder
-                animateClientTextAtIndex(i, newSorted.get(i), 30);
-            }
+        rateWindowEvents += events;
+        long windowNanos = now - rateWindowStart;
+        if (windowNanos >= TimeUnit.SECONDS.toNanos(1)) {
+            eventRate = rateWindowEvents * (double) TimeUnit.SECONDS.toNanos(1) / windowNanos;
+            rateWindowStart = now;
+            rateWindowEvents = 0;
         }
+        if (events == 0 && dropped == 0) return;
 
-        // remove rows for disconnected clients
-        if (newSize < existingSize) {
-            for (int i = existingSize - 1; i >= newSize; i--) {
-                cancelClientAnimation(i);
-                clientItems.remove(i);
+        // a lone event on a quiet server gets the typing reveal; anything busier appears at once
+        boolean animate = events == 1 && eventRate <= ANIMATE_MAX_EVENTS_PER_SEC;
+        if (!statuses.isEmpty()) {
+            updateClientStatuses(statuses, animate);
+        }
+        if (!lines.isEmpty()) {
+            logReveals.finishAll();
+            if (animate && lines.size() == 1) {
+                animateLogMessage(lines.get(0));
+            } else {
+                logItems.addAll(lines);
             }
         }
-
-        clientCountLabel.setText("Connected clients: " + clientStatusMap.size());
     }
 
-    /** Format a single client row for display in the client ListView. */
-    private String formatClientRow(int clientId, String payload) {
-        return "Client #" + clientId + ": " + payload;
+    /**
+     * Apply the newest status of each changed client to its row: O(log n) per client, touching
+     * only that row (animated when animate is true, otherwise set at once). A null status
+     * removes the client's row. Performs UI updates and should be called on the JavaFX thread.
+     *
+     * param statuses newest status per client id (null = remove)
+     * param animate  true to reveal changed rows per character
+     */
+    private void updateClientStatuses(Map<Integer, String> statuses, boolean animate) {
+        for (Map.Entry<Integer, String> e : statuses.entrySet()) {
+            int clientId = e.getKey();
+            // reveals are tracked by row index; a row added or removed above the last one
+            // shifts the rows below it, so let running reveals finish first
+            boolean shifts = e.getValue() == null ? clientRows.rowOf(clientId) < clientRows.size() - 1
+                    : !clientRows.contains(clientId) && clientId < clientRows.maxId();
+            if (shifts) clientReveals.finishAll();
+
+            if (e.getValue() == null) {
+                int row = clientRows.rowOf(clientId);
+                if (row >= 0) {
+                    clientReveals.cancel(row);
+                    clientRows.removeClient(clientId);
+                }
+                continue;
+            }
+            String payload = e.getValue();
+            int row = clientRows.rowOf(clientId);
+            if (row >= 0) clientReveals.cancel(row);
+            row = clientRows.put(clientId, payload);
+            if (animate) {
+                animateClientTextAtIndex(row, ClientRowList.format(clientId, payload));
+            }
+        }
+
+        clientCountLabel.setText("Connected clients: " + clientRows.size());
     }
 
     /**
      * Animate a specific client list index to reveal fullText char-by-char.
      *
      * Details:
-     * - Cancels any in-flight animation for that index.
-     * - Ensures there's an entry in clientItems for the index.
+     * - Replaces any in-flight reveal for that index.
      * - Plays the configured client clip once at the start (if enabled).
-     * - Schedules KeyFrames to progressively replace the text content in the list cell.
      */
-    private void animateClientTextAtIndex(int index, String fullText, int delayMs) {
-        cancelClientAnimation(index);
+    private void animateClientTextAtIndex(int index, String fullText) {
         if (index < 0) return;
-        while (clientItems.size() <= index) clientItems.add("");
 
         // Play client clip once at start (if enabled)
         if (clientSoundEnabled && clientClip != null) {
             playClipOnce(clientClip);
         }
-
-        Timeline tl = new Timeline();
-        for (int i = 1; i <= fullText.length(); i++) {
-            final int len = i;
-            KeyFrame kf = new KeyFrame(Duration.millis(delayMs * i), ev -> {
-                if (index >= 0 && index < clientItems.size()) {
-                    clientItems.set(index, fullText.substring(0, len));
-                }
-            });
-            tl.getKeyFrames().add(kf);
-        }
-        KeyFrame finalKf = new KeyFrame(Duration.millis(delayMs * Math.max(fullText.length(), 1)), ev -> {
-            if (index >= 0 && index < clientItems.size()) {
-                clientItems.set(index, fullText);
-            }
-            clientAnimations.remove(index);
-        });
-        tl.getKeyFrames().add(finalKf);
-
-        clientAnimations.put(index, tl);
-        tl.play();
-    }
-
-    /** Cancel and remove any running animation for a given client list index. */
-    private void cancelClientAnimation(int index) {
-        Timeline prev = clientAnimations.remove(index);
-        if (prev != null) prev.stop();
+        clientReveals.reveal(index, fullText);
     }
 
     /**
      * Animate adding a new log message to the bottom of logListView with per-character reveal.
      *
      * Behavior:
-     * - Adds a placeholder empty string to the log list and progressively fills it.
+     * - Adds a placeholder empty string to the log list, which the pulse timer progressively fills.
      * - Plays the configured log clip once at the start (if enabled).
-     * - Keeps a reference to the Timeline so it can be stopped if needed.
      */
     private void animateLogMessage(String message) {
-        ObservableList<String> logItems = logListView.getItems();
-        int index = logItems.size();
         logItems.add("");
 
         // Play log clip once at start (if enabled)
         if (logSoundEnabled && logClip != null) {
             playClipOnce(logClip);
         }
-
-        Timeline tl = new Timeline();
-        final int delayMs = 18;
-        for (int i = 1; i <= message.length(); i++) {
-            final int len = i;
-            KeyFrame kf = new KeyFrame(Duration.millis(delayMs * i), ev -> {
-                if (index >= 0 && index < logItems.size()) {
-                    logItems.set(index, message.substring(0, len));
-                }
-            });
-            tl.getKeyFrames().add(kf);
-        }
-        KeyFrame finalKf = new KeyFrame(Duration.millis(delayMs * Math.max(message.length(), 1)), ev -> {
-            if (index >= 0 && index < logItems.size()) {
-                logItems.set(index, message);
-            }
-            activeLogAnimations.remove(tl);
-        });
-        tl.getKeyFrames().add(finalKf);
-
-        activeLogAnimations.add(tl);
-        tl.play();
+        logReveals.reveal(logItems.size() - 1, message);
     }
 
     // -------------------------
@@ -304,7 +311,7 @@ public class ServerScreenController {
         try {
             URL soundUrl = getClass().getResource(resourcePath);
             if (soundUrl == null) {
-                System.out.println("Sound not found at " + resourcePath + " (OK to ignore).");
+                LOG.info("sound not found, playing without it", "resource", resourcePath);
                 return null;
             }
 
@@ -322,8 +329,7 @@ public class ServerScreenController {
             }
             return clip;
         } catch (Exception e) {
-            System.err.println("Failed to load clip " + resourcePath + ": " + e.getMessage());
-            e.printStackTrace();
+            LOG.warn("sound could not be loaded", "resource", resourcePath, e);
             return null;
         }
     }
@@ -341,7 +347,7 @@ public class ServerScreenController {
             clip.setFramePosition(0);
             clip.start(); // non-blocking
         } catch (Exception e) {
-            System.err.println("Audio play error: " + e.getMessage());
+            LOG.warn("sound could not be played", "error", e.getMessage());
         }
     }
 
@@ -391,15 +397,12 @@ public class ServerScreenController {
 
     /**
      * Stop and clear any running animations and stop audio playback.
-     * Intended to be called during server shutdown to ensure no background Timelines or Clips remain running.
+     * Intended to be called during server shutdown: every reveal jumps to its full text and no Clips
+     * remain running.
      */
     public void stopAllAnimations() {
-        for (Timeline t : clientAnimations.values()) if (t != null) t.stop();
-        clientAnimations.clear();
-        for (Timeline t : new ArrayList<>(activeLogAnimations)) {
-            if (t != null) t.stop();
-            activeLogAnimations.remove(t);
-        }
+        clientReveals.finishAll();
+        logReveals.finishAll();
         // stop audio playback if playing
         try {
             if (logClip != null && logClip.isRunning()) logClip.stop();
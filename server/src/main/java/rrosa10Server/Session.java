@@ -0,0 +1,140 @@
+package rrosa10Server;
+
+import model.Message;
+import model.Player;
+import model.PokerEngine;
+
+/**
+ * Session - server-side game state that outlives a single socket connection.
+ *
+ * Responsibilities:
+ * - Own the Player and PokerEngine for one player, plus the bets of any hand in flight.
+ * - Track which connection (if any) is currently attached, so a reconnect can take the
+ *   session over and a stale connection cannot park a session it no longer owns.
+ *
+ * Hand state is read and changed by the attached connection thread and by the action-deadline
+ * timer, so callers hold the session's lock around a deal, a settlement or a timeout.
+ */
+class Session {
+
+    /** The connection a session is attached to (a ClientThread on the server). */
+    interface Owner {
+        /** Send a message; return the bytes written (0 if the send failed). */
+        long send(Message message);
+        /** Close the connection. Safe to call more than once. */
+        void closeConnection();
+    }
+
+    private final String token;
+    private final Player player;
+    private final PokerEngine engine;
+
+    // Bets of the hand that has been dealt but not yet played or folded
+    private boolean handInProgress;
+    private int ante;
+    private int pairPlus;
+    // Spots of a multi-spot round (0 for a single hand); ante and pairPlus are then totals
+    private int spots;
+    // Incremented per deal so a stale action deadline cannot settle a newer hand
+    private long handSeq;
+    private HashedTimerWheel.Timeout actionDeadline;
+    // Shared table this session sits at (table mode only); set and cleared by the table
+    private volatile Table table;
+
+    // Guarded by 'this'
+    private Owner owner;
+    private long parkedAtNanos;
+
+    Session(String token, Player player, PokerEngine engine) {
+        this.token = token;
+        this.player = player;
+        this.engine = engine;
+    }
+
+    String getToken() { return token; }
+    Player getPlayer() { return player; }
+    PokerEngine getEngine() { return engine; }
+
+    boolean isHandInProgress() { return handInProgress; }
+    int getAnte() { return ante; }
+    int getPairPlus() { return pairPlus; }
+    int getSpots() { return spots; }
+
+    long getHandSeq() { return handSeq; }
+
+    Table getTable() { return table; }
+    void setTable(Table table) { this.table = table; }
+
+    /**
+     * Remember the bets of a freshly dealt hand.
+     *
+     * return the sequence number identifying this hand
+     */
+    long handDealt(int ante, int pairPlus) {
+        return handDealt(ante, pairPlus, 0);
+    }
+
+    /**
+     * Remember the bets of a freshly dealt hand or multi-spot round.
+     *
+     * param spots number of spots, or 0 for a single hand
+     * return the sequence number identifying this hand
+     */
+    long handDealt(int ante, int pairPlus, int spots) {
+        cancelActionDeadline();
+        this.handInProgress = true;
+        this.ante = ante;
+        this.pairPlus = pairPlus;
+        this.spots = spots;
+        return ++handSeq;
+    }
+
+    /** Mark the current hand as settled (played, folded or timed out). */
+    void handSettled() {
+        cancelActionDeadline();
+        this.handInProgress = false;
+        this.ante = 0;
+        this.pairPlus = 0;
+        this.spots = 0;
+    }
+
+    /** Track the timer that forfeits the current hand if the player never acts. */
+    void setActionDeadline(HashedTimerWheel.Timeout deadline) {
+        this.actionDeadline = deadline;
+    }
+
+    private void cancelActionDeadline() {
+        if (actionDeadline != null) {
+            actionDeadline.cancel();
+            actionDeadline = null;
+        }
+    }
+
+    /**
+     * Attach a connection to this session.
+     *
+     * return the connection that was attached before (null if the session was parked)
+     */
+    synchronized Owner attach(Owner newOwner) {
+        Owner prev = owner;
+        owner = newOwner;
+        parkedAtNanos = 0;
+        return prev;
+    }
+
+    /**
+     * Detach a connection, parking the session if that connection was still the owner.
+     *
+     * return true if the session is now parked
+     */
+    synchronized boolean detach(Owner oldOwner, long nowNanos) {
+        if (owner != oldOwner) return false;
+        owner = null;
+        parkedAtNanos = nowNanos;
+        return true;
+    }
+
+    synchronized boolean isParked() { return owner == null; }
+    synchronized Owner getOwner() { return owner; }
+    synchronized long getParkedAtNanos() { return parkedAtNanos; }
+}
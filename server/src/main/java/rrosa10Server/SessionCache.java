@@ -0,0 +1,157 @@
+package rrosa10Server;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import model.Player;
+import model.PokerEngine;
+
+/**
+ * SessionCache - keeps player sessions alive across dropped connections.
+ *
+ * Responsibilities:
+ * - Issue an unguessable token for every connection (sent to the client in WELCOME),
+ *   prefixed with the node id when the server runs behind a LobbyRouter, and open a session
+ *   under it once the connection turns out not to be resuming an older one.
+ * - Hold sessions whose connection dropped ("parked") for a bounded time.
+ * - Hand a session back to a reconnecting client that presents its token.
+ * - Evict parked sessions once they pass their time-to-live, or oldest-first when
+ *   the number of parked sessions exceeds the cap.
+ *
+ * Parked sessions are queued in the order they were parked. Since every session gets
+ * the same time-to-live, that is also expiry order, so eviction only looks at the head.
+ */
+class SessionCache {
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ArrayDeque<Parked> parkedQueue = new ArrayDeque<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlNanos;
+    private final int maxParked;
+    private final String tokenPrefix;
+    private final LongSupplier nanoTime;
+    private int parkedCount = 0;
+    // Told about every session that ends for good (evicted or discarded); must not block
+    private final Consumer<Session> onEnd;
+
+    private record Parked(Session session, long parkedAtNanos) {}
+
+    /**
+     * param ttlMillis  how long a parked session stays resumable
+     * param maxParked  upper bound on parked sessions kept at once
+     * param nodeId     this server's node id ("" for none); tokens become "nodeId.random"
+     * param onEnd      called (under the cache lock) for each session that ends for good
+     */
+    SessionCache(long ttlMillis, int maxParked, String nodeId, Consumer<Session> onEnd) {
+        this(ttlMillis, maxParked, nodeId, onEnd, System::nanoTime);
+    }
+
+    /**
+     * param ttlMillis  how long a parked session stays resumable
+     * param maxParked  upper bound on parked sessions kept at once
+     * param nodeId     this server's node id ("" for none); tokens become "nodeId.random"
+     * param onEnd      called (under the cache lock) for each session that ends for good
+     * param nanoTime   clock in nanoseconds (System::nanoTime outside tests)
+     */
+    SessionCache(long ttlMillis, int maxParked, String nodeId, Consumer<Session> onEnd, LongSupplier nanoTime) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxParked = Math.max(0, maxParked);
+        this.tokenPrefix = nodeId.isEmpty() ? "" : nodeId + ".";
+        this.onEnd = onEnd;
+        this.nanoTime = nanoTime;
+    }
+
+    /** Return a new unguessable token. No session exists under it until open(). */
+    String newToken() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return tokenPrefix + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /** Create a new session under a token from newToken(), attached to the given connection. */
+    Session open(String token, Player player, PokerEngine engine, Session.Owner owner) {
+        Session session = new Session(token, player, engine);
+        session.attach(owner);
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Attach a reconnecting client to the session matching its token. If an older
+     * connection still holds the session (its socket died but the server has not
+     * noticed yet), that connection is closed so it cannot act on the session again.
+     *
+     * return the resumed session, or null if the token is unknown or has expired
+     */
+    synchronized Session resume(String token, Session.Owner newOwner) {
+        evictExpired();
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        if (session.isParked()) {
+            parkedCount--;
+        }
+        Session.Owner prev = session.attach(newOwner);
+        if (prev != null && prev != newOwner) {
+            prev.closeConnection();
+        }
+        return session;
+    }
+
+    /** Drop a session that will never be resumed (e.g. replaced by a resumed one). */
+    void discard(Session session) {
+        if (sessions.remove(session.getToken(), session)) {
+            onEnd.accept(session);
+        }
+    }
+
+    /**
+     * Park a session after its connection dropped. Does nothing if another connection
+     * has already taken the session over.
+     */
+    synchronized void park(Session session, Session.Owner owner) {
+        long now = nanoTime.getAsLong();
+        if (!session.detach(owner, now)) return;
+        parkedQueue.addLast(new Parked(session, now));
+        parkedCount++;
+        evictExpired();
+    }
+
+    /**
+     * Remove parked sessions that are past their time-to-live, then trim to the cap.
+     *
+     * return number of sessions evicted
+     */
+    synchronized int evictExpired() {
+        long now = nanoTime.getAsLong();
+        int evicted = 0;
+        while (!parkedQueue.isEmpty()) {
+            Parked head = parkedQueue.peekFirst();
+            // Stale queue entry: the session was resumed (and maybe parked again) since
+            if (!head.session().isParked() || head.session().getParkedAtNanos() != head.parkedAtNanos()) {
+                parkedQueue.pollFirst();
+                continue;
+            }
+            boolean expired = now - head.parkedAtNanos() >= ttlNanos;
+            if (!expired && parkedCount <= maxParked) break;
+            parkedQueue.pollFirst();
+            sessions.remove(head.session().getToken(), head.session());
+            parkedCount--;
+            evicted++;
+            onEnd.accept(head.session());
+        }
+        return evicted;
+    }
+
+    /** Return the number of sessions held (attached and parked). */
+    int size() { return sessions.size(); }
+
+    /** Return the number of parked sessions awaiting a reconnect. */
+    synchronized int parkedCount() { return parkedCount; }
+}
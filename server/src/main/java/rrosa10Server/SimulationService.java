@@ -0,0 +1,263 @@
+package rrosa10Server;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import model.AutoPlay;
+import model.Card;
+import model.Deck;
+import model.SimulationProgress;
+import model.SimulationRequest;
+import model.ThreeCardLogic;
+
+/**
+ * SimulationService - runs offline simulations (SIMULATE) with the real game rules.
+ *
+ * Responsibilities:
+ * - Split each simulation into chunks of hands and run them on a small, low-priority worker
+ *   pool of its own, so simulations never run on connection threads or tie up live play.
+ * - Keep running aggregates (RunningStats) per simulation and stream them to the requester
+ *   at a fixed interval, plus one final update when it ends.
+ * - Cap how many simulations run at once, and stop a simulation promptly when cancelled.
+ *
+ * Each simulation keeps at most one chunk per worker in flight and queues its next chunk when
+ * one finishes, so concurrent simulations take turns on the pool instead of the first one
+ * filling the queue.
+ */
+public class SimulationService implements AutoCloseable {
+
+    /** Hands between cancellation checks inside a chunk. */
+    private static final int CANCEL_CHECK_HANDS = 8192;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService progress;
+    private final int maxJobs;
+    private final long chunkHands;
+    private final long progressMillis;
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final AtomicLong jobSeq = new AtomicLong();
+
+    /**
+     * param threads        worker threads (0 or less = half the cores, at least one)
+     * param maxJobs        simulations allowed to run at once
+     * param chunkHands     hands per unit of work
+     * param progressMillis interval between progress updates
+     */
+    public SimulationService(int threads, int maxJobs, long chunkHands, long progressMillis) {
+        int n = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "sim-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        this.progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sim-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        this.maxJobs = maxJobs;
+        this.chunkHands = Math.max(1, chunkHands);
+        this.progressMillis = Math.max(50, progressMillis);
+    }
+
+    /**
+     * Start a simulation.
+     *
+     * param request validated request
+     * param sink    receives every progress update, the last one with a final state
+     * return the running job (for cancel)
+     * throws IllegalStateException if maxJobs simulations are already running
+     */
+    public Job start(SimulationRequest request, Consumer<SimulationProgress> sink) {
+        if (activeJobs.incrementAndGet() > maxJobs) {
+            activeJobs.decrementAndGet();
+            throw new IllegalStateException("Simulation capacity reached (" + maxJobs + " running)");
+        }
+        Job job = new Job(jobSeq.incrementAndGet(), request, sink);
+        job.begin();
+        return job;
+    }
+
+    /** Return the simulations running now. */
+    public int activeJobs() {
+        return activeJobs.get();
+    }
+
+    /** Return chunks waiting for a worker. */
+    public int queuedChunks() {
+        return workers.getQueue().size();
+    }
+
+    /** Stop every worker; running simulations end without a final update. */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        progress.shutdownNow();
+    }
+
+    /** One running simulation. */
+    public final class Job {
+        private final long id;
+        private final SimulationRequest request;
+        private final Consumer<SimulationProgress> sink;
+        private final Map<ThreeCardLogic.HandRank, Integer> paytable;
+        private final long seed;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong nextHand = new AtomicLong();
+        private final AtomicLong nextChunk = new AtomicLong();
+        private volatile boolean cancelled;
+        private ScheduledFuture<?> ticker;
+
+        // Guarded by 'this'
+        private final RunningStats stats = new RunningStats();
+        private int inFlight;
+        private String failure;
+        private boolean finished;
+
+        private Job(long id, SimulationRequest request, Consumer<SimulationProgress> sink) {
+            this.id = id;
+            this.request = request;
+            this.sink = sink;
+            this.paytable = paytableOf(request.getPairPlusPaytable());
+            this.seed = request.getSeed() != 0 ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        }
+
+        public long getId() { return id; }
+
+        /** Stop after the chunks in progress reach their next check; a CANCELLED update follows. */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public synchronized boolean isFinished() {
+            return finished;
+        }
+
+        private void begin() {
+            ticker = progress.scheduleAtFixedRate(() -> sink.accept(snapshot(SimulationProgress.State.RUNNING)),
+                    progressMillis, progressMillis, TimeUnit.MILLISECONDS);
+            int chunks = (int) Math.min(workers.getMaximumPoolSize(), (request.getHands() + chunkHands - 1) / chunkHands);
+            synchronized (this) {
+                inFlight = chunks;
+            }
+            for (int i = 0; i < chunks; i++) {
+                submit();
+            }
+        }
+
+        private void submit() {
+            try {
+                workers.execute(this::runChunk);
+            } catch (RejectedExecutionException e) {
+                chunkDone(null, "Simulation service stopped");
+            }
+        }
+
+        private void runChunk() {
+            long first = nextHand.getAndAdd(chunkHands);
+            long hands = Math.min(chunkHands, request.getHands() - first);
+            if (hands <= 0 || cancelled) {
+                chunkDone(null, null);
+                return;
+            }
+            RunningStats local = new RunningStats();
+            try {
+                Random random = new Random(seed + nextChunk.getAndIncrement() * 0x9E3779B97F4A7C15L);
+                Deck deck = new Deck();
+                for (long h = 0; h < hands; h++) {
+                    if ((h & (CANCEL_CHECK_HANDS - 1)) == 0 && cancelled) break;
+                    local.add(playHand(deck, random));
+                }
+            } catch (RuntimeException e) {
+                chunkDone(local, e.toString());
+                return;
+            }
+            if (!cancelled && nextHand.get() < request.getHands()) {
+                merge(local);
+                submit();
+            } else {
+                chunkDone(local, null);
+            }
+        }
+
+        /** Deal one hand from a fresh deck and return the player's net result in chips. */
+        private int playHand(Deck deck, Random random) {
+            deck.reset();
+            deck.shuffle(random);
+            List<Card> player = deck.deal(3);
+            List<Card> dealer = deck.deal(3);
+            int ante = request.getAnte();
+            int pairPlus = request.getPairPlus();
+            int stake = ante + pairPlus;
+            boolean play = request.getRule() == AutoPlay.Rule.PLAY
+                    || (request.getRule() == AutoPlay.Rule.Q64 && ThreeCardLogic.playsQ64(player));
+            if (!play) return -stake;
+            int result = ThreeCardLogic.compareHands(dealer, player);
+            int pp = paytable == null
+                    ? ThreeCardLogic.pairPlusPayout(result, player, pairPlus)
+                    : ThreeCardLogic.pairPlusPayout(result, player, pairPlus, paytable);
+            return ThreeCardLogic.antePayout(result, ante) + pp - stake;
+        }
+
+        private synchronized void merge(RunningStats local) {
+            stats.merge(local);
+        }
+
+        /** A chunk ended without queueing a successor; the last one to end finishes the job. */
+        private void chunkDone(RunningStats local, String error) {
+            SimulationProgress last;
+            synchronized (this) {
+                if (local != null) stats.merge(local);
+                if (error != null && failure == null) {
+                    failure = error;
+                    cancelled = true;
+                }
+                if (--inFlight > 0) return;
+                finished = true;
+                SimulationProgress.State state = failure != null ? SimulationProgress.State.FAILED
+                        : stats.count() < request.getHands() ? SimulationProgress.State.CANCELLED
+                        : SimulationProgress.State.DONE;
+                last = snapshot(state);
+            }
+            ticker.cancel(false);
+            activeJobs.decrementAndGet();
+            // send from the progress thread, after any tick already queued there
+            try {
+                progress.execute(() -> sink.accept(last));
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+
+        private synchronized SimulationProgress snapshot(SimulationProgress.State state) {
+            return new SimulationProgress(id, state, stats.count(), request.getHands(), stats.mean(), stats.stdDev(),
+                    stats.ci95(), request.getAnte() + request.getPairPlus(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    state == SimulationProgress.State.FAILED ? failure : null);
+        }
+    }
+
+    /** Turn the request's multiplier list into a paytable, or null for the house table. */
+    private static Map<ThreeCardLogic.HandRank, Integer> paytableOf(int[] multipliers) {
+        if (multipliers == null) return null;
+        Map<ThreeCardLogic.HandRank, Integer> table = new EnumMap<>(ThreeCardLogic.HandRank.class);
+        for (int i = 0; i < SimulationRequest.PAYTABLE_RANKS.length; i++) {
+            table.put(ThreeCardLogic.HandRank.valueOf(SimulationRequest.PAYTABLE_RANKS[i]), multipliers[i]);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,27 @@
+package rrosa10Server;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SocketWriteEvent - JFR event covering the flush of one outbound Message to the socket.
+ */
+@Name("poker.SocketWrite")
+@Label("Socket Write")
+@Category({"Poker", "Network"})
+@Description("Flush of one serialized message to the socket")
+class SocketWriteEvent extends Event {
+    @Label("Client Id")
+    int clientId;
+
+    @Label("Message Type")
+    String messageType;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,438 @@
+package rrosa10Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.Deck;
+import model.Message;
+import model.ThreeCardLogic;
+
+/**
+ * Table - a shared table where up to N seated players play each round against one dealer hand.
+ *
+ * Responsibilities:
+ * - Seat and unseat sessions.
+ * - Collect bets (START) for the next round, then deal every bettor from one shuffled deck.
+ * - Collect PLAY/FOLD decisions until everyone has acted or the round deadline passes, then
+ *   deal and evaluate a single dealer hand, pay each seat and broadcast one summary line for
+ *   the round. The dealer hand does not exist before that, so no deal or resume can carry it.
+ *
+ * Round lifecycle:
+ * - WAITING: nobody has bet. The first START opens a betting window (betSeconds).
+ * - BETTING: more players may bet. The round is dealt when the window closes, or as soon as
+ *   every connected seat has bet.
+ * - ACTING:  cards are out. A START from a seat that has acted (or was not dealt) is held for
+ *   the next round. The round settles when every dealt seat has decided or the round deadline
+ *   passes; silent seats forfeit their stake.
+ *
+ * A table is an Actor: every entry point below just queues a message, and the round logic runs
+ * on one pool thread at a time, so none of the table's state needs a lock. Player requests go
+ * through the bounded mailbox (and are refused when the table is flooded); timers and seating
+ * changes are always accepted. Replies are collected while a message runs and sent at its end.
+ */
+class Table extends Actor {
+
+    /** Most seats one deck can serve: three cards each, plus three for the dealer. */
+    static final int MAX_SEATS = 16;
+
+    /**
+     * What the table needs from the server: delivery, chip movements, broadcast and timers.
+     * Every call comes from the actor thread and must return without blocking on I/O.
+     */
+    interface Host {
+        void send(Session session, Message message);
+        /** Move chips for a seated player (negative takes the stake, positive pays out). */
+        void chips(Session session, int delta);
+        /** Report a table event (dashboard, log and, for round results, every client). */
+        void publish(ServerEvent event);
+        /** Run a task after a delay on the timer thread (it must not block). */
+        HashedTimerWheel.Timeout schedule(Runnable task, long delay, TimeUnit unit);
+    }
+
+    private enum Phase { WAITING, BETTING, ACTING }
+
+    private enum Decision { NONE, PLAY, FOLD }
+
+    private static final class Seat {
+        final Session session;
+        // bet for the round being formed (or in play)
+        boolean bet;
+        int ante;
+        int pairPlus;
+        // bet placed while a round was in play, held for the next one
+        boolean nextBet;
+        int nextAnte;
+        int nextPairPlus;
+        // round in play
+        boolean dealt;
+        List<Card> hand;
+        Decision decision = Decision.NONE;
+
+        Seat(Session session) {
+            this.session = session;
+        }
+    }
+
+    private record Delivery(Session session, Message message) {}
+
+    /** Messages and events produced while handling a message, sent at its end. */
+    private static final class Outbox {
+        final List<Delivery> messages = new ArrayList<>();
+        final List<ServerEvent> events = new ArrayList<>(1);
+
+        void add(Session session, Message message) {
+            messages.add(new Delivery(session, message));
+        }
+    }
+
+    private final int id;
+    private final Seat[] seats;
+    private final long betNanos;
+    private final long roundNanos;
+    private final Host host;
+    private final Deck deck = new Deck();
+
+    // Owned by the actor: only touched while one of its messages runs
+    private Phase phase = Phase.WAITING;
+    private long round;
+    private HashedTimerWheel.Timeout timer;
+
+    /**
+     * param system       actor pool the table runs on
+     * param mailbox      most queued player requests before new ones are refused
+     * param id           table number (for logs)
+     * param seatCount    seats at the table (1..MAX_SEATS)
+     * param betSeconds   how long betting stays open after the first bet
+     * param roundSeconds how long dealt players have to play or fold
+     * param host         server callbacks
+     */
+    Table(ActorSystem system, int mailbox, int id, int seatCount, int betSeconds, int roundSeconds, Host host) {
+        super(system, mailbox);
+        if (seatCount < 1 || seatCount > MAX_SEATS) {
+            throw new IllegalArgumentException("Seats per table must be 1.." + MAX_SEATS + ": " + seatCount);
+        }
+        this.id = id;
+        this.seats = new Seat[seatCount];
+        this.betNanos = TimeUnit.SECONDS.toNanos(Math.max(0, betSeconds));
+        this.roundNanos = TimeUnit.SECONDS.toNanos(Math.max(1, roundSeconds));
+        this.host = host;
+    }
+
+    int getId() { return id; }
+
+    int seatCount() { return seats.length; }
+
+    // -------------------------
+    // Messages (callable from any thread)
+    // -------------------------
+
+    /** Seat a session. The TableManager has already reserved the seat. */
+    void seat(Session session) {
+        tell(() -> addSeat(session));
+    }
+
+    /**
+     * Remove a session from the table. A stake already in play is forfeited; a bet for a
+     * round not yet dealt is simply dropped (no chips were taken for it).
+     */
+    void leave(Session session) {
+        tell(() -> removeSeat(session));
+    }
+
+    /**
+     * A seated player bets for the next round. A negative bet, a stake the player cannot
+     * cover, or a bet from a seat still deciding its hand is answered with a CHAT instead.
+     *
+     * return false if the table is too busy to take the request
+     */
+    boolean onStart(Session session, int ante, int pairPlus) {
+        return offer(() -> bet(session, ante, pairPlus));
+    }
+
+    /**
+     * A dealt player plays (true) or folds (false).
+     *
+     * return false if the table is too busy to take the request
+     */
+    boolean onDecision(Session session, boolean play) {
+        return offer(() -> decide(session, play));
+    }
+
+    /**
+     * Send a reconnected session its RESUMED reply: its cards and bets if it has been dealt
+     * into the current round and has not acted yet.
+     */
+    void resume(Session session) {
+        tell(() -> host.send(session, resumeInfo(session)));
+    }
+
+    // -------------------------
+    // Message handlers (actor thread)
+    // -------------------------
+
+    private void addSeat(Session session) {
+        if (indexOf(session) >= 0) return;
+        for (int i = 0; i < seats.length; i++) {
+            if (seats[i] == null) {
+                seats[i] = new Seat(session);
+                return;
+            }
+        }
+        host.publish(new ServerEvent.Notice("Table " + id + " had no free seat for player #" + session.getPlayer().getID()));
+    }
+
+    private void removeSeat(Session session) {
+        int i = indexOf(session);
+        if (i < 0) return;
+        seats[i] = null;
+        Outbox out = new Outbox();
+        if (phase == Phase.ACTING && allDecided()) {
+            settle(out);
+        } else if (phase == Phase.BETTING && allBet()) {
+            deal(out);
+        }
+        deliver(out);
+    }
+
+    private void bet(Session session, int ante, int pairPlus) {
+        Seat seat = seatOf(session);
+        if (seat == null) return;
+        Outbox out = new Outbox();
+        String refusal = checkBet(seat, ante, pairPlus);
+        if (refusal != null) {
+            out.add(session, new Message.Chat(refusal));
+            deliver(out);
+            return;
+        }
+        if (phase == Phase.ACTING) {
+            seat.nextBet = true;
+            seat.nextAnte = ante;
+            seat.nextPairPlus = pairPlus;
+            out.add(session, new Message.Chat(
+                    "Round in progress at table " + id + ", you are in the next one."));
+        } else {
+            seat.bet = true;
+            seat.ante = ante;
+            seat.pairPlus = pairPlus;
+            if (phase == Phase.WAITING) {
+                openBetting();
+            }
+            if (allBet()) {
+                deal(out);
+            }
+        }
+        host.publish(new ServerEvent.BetPlaced(session.getPlayer().getID(), 1, ante, pairPlus, id));
+        deliver(out);
+    }
+
+    /**
+     * Return why a bet is refused, or null if it stands: bets must be 0 or more, the player must
+     * cover the stake, and a dealt seat must play or fold its hand before betting on the next.
+     */
+    private String checkBet(Seat seat, int ante, int pairPlus) {
+        if (ante < 0 || pairPlus < 0) return "A hand needs bets of 0 or more.";
+        if (phase == Phase.ACTING && seat.dealt && seat.decision == Decision.NONE) {
+            return "Finish the current hand before starting another.";
+        }
+        if (seat.session.getPlayer().getChips() < (long) ante + pairPlus) return "Not enough chips for that bet.";
+        return null;
+    }
+
+    private void decide(Session session, boolean play) {
+        Seat seat = seatOf(session);
+        Outbox out = new Outbox();
+        if (seat == null || phase != Phase.ACTING || !seat.dealt || seat.decision != Decision.NONE) {
+            out.add(session, new Message.Chat("No hand in progress."));
+        } else {
+            seat.decision = play ? Decision.PLAY : Decision.FOLD;
+            if (allDecided()) {
+                settle(out);
+            }
+        }
+        deliver(out);
+    }
+
+    private Message resumeInfo(Session session) {
+        Seat seat = seatOf(session);
+        if (seat != null && phase == Phase.ACTING && seat.dealt && seat.decision == Decision.NONE) {
+            return new Message.Resumed(session.getToken(), seat.hand, seat.ante, seat.pairPlus, null);
+        }
+        return new Message.Resumed(session.getToken(), null, 0, 0, null);
+    }
+
+    // -------------------------
+    // Round lifecycle (actor thread)
+    // -------------------------
+
+    private void openBetting() {
+        phase = Phase.BETTING;
+        long bettingRound = round;
+        timer = host.schedule(() -> tell(() -> betsClosed(bettingRound)), betNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void betsClosed(long bettingRound) {
+        if (phase != Phase.BETTING || round != bettingRound) return;
+        Outbox out = new Outbox();
+        deal(out);
+        deliver(out);
+    }
+
+    /** One shuffle for every seat that bet; the dealer hand waits for settle. */
+    private void deal(Outbox out) {
+        cancelTimer();
+        int players = 0;
+        for (Seat seat : seats) {
+            if (seat != null && seat.bet) players++;
+        }
+        if (players == 0) {
+            phase = Phase.WAITING;
+            return;
+        }
+        round++;
+        deck.reset();
+        deck.shuffle();
+        for (Seat seat : seats) {
+            if (seat == null || !seat.bet) continue;
+            seat.dealt = true;
+            seat.decision = Decision.NONE;
+            seat.hand = deck.deal(3);
+            // the stake is taken once the bet is in a dealt round, matching the client's wallet
+            host.chips(seat.session, -(seat.ante + seat.pairPlus));
+            out.add(seat.session, new Message.Deal(seat.hand, seat.ante, seat.pairPlus));
+        }
+        phase = Phase.ACTING;
+        long dealtRound = round;
+        timer = host.schedule(() -> tell(() -> roundExpired(dealtRound)), roundNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void roundExpired(long dealtRound) {
+        if (phase != Phase.ACTING || round != dealtRound) return;
+        Outbox out = new Outbox();
+        settle(out);
+        deliver(out);
+    }
+
+    /**
+     * Close the round in play, then open the next one if bets are waiting for it. When every
+     * dealt seat has left there is nobody to pay, so no dealer hand is dealt and no summary sent.
+     */
+    private void settle(Outbox out) {
+        cancelTimer();
+        if (anyDealt()) {
+            payRound(out);
+        }
+        phase = Phase.WAITING;
+
+        // bets placed during the round open the next one
+        boolean anyNext = false;
+        for (Seat seat : seats) {
+            if (seat != null && seat.nextBet) {
+                seat.bet = true;
+                seat.ante = seat.nextAnte;
+                seat.pairPlus = seat.nextPairPlus;
+                seat.nextBet = false;
+                anyNext = true;
+            }
+        }
+        if (anyNext) {
+            openBetting();
+            if (allBet()) deal(out);
+        }
+    }
+
+    /** Deal and evaluate the dealer hand once, pay every dealt seat, and broadcast one round summary. */
+    private void payRound(Outbox out) {
+        List<Card> dealerHand = deck.deal(3);
+        ThreeCardLogic.HandRank dealerRank = ThreeCardLogic.evalHand(dealerHand);
+        int players = 0;
+        int played = 0;
+        long tableNet = 0;
+        for (Seat seat : seats) {
+            if (seat == null || !seat.dealt) continue;
+            players++;
+            int antePayout = 0;
+            int pairPlusPayout = 0;
+            String note = null;
+            if (seat.decision == Decision.PLAY) {
+                played++;
+                int result = ThreeCardLogic.compareHands(dealerRank, dealerHand, seat.hand);
+                antePayout = ThreeCardLogic.antePayout(result, seat.ante);
+                pairPlusPayout = ThreeCardLogic.pairPlusPayout(result, seat.hand, seat.pairPlus);
+                host.chips(seat.session, antePayout + pairPlusPayout);
+            } else if (seat.decision == Decision.NONE) {
+                note = "Hand timed out";
+            }
+            tableNet += antePayout + pairPlusPayout - seat.ante - seat.pairPlus;
+            out.add(seat.session, new Message.Result(seat.hand, dealerHand, antePayout, pairPlusPayout, note));
+            resetSeat(seat);
+        }
+        out.events.add(new ServerEvent.TableRound(id, round, players, played, dealerRank, tableNet));
+    }
+
+    private static void resetSeat(Seat seat) {
+        seat.bet = false;
+        seat.ante = 0;
+        seat.pairPlus = 0;
+        seat.dealt = false;
+        seat.hand = null;
+        seat.decision = Decision.NONE;
+    }
+
+    /** True when every seat whose player is connected has bet (and at least one has). */
+    private boolean allBet() {
+        boolean any = false;
+        for (Seat seat : seats) {
+            if (seat == null) continue;
+            if (seat.bet) {
+                any = true;
+            } else if (!seat.session.isParked()) {
+                return false;
+            }
+        }
+        return any;
+    }
+
+    private boolean anyDealt() {
+        for (Seat seat : seats) {
+            if (seat != null && seat.dealt) return true;
+        }
+        return false;
+    }
+
+    private boolean allDecided() {
+        for (Seat seat : seats) {
+            if (seat != null && seat.dealt && seat.decision == Decision.NONE) return false;
+        }
+        return true;
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+
+    private int indexOf(Session session) {
+        for (int i = 0; i < seats.length; i++) {
+            if (seats[i] != null && seats[i].session == session) return i;
+        }
+        return -1;
+    }
+
+    private Seat seatOf(Session session) {
+        int i = indexOf(session);
+        return i < 0 ? null : seats[i];
+    }
+
+    private void deliver(Outbox out) {
+        for (Delivery d : out.messages) {
+            host.send(d.session(), d.message());
+        }
+        for (ServerEvent event : out.events) {
+            host.publish(event);
+        }
+    }
+}
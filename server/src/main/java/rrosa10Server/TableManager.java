@@ -0,0 +1,86 @@
+package rrosa10Server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TableManager - seats players at shared tables, opening a new table when every table is full.
+ *
+ * Responsibilities:
+ * - Seat each new session at the first table with a free seat (filling tables before
+ *   opening new ones, so rounds have as many players as possible).
+ * - Unseat sessions that end, and close tables once their last player leaves.
+ *
+ * Tables are actors, so the manager keeps its own count of the seats taken at each one and
+ * only tells the table about the change; it never waits on a table's mailbox.
+ */
+class TableManager {
+
+    private final ActorSystem actors;
+    private final int mailboxCapacity;
+    private final int seatsPerTable;
+    private final int betSeconds;
+    private final int roundSeconds;
+    private final Table.Host host;
+    // Guarded by 'this': open tables in opening order, with their seats taken
+    private final Map<Table, Integer> occupied = new LinkedHashMap<>();
+    private int nextTableId = 1;
+
+    TableManager(ActorSystem actors, int mailboxCapacity, int seatsPerTable, int betSeconds, int roundSeconds, Table.Host host) {
+        this.actors = actors;
+        this.mailboxCapacity = mailboxCapacity;
+        this.seatsPerTable = seatsPerTable;
+        this.betSeconds = betSeconds;
+        this.roundSeconds = roundSeconds;
+        this.host = host;
+    }
+
+    /** Seat a session, opening a table if needed. Return the table it sits at. */
+    Table seat(Session session) {
+        Table table = null;
+        synchronized (this) {
+            for (Map.Entry<Table, Integer> e : occupied.entrySet()) {
+                if (e.getValue() < seatsPerTable) {
+                    table = e.getKey();
+                    break;
+                }
+            }
+            if (table == null) {
+                table = new Table(actors, mailboxCapacity, nextTableId++, seatsPerTable, betSeconds, roundSeconds, host);
+                occupied.put(table, 0);
+            }
+            occupied.merge(table, 1, Integer::sum);
+        }
+        session.setTable(table);
+        table.seat(session);
+        return table;
+    }
+
+    /** Unseat a session that has ended (evicted or replaced), forfeiting any stake in play. */
+    void leave(Session session) {
+        Table table = session.getTable();
+        if (table == null) return;
+        session.setTable(null);
+        table.leave(session);
+        synchronized (this) {
+            Integer left = occupied.computeIfPresent(table, (t, n) -> n - 1);
+            if (left != null && left <= 0) {
+                occupied.remove(table);
+            }
+        }
+    }
+
+    /** Return the number of open tables. */
+    synchronized int tableCount() {
+        return occupied.size();
+    }
+
+    /** Return the messages waiting in every table's mailbox. */
+    synchronized long mailboxDepth() {
+        long total = 0;
+        for (Table table : occupied.keySet()) {
+            total += table.mailboxSize();
+        }
+        return total;
+    }
+}
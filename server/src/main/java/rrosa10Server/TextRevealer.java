@@ -0,0 +1,147 @@
+package rrosa10Server;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TextRevealer - types out strings in a list, a few characters per frame, for every row at once.
+ *
+ * Responsibilities:
+ * - Keep the active reveals in a primitive state table (list index, target text, characters
+ *   shown, start time) instead of one Timeline with a KeyFrame per character each.
+ * - Advance every active reveal from a single frame callback (tick), touching only the rows
+ *   whose visible length changed, so a frame costs O(active reveals).
+ *
+ * Not thread-safe: reveal, tick and the rest run on the thread that owns the list (the FX thread).
+ */
+public final class TextRevealer {
+
+    private static final long NOT_STARTED = -1;
+
+    private final List<String> list;
+    private final long nanosPerChar;
+
+    // State table, one slot per active reveal; slots [0, active) are in use
+    private int[] index = new int[16];
+    private int[] shown = new int[16];
+    private long[] startNanos = new long[16];
+    private String[] target = new String[16];
+    private int active;
+
+    /**
+     * param list         the list whose rows are revealed (a ListView's items)
+     * param millisPerChar time between characters
+     */
+    public TextRevealer(List<String> list, long millisPerChar) {
+        this.list = list;
+        this.nanosPerChar = Math.max(1, millisPerChar) * 1_000_000L;
+    }
+
+    /**
+     * Start revealing text at a list index, replacing any reveal already running there.
+     * The row is blanked now and starts filling on the next tick.
+     */
+    public void reveal(int listIndex, String text) {
+        int slot = slotOf(listIndex);
+        if (slot < 0) {
+            if (active == index.length) grow();
+            slot = active++;
+        }
+        index[slot] = listIndex;
+        target[slot] = text;
+        shown[slot] = 0;
+        startNanos[slot] = NOT_STARTED;
+        list.set(listIndex, "");
+    }
+
+    /**
+     * Advance every active reveal to the length due at this time; finished reveals show their
+     * full text and leave the table.
+     *
+     * param nowNanos frame time (AnimationTimer's timestamp, or System.nanoTime())
+     */
+    public void tick(long nowNanos) {
+        int slot = 0;
+        while (slot < active) {
+            if (startNanos[slot] == NOT_STARTED) startNanos[slot] = nowNanos;
+            String text = target[slot];
+            long due = (nowNanos - startNanos[slot]) / nanosPerChar;
+            if (due >= text.length()) {
+                show(index[slot], text);
+                remove(slot); // the last slot moved here; look at it next
+                continue;
+            }
+            if (due > shown[slot]) {
+                shown[slot] = (int) due;
+                show(index[slot], text.substring(0, (int) due));
+            }
+            slot++;
+        }
+    }
+
+    /** Show the full text at a list index now, if it is being revealed. */
+    public void finish(int listIndex) {
+        int slot = slotOf(listIndex);
+        if (slot < 0) return;
+        show(listIndex, target[slot]);
+        remove(slot);
+    }
+
+    /** Show the full text of every active reveal now. */
+    public void finishAll() {
+        for (int slot = 0; slot < active; slot++) {
+            show(index[slot], target[slot]);
+        }
+        clear();
+    }
+
+    /** Stop revealing at a list index, leaving the row as it is (e.g. before removing it). */
+    public void cancel(int listIndex) {
+        int slot = slotOf(listIndex);
+        if (slot >= 0) remove(slot);
+    }
+
+    /** Stop every reveal, leaving the rows as they are. */
+    public void clear() {
+        Arrays.fill(target, 0, active, null);
+        active = 0;
+    }
+
+    public boolean isRevealing(int listIndex) {
+        return slotOf(listIndex) >= 0;
+    }
+
+    public int activeCount() {
+        return active;
+    }
+
+    private void show(int listIndex, String text) {
+        // the list may have shrunk since the reveal started
+        if (listIndex < list.size()) list.set(listIndex, text);
+    }
+
+    private int slotOf(int listIndex) {
+        for (int slot = 0; slot < active; slot++) {
+            if (index[slot] == listIndex) return slot;
+        }
+        return -1;
+    }
+
+    /** Drop a slot by moving the last active slot into it. */
+    private void remove(int slot) {
+        int last = --active;
+        index[slot] = index[last];
+        shown[slot] = shown[last];
+        startNanos[slot] = startNanos[last];
+        target[slot] = target[last];
+        target[last] = null;
+    }
+
+    private void grow() {
+        int n = index.length * 2;
+        index = Arrays.copyOf(index, n);
+        shown = Arrays.copyOf(shown, n);
+        startNanos = Arrays.copyOf(startNanos, n);
+        target = Arrays.copyOf(target, n);
+    }
+}
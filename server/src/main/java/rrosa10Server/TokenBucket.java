@@ -0,0 +1,66 @@
+package rrosa10Server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenBucket - lock-free rate limiter.
+ *
+ * Responsibilities:
+ * - Allow up to 'burst' events at once, refilling at 'perSecond' events per second.
+ * - Decide with a single compare-and-set on one AtomicLong, so it is safe to share
+ *   between threads and never blocks.
+ *
+ * Rather than storing a token count plus a refill timestamp, the bucket stores one number:
+ * the "theoretical arrival time" (TAT) at which the bucket would be full again. An event is
+ * allowed if accepting it keeps the TAT within burst * interval of now; accepting it pushes the
+ * TAT one interval further out. This is the generic cell rate algorithm and behaves exactly
+ * like a token bucket.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong tat;
+    private final LongSupplier nanoTime;
+
+    /**
+     * param perSecond sustained rate of events allowed per second (> 0)
+     * param burst     number of events allowed back to back when the bucket is full (>= 1)
+     */
+    public TokenBucket(double perSecond, int burst) {
+        this(perSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * param perSecond sustained rate of events allowed per second (> 0)
+     * param burst     number of events allowed back to back when the bucket is full (>= 1)
+     * param nanoTime  clock in nanoseconds (System::nanoTime outside tests)
+     */
+    public TokenBucket(double perSecond, int burst, LongSupplier nanoTime) {
+        if (perSecond <= 0) throw new IllegalArgumentException("Rate must be > 0: " + perSecond);
+        if (burst < 1) throw new IllegalArgumentException("Burst must be >= 1: " + burst);
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.nanoTime = nanoTime;
+        this.tat = new AtomicLong(nanoTime.getAsLong() - burstNanos);
+    }
+
+    /** Take one token if available. Return false (without waiting) if the bucket is empty. */
+    public boolean tryAcquire() {
+        long now = nanoTime.getAsLong();
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) return false;
+            if (tat.compareAndSet(current, next)) return true;
+        }
+    }
+
+    /** Return the time until the next token is available, in milliseconds (0 if one is ready). */
+    public long millisUntilAvailable() {
+        long wait = tat.get() + intervalNanos - burstNanos - nanoTime.getAsLong();
+        return wait <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(wait) + 1;
+    }
+}
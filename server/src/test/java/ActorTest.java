@@ -0,0 +1,209 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.Actor;
+import rrosa10Server.ActorSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Actor's guarantees are what let Table keep plain fields: messages run in order and never overlap,
+ * none is stranded when it arrives as a turn ends, a failing message does not wedge the actor, a
+ * busy actor yields its worker, and offer() holds the mailbox bound even when senders race.
+ */
+public class ActorTest {
+
+    /** An actor with a plain, unsynchronized field; only safe if messages never overlap. */
+    private static class Counter extends Actor {
+        int value;
+        final List<Integer> seen = new ArrayList<>();
+
+        Counter(ActorSystem system, int capacity) {
+            super(system, capacity);
+        }
+    }
+
+    @Test
+    void testMessagesRunInOrder() throws InterruptedException {
+        try (ActorSystem system = new ActorSystem("test-actor", 4)) {
+            Counter counter = new Counter(system, 10_000);
+            CountDownLatch done = new CountDownLatch(1);
+            for (int i = 0; i < 1000; i++) {
+                int n = i;
+                counter.tell(() -> counter.seen.add(n));
+            }
+            counter.tell(done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, counter.seen.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testMessagesNeverOverlap() throws InterruptedException {
+        try (ActorSystem system = new ActorSystem("test-actor", 4)) {
+            Counter counter = new Counter(system, 100_000);
+            AtomicInteger running = new AtomicInteger();
+            List<Integer> overlaps = Collections.synchronizedList(new ArrayList<>());
+            int senders = 8;
+            int perSender = 5000;
+            CountDownLatch sent = new CountDownLatch(senders);
+            for (int s = 0; s < senders; s++) {
+                new Thread(() -> {
+                    for (int i = 0; i < perSender; i++) {
+                        counter.tell(() -> {
+                            if (running.incrementAndGet() != 1) overlaps.add(1);
+                            counter.value++;
+                            running.decrementAndGet();
+                        });
+                    }
+                    sent.countDown();
+                }).start();
+            }
+            assertTrue(sent.await(5, TimeUnit.SECONDS));
+            CountDownLatch done = new CountDownLatch(1);
+            counter.tell(done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(overlaps.isEmpty(), "two messages ran at once");
+            assertEquals(senders * perSender, counter.value);
+        }
+    }
+
+    @Test
+    void testNoMessageIsStrandedBetweenTurns() throws InterruptedException {
+        // one message at a time, so each arrives just as the previous turn is ending
+        try (ActorSystem system = new ActorSystem("test-actor", 2)) {
+            Counter counter = new Counter(system, 10);
+            for (int i = 0; i < 20_000; i++) {
+                CountDownLatch ran = new CountDownLatch(1);
+                counter.tell(ran::countDown);
+                assertTrue(ran.await(5, TimeUnit.SECONDS), "message " + i + " was never run");
+            }
+            assertEquals(0, counter.mailboxSize());
+        }
+    }
+
+    @Test
+    void testFailingMessageDoesNotStopTheActor() throws InterruptedException {
+        try (ActorSystem system = new ActorSystem("test-actor", 1)) {
+            Counter counter = new Counter(system, 10);
+            counter.tell(() -> counter.value++);
+            counter.tell(() -> {
+                throw new IllegalStateException("boom");
+            });
+            counter.tell(() -> counter.value++);
+            CountDownLatch done = new CountDownLatch(1);
+            counter.tell(done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(2, counter.value);
+        }
+    }
+
+    @Test
+    void testBusyActorYieldsItsWorker() throws InterruptedException {
+        try (ActorSystem system = new ActorSystem("test-actor", 1)) {
+            Counter busy = new Counter(system, 10_000);
+            Counter other = new Counter(system, 10);
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            busy.tell(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 5000; i++) busy.tell(() -> order.add("busy"));
+            CountDownLatch done = new CountDownLatch(2);
+            other.tell(() -> order.add("other"));
+            other.tell(done::countDown);
+            busy.tell(done::countDown);
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+
+            int at = order.indexOf("other");
+            assertTrue(at >= 0 && at < 200, "the other actor waited behind " + at + " messages");
+        }
+    }
+
+    @Test
+    void testRacingOffersNeverOverfill() throws InterruptedException {
+        try (ActorSystem system = new ActorSystem("test-actor", 1)) {
+            Counter counter = new Counter(system, 100);
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            counter.tell(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            AtomicInteger accepted = new AtomicInteger();
+            List<Thread> senders = new ArrayList<>();
+            for (int s = 0; s < 8; s++) {
+                Thread t = new Thread(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        if (counter.offer(() -> counter.value++)) accepted.incrementAndGet();
+                    }
+                });
+                senders.add(t);
+                t.start();
+            }
+            for (Thread t : senders) t.join();
+            assertEquals(100, accepted.get());
+            assertEquals(100, counter.mailboxSize());
+
+            CountDownLatch done = new CountDownLatch(1);
+            counter.tell(done::countDown);
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(100, counter.value);
+        }
+    }
+
+    @Test
+    void testOfferRefusedWhenMailboxFull() throws InterruptedException {
+        try (ActorSystem system = new ActorSystem("test-actor", 1)) {
+            Counter counter = new Counter(system, 3);
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            // hold the actor in its first message so the rest stay queued
+            assertTrue(counter.offer(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            assertTrue(counter.offer(() -> counter.value++));
+            assertTrue(counter.offer(() -> counter.value++));
+            assertTrue(counter.offer(() -> counter.value++));
+            assertFalse(counter.offer(() -> counter.value++), "fourth queued message should be refused");
+            // tell() ignores the bound
+            counter.tell(() -> counter.value++);
+            assertEquals(4, counter.mailboxSize());
+
+            CountDownLatch done = new CountDownLatch(1);
+            counter.tell(done::countDown);
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(4, counter.value);
+            assertEquals(0, counter.mailboxSize());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import model.Message;
+import org.junit.jupiter.api.Test;
+import rrosa10Server.Admission;
+import rrosa10Server.RateLimit;
+import rrosa10Server.Server;
+import rrosa10Server.ServerConfig;
+import rrosa10Server.ServerEvent;
+import rrosa10Server.ServerEventBus;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A leaked handshake slot never comes back, and once maxHandshakes have leaked the server
+ * refuses everyone. So besides each limit's own refusal, these cases check that every way
+ * out of a handshake returns its slot, including a live server whose stream setup fails,
+ * and that a refusal spends nothing it should not.
+ */
+public class AdmissionTest {
+
+    @Test
+    void testSessionLimit() {
+        AtomicInteger sessions = new AtomicInteger();
+        Admission admission = new Admission(2, 0, null, 1000, sessions::get);
+        for (int i = 0; i < 2; i++) {
+            assertNull(admission.admit());
+            sessions.incrementAndGet();
+        }
+        assertEquals(Admission.Reason.SESSIONS, admission.admit());
+        sessions.decrementAndGet();
+        assertNull(admission.admit(), "a closed session frees its place");
+    }
+
+    @Test
+    void testHandshakeSlotsComeBack() {
+        Admission admission = new Admission(0, 2, null, 1000, () -> 0);
+        assertNull(admission.admit());
+        assertNull(admission.admit());
+        assertEquals(2, admission.pendingHandshakes());
+        assertEquals(Admission.Reason.HANDSHAKES, admission.admit());
+
+        admission.handshakeDone();
+        assertEquals(1, admission.pendingHandshakes());
+        assertNull(admission.admit());
+        assertEquals(Admission.Reason.HANDSHAKES, admission.admit());
+    }
+
+    @Test
+    void testRefusalSpendsNoSlotOrToken() {
+        AtomicInteger sessions = new AtomicInteger(1);
+        Admission admission = new Admission(1, 1, new RateLimit(0.001, 1), 1000, sessions::get);
+        for (int i = 0; i < 100; i++) assertEquals(Admission.Reason.SESSIONS, admission.admit());
+        assertEquals(0, admission.pendingHandshakes(), "a refused connection holds no handshake slot");
+
+        // the one token in the bucket is still there for the first connection that fits
+        sessions.set(0);
+        assertNull(admission.admit());
+        assertEquals(Admission.Reason.HANDSHAKES, admission.admit());
+        admission.handshakeDone();
+        assertEquals(Admission.Reason.RATE, admission.admit());
+        assertEquals(0, admission.pendingHandshakes());
+    }
+
+    @Test
+    void testFailedStreamSetupGivesItsSlotBack() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Properties props = new Properties();
+        props.setProperty("poker.admission.maxHandshakes", "1");
+        props.setProperty("poker.metrics.port", "-1");
+        BlockingQueue<ServerEvent> disconnects = new LinkedBlockingQueue<>();
+
+        try (ServerEventBus bus = new ServerEventBus(1024)) {
+            bus.subscribe("test", e -> {
+                if (e instanceof ServerEvent.ClientDisconnected) disconnects.add(e);
+            });
+            Server server = new Server(port, bus, ServerConfig.fromProperties(props));
+            try {
+                try (Socket stuck = connect(port)) {
+                    // the server writes its stream header, then waits for ours while holding the only slot
+                    new ObjectInputStream(stuck.getInputStream());
+                    try (Socket second = connect(port)) {
+                        Object reply = firstMessage(second);
+                        assertTrue(reply instanceof Message.Busy, "expected BUSY, got " + reply);
+                        assertEquals(Admission.Reason.HANDSHAKES.text(), ((Message.Busy) reply).reason());
+                    }
+
+                    // a corrupt stream header fails the server's stream setup
+                    stuck.getOutputStream().write(new byte[] {1, 2, 3, 4});
+                    stuck.getOutputStream().flush();
+                    assertNotNull(disconnects.poll(5, TimeUnit.SECONDS), "the failed connection was not cleaned up");
+                }
+
+                try (Socket retry = connect(port)) {
+                    assertTrue(firstMessage(retry) instanceof Message.Welcome, "the failed handshake kept its slot");
+                }
+                assertEquals(1, server.getMetrics().refused(Admission.Reason.HANDSHAKES));
+            } finally {
+                server.shutdown();
+                // the acceptor only sees the stop flag once accept() returns
+                connect(port).close();
+            }
+        }
+    }
+
+    @Test
+    void testAcceptRateAndRetryHints() {
+        Admission admission = new Admission(0, 0, new RateLimit(0.5, 3), 1000, () -> 0);
+        for (int i = 0; i < 3; i++) assertNull(admission.admit(), "the burst is admitted");
+        assertEquals(Admission.Reason.RATE, admission.admit());
+
+        // the bucket refills one connection every two seconds, longer than the base hint
+        int rateHint = admission.retryAfterMillis(Admission.Reason.RATE);
+        assertTrue(rateHint > 1000 && rateHint <= 3001, "rate hint " + rateHint);
+
+        int min = Integer.MAX_VALUE, max = 0;
+        for (int i = 0; i < 1000; i++) {
+            int hint = admission.retryAfterMillis(Admission.Reason.SESSIONS);
+            min = Math.min(min, hint);
+            max = Math.max(max, hint);
+        }
+        assertTrue(min >= 1000 && max <= 1500, "hints between " + min + " and " + max);
+        assertTrue(max - min > 100, "hints are spread out");
+    }
+
+    /** Connect, retrying while the server's acceptor thread is still binding. */
+    private static Socket connect(int port) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                return new Socket("localhost", port);
+            } catch (ConnectException e) {
+                if (System.nanoTime() > deadline) throw e;
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    /** Open a client stream on the socket and read the server's first message. */
+    private static Object firstMessage(Socket socket) throws IOException, ClassNotFoundException {
+        socket.setSoTimeout(5000);
+        new ObjectOutputStream(socket.getOutputStream()).flush();
+        return new ObjectInputStream(socket.getInputStream()).readObject();
+    }
+}
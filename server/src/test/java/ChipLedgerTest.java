@@ -0,0 +1,196 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rrosa10Server.ChipLedger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChipLedger holds the only record of balances across restarts, so these tests restart it a lot:
+ * WAL replay, snapshot plus tail, a torn final record, a crash between writing a snapshot and
+ * deleting the segments it covers, adjustments racing a snapshot, and files it must refuse.
+ */
+public class ChipLedgerTest {
+
+    @TempDir
+    Path dir;
+
+    private long segmentCount() throws IOException {
+        return segments(dir).size();
+    }
+
+    private static List<Path> segments(Path in) throws IOException {
+        try (Stream<Path> files = Files.list(in)) {
+            List<Path> wal = new ArrayList<>();
+            files.filter(p -> p.getFileName().toString().startsWith("wal-")).forEach(wal::add);
+            return wal;
+        }
+    }
+
+    @Test
+    void testReplayWithoutSnapshot() throws IOException {
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            ledger.adjust(1, 500);
+            ledger.adjust(2, 500);
+            ledger.adjust(1, -25);
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            assertEquals(475, ledger.balance(1));
+            assertEquals(500, ledger.balance(2));
+            assertEquals(2, ledger.accountCount());
+            assertEquals(2, ledger.maxPlayerId());
+        }
+    }
+
+    @Test
+    void testSnapshotThenTailReplay() throws IOException {
+        try (ChipLedger ledger = new ChipLedger(dir, 200)) {
+            for (int id = 1; id <= 50; id++) {
+                ledger.adjust(id, 500);
+            }
+            assertTrue(segmentCount() > 1, "small segment size should have rolled several segments");
+            ledger.snapshot();
+            assertEquals(1, segmentCount(), "segments covered by the snapshot should be deleted");
+            ledger.adjust(7, 40);
+            ledger.adjust(51, 500);
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 200)) {
+            assertEquals(540, ledger.balance(7));
+            assertEquals(500, ledger.balance(50));
+            assertEquals(500, ledger.balance(51));
+            assertEquals(51, ledger.accountCount());
+            assertFalse(ledger.hasAccount(52));
+        }
+    }
+
+    @Test
+    void testTornRecordIsDiscarded() throws IOException {
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            ledger.adjust(3, 100);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            Path wal = files.filter(p -> p.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+            Files.write(wal, new byte[] {1, 2, 3}, java.nio.file.StandardOpenOption.APPEND);
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            assertEquals(100, ledger.balance(3));
+            ledger.adjust(3, 1);
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            assertEquals(101, ledger.balance(3));
+        }
+    }
+
+    @Test
+    void testCrashBeforeCompactionDoesNotCountTwice() throws IOException {
+        Path saved = Files.createDirectory(dir.resolve("saved"));
+        try (ChipLedger ledger = new ChipLedger(dir, 200)) {
+            for (int id = 1; id <= 20; id++) {
+                ledger.adjust(id, 100);
+            }
+            ledger.adjust(4, -30);
+            for (Path wal : segments(dir)) {
+                Files.copy(wal, saved.resolve(wal.getFileName()));
+            }
+            ledger.snapshot();
+            ledger.adjust(4, 5);
+        }
+        // the snapshot landed but the segments it covers survived, as after a crash mid-compaction
+        for (Path wal : segments(saved)) {
+            Files.copy(wal, dir.resolve(wal.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 200)) {
+            assertEquals(75, ledger.balance(4), "records the snapshot covers must not be replayed");
+            assertEquals(100, ledger.balance(20));
+            assertEquals(20, ledger.accountCount());
+            ledger.adjust(4, 1);
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 200)) {
+            assertEquals(76, ledger.balance(4), "new records continue after the highest replayed LSN");
+        }
+    }
+
+    @Test
+    void testAdjustmentsDuringSnapshotsAreKept() throws Exception {
+        final int writers = 4;
+        final int perWriter = 5_000;
+        try (ChipLedger ledger = new ChipLedger(dir, 4096)) {
+            AtomicBoolean writing = new AtomicBoolean(true);
+            Thread snapshots = new Thread(() -> {
+                try {
+                    while (writing.get()) ledger.snapshot();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            snapshots.start();
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                final int id = w + 1;
+                Thread t = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perWriter; i++) {
+                            ledger.adjust(id, 1);
+                            ledger.adjust(100, 1);
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) t.join();
+            writing.set(false);
+            snapshots.join();
+            assertEquals((long) writers * perWriter, ledger.balance(100));
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 4096)) {
+            for (int id = 1; id <= writers; id++) {
+                assertEquals(perWriter, ledger.balance(id));
+            }
+            assertEquals((long) writers * perWriter, ledger.balance(100), "a record written mid-snapshot was lost or doubled");
+        }
+    }
+
+    @Test
+    void testSparseIdsAndLargeBalancesSurviveASnapshot() throws IOException {
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            ledger.adjust(0, 1);
+            ledger.adjust(5000, Long.MAX_VALUE - 1);
+            ledger.adjust(70, -250);
+            ledger.snapshot();
+        }
+        try (ChipLedger ledger = new ChipLedger(dir, 1 << 20)) {
+            assertEquals(1, ledger.balance(0));
+            assertEquals(Long.MAX_VALUE - 1, ledger.balance(5000));
+            assertEquals(-250, ledger.balance(70), "the ledger records debts; the server checks stakes");
+            assertFalse(ledger.hasAccount(4999));
+            assertEquals(0, ledger.balance(4999));
+            assertEquals(3, ledger.accountCount());
+            assertEquals(5000, ledger.maxPlayerId());
+        }
+    }
+
+    @Test
+    void testRefusesBadInputAndUseAfterClose() throws IOException {
+        ChipLedger ledger = new ChipLedger(dir, 1 << 20);
+        assertThrows(IllegalArgumentException.class, () -> ledger.adjust(-1, 10));
+        ledger.adjust(1, 10);
+        ledger.close();
+        ledger.close();
+        assertThrows(IOException.class, () -> ledger.adjust(1, 10));
+        ledger.snapshot(); // a no-op once closed
+
+        Files.write(dir.resolve("snapshot.bin"), new byte[] {'n', 'o', 'p', 'e'});
+        assertThrows(IOException.class, () -> new ChipLedger(dir, 1 << 20), "a foreign snapshot is not silently ignored");
+    }
+}
@@ -0,0 +1,148 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.ClientRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClientRegistry is touched by every connection thread at once, without a registry-wide lock.
+ * Besides id lookups, stale removals after a resume and groups, these tests race broadcasts
+ * against connect churn, and join and leave against leaveAll: a player whose session ended
+ * must never linger in a group.
+ */
+public class ClientRegistryTest {
+
+    @Test
+    void testResumedClientSurvivesStaleUnregister() {
+        ClientRegistry<String> registry = new ClientRegistry<>();
+        assertNull(registry.register(7, "old-connection"));
+        assertEquals("old-connection", registry.register(7, "new-connection"));
+
+        // the old connection closes after its player resumed on the new one
+        assertFalse(registry.unregister(7, "old-connection"));
+        assertEquals("new-connection", registry.get(7));
+        assertTrue(registry.unregister(7, "new-connection"));
+        assertNull(registry.get(7));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testGroupsOutliveConnectionsUntilLeaveAll() {
+        ClientRegistry<String> registry = new ClientRegistry<>();
+        for (int id = 1; id <= 3; id++) {
+            registry.register(id, "c" + id);
+            registry.join("table-1", id);
+        }
+        registry.join("vip", 2);
+
+        List<String> sent = new ArrayList<>();
+        assertEquals(3, registry.forEachInGroup("table-1", sent::add));
+        assertEquals(3, sent.size());
+
+        // a disconnected member is skipped, but still a member when they come back
+        registry.unregister(2, "c2");
+        assertEquals(2, registry.forEachInGroup("table-1", c -> { }));
+        registry.register(2, "c2-resumed");
+        sent.clear();
+        registry.forEachInGroup("vip", sent::add);
+        assertEquals(List.of("c2-resumed"), sent);
+
+        registry.leaveAll(2);
+        assertEquals(2, registry.groupSize("table-1"));
+        assertEquals(0, registry.groupSize("vip"));
+        registry.leave("table-1", 1);
+        registry.leave("table-1", 3);
+        assertEquals(0, registry.forEachInGroup("table-1", c -> fail("group should be empty")));
+    }
+
+    @Test
+    void testBroadcastDuringChurn() throws Exception {
+        ClientRegistry<Integer> registry = new ClientRegistry<>();
+        int stable = 50_000;
+        for (int id = 0; id < stable; id++) registry.register(id, id);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(2);
+        Runnable churn = () -> {
+            try {
+                for (int i = 0; !stop.get(); i++) {
+                    int id = stable + (i % 1000);
+                    registry.register(id, id);
+                    registry.unregister(id, id);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                done.countDown();
+            }
+        };
+        new Thread(churn).start();
+        new Thread(churn).start();
+
+        for (int round = 0; round < 20; round++) {
+            int seen = 0;
+            for (Integer c : registry.clients()) {
+                if (c < stable) seen++;
+            }
+            // every client registered before the broadcast started is reached
+            assertEquals(stable, seen);
+            assertEquals(12_345, registry.get(12_345));
+        }
+        stop.set(true);
+        done.await();
+        assertNull(failure.get());
+        assertEquals(stable, registry.size());
+    }
+
+    @Test
+    void testJoinAndLeaveRacingLeaveAll() throws Exception {
+        ClientRegistry<String> registry = new ClientRegistry<>();
+        String[] tables = {"table-1", "table-2"};
+        int players = 4;
+        for (int round = 0; round < 500; round++) {
+            CyclicBarrier start = new CyclicBarrier(3);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            List<Thread> threads = new ArrayList<>();
+            // a few players and tables, so the three threads keep hitting the same pairs
+            threads.add(new Thread(() -> race(start, failure, () -> {
+                for (int i = 0; i < 50; i++) {
+                    for (String t : tables) registry.join(t, i % players);
+                }
+            })));
+            threads.add(new Thread(() -> race(start, failure, () -> {
+                for (int i = 0; i < 50; i++) {
+                    for (String t : tables) registry.leave(t, i % players);
+                }
+            })));
+            threads.add(new Thread(() -> race(start, failure, () -> {
+                for (int i = 0; i < 50; i++) registry.leaveAll(i % players);
+            })));
+            for (Thread t : threads) t.start();
+            for (Thread t : threads) t.join(TimeUnit.SECONDS.toMillis(5));
+            assertNull(failure.get());
+
+            // whatever interleaving happened, leaveAll afterwards must leave nothing behind
+            for (int id = 0; id < players; id++) registry.leaveAll(id);
+            for (String t : tables) {
+                assertEquals(0, registry.groupSize(t), "round " + round + ": a player lingers in " + t);
+            }
+        }
+    }
+
+    private static void race(CyclicBarrier start, AtomicReference<Throwable> failure, Runnable work) {
+        try {
+            start.await();
+            work.run();
+        } catch (Throwable t) {
+            failure.set(t);
+        }
+    }
+}
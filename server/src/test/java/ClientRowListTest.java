@@ -0,0 +1,119 @@
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+import rrosa10Server.ClientRowList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClientRowList keeps its order in a Fenwick tree, where mistakes are off-by-one: so besides
+ * random churn against a sorted reference, single-row change events and the reveal override,
+ * ids are tested at zero and on both sides of each power-of-two capacity the tree grows through.
+ */
+public class ClientRowListTest {
+
+    @Test
+    void testMatchesSortedReference() {
+        ClientRowList rows = new ClientRowList();
+        TreeMap<Integer, String> reference = new TreeMap<>();
+        Random random = new Random(7);
+        for (int op = 0; op < 20_000; op++) {
+            // ids spread past the initial capacity so the tree grows a few times
+            int id = random.nextInt(op < 10_000 ? 900 : 5_000);
+            if (random.nextInt(4) == 0) {
+                int expectedRow = reference.containsKey(id) ? reference.headMap(id).size() : -1;
+                assertEquals(expectedRow, rows.removeClient(id));
+                reference.remove(id);
+            } else {
+                String status = "s" + op;
+                assertEquals(reference.headMap(id).size(), rows.put(id, status));
+                reference.put(id, status);
+            }
+        }
+        assertEquals(reference.size(), rows.size());
+        int i = 0;
+        for (Map.Entry<Integer, String> e : reference.entrySet()) {
+            assertEquals(e.getKey(), rows.idAt(i));
+            assertEquals(ClientRowList.format(e.getKey(), e.getValue()), rows.get(i));
+            i++;
+        }
+        assertEquals(reference.lastKey(), rows.maxId());
+    }
+
+    @Test
+    void testEachEventChangesOneRow() {
+        ClientRowList rows = new ClientRowList();
+        for (int id = 1; id <= 5; id++) rows.put(id, "connected");
+        List<String> changes = new ArrayList<>();
+        rows.addListener((ListChangeListener<String>) c -> {
+            while (c.next()) {
+                if (c.wasReplaced()) changes.add("set " + c.getFrom());
+                else if (c.wasAdded()) changes.add("add " + c.getFrom());
+                else if (c.wasRemoved()) changes.add("remove " + c.getFrom() + " " + c.getRemoved());
+            }
+        });
+
+        rows.put(3, "bet ante $10");
+        rows.put(9, "connected");
+        rows.removeClient(2);
+        assertEquals(List.of("set 2", "add 5", "remove 1 [Client #2: connected]"), changes);
+        assertEquals(List.of("Client #1: connected", "Client #3: bet ante $10", "Client #4: connected",
+                "Client #5: connected", "Client #9: connected"), new ArrayList<>(rows));
+        assertEquals(-1, rows.removeClient(2));
+    }
+
+    @Test
+    void testRevealOverride() {
+        ClientRowList rows = new ClientRowList();
+        rows.put(4, "connected");
+        rows.set(0, "Clie");
+        assertEquals("Clie", rows.get(0));
+        rows.set(0, "Client #4: connected");
+        assertEquals("Client #4: connected", rows.get(0));
+
+        // a new status replaces a half-revealed row outright
+        rows.set(0, "Cl");
+        rows.put(4, "disconnected");
+        assertEquals("Client #4: disconnected", rows.get(0));
+    }
+
+    @Test
+    void testIdsAtCapacityBoundaries() {
+        ClientRowList rows = new ClientRowList();
+        int[] ids = {0, 1, 1023, 1024, 1025, 2047, 2048, 4095, 100_000};
+        // insert out of order, so growth happens with rows already on both sides
+        for (int i = ids.length - 1; i >= 0; i -= 2) rows.put(ids[i], "s");
+        for (int i = ids.length - 2; i >= 0; i -= 2) rows.put(ids[i], "s");
+
+        assertEquals(ids.length, rows.size());
+        for (int row = 0; row < ids.length; row++) {
+            assertEquals(ids[row], rows.idAt(row));
+            assertEquals(row, rows.rowOf(ids[row]));
+        }
+        assertEquals(100_000, rows.maxId());
+        assertEquals(-1, rows.rowOf(1022));
+        assertEquals(-1, rows.rowOf(200_000), "ids past the capacity are simply absent");
+
+        assertEquals(0, rows.removeClient(0));
+        assertEquals(7, rows.removeClient(100_000));
+        assertEquals(4095, rows.maxId());
+        assertEquals(1, rows.idAt(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.idAt(7));
+        assertThrows(IllegalArgumentException.class, () -> rows.put(-1, "s"));
+
+        rows.removeClient(1);
+        rows.removeClient(1023);
+        rows.removeClient(1024);
+        rows.removeClient(1025);
+        rows.removeClient(2047);
+        rows.removeClient(2048);
+        rows.removeClient(4095);
+        assertTrue(rows.isEmpty());
+        assertEquals(-1, rows.maxId());
+    }
+}
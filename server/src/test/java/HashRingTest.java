@@ -0,0 +1,91 @@
+import lobby.HashRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HashRing spread and key movement. The lobby swaps whole rings on every membership change and
+ * may rebuild one from a nodes file in any order, so the tests also pin that a ring depends only
+ * on its members and that building a new one leaves the old one untouched.
+ */
+public class HashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    private static HashRing ring(String... nodes) {
+        HashRing ring = new HashRing(160);
+        for (String n : nodes) ring = ring.withNode(n);
+        return ring;
+    }
+
+    @Test
+    void testKeysSpreadEvenly() {
+        HashRing ring = ring("n1", "n2", "n3", "n4");
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("key-" + i), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (int c : counts.values()) {
+            // 160 points per node keeps every share well within +/-25% of a quarter
+            assertTrue(c > KEYS / 4 * 0.75 && c < KEYS / 4 * 1.25, "uneven share: " + counts);
+        }
+        assertNull(new HashRing(160).nodeFor("key"), "empty ring owns nothing");
+    }
+
+    @Test
+    void testAddingNodeOnlyMovesKeysToIt() {
+        HashRing before = ring("n1", "n2", "n3");
+        HashRing after = before.withNode("n4");
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String a = before.nodeFor("key-" + i);
+            String b = after.nodeFor("key-" + i);
+            if (!a.equals(b)) {
+                assertEquals("n4", b, "a key moved between old nodes");
+                moved++;
+            }
+        }
+        // about a quarter of the keys should move
+        assertTrue(moved > KEYS / 4 * 0.75 && moved < KEYS / 4 * 1.25, "moved " + moved);
+        assertSame(after, after.withNode("n4"));
+    }
+
+    @Test
+    void testRemovingNodeOnlyMovesItsKeys() {
+        HashRing before = ring("n1", "n2", "n3");
+        HashRing after = before.withoutNode("n2");
+        for (int i = 0; i < KEYS; i++) {
+            String a = before.nodeFor("key-" + i);
+            String b = after.nodeFor("key-" + i);
+            if (!a.equals("n2")) {
+                assertEquals(a, b, "a key not on the removed node moved");
+            } else {
+                assertNotEquals("n2", b);
+            }
+        }
+        assertFalse(after.nodes().contains("n2"));
+        assertEquals(before.nodes(), after.withNode("n2").nodes());
+    }
+
+    @Test
+    void testRingDependsOnlyOnMembership() {
+        HashRing a = ring("n1", "n2", "n3");
+        HashRing b = ring("n3", "n1", "n2");
+        HashRing c = ring("n1", "n2", "n3", "n4").withoutNode("n4");
+        HashRing grown = a.withNode("n4");
+        for (int i = 0; i < KEYS; i++) {
+            String key = "key-" + i;
+            assertEquals(a.nodeFor(key), b.nodeFor(key), "insertion order changed " + key);
+            assertEquals(a.nodeFor(key), c.nodeFor(key), "a removed node left traces for " + key);
+        }
+        // readers holding the old ring keep seeing it
+        assertEquals(3, a.nodes().size());
+        assertEquals(4, grown.nodes().size());
+        assertThrows(UnsupportedOperationException.class, () -> grown.nodes().add("n5"));
+        assertSame(a, a.withoutNode("n9"));
+    }
+}
@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.HashedTimerWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every idle, heartbeat and table deadline on the server rides this wheel, so a timer that fires
+ * early, fires twice, or a task that kills the wheel thread breaks them all. Covered here: firing,
+ * cancellation (including cancel racing expiry), timers spanning several wheel turns, a failing
+ * task, and scheduling from a task and after close.
+ */
+public class HashedTimerWheelTest {
+
+    @Test
+    void testTimerFiresAfterDelay() throws InterruptedException {
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 10, 8)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            long start = System.nanoTime();
+            HashedTimerWheel.Timeout t = wheel.schedule(fired::countDown, 50, TimeUnit.MILLISECONDS);
+            assertTrue(fired.await(2, TimeUnit.SECONDS), "timer should fire");
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50), "timer fired early");
+            assertTrue(t.isExpired());
+            assertEquals(0, wheel.pendingTimeouts());
+        }
+    }
+
+    @Test
+    void testCancelledTimerNeverFires() throws InterruptedException {
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 10, 8)) {
+            AtomicInteger runs = new AtomicInteger();
+            HashedTimerWheel.Timeout t = wheel.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+            assertTrue(t.cancel());
+            assertFalse(t.cancel(), "second cancel should report nothing to cancel");
+            Thread.sleep(120);
+            assertEquals(0, runs.get());
+            assertTrue(t.isCancelled());
+            assertEquals(0, wheel.pendingTimeouts());
+        }
+    }
+
+    @Test
+    void testManyTimersAcrossWheelTurns() throws InterruptedException {
+        // 8 buckets of 5 ms = one 40 ms turn; delays up to 200 ms need several rounds
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 5, 8)) {
+            int count = 10_000;
+            CountDownLatch fired = new CountDownLatch(count);
+            for (int i = 0; i < count; i++) {
+                wheel.schedule(fired::countDown, i % 200, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(fired.await(5, TimeUnit.SECONDS), "all timers should fire");
+        }
+    }
+
+    @Test
+    void testMultiTurnTimersNeverFireEarly() throws InterruptedException {
+        // 4 buckets of 10 ms: every delay here wraps the wheel at least once
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 10, 4)) {
+            long[] delays = {45, 80, 95, 130, 170};
+            CountDownLatch fired = new CountDownLatch(delays.length);
+            List<String> early = new ArrayList<>();
+            for (long delay : delays) {
+                long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+                wheel.schedule(() -> {
+                    long lateNanos = System.nanoTime() - due;
+                    if (lateNanos < 0) {
+                        synchronized (early) {
+                            early.add(delay + " ms timer fired " + TimeUnit.NANOSECONDS.toMillis(-lateNanos) + " ms early");
+                        }
+                    }
+                    fired.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(fired.await(2, TimeUnit.SECONDS));
+            assertEquals(List.of(), early);
+        }
+    }
+
+    @Test
+    void testCancelRacingExpiryHasOneWinner() throws InterruptedException {
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 1, 64)) {
+            int count = 20_000;
+            AtomicInteger runs = new AtomicInteger();
+            List<HashedTimerWheel.Timeout> timeouts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                timeouts.add(wheel.schedule(runs::incrementAndGet, i % 3, TimeUnit.MILLISECONDS));
+            }
+            int cancelled = 0;
+            for (HashedTimerWheel.Timeout t : timeouts) {
+                if (t.cancel()) cancelled++;
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (wheel.pendingTimeouts() > 0 && System.nanoTime() < deadline) Thread.sleep(5);
+            Thread.sleep(20);
+
+            assertEquals(0, wheel.pendingTimeouts());
+            assertEquals(count, runs.get() + cancelled, "each timer either ran once or was cancelled");
+            for (HashedTimerWheel.Timeout t : timeouts) {
+                assertNotEquals(t.isCancelled(), t.isExpired());
+            }
+        }
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopTheWheel() throws InterruptedException {
+        try (HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 5, 8)) {
+            CountDownLatch after = new CountDownLatch(1);
+            HashedTimerWheel.Timeout failing = wheel.schedule(() -> {
+                throw new IllegalStateException("boom");
+            }, 0, TimeUnit.MILLISECONDS);
+            wheel.schedule(after::countDown, 20, TimeUnit.MILLISECONDS);
+            assertTrue(after.await(2, TimeUnit.SECONDS), "the wheel thread died with the failing task");
+            assertTrue(failing.isExpired());
+        }
+    }
+
+    @Test
+    void testScheduleFromATaskAndAfterClose() throws InterruptedException {
+        HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 5, 8);
+        CountDownLatch second = new CountDownLatch(1);
+        AtomicLong gapNanos = new AtomicLong();
+        long start = System.nanoTime();
+        // the table re-arms its own deadline from a timer task
+        wheel.schedule(() -> wheel.schedule(() -> {
+            gapNanos.set(System.nanoTime() - start);
+            second.countDown();
+        }, 30, TimeUnit.MILLISECONDS), 10, TimeUnit.MILLISECONDS);
+        assertTrue(second.await(2, TimeUnit.SECONDS));
+        assertTrue(gapNanos.get() >= TimeUnit.MILLISECONDS.toNanos(40));
+
+        HashedTimerWheel.Timeout dropped = wheel.schedule(() -> fail("ran after close"), 50, TimeUnit.MILLISECONDS);
+        wheel.close();
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> {}, 1, TimeUnit.MILLISECONDS));
+        Thread.sleep(100);
+        assertFalse(dropped.isExpired(), "timers pending at close are dropped");
+    }
+}
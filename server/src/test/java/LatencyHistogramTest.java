@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.LatencyHistogram;
+import rrosa10Server.ServerMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram percentiles, checked at every bucket edge and under concurrent recording
+ * (it takes no locks), plus the Prometheus rendering of ServerMetrics that reads it.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            h.record(v * 1000); // 1 us .. 100 ms
+        }
+        assertEquals(100_000, h.count());
+        assertWithin(50_000_000L, h.percentile(50));
+        assertWithin(99_000_000L, h.percentile(99));
+        assertWithin(99_900_000L, h.percentile(99.9));
+        assertWithin(100_000_000L, h.percentile(100));
+    }
+
+    @Test
+    void testEmptyAndOutOfRangeValues() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(99));
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+        assertEquals(2, h.count());
+        assertEquals(0, h.percentile(50));
+        assertTrue(h.percentile(100) > 0, "huge values are clamped into the top bucket");
+    }
+
+    @Test
+    void testEveryValueLandsInABucketThatCoversIt() {
+        // both sides of every power of two, where the sub-bucket width doubles
+        for (int bit = 0; bit < 42; bit++) {
+            long p = 1L << bit;
+            for (long v : new long[] {p - 1, p, p + 1, p + p / 3}) {
+                LatencyHistogram h = new LatencyHistogram();
+                h.record(v);
+                long reported = h.percentile(100);
+                assertTrue(reported >= v, v + " reported as " + reported);
+                assertTrue(reported - v <= Math.max(1, v / 32), v + " reported as " + reported);
+                assertEquals(1, h.countAtOrBelow(reported));
+                assertEquals(0, h.countAtOrBelow(v - v / 32 - 2), "counted below its own bucket");
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram h = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 50_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread w = new Thread(() -> {
+                for (int i = 1; i <= perThread; i++) h.record(i % 2 == 0 ? 1_000 : 1_000_000);
+            });
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) w.join();
+        assertEquals((long) threads * perThread, h.count());
+        assertEquals((long) threads * perThread / 2 * 1_001_000, h.sumNanos());
+        assertEquals((long) threads * perThread / 2, h.countAtOrBelow(2_000));
+        assertWithin(1_000L, h.percentile(50));
+        assertWithin(1_000_000L, h.percentile(50.1));
+    }
+
+    @Test
+    void testPrometheusOutputContainsSeries() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.record(ServerMetrics.Op.START, System.nanoTime() - 2_000_000);
+        metrics.gauge("poker_connections", "Open client connections", () -> 3);
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("poker_latency_seconds_count{op=\"start\"} 1"));
+        assertTrue(text.contains("poker_latency_seconds{op=\"start\",quantile=\"0.99\"}"));
+        assertTrue(text.contains("# TYPE poker_connections gauge\npoker_connections 3\n"));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error < 0.035, "expected ~" + expected + " but was " + actual);
+    }
+}
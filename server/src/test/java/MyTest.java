@@ -1,17 +1,21 @@
 import model.Card;
+import model.Player;
+import model.PokerEngine;
+import model.Spot;
 import model.ThreeCardLogic;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Tests for ThreeCardLogic.
+ * Tests for ThreeCardLogic, and for PokerEngine's multi-spot rounds.
  * - Deterministic shuffle to exercise order-independence while remaining reproducible.
  * - No checks for input mutation (per request).
  */
@@ -22,7 +26,7 @@ public class MyTest {
 
     // helper to make tests less noisy
     private Card card(Card.Suit s, Card.Rank r) {
-        return new Card(s, r);
+        return Card.of(s, r);
     }
 
     // build a hand from provided cards and shuffle deterministically to check order independence
@@ -186,6 +190,75 @@ public class MyTest {
         assertTrue(result > 0, "player's straight (5-6-7) should beat dealer's straight (4-5-6)");
     }
 
+    @Test
+    void testPlaysQ64() {
+        assertTrue(ThreeCardLogic.playsQ64(hand(
+                card(Card.Suit.HEART, Card.Rank.QUEEN),
+                card(Card.Suit.SPADE, Card.Rank.SIX),
+                card(Card.Suit.CLUB, Card.Rank.FOUR))), "Q-6-4 is the lowest hand to play");
+        assertFalse(ThreeCardLogic.playsQ64(hand(
+                card(Card.Suit.HEART, Card.Rank.QUEEN),
+                card(Card.Suit.SPADE, Card.Rank.SIX),
+                card(Card.Suit.CLUB, Card.Rank.THREE))), "Q-6-3 should fold");
+        assertTrue(ThreeCardLogic.playsQ64(hand(
+                card(Card.Suit.HEART, Card.Rank.ACE),
+                card(Card.Suit.SPADE, Card.Rank.THREE),
+                card(Card.Suit.CLUB, Card.Rank.TWO))), "ace high beats Q-6-4");
+        assertTrue(ThreeCardLogic.playsQ64(hand(
+                card(Card.Suit.HEART, Card.Rank.TWO),
+                card(Card.Suit.SPADE, Card.Rank.TWO),
+                card(Card.Suit.CLUB, Card.Rank.FOUR))), "any pair plays");
+    }
+
+    @Test
+    void testMultiSpotRoundSharesOneDeckAndDealer() {
+        PokerEngine engine = new PokerEngine(new Player(1, "p"), 500);
+        Spot[] bets = new Spot[Spot.MAX_SPOTS];
+        Arrays.fill(bets, new Spot(BET, BET));
+        Spot[] dealt = engine.dealSpots(bets);
+
+        // every card dealt this round, spots and dealer, comes from one deck
+        HashSet<String> seen = new HashSet<>();
+        for (Spot s : dealt) {
+            assertEquals(3, s.getHand().size());
+            for (Card c : s.getHand()) assertTrue(seen.add(c.toString()), "card dealt twice: " + c);
+        }
+        assertTrue(engine.getDealer().getHand().isEmpty(), "the dealer hand waits for the decisions");
+
+        boolean[] plays = new boolean[dealt.length];
+        for (int i = 0; i < plays.length; i += 2) plays[i] = true;
+        Spot[] settled = engine.settleSpots(plays);
+        assertEquals(3, engine.getDealer().getHand().size());
+        for (Card c : engine.getDealer().getHand()) assertTrue(seen.add(c.toString()), "card dealt twice: " + c);
+        assertEquals(Spot.MAX_SPOTS * 3 + 3, seen.size());
+        for (int i = 0; i < settled.length; i++) {
+            Spot s = settled[i];
+            assertEquals(plays[i], s.isPlayed());
+            if (!s.isPlayed()) {
+                assertEquals(-2 * BET, s.getNet(), "a folded spot loses both bets");
+                continue;
+            }
+            int result = ThreeCardLogic.compareHands(engine.getDealer().getHand(), new ArrayList<>(s.getHand()));
+            assertEquals(result, s.getResult());
+            assertEquals(ThreeCardLogic.antePayout(result, BET), s.getAntePayout());
+        }
+        assertNull(engine.getSpots(), "settling ends the round");
+    }
+
+    @Test
+    void testDealerIsDealtOnlyWhenTheHandIsDecided() {
+        PokerEngine engine = new PokerEngine(new Player(1, "p"), 500);
+        engine.startSewHand();
+        assertEquals(3, engine.getClient().getHand().size());
+        assertTrue(engine.getDealer().getHand().isEmpty(), "no dealer hand exists before PLAY or FOLD");
+
+        engine.evaluateHands(BET, BET);
+        assertEquals(3, engine.getDealer().getHand().size());
+        HashSet<String> seen = new HashSet<>();
+        for (Card c : engine.getClient().getHand()) seen.add(c.toString());
+        for (Card c : engine.getDealer().getHand()) assertTrue(seen.add(c.toString()), "card dealt twice: " + c);
+    }
+
     @Test
     void testInvalidHandSizeThrows() {
         List<Card> tooFew = hand(
@@ -0,0 +1,71 @@
+import model.Message;
+import org.junit.jupiter.api.Test;
+import rrosa10Server.RateLimit;
+import rrosa10Server.RateLimiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RateLimiter and the "perSecond/burst" limits it is configured with: each message type
+ * has its own bucket and throttle count, and unlisted types are never throttled.
+ */
+public class RateLimiterTest {
+
+    @Test
+    void testEachTypeHasItsOwnBucket() {
+        AtomicLong now = new AtomicLong();
+        Map<Message.Type, RateLimit> limits = new EnumMap<>(Message.Type.class);
+        limits.put(Message.Type.START, new RateLimit(1, 2));
+        limits.put(Message.Type.CHAT, new RateLimit(10, 1));
+        RateLimiter limiter = new RateLimiter(limits, now::get);
+
+        assertTrue(limiter.tryAcquire(Message.Type.START));
+        assertTrue(limiter.tryAcquire(Message.Type.START));
+        assertFalse(limiter.tryAcquire(Message.Type.START));
+        assertTrue(limiter.tryAcquire(Message.Type.CHAT), "START running dry does not touch CHAT");
+        assertFalse(limiter.tryAcquire(Message.Type.CHAT));
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(limiter.tryAcquire(Message.Type.PING), "types without a limit are never throttled");
+        }
+
+        assertEquals(1, limiter.throttledCount(Message.Type.START));
+        assertEquals(1, limiter.throttledCount(Message.Type.CHAT));
+        assertEquals(0, limiter.throttledCount(Message.Type.PING));
+        assertEquals(2, limiter.totalThrottled());
+
+        // CHAT refills ten times faster than START
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.tryAcquire(Message.Type.CHAT));
+        assertFalse(limiter.tryAcquire(Message.Type.START));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+        assertTrue(limiter.tryAcquire(Message.Type.START));
+        assertEquals(2, limiter.throttledCount(Message.Type.START));
+    }
+
+    @Test
+    void testNoLimitsMeansNoThrottling() {
+        RateLimiter limiter = new RateLimiter(Map.of());
+        for (Message.Type type : Message.Type.values()) {
+            for (int i = 0; i < 100; i++) assertTrue(limiter.tryAcquire(type));
+        }
+        assertEquals(0, limiter.totalThrottled());
+    }
+
+    @Test
+    void testParseLimits() {
+        assertEquals(new RateLimit(5, 10), RateLimit.parse("5/10"));
+        assertEquals(new RateLimit(5, 10), RateLimit.parse(" 5 / 10 "));
+        assertEquals(new RateLimit(20, 20), RateLimit.parse("20"), "a bare rate is its own burst");
+        assertEquals(new RateLimit(0.5, 1), RateLimit.parse("0.5"), "the burst is at least one");
+        assertEquals(RateLimit.parse("2.5/4"), RateLimit.parse(RateLimit.parse("2.5/4").toString()));
+
+        for (String bad : new String[] {"", "fast", "5/ten", "/3"}) {
+            assertThrows(IllegalArgumentException.class, () -> RateLimit.parse(bad), bad);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+import rrosa10Server.RingObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RingObservableList backs the server log view, so its change events matter as much as its
+ * contents: a batch is one event, and a listener that replays every event (as ListView does)
+ * stays in step with the list through thousands of random wrap-arounds.
+ */
+public class RingObservableListTest {
+
+    @Test
+    void testKeepsNewestElements() {
+        RingObservableList<Integer> ring = new RingObservableList<>(5);
+        for (int i = 0; i < 3; i++) ring.add(i);
+        assertEquals(List.of(0, 1, 2), ring);
+        ring.addAll(List.of(3, 4, 5, 6));
+        assertEquals(List.of(2, 3, 4, 5, 6), ring);
+
+        // a batch larger than the ring keeps only its own tail
+        List<Integer> big = new ArrayList<>();
+        for (int i = 100; i < 120; i++) big.add(i);
+        ring.addAll(big);
+        assertEquals(List.of(115, 116, 117, 118, 119), ring);
+        assertThrows(IndexOutOfBoundsException.class, () -> ring.get(5));
+    }
+
+    @Test
+    void testBatchIsOneChange() {
+        RingObservableList<String> ring = new RingObservableList<>(4);
+        ring.addAll(List.of("a", "b", "c"));
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        int[] changes = {0};
+        ring.addListener((ListChangeListener<String>) c -> {
+            changes[0]++;
+            while (c.next()) {
+                if (c.wasRemoved() && !c.wasReplaced()) removed.addAll(c.getRemoved());
+                if (c.wasAdded() && !c.wasReplaced()) added.addAll(c.getAddedSubList());
+            }
+        });
+
+        ring.addAll(List.of("d", "e", "f"));
+        assertEquals(1, changes[0], "one listener call per batch");
+        assertEquals(List.of("a", "b"), removed);
+        assertEquals(List.of("d", "e", "f"), added);
+        assertEquals(List.of("c", "d", "e", "f"), ring);
+    }
+
+    @Test
+    void testSetAndClear() {
+        RingObservableList<String> ring = new RingObservableList<>(3);
+        ring.addAll(List.of("a", "b", "c", "d"));
+        assertEquals("c", ring.set(1, "C"));
+        assertEquals(List.of("b", "C", "d"), ring);
+        ring.clear();
+        assertTrue(ring.isEmpty());
+        ring.add("x");
+        assertEquals(List.of("x"), ring);
+    }
+
+    @Test
+    void testReplayedChangesTrackTheList() {
+        RingObservableList<Integer> ring = new RingObservableList<>(7);
+        List<Integer> mirror = new ArrayList<>();
+        ring.addListener((ListChangeListener<Integer>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) fail("the ring never permutes");
+                for (int i = 0; i < c.getRemovedSize(); i++) mirror.remove(c.getFrom());
+                mirror.addAll(c.getFrom(), c.getAddedSubList());
+            }
+        });
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(7);
+        int next = 0;
+        for (int op = 0; op < 10_000; op++) {
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                ring.clear();
+                expected.clear();
+            } else if (kind < 4 && !expected.isEmpty()) {
+                int at = random.nextInt(expected.size());
+                ring.set(at, -next);
+                expected.set(at, -next++);
+            } else {
+                List<Integer> batch = new ArrayList<>();
+                for (int n = random.nextInt(12); n >= 0; n--) batch.add(next++);
+                ring.addAll(batch);
+                expected.addAll(batch);
+                while (expected.size() > ring.capacity()) expected.remove(0);
+            }
+            assertEquals(expected, ring, "after op " + op);
+            assertEquals(expected, mirror, "listener fell out of step after op " + op);
+        }
+        assertThrows(UnsupportedOperationException.class, () -> ring.remove(0));
+    }
+}
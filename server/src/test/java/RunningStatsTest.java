@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.RunningStats;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RunningStats against the two-pass formulas, merging partial results, and the reason it uses
+ * Welford's update at all: a small spread around a huge mean over millions of values.
+ */
+public class RunningStatsTest {
+
+    @Test
+    void testMatchesTwoPassFormulas() {
+        double[] xs = {-20, -20, 10, 40, -10, -20, 30, 70, -20, 10};
+        RunningStats stats = new RunningStats();
+        for (double x : xs) stats.add(x);
+
+        double sum = 0;
+        for (double x : xs) sum += x;
+        double mean = sum / xs.length;
+        double ss = 0;
+        for (double x : xs) ss += (x - mean) * (x - mean);
+        double variance = ss / (xs.length - 1);
+
+        assertEquals(xs.length, stats.count());
+        assertEquals(mean, stats.mean(), 1e-12);
+        assertEquals(variance, stats.variance(), 1e-9);
+        assertEquals(1.96 * Math.sqrt(variance / xs.length), stats.ci95(), 1e-9);
+    }
+
+    @Test
+    void testMergeEqualsSingleStream() {
+        Random random = new Random(42);
+        RunningStats all = new RunningStats();
+        RunningStats[] parts = {new RunningStats(), new RunningStats(), new RunningStats(), new RunningStats()};
+        for (int i = 0; i < 100_000; i++) {
+            double x = random.nextInt(200) - 100;
+            all.add(x);
+            // uneven split, including one part that stays empty
+            parts[i % 7 == 0 ? 0 : i % 3 == 0 ? 1 : 2].add(x);
+        }
+        RunningStats merged = new RunningStats();
+        for (RunningStats p : parts) merged.merge(p);
+
+        assertEquals(all.count(), merged.count());
+        assertEquals(all.mean(), merged.mean(), 1e-9);
+        assertEquals(all.variance(), merged.variance(), 1e-6);
+    }
+
+    @Test
+    void testStaysAccurateFarFromZero() {
+        // sum-of-squares would cancel catastrophically here: x^2 is ~1e18, the spread is ~5
+        double offset = 1e9;
+        double[] pattern = {4, 7, 13, 16};
+        int rounds = 1_000_000;
+        RunningStats stats = new RunningStats();
+        RunningStats half = new RunningStats();
+        for (int r = 0; r < rounds; r++) {
+            for (double p : pattern) {
+                stats.add(offset + p);
+                if (r % 2 == 0) half.add(offset + p);
+            }
+        }
+        long n = (long) rounds * pattern.length;
+        assertEquals(n, stats.count());
+        assertEquals(offset + 10, stats.mean(), 1e-6);
+        assertEquals(22.5 * n / (n - 1), stats.variance(), 1e-6);
+
+        RunningStats other = new RunningStats();
+        for (int r = 0; r < rounds / 2; r++) {
+            for (double p : pattern) other.add(offset + p);
+        }
+        half.merge(other);
+        assertEquals(stats.mean(), half.mean(), 1e-6);
+        assertEquals(stats.variance(), half.variance(), 1e-6);
+    }
+
+    @Test
+    void testFewValues() {
+        RunningStats stats = new RunningStats();
+        assertEquals(0, stats.variance());
+        assertEquals(0, stats.ci95());
+        stats.add(5);
+        assertEquals(5, stats.mean());
+        assertEquals(0, stats.variance(), "one value has no spread");
+        RunningStats copy = stats.copy();
+        stats.add(7);
+        assertEquals(1, copy.count(), "copy is independent of the original");
+        assertEquals(2, stats.variance(), 1e-12);
+    }
+}
@@ -0,0 +1,137 @@
+import model.AutoPlay;
+import model.Message;
+import model.Spot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rrosa10Server.Server;
+import rrosa10Server.ServerConfig;
+import rrosa10Server.ServerEventBus;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bets arrive as client-chosen ints, so a pair of huge bets can wrap their sum negative and
+ * slip past a chip check, turning a stake into a credit. Each case sends such bets to a live
+ * server over a real connection and then probes the balance with START bets just above and
+ * at the starting chips: the first must be refused and the second dealt.
+ */
+public class ServerBetsTest {
+
+    private static final int CHIPS = 500;
+
+    /** One player's connection: writes requests and reads replies. */
+    private static final class Player implements AutoCloseable {
+        private final Socket socket;
+        private final ObjectOutputStream out;
+        private final ObjectInputStream in;
+
+        Player(int port) throws IOException, InterruptedException {
+            socket = connect(port);
+            socket.setSoTimeout(5000);
+            out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+            in = new ObjectInputStream(socket.getInputStream());
+        }
+
+        void send(Message message) throws IOException {
+            out.writeUnshared(message);
+            out.flush();
+        }
+
+        /** Read until a message of the given type arrives. */
+        <T> T next(Class<T> type) throws IOException, ClassNotFoundException {
+            while (true) {
+                Object o = in.readObject();
+                if (type.isInstance(o)) return type.cast(o);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private ServerEventBus bus;
+    private Server server;
+    private int port;
+
+    @BeforeEach
+    void start() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Properties props = new Properties();
+        props.setProperty("poker.metrics.port", "-1");
+        bus = new ServerEventBus(1024);
+        server = new Server(port, bus, ServerConfig.fromProperties(props));
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        server.shutdown();
+        // the acceptor only sees the stop flag once accept() returns
+        connect(port).close();
+        bus.close();
+    }
+
+    /** The player still holds exactly CHIPS: one chip more is refused, CHIPS is dealt. */
+    private static void assertBalanceUnchanged(Player player) throws Exception {
+        player.send(new Message.Start(CHIPS + 1, 0));
+        assertEquals("Not enough chips for that bet.", player.next(Message.Chat.class).text(), "chips were minted");
+        player.send(new Message.Start(CHIPS, 0));
+        assertEquals(CHIPS, player.next(Message.Deal.class).ante(), "chips were taken");
+    }
+
+    @Test
+    void testAutoPlayRefusesBetsThatWrap() throws Exception {
+        try (Player player = new Player(port)) {
+            player.next(Message.Welcome.class);
+            player.send(new AutoPlay(AutoPlay.Rule.PLAY, Integer.MAX_VALUE, Integer.MAX_VALUE, 1000, false));
+            assertEquals("Not enough chips for that bet.", player.next(Message.Chat.class).text());
+            assertBalanceUnchanged(player);
+        }
+    }
+
+    @Test
+    void testMultiSpotRefusesBetsThatWrap() throws Exception {
+        try (Player player = new Player(port)) {
+            player.next(Message.Welcome.class);
+            int half = Integer.MAX_VALUE / 2 + 1;
+            player.send(new Message.MultiStart(new Spot[] {new Spot(half, 0), new Spot(half, 0)}));
+            assertTrue(player.next(Message.Chat.class).text().startsWith("A multi-spot hand needs"));
+            player.send(new Message.MultiStart(new Spot[] {new Spot(0, half), new Spot(0, half)}));
+            assertTrue(player.next(Message.Chat.class).text().startsWith("A multi-spot hand needs"));
+
+            // every bet within the bound, but the round is still more than the player holds
+            Spot[] spots = new Spot[Spot.MAX_SPOTS];
+            for (int i = 0; i < spots.length; i++) spots[i] = new Spot(Spot.MAX_BET, Spot.MAX_BET);
+            player.send(new Message.MultiStart(spots));
+            assertEquals("Not enough chips for " + Spot.MAX_SPOTS + " spots.", player.next(Message.Chat.class).text());
+            assertBalanceUnchanged(player);
+        }
+    }
+
+    /** Connect, retrying while the server's acceptor thread is still binding. */
+    private static Socket connect(int port) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                return new Socket("localhost", port);
+            } catch (ConnectException e) {
+                if (System.nanoTime() > deadline) throw e;
+                Thread.sleep(20);
+            }
+        }
+    }
+}
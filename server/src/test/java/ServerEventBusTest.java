@@ -0,0 +1,154 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.ServerEvent;
+import rrosa10Server.ServerEventBus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ServerEventBus is lock-free on the publishing side and parks idle subscribers, so the tests
+ * go after ordering under contention, a stalled subscriber (drops, never blocks), a publish
+ * landing just as a subscriber parks, handlers that throw or close their own subscription, and
+ * close delivering what was queued.
+ */
+public class ServerEventBusTest {
+
+    @Test
+    void testEveryPublisherIsDeliveredInOrder() throws Exception {
+        int publishers = 4;
+        int perPublisher = 20_000;
+        try (ServerEventBus bus = new ServerEventBus(1024)) {
+            int[][] next = new int[2][publishers];
+            CountDownLatch done = new CountDownLatch(2);
+            List<String> errors = new ArrayList<>();
+            for (int sub = 0; sub < 2; sub++) {
+                int s = sub;
+                int[] seen = {0};
+                bus.subscribe("test-" + s, event -> {
+                    ServerEvent.ClientNote note = (ServerEvent.ClientNote) event;
+                    int expected = next[s][note.clientId()]++;
+                    if (Integer.parseInt(note.status()) != expected && errors.isEmpty()) {
+                        errors.add("publisher " + note.clientId() + " expected " + expected + " got " + note.status());
+                    }
+                    if (++seen[0] == publishers * perPublisher) done.countDown();
+                });
+            }
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < publishers; p++) {
+                int id = p;
+                Thread t = new Thread(() -> {
+                    for (int i = 0; i < perPublisher; i++) {
+                        bus.publish(new ServerEvent.ClientNote(id, Integer.toString(i)));
+                        // the rings are smaller than the burst; leave room so nothing is dropped
+                        while (bus.pending() > 512) Thread.onSpinWait();
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) t.join();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(List.of(), errors);
+            assertEquals(0, bus.dropped());
+        }
+    }
+
+    @Test
+    void testStalledSubscriberDropsWithoutBlocking() throws Exception {
+        try (ServerEventBus bus = new ServerEventBus(8)) {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fastDone = new CountDownLatch(100);
+            ServerEventBus.Subscription stalled = bus.subscribe("stalled", event -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            bus.subscribe("fast", event -> fastDone.countDown());
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                bus.publish(new ServerEvent.Notice("line " + i));
+                if (i == 0) assertTrue(entered.await(5, TimeUnit.SECONDS));
+                // pace the publisher so the fast subscriber's own ring never fills
+                while (bus.pending() - stalled.pending() > 4) Thread.onSpinWait();
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertTrue(fastDone.await(5, TimeUnit.SECONDS), "the fast subscriber saw every event");
+            // the stalled one holds one event in its handler and eight in its ring
+            assertEquals(91, stalled.dropped());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testParkedSubscriberWakesOnPublish() throws InterruptedException {
+        // one event at a time, each published as the subscriber goes idle; a missed wakeup
+        // would cost the full 100 ms park every time
+        try (ServerEventBus bus = new ServerEventBus(16)) {
+            Semaphore handled = new Semaphore(0);
+            bus.subscribe("ping", event -> handled.release());
+            int rounds = 200;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                bus.publish(new ServerEvent.Notice("ping " + i));
+                assertTrue(handled.tryAcquire(5, TimeUnit.SECONDS));
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(millis < rounds * 100 / 4, rounds + " round trips took " + millis + " ms");
+        }
+    }
+
+    @Test
+    void testHandlerThatThrowsOrClosesItself() throws InterruptedException {
+        try (ServerEventBus bus = new ServerEventBus(16)) {
+            AtomicInteger delivered = new AtomicInteger();
+            CountDownLatch all = new CountDownLatch(5);
+            bus.subscribe("flaky", event -> {
+                delivered.incrementAndGet();
+                all.countDown();
+                if (event.text().endsWith("2")) throw new IllegalStateException("boom");
+            });
+            ServerEventBus.Subscription[] self = new ServerEventBus.Subscription[1];
+            CountDownLatch closed = new CountDownLatch(1);
+            self[0] = bus.subscribe("once", event -> {
+                self[0].close();
+                closed.countDown();
+            });
+
+            for (int i = 0; i < 5; i++) bus.publish(new ServerEvent.Notice("n" + i));
+            assertTrue(all.await(5, TimeUnit.SECONDS), "a throwing handler still gets the rest");
+            assertEquals(5, delivered.get());
+            assertTrue(closed.await(5, TimeUnit.SECONDS), "closing from its own handler must not deadlock");
+
+            bus.publish(new ServerEvent.Notice("after"));
+            assertEquals(0, self[0].pending(), "a closed subscription is off the bus");
+        }
+    }
+
+    @Test
+    void testCloseDeliversQueuedEvents() {
+        List<String> seen = new ArrayList<>();
+        ServerEventBus bus = new ServerEventBus(ServerEventBus.DEFAULT_CAPACITY);
+        bus.subscribe("log", event -> seen.add(event.text()));
+        bus.publish(new ServerEvent.ClientConnected(1, 1));
+        bus.publish(new ServerEvent.HandSettled(1, 1, -15, true));
+        bus.publish(new ServerEvent.ClientGone(1));
+        bus.close();
+
+        assertEquals(List.of("Client connected: #1 (total: 1)", "Client #1: folded and lost 15 total.",
+                "Client #1 session ended"), seen);
+        bus.publish(new ServerEvent.Notice("after close"));
+        assertEquals(3, seen.size());
+        assertEquals(0, bus.dropped());
+    }
+}
@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.TextRevealer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TextRevealer on a plain list, driven by hand-fed frame times: reveal timing, many rows advanced
+ * by one tick, finishing or cancelling single rows, and the point of the class, that a frame
+ * writes only the rows whose text changed.
+ */
+public class TextRevealerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private static List<String> rows(int n) {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < n; i++) rows.add("old" + i);
+        return rows;
+    }
+
+    @Test
+    void testRevealFollowsFrameClock() {
+        List<String> rows = rows(1);
+        TextRevealer revealer = new TextRevealer(rows, 10);
+        revealer.reveal(0, "hello");
+        assertEquals("", rows.get(0), "row is blanked when the reveal starts");
+
+        revealer.tick(1_000 * MS);          // first frame starts the clock
+        assertEquals("", rows.get(0));
+        revealer.tick(1_025 * MS);
+        assertEquals("he", rows.get(0));
+        revealer.tick(1_049 * MS);
+        assertEquals("hell", rows.get(0));
+        revealer.tick(1_050 * MS);
+        assertEquals("hello", rows.get(0));
+        assertEquals(0, revealer.activeCount(), "a finished reveal leaves the table");
+    }
+
+    @Test
+    void testOneTickAdvancesEveryRow() {
+        List<String> rows = rows(100);
+        TextRevealer revealer = new TextRevealer(rows, 10);
+        for (int i = 0; i < 100; i++) revealer.reveal(i, i % 2 == 0 ? "abcde" : "abcdefghij");
+        assertEquals(100, revealer.activeCount());
+
+        revealer.tick(0);
+        revealer.tick(50 * MS);
+        // short rows are done after 5 characters, long ones are half way
+        for (int i = 0; i < 100; i++) assertEquals("abcde", rows.get(i));
+        assertEquals(50, revealer.activeCount());
+        revealer.tick(100 * MS);
+        for (int i = 0; i < 100; i++) assertEquals(i % 2 == 0 ? "abcde" : "abcdefghij", rows.get(i));
+        assertEquals(0, revealer.activeCount());
+    }
+
+    @Test
+    void testReplaceFinishAndCancel() {
+        List<String> rows = rows(3);
+        TextRevealer revealer = new TextRevealer(rows, 10);
+        revealer.reveal(0, "first");
+        revealer.reveal(0, "second");
+        assertEquals(1, revealer.activeCount(), "a new reveal on a row replaces the old one");
+        revealer.reveal(1, "finish me");
+        revealer.reveal(2, "cancel me");
+
+        revealer.tick(0);
+        revealer.tick(20 * MS);
+        revealer.finish(1);
+        assertEquals("finish me", rows.get(1));
+        revealer.cancel(2);
+        assertEquals("ca", rows.get(2), "a cancelled row keeps what it showed");
+        assertTrue(revealer.isRevealing(0));
+        assertFalse(revealer.isRevealing(2));
+
+        revealer.finishAll();
+        assertEquals("second", rows.get(0));
+        assertEquals(0, revealer.activeCount());
+    }
+
+    @Test
+    void testFrameWritesOnlyChangedRows() {
+        AtomicInteger writes = new AtomicInteger();
+        List<String> rows = new ArrayList<>(rows(20)) {
+            @Override
+            public String set(int index, String element) {
+                writes.incrementAndGet();
+                return super.set(index, element);
+            }
+        };
+        TextRevealer revealer = new TextRevealer(rows, 10);
+        for (int i = 0; i < 20; i++) revealer.reveal(i, "0123456789");
+        writes.set(0);
+
+        revealer.tick(0);
+        revealer.tick(5 * MS);
+        assertEquals(0, writes.get(), "no row is due a character yet");
+        revealer.tick(10 * MS);
+        assertEquals(20, writes.get());
+        revealer.tick(12 * MS);
+        assertEquals(20, writes.get(), "a frame between characters writes nothing");
+
+        // rows removed under a running reveal are skipped, not written past the end
+        rows.subList(10, 20).clear();
+        writes.set(0);
+        revealer.tick(100 * MS);
+        assertEquals(10, writes.get());
+        assertEquals(0, revealer.activeCount());
+    }
+}
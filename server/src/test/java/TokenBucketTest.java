@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+import rrosa10Server.TokenBucket;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TokenBucket, driven by a fake clock so refill is exact: the burst, refill at the
+ * configured rate, the cap on saved-up tokens, the wait hint, and racing acquirers.
+ */
+public class TokenBucketTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static int drain(TokenBucket bucket) {
+        int taken = 0;
+        while (bucket.tryAcquire()) taken++;
+        return taken;
+    }
+
+    @Test
+    void testFullBucketAllowsTheBurstThenRefuses() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(2, 3, now::get);
+        assertEquals(3, drain(bucket));
+        assertFalse(bucket.tryAcquire(), "an empty bucket must not hand out tokens without time passing");
+    }
+
+    @Test
+    void testRefillsAtTheConfiguredRate() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(2, 3, now::get);
+        drain(bucket);
+
+        // one token every 500 ms
+        now.addAndGet(499 * MS);
+        assertFalse(bucket.tryAcquire());
+        now.addAndGet(MS);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        // ten seconds of steady polling earn twenty tokens, no more
+        int taken = 0;
+        for (int step = 0; step < 1000; step++) {
+            now.addAndGet(10 * MS);
+            if (bucket.tryAcquire()) taken++;
+        }
+        assertEquals(20, taken);
+    }
+
+    @Test
+    void testIdleTimeSavesAtMostOneBurst() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(5, 4, now::get);
+        drain(bucket);
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertEquals(4, drain(bucket), "an hour idle refills the bucket, not the hour's worth of tokens");
+    }
+
+    @Test
+    void testWaitHintIsEnoughAndNotMuchMore() {
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(0.5, 2, now::get);
+        assertEquals(0, bucket.millisUntilAvailable(), "a full bucket needs no wait");
+        drain(bucket);
+
+        long wait = bucket.millisUntilAvailable();
+        assertTrue(wait >= 2000 && wait <= 2001, "wait " + wait);
+        now.addAndGet((wait - 2) * MS);
+        assertFalse(bucket.tryAcquire(), "the hint is not early");
+        now.addAndGet(2 * MS);
+        assertTrue(bucket.tryAcquire(), "waiting the hint is enough");
+        // we took the token 1 ms late, so the next one is a little under one interval away
+        wait = bucket.millisUntilAvailable();
+        assertTrue(wait >= 1999 && wait <= 2000, "wait " + wait);
+    }
+
+    @Test
+    void testRacingThreadsShareOneBurst() throws InterruptedException {
+        // the clock stands still, so exactly the burst may succeed however the CAS races go
+        TokenBucket bucket = new TokenBucket(1, 50, () -> 0L);
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire()) granted.incrementAndGet();
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+        assertEquals(50, granted.get());
+    }
+
+    @Test
+    void testRejectsNonsenseLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(-3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,113 @@
+package lobby;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LobbyRouter's routing, without sockets: a player's address always picks the same
+ * node, addresses spread over the nodes, and a node going down or draining moves only its own
+ * addresses. Lives in the lobby package because the router's routing methods are package-private.
+ */
+public class LobbyRouterTest {
+
+    private static final int ADDRESSES = 4_000;
+
+    private static LobbyRouter router(String... nodes) {
+        LobbyRouter.Options options = new LobbyRouter.Options();
+        for (int i = 0; i < nodes.length; i++) {
+            options.backends.put(nodes[i], "localhost:" + (5601 + i));
+        }
+        LobbyRouter router = new LobbyRouter(options);
+        router.reloadMembership();
+        return router;
+    }
+
+    private static InetAddress address(int i) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[] {10, (byte) (i >> 16), (byte) (i >> 8), (byte) i});
+    }
+
+    private static Map<Integer, String> assignments(LobbyRouter router) throws UnknownHostException {
+        Map<Integer, String> nodes = new HashMap<>();
+        for (int i = 0; i < ADDRESSES; i++) {
+            Backend b = router.pickFor(address(i));
+            nodes.put(i, b == null ? null : b.id);
+        }
+        return nodes;
+    }
+
+    @Test
+    void testSameAddressAlwaysPicksTheSameNode() throws UnknownHostException {
+        LobbyRouter router = router("n1", "n2", "n3");
+        InetAddress player = InetAddress.getByName("192.168.1.20");
+        Backend first = router.pickFor(player);
+        assertNotNull(first);
+        for (int reconnect = 0; reconnect < 50; reconnect++) {
+            // a reconnect arrives with a new source port and a new connection number; neither counts
+            assertSame(first, router.pickFor(InetAddress.getByAddress(player.getAddress())));
+        }
+        assertEquals("192.168.1.20", LobbyRouter.routingKey(player));
+        assertSame(router.pick("192.168.1.20"), first, "the key is the bare address");
+    }
+
+    @Test
+    void testAddressesSpreadOverTheNodes() throws UnknownHostException {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String node : assignments(router("n1", "n2", "n3", "n4")).values()) {
+            counts.merge(node, 1, Integer::sum);
+        }
+        assertEquals(4, counts.size(), "every node takes players: " + counts);
+        for (int c : counts.values()) {
+            assertTrue(c > ADDRESSES / 4 * 0.75 && c < ADDRESSES / 4 * 1.25, "uneven share: " + counts);
+        }
+    }
+
+    @Test
+    void testDownNodeOnlyMovesItsOwnAddresses() throws UnknownHostException {
+        LobbyRouter router = router("n1", "n2", "n3");
+        Map<Integer, String> before = assignments(router);
+
+        router.connectFailed(router.pick(LobbyRouter.routingKey(address(0))), new IOException("refused"));
+        String down = before.get(0);
+        Map<Integer, String> after = assignments(router);
+        for (int i = 0; i < ADDRESSES; i++) {
+            if (before.get(i).equals(down)) {
+                assertNotEquals(down, after.get(i), "an address stayed on the down node");
+            } else {
+                assertEquals(before.get(i), after.get(i), "an address on a healthy node moved");
+            }
+        }
+    }
+
+    @Test
+    void testDrainingNodeTakesNoNewPlayersAndRejoinsWhereItWas() throws UnknownHostException {
+        LobbyRouter.Options options = new LobbyRouter.Options();
+        options.backends.put("n1", "localhost:5601");
+        options.backends.put("n2", "localhost:5602");
+        LobbyRouter router = new LobbyRouter(options);
+        router.reloadMembership();
+        Map<Integer, String> before = assignments(router);
+
+        options.backends.remove("n2");
+        router.reloadMembership();
+        for (String node : assignments(router).values()) assertEquals("n1", node);
+
+        options.backends.put("n2", "localhost:5602");
+        router.reloadMembership();
+        assertEquals(before, assignments(router), "a node back in the file gets its addresses back");
+    }
+
+    @Test
+    void testNoNodeUpPicksNothing() throws UnknownHostException {
+        LobbyRouter router = router("n1");
+        router.connectFailed(router.pickFor(address(1)), new IOException("refused"));
+        assertNull(router.pickFor(address(1)));
+        assertNull(router.pickFor(null));
+    }
+}
@@ -0,0 +1,192 @@
+package rrosa10Server;
+
+import model.Message;
+import model.Player;
+import model.PokerEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SessionCache and Session, on a fake clock: tokens, TTL expiry, the parked-session cap,
+ * and a resume that takes a session over from a connection the server has not yet seen die.
+ * Lives in the server package because both classes are package-private.
+ */
+public class SessionCacheTest {
+
+    private static final long TTL_MILLIS = 30_000;
+
+    /** Stands in for a ClientThread. */
+    private static final class FakeOwner implements Session.Owner {
+        boolean closed;
+
+        @Override
+        public long send(Message message) {
+            return 1;
+        }
+
+        @Override
+        public void closeConnection() {
+            closed = true;
+        }
+    }
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Session> ended = new ArrayList<>();
+
+    private SessionCache cache(int maxParked, String nodeId) {
+        return new SessionCache(TTL_MILLIS, maxParked, nodeId, ended::add, now::get);
+    }
+
+    private static Session open(SessionCache cache, int id, Session.Owner owner) {
+        Player player = new Player(id, "Player-" + id);
+        return cache.open(cache.newToken(), player, new PokerEngine(player, 500), owner);
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void testTokensAreUniqueAndOnlyOpenedOnesResume() {
+        SessionCache cache = cache(10, "n2");
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String token = cache.newToken();
+            assertTrue(token.startsWith("n2."), token);
+            assertTrue(tokens.add(token), "token issued twice");
+        }
+        assertEquals(0, cache.size(), "issuing a token builds no session");
+
+        String unopened = cache.newToken();
+        assertNull(cache.resume(unopened, new FakeOwner()), "a WELCOME token with no session behind it");
+        assertNull(cache.resume(null, new FakeOwner()));
+        assertNull(cache.resume("n2.not-a-token", new FakeOwner()));
+
+        FakeOwner first = new FakeOwner();
+        Session session = open(cache, 1, first);
+        cache.park(session, first);
+        assertSame(session, cache.resume(session.getToken(), new FakeOwner()));
+        assertNull(cache.resume(session.getToken() + "x", new FakeOwner()), "tokens must match exactly");
+    }
+
+    @Test
+    void testParkedSessionExpiresAfterItsTtl() {
+        SessionCache cache = cache(10, "");
+        FakeOwner owner = new FakeOwner();
+        Session session = open(cache, 1, owner);
+
+        // an attached session never expires, however long it lives
+        advanceMillis(10 * TTL_MILLIS);
+        assertEquals(0, cache.evictExpired());
+
+        cache.park(session, owner);
+        assertTrue(session.isParked());
+        assertEquals(1, cache.parkedCount());
+        advanceMillis(TTL_MILLIS - 1);
+        assertEquals(0, cache.evictExpired());
+        advanceMillis(1);
+        assertEquals(1, cache.evictExpired());
+        assertEquals(List.of(session), ended);
+        assertEquals(0, cache.size());
+        assertNull(cache.resume(session.getToken(), new FakeOwner()), "an expired token is gone for good");
+    }
+
+    @Test
+    void testResumeRestartsTheClock() {
+        SessionCache cache = cache(10, "");
+        FakeOwner first = new FakeOwner();
+        Session session = open(cache, 1, first);
+        cache.park(session, first);
+
+        advanceMillis(TTL_MILLIS - 1000);
+        FakeOwner second = new FakeOwner();
+        assertSame(session, cache.resume(session.getToken(), second));
+        assertEquals(0, cache.parkedCount());
+
+        // the queue still holds the first parking; it must not evict the resumed session
+        advanceMillis(5000);
+        assertEquals(0, cache.evictExpired());
+        cache.park(session, second);
+        advanceMillis(TTL_MILLIS - 1);
+        assertEquals(0, cache.evictExpired());
+        assertSame(session, cache.resume(session.getToken(), new FakeOwner()));
+        assertTrue(ended.isEmpty());
+    }
+
+    @Test
+    void testParkedCapEvictsOldestFirst() {
+        SessionCache cache = cache(2, "");
+        List<Session> parked = new ArrayList<>();
+        for (int id = 1; id <= 4; id++) {
+            FakeOwner owner = new FakeOwner();
+            Session s = open(cache, id, owner);
+            cache.park(s, owner);
+            parked.add(s);
+            advanceMillis(1);
+        }
+        assertEquals(2, cache.parkedCount());
+        assertEquals(List.of(parked.get(0), parked.get(1)), ended);
+        assertNull(cache.resume(parked.get(0).getToken(), new FakeOwner()));
+        assertSame(parked.get(3), cache.resume(parked.get(3).getToken(), new FakeOwner()));
+
+        // attached sessions do not count against the cap
+        for (int id = 10; id < 20; id++) open(cache, id, new FakeOwner());
+        assertEquals(1, cache.parkedCount());
+        assertEquals(2, ended.size());
+    }
+
+    @Test
+    void testResumeTakesOverFromAStaleConnection() {
+        SessionCache cache = cache(10, "");
+        ClientRegistry<Session.Owner> clients = new ClientRegistry<>();
+        FakeOwner stale = new FakeOwner();
+        Session session = open(cache, 7, stale);
+        clients.register(7, stale);
+
+        // the player reconnects before the server notices the old socket died
+        FakeOwner fresh = new FakeOwner();
+        clients.register(42, fresh);
+        assertSame(session, cache.resume(session.getToken(), fresh));
+        assertTrue(stale.closed, "the stale connection is closed so it cannot act on the session");
+        assertSame(fresh, session.getOwner());
+        clients.unregister(42, fresh);
+        assertSame(stale, clients.register(7, fresh));
+
+        // the stale connection's cleanup then runs: it must neither park the session nor unregister the player
+        cache.park(session, stale);
+        assertFalse(clients.unregister(7, stale));
+        assertFalse(session.isParked());
+        assertEquals(0, cache.parkedCount());
+        assertSame(fresh, clients.get(7));
+        assertNull(clients.get(42));
+
+        // had the cleanup run before the re-register, the fresh connection would still end up registered
+        ClientRegistry<Session.Owner> other = new ClientRegistry<>();
+        other.register(7, stale);
+        assertTrue(other.unregister(7, stale));
+        assertNull(other.register(7, fresh));
+        assertSame(fresh, other.get(7));
+
+        // only the current owner can park the session
+        cache.park(session, fresh);
+        assertTrue(session.isParked());
+    }
+
+    @Test
+    void testDiscardEndsTheSessionOnce() {
+        SessionCache cache = cache(10, "");
+        Session session = open(cache, 3, new FakeOwner());
+        cache.discard(session);
+        cache.discard(session);
+        assertEquals(List.of(session), ended);
+        assertNull(cache.resume(session.getToken(), new FakeOwner()));
+    }
+}
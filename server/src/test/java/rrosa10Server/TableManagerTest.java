@@ -0,0 +1,83 @@
+package rrosa10Server;
+
+import model.Message;
+import model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TableManager: tables fill before new ones open, a freed seat is reused, and a
+ * table closes with its last player.
+ */
+public class TableManagerTest {
+
+    private static final Table.Host QUIET_HOST = new Table.Host() {
+        @Override public void send(Session session, Message message) {}
+        @Override public void chips(Session session, int delta) {}
+        @Override public void publish(ServerEvent event) {}
+        @Override public HashedTimerWheel.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            return new HashedTimerWheel.Timeout() {
+                @Override public boolean cancel() { return true; }
+                @Override public boolean isCancelled() { return false; }
+                @Override public boolean isExpired() { return false; }
+            };
+        }
+    };
+
+    private static Session session(int id) {
+        return new Session("token-" + id, new Player(id, "Player-" + id), null);
+    }
+
+    @Test
+    void testTablesFillBeforeNewOnesOpen() {
+        try (ActorSystem system = new ActorSystem("test-tables", 1)) {
+            TableManager tables = new TableManager(system, 16, 3, 10, 30, QUIET_HOST);
+            List<Session> players = new ArrayList<>();
+            for (int id = 1; id <= 7; id++) {
+                Session s = session(id);
+                players.add(s);
+                assertSame(tables.seat(s), s.getTable());
+            }
+            assertEquals(3, tables.tableCount());
+            Table first = players.get(0).getTable();
+            assertSame(first, players.get(2).getTable());
+            assertNotSame(first, players.get(3).getTable());
+            assertEquals(1, players.get(0).getTable().getId());
+            assertEquals(3, players.get(6).getTable().getId());
+
+            // a seat freed at the first table is taken before the half-empty last table
+            tables.leave(players.get(1));
+            assertNull(players.get(1).getTable());
+            assertSame(first, tables.seat(session(8)));
+            assertEquals(3, tables.tableCount());
+        }
+    }
+
+    @Test
+    void testTableClosesWithItsLastPlayer() {
+        try (ActorSystem system = new ActorSystem("test-tables", 1)) {
+            TableManager tables = new TableManager(system, 16, 2, 10, 30, QUIET_HOST);
+            Session a = session(1);
+            Session b = session(2);
+            Table table = tables.seat(a);
+            tables.seat(b);
+
+            tables.leave(a);
+            assertEquals(1, tables.tableCount());
+            tables.leave(b);
+            assertEquals(0, tables.tableCount());
+
+            // leaving twice, or without a seat, changes nothing
+            tables.leave(b);
+            tables.leave(session(3));
+            assertEquals(0, tables.tableCount());
+
+            assertNotSame(table, tables.seat(session(4)), "a closed table is never handed out again");
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package rrosa10Server;
+
+import model.Card;
+import model.Message;
+import model.Player;
+import model.PokerEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Table: a round from bets to settlement, players joining and leaving mid-round
+ * (including the last dealt player), the round deadline, bet checks and a flooded mailbox.
+ * Timers only fire when a test fires them, and every check waits for the table's mailbox to drain.
+ */
+public class TableTest {
+
+    private static final int CHIPS = 500;
+
+    /** Records what the table asks of the server; timers fire on request. */
+    private static final class FakeHost implements Table.Host {
+        final List<Object[]> sent = new CopyOnWriteArrayList<>();
+        final List<ServerEvent> events = new CopyOnWriteArrayList<>();
+        final List<FakeTimeout> timers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Session session, Message message) {
+            sent.add(new Object[] {session, message});
+        }
+
+        @Override
+        public void chips(Session session, int delta) {
+            session.getPlayer().adjustChips(delta);
+        }
+
+        @Override
+        public void publish(ServerEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public HashedTimerWheel.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            FakeTimeout t = new FakeTimeout(task);
+            timers.add(t);
+            return t;
+        }
+
+        /** Messages sent to one session, in order. */
+        List<Message> to(Session session) {
+            List<Message> messages = new ArrayList<>();
+            for (Object[] d : sent) {
+                if (d[0] == session) messages.add((Message) d[1]);
+            }
+            return messages;
+        }
+
+        <T extends Message> T last(Session session, Class<T> type) {
+            List<Message> messages = to(session);
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                if (type.isInstance(messages.get(i))) return type.cast(messages.get(i));
+            }
+            return null;
+        }
+
+        List<ServerEvent.TableRound> rounds() {
+            List<ServerEvent.TableRound> rounds = new ArrayList<>();
+            for (ServerEvent e : events) {
+                if (e instanceof ServerEvent.TableRound r) rounds.add(r);
+            }
+            return rounds;
+        }
+
+        /** Fire every timer that is still pending (the table ignores stale ones itself). */
+        void fireTimers() {
+            for (FakeTimeout t : timers) t.fire();
+        }
+
+        boolean anyTimerPending() {
+            for (FakeTimeout t : timers) {
+                if (!t.isCancelled() && !t.isExpired()) return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class FakeTimeout implements HashedTimerWheel.Timeout {
+        private final Runnable task;
+        private boolean cancelled;
+        private boolean expired;
+
+        FakeTimeout(Runnable task) {
+            this.task = task;
+        }
+
+        synchronized void fire() {
+            if (cancelled || expired) return;
+            expired = true;
+            task.run();
+        }
+
+        @Override public synchronized boolean cancel() {
+            if (cancelled || expired) return false;
+            cancelled = true;
+            return true;
+        }
+
+        @Override public synchronized boolean isCancelled() { return cancelled; }
+        @Override public synchronized boolean isExpired() { return expired; }
+    }
+
+    private final ActorSystem system = new ActorSystem("test-table", 2);
+    private final FakeHost host = new FakeHost();
+    private final Table table = new Table(system, 64, 1, 4, 10, 30, host);
+
+    @AfterEach
+    void stop() {
+        system.close();
+    }
+
+    /** A connected player with CHIPS chips, seated at the table. */
+    private Session seat(int id) throws InterruptedException {
+        Player player = new Player(id, "Player-" + id);
+        Session session = new Session("token-" + id, player, new PokerEngine(player, CHIPS));
+        session.attach(new Session.Owner() {
+            @Override public long send(Message message) { return 0; }
+            @Override public void closeConnection() {}
+        });
+        table.seat(session);
+        drain();
+        return session;
+    }
+
+    /** Wait until every message queued so far has run. */
+    private void drain() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        table.tell(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS), "table stuck");
+    }
+
+    private void bet(Session session, int ante, int pairPlus) throws InterruptedException {
+        assertTrue(table.onStart(session, ante, pairPlus));
+        drain();
+    }
+
+    private void decide(Session session, boolean play) throws InterruptedException {
+        assertTrue(table.onDecision(session, play));
+        drain();
+    }
+
+    @Test
+    void testRoundFromBetsToSettlement() throws InterruptedException {
+        Session a = seat(1);
+        Session b = seat(2);
+
+        bet(a, 10, 5);
+        assertNull(host.last(a, Message.Deal.class), "betting stays open until every connected seat has bet");
+        bet(b, 20, 0);
+        Message.Deal dealA = host.last(a, Message.Deal.class);
+        Message.Deal dealB = host.last(b, Message.Deal.class);
+        assertNotNull(dealA);
+        assertNotNull(dealB);
+        assertEquals(CHIPS - 15, a.getPlayer().getChips(), "the stake is taken at the deal");
+        assertEquals(CHIPS - 20, b.getPlayer().getChips());
+
+        decide(a, true);
+        assertTrue(host.rounds().isEmpty(), "the round waits for every dealt seat");
+        decide(b, false);
+
+        Message.Result resultA = host.last(a, Message.Result.class);
+        Message.Result resultB = host.last(b, Message.Result.class);
+        assertEquals(resultA.dealerHand(), resultB.dealerHand(), "one dealer hand for the whole table");
+        Set<String> cards = new HashSet<>();
+        for (List<Card> hand : List.of(dealA.hand(), dealB.hand(), resultA.dealerHand())) {
+            for (Card c : hand) assertTrue(cards.add(c.toString()), "card dealt twice: " + c);
+        }
+        assertEquals(0, resultB.antePayout() + resultB.pairPlusPayout(), "a fold pays nothing");
+        assertEquals(CHIPS - 15 + resultA.antePayout() + resultA.pairPlusPayout(), a.getPlayer().getChips());
+
+        List<ServerEvent.TableRound> rounds = host.rounds();
+        assertEquals(1, rounds.size());
+        assertEquals(2, rounds.get(0).players());
+        assertEquals(1, rounds.get(0).played());
+        assertFalse(host.anyTimerPending(), "a settled round leaves no timer behind");
+    }
+
+    @Test
+    void testPlayerJoiningMidRoundWaitsForTheNext() throws InterruptedException {
+        Session a = seat(1);
+        bet(a, 10, 0);
+        assertNotNull(host.last(a, Message.Deal.class), "a lone bettor is dealt at once");
+
+        Session c = seat(3);
+        bet(c, 10, 0);
+        assertNull(host.last(c, Message.Deal.class));
+        assertTrue(host.last(c, Message.Chat.class).text().contains("next one"));
+
+        decide(a, false);
+        assertEquals(1, host.rounds().size());
+        assertNull(host.last(c, Message.Deal.class), "the held bet opens betting; a has not bet yet");
+
+        // the betting window closes without a
+        host.fireTimers();
+        drain();
+        assertNotNull(host.last(c, Message.Deal.class));
+        assertEquals(1, host.to(a).stream().filter(m -> m instanceof Message.Deal).count());
+    }
+
+    @Test
+    void testLeavingMidRound() throws InterruptedException {
+        Session a = seat(1);
+        Session b = seat(2);
+        bet(a, 10, 0);
+        bet(b, 10, 0);
+
+        table.leave(b);
+        drain();
+        assertTrue(host.rounds().isEmpty(), "a still has to act");
+        decide(a, true);
+        assertEquals(1, host.rounds().get(0).players(), "b's seat is gone");
+        assertNull(host.last(b, Message.Result.class));
+        assertEquals(CHIPS - 10, b.getPlayer().getChips(), "b forfeits the stake in play");
+    }
+
+    @Test
+    void testLastDealtPlayerLeavingClosesTheRoundWithoutSettling() throws InterruptedException {
+        Session a = seat(1);
+        bet(a, 10, 0);
+        Session c = seat(3);
+        bet(c, 10, 0); // held for the next round
+
+        table.leave(a);
+        drain();
+        assertTrue(host.rounds().isEmpty(), "nobody left to pay, so no dealer hand and no summary");
+        assertNull(host.last(a, Message.Result.class));
+
+        // the held bet opens the next round, and c is now the only connected seat
+        Message.Deal deal = host.last(c, Message.Deal.class);
+        assertNotNull(deal);
+        decide(c, false);
+        assertEquals(1, host.rounds().size());
+        assertEquals(1, host.rounds().get(0).players());
+    }
+
+    @Test
+    void testRoundDeadlineForfeitsSilentSeats() throws InterruptedException {
+        Session a = seat(1);
+        Session b = seat(2);
+        bet(a, 10, 0);
+        bet(b, 10, 0);
+        decide(a, true);
+
+        host.fireTimers();
+        drain();
+        assertEquals("Hand timed out", host.last(b, Message.Result.class).note());
+        assertNull(host.last(a, Message.Result.class).note());
+        assertEquals(CHIPS - 10, b.getPlayer().getChips());
+        assertEquals(1, host.rounds().size());
+
+        // a stale deadline firing again changes nothing
+        host.fireTimers();
+        drain();
+        assertEquals(1, host.rounds().size());
+    }
+
+    @Test
+    void testBetsAreChecked() throws InterruptedException {
+        Session a = seat(1);
+        bet(a, -1, 0);
+        assertEquals("A hand needs bets of 0 or more.", host.last(a, Message.Chat.class).text());
+        bet(a, CHIPS, 1);
+        assertEquals("Not enough chips for that bet.", host.last(a, Message.Chat.class).text());
+        assertNull(host.last(a, Message.Deal.class));
+
+        bet(a, 10, 0);
+        bet(a, 10, 0);
+        assertEquals("Finish the current hand before starting another.", host.last(a, Message.Chat.class).text());
+        assertEquals(CHIPS - 10, a.getPlayer().getChips());
+    }
+
+    @Test
+    void testFloodedMailboxRefusesPlayerRequests() throws InterruptedException {
+        try (ActorSystem one = new ActorSystem("test-table-one", 1)) {
+            Table small = new Table(one, 2, 2, 4, 10, 30, host);
+            Player player = new Player(1, "Player-1");
+            Session a = new Session("token-1", player, new PokerEngine(player, CHIPS));
+
+            // hold the table's only worker so its mailbox fills up
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            small.tell(() -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            assertTrue(small.onStart(a, 10, 0));
+            assertTrue(small.onDecision(a, true));
+            assertFalse(small.onStart(a, 10, 0), "a full mailbox refuses the request");
+            assertFalse(small.onDecision(a, false));
+            small.leave(a); // seating changes are always taken
+            assertEquals(3, small.mailboxSize());
+
+            release.countDown();
+            CountDownLatch done = new CountDownLatch(1);
+            small.tell(done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(0, small.mailboxSize());
+        }
+    }
+}